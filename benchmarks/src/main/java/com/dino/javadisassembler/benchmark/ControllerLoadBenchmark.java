@@ -0,0 +1,97 @@
+package com.dino.javadisassembler.benchmark;
+
+import com.dino.javadisassembler.controller.DisassemblyController;
+import com.dino.javadisassembler.model.CompilationRequest;
+import com.dino.javadisassembler.model.CompilationResponse;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many clients calling the bytecode endpoint of {@link DisassemblyController} at once, without
+ * HTTP in between, to see how throughput and rejections behave once the scheduler's bytecode
+ * lane is saturated. Each thread is a client of its own. The counters report answered, rejected
+ * (429) and failed requests per second next to the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ControllerLoadBenchmark {
+
+    /** With the cache on, every request after the first is a hit */
+    @Param({"false", "true"})
+    public boolean cache;
+
+    @Param({"SMALL", "MEDIUM"})
+    public Sources.Size size;
+
+    private Pipeline pipeline;
+    private DisassemblyController controller;
+    private String source;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pipeline = new Pipeline(cache);
+        controller = new DisassemblyController(pipeline.service(), pipeline.metrics());
+        source = Sources.generate(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Client {
+
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        public long answered;
+        public long rejected;
+        public long failed;
+        MockHttpServletRequest httpRequest;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            httpRequest = new MockHttpServletRequest();
+            httpRequest.setRemoteAddr("10.0.0." + NEXT.incrementAndGet());
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<CompilationResponse> getBytecode(Client client) {
+        ResponseEntity<CompilationResponse> response = controller.getBytecode(
+                new CompilationRequest(source, Sources.CLASS_NAME), client.httpRequest).join();
+        if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            client.rejected++;
+        } else if (response.getBody() != null && response.getBody().isSuccess()) {
+            client.answered++;
+        } else {
+            client.failed++;
+        }
+        return response;
+    }
+}
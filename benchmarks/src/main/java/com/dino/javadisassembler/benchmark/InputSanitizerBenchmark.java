@@ -0,0 +1,57 @@
+package com.dino.javadisassembler.benchmark;
+
+import com.dino.javadisassembler.util.InputSanitizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link InputSanitizer} on sources from 64 KB to 8 MB; run with {@code -prof gc}
+ * to see the bytes it allocates per call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputSanitizerBenchmark {
+
+    @Param({"65536", "1048576", "8388608"})
+    public int length;
+
+    private String source;
+    private String cleanSource;
+
+    @Setup
+    public void setUp() {
+        source = Sources.padded(length);
+        cleanSource = source.replace("\u0000", "");
+    }
+
+    @Benchmark
+    public String sanitizeSourceCode() {
+        return InputSanitizer.sanitizeSourceCode(source);
+    }
+
+    /** The common case: nothing to strip */
+    @Benchmark
+    public String sanitizeCleanSourceCode() {
+        return InputSanitizer.sanitizeSourceCode(cleanSource);
+    }
+
+    @Benchmark
+    public String sanitizeClassName() {
+        return InputSanitizer.sanitizeClassName("com.example.Outer$Inner");
+    }
+}
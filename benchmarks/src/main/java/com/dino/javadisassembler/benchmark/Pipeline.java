@@ -0,0 +1,89 @@
+package com.dino.javadisassembler.benchmark;
+
+import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.aot.NativeImageAotCompiler;
+import com.dino.javadisassembler.service.artifact.ArtifactStore;
+import com.dino.javadisassembler.service.batch.BatchDisassembler;
+import com.dino.javadisassembler.service.benchmark.JmhBenchmarkRunner;
+import com.dino.javadisassembler.service.bytecode.InProcessBytecodeDisassembler;
+import com.dino.javadisassembler.service.cache.DisassemblyCache;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.service.diff.CodegenDiff;
+import com.dino.javadisassembler.service.dispatch.JobDispatcher;
+import com.dino.javadisassembler.service.jit.JitProfiler;
+import com.dino.javadisassembler.service.jit.JitWorkerPool;
+import com.dino.javadisassembler.service.jit.TieredJitExplorer;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import com.dino.javadisassembler.service.session.CompilationSessions;
+import com.dino.javadisassembler.service.snapshot.SnapshotStore;
+import com.dino.javadisassembler.service.toolchain.Toolchain;
+import com.dino.javadisassembler.service.toolchain.ToolchainRegistry;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The service wired as the application wires it with its default settings, for benchmarks that
+ * run without a Spring context
+ */
+public final class Pipeline implements AutoCloseable {
+
+    private final WorkspaceManager workspaces;
+    private final JitWorkerPool jitRunner;
+    private final JobScheduler scheduler;
+    private final BatchDisassembler batchDisassembler;
+    private final DisassemblyMetrics metrics = new DisassemblyMetrics(new SimpleMeterRegistry());
+    private final JavaDisassemblyService service;
+
+    /**
+     * @param cache whether results and compiled classes are cached; benchmarks of the pipeline
+     *              itself turn it off, since they repeat the same source
+     */
+    public Pipeline(boolean cache) throws IOException {
+        workspaces = new WorkspaceManager(Path.of(System.getProperty("java.io.tmpdir")), 8, 256L * 1024 * 1024);
+        jitRunner = new JitWorkerPool(2, 16, 100, 80, Duration.ofSeconds(10));
+        scheduler = new JobScheduler(new JobScheduler.Limits(4, 64), new JobScheduler.Limits(2, 16),
+                new JobScheduler.Limits(1, 4), 4, Duration.ofSeconds(30));
+        batchDisassembler = new BatchDisassembler(Runtime.getRuntime().availableProcessors(), 200, 16L * 1024 * 1024);
+        InMemorySourceCompiler compiler = new InMemorySourceCompiler(4);
+        compiler.warmUp();
+        Toolchain toolchain = new Toolchain(ToolchainRegistry.DEFAULT_ID, Runtime.version().toString(),
+                compiler, new InProcessBytecodeDisassembler(), jitRunner);
+        service = new JavaDisassemblyService(new ToolchainRegistry(toolchain, List.of()),
+                cache ? new DisassemblyCache(1000, 64L * 1024 * 1024, null) : DisassemblyCache.disabled(),
+                cache ? new ArtifactStore(500, 64L * 1024 * 1024) : ArtifactStore.disabled(),
+                scheduler,
+                JobDispatcher.LOCAL,
+                new TieredJitExplorer(workspaces, Duration.ofSeconds(30), 20_000, 200_000),
+                new JitProfiler(workspaces, Duration.ofSeconds(30), Duration.ofMillis(10)),
+                new NativeImageAotCompiler(workspaces, "native-image", "objdump", Duration.ofMinutes(2), List.of("-Ob"),
+                        ResourcePolicy.defaults()),
+                batchDisassembler,
+                new JmhBenchmarkRunner(workspaces, List.of(), Duration.ofMinutes(3), 2, 20, Duration.ofMinutes(2),
+                        ResourcePolicy.defaults()),
+                new CompilationSessions(compiler, 16, 64L << 20, 16, Duration.ofMinutes(10), 20), new CodegenDiff(1000, 3),
+                SnapshotStore.disabled(), workspaces, metrics);
+    }
+
+    public JavaDisassemblyService service() {
+        return service;
+    }
+
+    public DisassemblyMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        jitRunner.close();
+        scheduler.close();
+        batchDisassembler.close();
+        workspaces.close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.dino.javadisassembler.benchmark;
+
+import com.dino.javadisassembler.service.JavaDisassemblyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getBytecode} and {@code getJitAssembly} end to end, from source text to listing, with the
+ * result cache off so every invocation compiles and disassembles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Sources.Size size;
+
+    private Pipeline pipeline;
+    private JavaDisassemblyService service;
+    private String source;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pipeline = new Pipeline(false);
+        service = pipeline.service();
+        source = Sources.generate(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public String getBytecode() throws Exception {
+        return service.getBytecode(source, Sources.CLASS_NAME);
+    }
+
+    /** Runs the class on a warm worker JVM, so each invocation takes a good part of a second */
+    @Benchmark
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    public String getJitAssembly() throws Exception {
+        return service.getJitAssembly(source, Sources.CLASS_NAME);
+    }
+}
@@ -0,0 +1,69 @@
+package com.dino.javadisassembler.benchmark;
+
+/**
+ * Generated inputs of the benchmarks: a class of {@code methods} small loop kernels and a
+ * {@code main} that calls each of them often enough to get them JIT-compiled
+ */
+public final class Sources {
+
+    public static final String CLASS_NAME = "Bench";
+
+    public enum Size {
+        SMALL(1),
+        MEDIUM(20),
+        LARGE(200);
+
+        private final int methods;
+
+        Size(int methods) {
+            this.methods = methods;
+        }
+
+        public int methods() {
+            return methods;
+        }
+    }
+
+    private Sources() {
+    }
+
+    public static String generate(Size size) {
+        StringBuilder source = new StringBuilder("public class ").append(CLASS_NAME).append(" {\n\n");
+        for (int i = 0; i < size.methods(); i++) {
+            source.append("    static int kernel").append(i).append("(int[] values) {\n")
+                    .append("        int sum = ").append(i).append(";\n")
+                    .append("        for (int i = 0; i < values.length; i++) {\n")
+                    .append("            sum += values[i] * ").append(i % 7 + 1).append(" ^ (i >>> ").append(i % 5).append(");\n")
+                    .append("        }\n")
+                    .append("        return sum;\n")
+                    .append("    }\n\n");
+        }
+        source.append("    public static void main(String[] args) {\n")
+                .append("        int[] values = new int[64];\n")
+                .append("        long total = 0;\n")
+                .append("        for (int round = 0; round < 10_000; round++) {\n")
+                .append("            values[round & 63] = round;\n");
+        for (int i = 0; i < size.methods(); i++) {
+            source.append("            total += kernel").append(i).append("(values);\n");
+        }
+        source.append("        }\n")
+                .append("        System.out.println(total);\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    /** Source text of about {@code length} characters, with the odd NUL byte for the sanitizer to strip */
+    public static String padded(int length) {
+        String line = "    int field; // padding to make the source large enough\n";
+        StringBuilder source = new StringBuilder(length + line.length());
+        int lines = 0;
+        while (source.length() < length) {
+            source.append(line);
+            if (++lines % 1000 == 0) {
+                source.append('\u0000');
+            }
+        }
+        return source.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.dino.javadisassembler.benchmark;
+
+import com.dino.javadisassembler.service.bytecode.InProcessBytecodeDisassembler;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.service.jit.JitWorkerPool;
+import com.dino.javadisassembler.service.session.CompilationSession;
+import com.dino.javadisassembler.service.session.CompilationSessions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stages of the pipeline on their own: compiling, disassembling already compiled classes,
+ * running them on a JIT worker, and an edit in a live-editing session, so a change to one stage
+ * can be measured without the noise of the others
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StageBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Sources.Size size;
+
+    private final InMemorySourceCompiler compiler = new InMemorySourceCompiler(4);
+    private final InProcessBytecodeDisassembler disassembler = new InProcessBytecodeDisassembler();
+    private JitWorkerPool jitRunner;
+    private String source;
+    private CompiledClasses classes;
+    private CompilationSessions sessions;
+    private String sessionId;
+    private String[] edits;
+    private int edit;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jitRunner = new JitWorkerPool(1, 4, 100, 80, Duration.ofSeconds(10));
+        source = Sources.generate(size);
+        classes = compiler.compile(source, Sources.CLASS_NAME);
+        sessions = new CompilationSessions(compiler, 1, 1 << 20, 1, Duration.ofHours(1), 1);
+        sessionId = sessions.create("benchmark");
+        // Alternates between two versions, so every edit recompiles
+        edits = new String[]{source, source.substring(0, source.lastIndexOf('}')) + "    int edited() { return 1; }\n}\n"};
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jitRunner.close();
+    }
+
+    @Benchmark
+    public CompiledClasses compile() throws Exception {
+        return compiler.compile(source, Sources.CLASS_NAME);
+    }
+
+    @Benchmark
+    public String disassemble() throws Exception {
+        return disassembler.disassemble(classes, Sources.CLASS_NAME);
+    }
+
+    @Benchmark
+    public CompilationSession.Result sessionEdit() throws Exception {
+        edit = (edit + 1) % edits.length;
+        return sessions.update(sessionId, edits[edit], Sources.CLASS_NAME);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    public String jitRun() throws Exception {
+        return jitRunner.run(classes, Sources.CLASS_NAME);
+    }
+}
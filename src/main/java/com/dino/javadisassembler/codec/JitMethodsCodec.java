@@ -0,0 +1,337 @@
+package com.dino.javadisassembler.codec;
+
+import com.dino.javadisassembler.model.JitMethodsResponse;
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary form of {@link JitMethodsResponse}, a fraction of the size of its JSON and written in one
+ * pass straight to the response stream.
+ * <p>
+ * Numbers are unsigned LEB128 varints, signed ones zigzag encoded first. Strings are a varint of
+ * their UTF-8 length plus one, 0 for {@code null}, followed by the bytes. Symbols, the strings that
+ * repeat (mnemonics with their padding, sections, method and compiler names), are interned: a
+ * varint of 0 for {@code null}, 1 followed by a string for a symbol not seen before, which takes
+ * the next index, or the index plus 2 of one seen before. Addresses are hexadecimal numbers
+ * encoded as the difference to the previous address of the same kind, with their digit count
+ * repeated only when it changes; they are read back in lower case.
+ * <pre>
+ * response    = magic "JDM" version(1) flags(byte: 1 success, 2 hsdisMissing) string(errorMessage)
+ *               varint(methods) method*
+ * method      = symbol(method) varint(compileId) symbol(compiler) varint(tier) varint(osrBci + 1, 0 if none)
+ *               varint(bytecodeSize) varint(codeSize) byte(disassembled)
+ *               varint(instructions) instruction* varint(bciMappings) bciMapping*
+ * instruction = varint(flags: 1 address width follows, 2 section follows) [varint(width)] zigzag(address delta)
+ *               [symbol(section)] symbol(mnemonic) string(operands) string(comment)
+ * bciMapping  = varint(flags: 1 address width follows) [varint(width)] zigzag(address delta)
+ *               symbol(method) zigzag(bci) varint(line + 1, 0 if none)
+ * </pre>
+ */
+public final class JitMethodsCodec {
+
+    public static final String MEDIA_TYPE = "application/x-jit-methods";
+
+    private static final byte[] MAGIC = {'J', 'D', 'M', 1};
+    private static final int SUCCESS = 1;
+    private static final int HSDIS_MISSING = 2;
+    private static final int WIDTH_FOLLOWS = 1;
+    private static final int SECTION_FOLLOWS = 2;
+
+    private JitMethodsCodec() {
+    }
+
+    public static void write(JitMethodsResponse response, OutputStream out) throws IOException {
+        new Encoder(out).response(response);
+    }
+
+    public static JitMethodsResponse read(InputStream in) throws IOException {
+        return new Decoder(in).response();
+    }
+
+    private static final class Encoder {
+
+        private final OutputStream out;
+        private final Map<String, Integer> symbols = new HashMap<>();
+        private final Address instructionAddress = new Address();
+        private final Address mappingAddress = new Address();
+
+        Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        void response(JitMethodsResponse response) throws IOException {
+            out.write(MAGIC);
+            out.write((response.isSuccess() ? SUCCESS : 0) | (response.isHsdisMissing() ? HSDIS_MISSING : 0));
+            string(response.getErrorMessage());
+            List<CompiledMethod> methods = response.getMethods() == null ? List.of() : response.getMethods();
+            varint(methods.size());
+            for (CompiledMethod method : methods) {
+                method(method);
+            }
+        }
+
+        private void method(CompiledMethod method) throws IOException {
+            symbol(method.method());
+            varint(method.compileId());
+            symbol(method.compiler());
+            varint(method.tier());
+            varint(method.osr() && method.osrBci() != null ? method.osrBci() + 1L : 0);
+            varint(method.bytecodeSize());
+            varint(method.codeSize());
+            out.write(method.disassembled() ? 1 : 0);
+
+            varint(method.instructions().size());
+            String section = null;
+            for (CompiledMethod.Instruction instruction : method.instructions()) {
+                String hex = hex(instruction.address());
+                boolean sectionChanged = !Objects.equals(section, instruction.section());
+                int flags = (hex.length() != instructionAddress.width ? WIDTH_FOLLOWS : 0)
+                        | (sectionChanged ? SECTION_FOLLOWS : 0);
+                varint(flags);
+                address(instructionAddress, hex);
+                if (sectionChanged) {
+                    symbol(instruction.section());
+                    section = instruction.section();
+                }
+                String assembly = instruction.assembly();
+                int operands = operandsStart(assembly);
+                symbol(assembly.substring(0, operands));
+                string(assembly.substring(operands));
+                string(instruction.comment());
+            }
+
+            varint(method.bciMappings().size());
+            for (CompiledMethod.BciMapping mapping : method.bciMappings()) {
+                String hex = hex(mapping.address());
+                varint(hex.length() != mappingAddress.width ? WIDTH_FOLLOWS : 0);
+                address(mappingAddress, hex);
+                symbol(mapping.method());
+                varint(zigzag(mapping.bci()));
+                varint(mapping.line() == null ? 0 : mapping.line() + 1L);
+            }
+        }
+
+        /** Writes the width if it changed and the delta; the caller has written the flags */
+        private void address(Address previous, String hex) throws IOException {
+            if (hex.length() != previous.width) {
+                varint(hex.length());
+                previous.width = hex.length();
+            }
+            long value = hex.isEmpty() ? 0 : Long.parseUnsignedLong(hex, 16);
+            varint(zigzag(value - previous.value));
+            previous.value = value;
+        }
+
+        private void symbol(String value) throws IOException {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            Integer index = symbols.get(value);
+            if (index != null) {
+                varint(index + 2L);
+                return;
+            }
+            symbols.put(value, symbols.size());
+            varint(1);
+            string(value);
+        }
+
+        private void string(String value) throws IOException {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1L);
+            out.write(bytes);
+        }
+
+        private void varint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        private static String hex(String address) {
+            if (address == null || !address.startsWith("0x") || address.length() > 18) {
+                throw new IllegalArgumentException("Not a 64-bit code address: " + address);
+            }
+            return address.substring(2);
+        }
+
+        /** Start of the operands: the mnemonic keeps its padding, which hsdis aligns to a column */
+        private static int operandsStart(String assembly) {
+            int space = 0;
+            while (space < assembly.length() && !Character.isWhitespace(assembly.charAt(space))) {
+                space++;
+            }
+            while (space < assembly.length() && Character.isWhitespace(assembly.charAt(space))) {
+                space++;
+            }
+            return space;
+        }
+    }
+
+    private static final class Decoder {
+
+        private final InputStream in;
+        private final List<String> symbols = new ArrayList<>();
+        private final Address instructionAddress = new Address();
+        private final Address mappingAddress = new Address();
+
+        Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        JitMethodsResponse response() throws IOException {
+            for (byte expected : MAGIC) {
+                if (read() != (expected & 0xFF)) {
+                    throw new IOException("Not a JIT methods stream of version " + MAGIC[3]);
+                }
+            }
+            int flags = read();
+            String errorMessage = string();
+            int count = count();
+            List<CompiledMethod> methods = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                methods.add(method());
+            }
+            return new JitMethodsResponse((flags & SUCCESS) != 0, methods, (flags & HSDIS_MISSING) != 0, errorMessage);
+        }
+
+        private CompiledMethod method() throws IOException {
+            String name = symbol();
+            int compileId = (int) varint();
+            String compiler = symbol();
+            int tier = (int) varint();
+            long osrBci = varint();
+            int bytecodeSize = (int) varint();
+            int codeSize = (int) varint();
+            boolean disassembled = read() != 0;
+
+            int instructionCount = count();
+            List<CompiledMethod.Instruction> instructions = new ArrayList<>(Math.min(instructionCount, 4096));
+            String section = null;
+            for (int i = 0; i < instructionCount; i++) {
+                int flags = (int) varint();
+                String address = address(instructionAddress, flags);
+                if ((flags & SECTION_FOLLOWS) != 0) {
+                    section = symbol();
+                }
+                String assembly = symbol() + string();
+                instructions.add(new CompiledMethod.Instruction(address, section, assembly, string()));
+            }
+
+            int mappingCount = count();
+            List<CompiledMethod.BciMapping> mappings = new ArrayList<>(Math.min(mappingCount, 4096));
+            for (int i = 0; i < mappingCount; i++) {
+                String address = address(mappingAddress, (int) varint());
+                String method = symbol();
+                int bci = unzigzag(varint());
+                long line = varint();
+                mappings.add(new CompiledMethod.BciMapping(address, method, bci, line == 0 ? null : (int) (line - 1)));
+            }
+            return new CompiledMethod(name, compileId, compiler, tier, osrBci != 0, osrBci == 0 ? null : (int) (osrBci - 1),
+                    bytecodeSize, codeSize, disassembled, instructions, mappings);
+        }
+
+        private String address(Address previous, int flags) throws IOException {
+            if ((flags & WIDTH_FOLLOWS) != 0) {
+                previous.width = count();
+            }
+            previous.value += unzigzagLong(varint());
+            if (previous.width == 0) {
+                return "0x";
+            }
+            String hex = Long.toHexString(previous.value);
+            return "0x" + "0".repeat(Math.max(0, previous.width - hex.length())) + hex;
+        }
+
+        private String symbol() throws IOException {
+            long code = varint();
+            if (code == 0) {
+                return null;
+            }
+            if (code == 1) {
+                String value = string();
+                symbols.add(value);
+                return value;
+            }
+            if (code - 2 >= symbols.size()) {
+                throw new IOException("Unknown symbol " + (code - 2));
+            }
+            return symbols.get((int) (code - 2));
+        }
+
+        private String string() throws IOException {
+            int length = count();
+            if (length == 0) {
+                return null;
+            }
+            byte[] bytes = in.readNBytes(length - 1);
+            if (bytes.length != length - 1) {
+                throw new EOFException();
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int count() throws IOException {
+            long value = varint();
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("Length out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        private long varint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        private int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+    }
+
+    /** The last address written or read of one kind */
+    private static final class Address {
+        long value;
+        int width;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzagLong(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int unzigzag(long value) {
+        return (int) unzigzagLong(value);
+    }
+}
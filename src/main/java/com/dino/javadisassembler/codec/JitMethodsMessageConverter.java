@@ -0,0 +1,48 @@
+package com.dino.javadisassembler.codec;
+
+import com.dino.javadisassembler.model.JitMethodsResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes {@link JitMethodsResponse} in the binary form of {@link JitMethodsCodec} to clients that
+ * accept {@value JitMethodsCodec#MEDIA_TYPE}. The response is encoded straight into the servlet
+ * output stream, without building the body in memory first.
+ */
+public class JitMethodsMessageConverter extends AbstractHttpMessageConverter<JitMethodsResponse> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(JitMethodsCodec.MEDIA_TYPE);
+
+    public JitMethodsMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JitMethodsResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected JitMethodsResponse readInternal(Class<? extends JitMethodsResponse> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        try {
+            return JitMethodsCodec.read(inputMessage.getBody());
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Malformed JIT methods stream: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(JitMethodsResponse response, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputMessage.getBody(), 8192);
+        JitMethodsCodec.write(response, out);
+        out.flush();
+    }
+}
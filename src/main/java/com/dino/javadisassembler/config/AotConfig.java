@@ -0,0 +1,20 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.aot.NativeImageAotCompiler;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AotConfig {
+
+    @Bean
+    public NativeImageAotCompiler nativeImageAotCompiler(DisassemblerProperties properties, WorkspaceManager workspaces) {
+        DisassemblerProperties.Aot settings = properties.getAot();
+        ResourcePolicy buildPolicy = new ResourcePolicy(settings.getBuildMaxHeap().toBytes(), settings.getBuildProcessors(),
+                0, settings.getBuildCpuTimeLimit(), properties.getSandbox().getMaxOutput().toBytes());
+        return new NativeImageAotCompiler(workspaces, settings.getNativeImage(), settings.getObjdump(),
+                settings.getBuildTimeout(), settings.getBuildOptions(), buildPolicy);
+    }
+}
@@ -0,0 +1,17 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.batch.BatchDisassembler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchConfig {
+
+    @Bean
+    public BatchDisassembler batchDisassembler(DisassemblerProperties properties) {
+        DisassemblerProperties.Batch settings = properties.getBatch();
+        int parallelism = settings.getParallelism() > 0
+                ? settings.getParallelism() : Runtime.getRuntime().availableProcessors();
+        return new BatchDisassembler(parallelism, settings.getMaxFiles(), settings.getMaxArchiveSize().toBytes());
+    }
+}
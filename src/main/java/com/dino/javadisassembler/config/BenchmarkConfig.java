@@ -0,0 +1,58 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.benchmark.JmhBenchmarkRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Configuration
+public class BenchmarkConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkConfig.class);
+
+    @Bean
+    public JmhBenchmarkRunner jmhBenchmarkRunner(DisassemblerProperties properties, WorkspaceManager workspaces,
+                                                 ResourcePolicy policy) throws IOException {
+        DisassemblerProperties.Benchmark settings = properties.getBenchmark();
+        List<Path> classpath;
+        if (settings.getClasspath().isEmpty()) {
+            classpath = JmhBenchmarkRunner.bundledClasspath(Files.createTempDirectory("jmh-runtime"));
+            logger.info("Running benchmarks on the bundled JMH runtime: {}", classpath);
+        } else {
+            classpath = jars(settings.getClasspath());
+            logger.info("Running benchmarks on the JMH runtime {}", classpath);
+        }
+        return new JmhBenchmarkRunner(workspaces, classpath, settings.getTimeout(), settings.getMaxForks(),
+                settings.getMaxIterations(), settings.getMaxIterationsTime(), policy);
+    }
+
+    /** The class path entries, each directory standing for the jars in it */
+    private static List<Path> jars(List<String> entries) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        for (String entry : entries) {
+            Path path = Path.of(entry);
+            if (!Files.exists(path)) {
+                throw new IOException("Benchmark class path entry " + path.toAbsolutePath()
+                        + " does not exist; the build copies the JMH runtime to target/jmh-runtime");
+            }
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    jars.addAll(files.filter(file -> file.toString().endsWith(".jar")).sorted().toList());
+                }
+            } else {
+                jars.add(path);
+            }
+        }
+        return jars;
+    }
+}
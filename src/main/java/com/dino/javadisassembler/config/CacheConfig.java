@@ -0,0 +1,54 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.artifact.ArtifactStore;
+import com.dino.javadisassembler.service.cache.DisassemblyCache;
+import com.dino.javadisassembler.service.cache.DiskCacheTier;
+import com.dino.javadisassembler.service.snapshot.SnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class CacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    @Bean
+    public DisassemblyCache disassemblyCache(DisassemblerProperties properties) {
+        DisassemblerProperties.Cache settings = properties.getCache();
+        if (!settings.isEnabled()) {
+            logger.info("Result cache disabled");
+            return DisassemblyCache.disabled();
+        }
+        DiskCacheTier disk = null;
+        if (!settings.getDiskDirectory().isBlank()) {
+            disk = new DiskCacheTier(Path.of(settings.getDiskDirectory()), settings.getDiskMaxSize().toBytes());
+            logger.info("Result cache persisted to {}", settings.getDiskDirectory());
+        }
+        return new DisassemblyCache(settings.getMaxEntries(), settings.getMaxWeight().toBytes(), disk);
+    }
+
+    @Bean
+    public ArtifactStore artifactStore(DisassemblerProperties properties) {
+        DisassemblerProperties.Artifacts settings = properties.getArtifacts();
+        if (!settings.isEnabled()) {
+            logger.info("Artifact store disabled, every view compiles its source");
+            return ArtifactStore.disabled();
+        }
+        return new ArtifactStore(settings.getMaxEntries(), settings.getMaxSize().toBytes());
+    }
+
+    @Bean
+    public SnapshotStore snapshotStore(DisassemblerProperties properties) {
+        DisassemblerProperties.Snapshots settings = properties.getSnapshots();
+        if (!settings.isEnabled()) {
+            logger.info("Snapshots disabled");
+            return SnapshotStore.disabled();
+        }
+        logger.info("Snapshots stored in {}", settings.getDirectory());
+        return new SnapshotStore(Path.of(settings.getDirectory()), settings.getMaxSize().toBytes());
+    }
+}
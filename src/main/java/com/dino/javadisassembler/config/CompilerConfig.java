@@ -0,0 +1,51 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.bytecode.BytecodeDisassembler;
+import com.dino.javadisassembler.service.bytecode.InProcessBytecodeDisassembler;
+import com.dino.javadisassembler.service.bytecode.JavapBytecodeDisassembler;
+import com.dino.javadisassembler.service.compiler.ForkingSourceCompiler;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.service.compiler.SourceCompiler;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DisassemblerProperties.class)
+public class CompilerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilerConfig.class);
+
+    @Bean
+    public SourceCompiler sourceCompiler(DisassemblerProperties properties, WorkspaceManager workspaces,
+                                         ResourcePolicy policy) {
+        DisassemblerProperties.Compiler settings = properties.getCompiler();
+        if (settings.getMode() == DisassemblerProperties.Compiler.Mode.IN_PROCESS) {
+            if (InMemorySourceCompiler.isAvailable()) {
+                InMemorySourceCompiler compiler = new InMemorySourceCompiler(settings.getFileManagerPoolSize());
+                compiler.warmUp();
+                logger.info("Using in-process compiler");
+                return compiler;
+            }
+            logger.warn("No system Java compiler available, falling back to forked javac");
+        }
+        logger.info("Using forked javac compiler");
+        return new ForkingSourceCompiler(workspaces, "javac", settings.getTimeout(), policy);
+    }
+
+    @Bean
+    public BytecodeDisassembler bytecodeDisassembler(DisassemblerProperties properties, WorkspaceManager workspaces,
+                                                     ResourcePolicy policy) {
+        DisassemblerProperties.Bytecode settings = properties.getBytecode();
+        if (settings.getEngine() == DisassemblerProperties.Bytecode.Engine.JAVAP) {
+            logger.info("Using forked javap disassembler");
+            return new JavapBytecodeDisassembler(workspaces, "javap", settings.getTimeout(), policy);
+        }
+        logger.info("Using in-process bytecode disassembler");
+        return new InProcessBytecodeDisassembler();
+    }
+}
@@ -0,0 +1,15 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.diff.CodegenDiff;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DiffConfig {
+
+    @Bean
+    public CodegenDiff codegenDiff(DisassemblerProperties properties) {
+        DisassemblerProperties.Diff settings = properties.getDiff();
+        return new CodegenDiff(settings.getMaxEdits(), settings.getContext());
+    }
+}
@@ -0,0 +1,997 @@
+package com.dino.javadisassembler.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "disassembler")
+public class DisassemblerProperties {
+
+    private final Input input = new Input();
+    private final Compiler compiler = new Compiler();
+    private final Bytecode bytecode = new Bytecode();
+    private final Cache cache = new Cache();
+    private final Artifacts artifacts = new Artifacts();
+    private final Snapshots snapshots = new Snapshots();
+    private final Jit jit = new Jit();
+    private final Scheduler scheduler = new Scheduler();
+    private final Dispatch dispatch = new Dispatch();
+    private final Aot aot = new Aot();
+    private final Benchmark benchmark = new Benchmark();
+    private final Batch batch = new Batch();
+    private final Sessions sessions = new Sessions();
+    private final Diff diff = new Diff();
+    private final Workspace workspace = new Workspace();
+    private final Sandbox sandbox = new Sandbox();
+    /** JDKs besides the server's own that requests may select, see {@link Toolchain} */
+    private List<Toolchain> toolchains = new ArrayList<>();
+
+    public Input getInput() {
+        return input;
+    }
+
+    public Compiler getCompiler() {
+        return compiler;
+    }
+
+    public Bytecode getBytecode() {
+        return bytecode;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Artifacts getArtifacts() {
+        return artifacts;
+    }
+
+    public Snapshots getSnapshots() {
+        return snapshots;
+    }
+
+    public Jit getJit() {
+        return jit;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public Dispatch getDispatch() {
+        return dispatch;
+    }
+
+    public Aot getAot() {
+        return aot;
+    }
+
+    public Benchmark getBenchmark() {
+        return benchmark;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Sessions getSessions() {
+        return sessions;
+    }
+
+    public Diff getDiff() {
+        return diff;
+    }
+
+    public Workspace getWorkspace() {
+        return workspace;
+    }
+
+    public Sandbox getSandbox() {
+        return sandbox;
+    }
+
+    public List<Toolchain> getToolchains() {
+        return toolchains;
+    }
+
+    public void setToolchains(List<Toolchain> toolchains) {
+        this.toolchains = toolchains;
+    }
+
+    /** Request size limits, enforced before the body is read; 0 turns a limit off */
+    public static class Input {
+
+        /** Body of a single-source request, such as bytecode, JIT or diff */
+        private DataSize maxRequestSize = DataSize.ofMegabytes(2);
+        /** Body of a batch, which carries its JAR base64 encoded */
+        private DataSize maxBatchRequestSize = DataSize.ofMegabytes(32);
+
+        public DataSize getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(DataSize maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
+
+        public DataSize getMaxBatchRequestSize() {
+            return maxBatchRequestSize;
+        }
+
+        public void setMaxBatchRequestSize(DataSize maxBatchRequestSize) {
+            this.maxBatchRequestSize = maxBatchRequestSize;
+        }
+    }
+
+    public static class Compiler {
+
+        public enum Mode {
+            /** Compile with a warm javax.tools compiler, keeping sources and classes in memory */
+            IN_PROCESS,
+            /** Fork an external javac process per request */
+            FORK
+        }
+
+        private Mode mode = Mode.IN_PROCESS;
+        private int fileManagerPoolSize = 4;
+        /** Wall-clock limit of a forked javac */
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getFileManagerPoolSize() {
+            return fileManagerPoolSize;
+        }
+
+        public void setFileManagerPoolSize(int fileManagerPoolSize) {
+            this.fileManagerPoolSize = fileManagerPoolSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Bytecode {
+
+        public enum Engine {
+            /** Parse the class bytes in memory and render the listing in process */
+            NATIVE,
+            /** Write the classes to disk and fork javap */
+            JAVAP
+        }
+
+        private Engine engine = Engine.NATIVE;
+        /** Wall-clock limit of a forked javap */
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public Engine getEngine() {
+            return engine;
+        }
+
+        public void setEngine(Engine engine) {
+            this.engine = engine;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Cache {
+
+        private boolean enabled = true;
+        private int maxEntries = 1000;
+        /** Total size of the results kept in memory */
+        private DataSize maxWeight = DataSize.ofMegabytes(64);
+        /** Directory of the persistent tier; empty keeps the cache in memory only */
+        private String diskDirectory = "";
+        private DataSize diskMaxSize = DataSize.ofMegabytes(512);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxWeight() {
+            return maxWeight;
+        }
+
+        public void setMaxWeight(DataSize maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public DataSize getDiskMaxSize() {
+            return diskMaxSize;
+        }
+
+        public void setDiskMaxSize(DataSize diskMaxSize) {
+            this.diskMaxSize = diskMaxSize;
+        }
+    }
+
+    /** Compiled classes shared by the views of one source, see {@code ArtifactStore} */
+    public static class Artifacts {
+
+        private boolean enabled = true;
+        private int maxEntries = 500;
+        /** Total size of the sources and class files kept */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /** Stored snapshots behind the permalinks, see {@code SnapshotStore} */
+    public static class Snapshots {
+
+        private boolean enabled = true;
+        private String directory = "snapshots";
+        /** Total size of the snapshot files, plain and compressed */
+        private DataSize maxSize = DataSize.ofGigabytes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class Jit {
+
+        public enum Mode {
+            /** Run jobs on warm worker JVMs that already loaded hsdis */
+            POOL,
+            /** Fork a new JVM per request */
+            FORK
+        }
+
+        private Mode mode = Mode.POOL;
+        private int poolSize = 2;
+        /** Requests allowed to wait for a busy pool before new ones are rejected */
+        private int queueDepth = 16;
+        private int maxJobsPerWorker = 100;
+        /** Code cache usage at which a worker is replaced */
+        private int codeCacheRecyclePercent = 80;
+        private Duration jobTimeout = Duration.ofSeconds(10);
+        private Tiered tiered = new Tiered();
+        private Profile profile = new Profile();
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public void setQueueDepth(int queueDepth) {
+            this.queueDepth = queueDepth;
+        }
+
+        public int getMaxJobsPerWorker() {
+            return maxJobsPerWorker;
+        }
+
+        public void setMaxJobsPerWorker(int maxJobsPerWorker) {
+            this.maxJobsPerWorker = maxJobsPerWorker;
+        }
+
+        public int getCodeCacheRecyclePercent() {
+            return codeCacheRecyclePercent;
+        }
+
+        public void setCodeCacheRecyclePercent(int codeCacheRecyclePercent) {
+            this.codeCacheRecyclePercent = codeCacheRecyclePercent;
+        }
+
+        public Duration getJobTimeout() {
+            return jobTimeout;
+        }
+
+        public void setJobTimeout(Duration jobTimeout) {
+            this.jobTimeout = jobTimeout;
+        }
+
+        public Tiered getTiered() {
+            return tiered;
+        }
+
+        public void setTiered(Tiered tiered) {
+            this.tiered = tiered;
+        }
+
+        public Profile getProfile() {
+            return profile;
+        }
+
+        public void setProfile(Profile profile) {
+            this.profile = profile;
+        }
+
+        /** Tiered exploration runs, which warm up every method and so take longer than plain JIT jobs */
+        public static class Tiered {
+
+            private Duration timeout = Duration.ofSeconds(30);
+            /** Calls per method when the request does not say */
+            private int iterations = 20_000;
+            private int maxIterations = 200_000;
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            public int getIterations() {
+                return iterations;
+            }
+
+            public void setIterations(int iterations) {
+                this.iterations = iterations;
+            }
+
+            public int getMaxIterations() {
+                return maxIterations;
+            }
+
+            public void setMaxIterations(int maxIterations) {
+                this.maxIterations = maxIterations;
+            }
+        }
+
+        /** Profiling runs, which run main to its end in a JVM of their own with a flight recording */
+        public static class Profile {
+
+            private Duration timeout = Duration.ofSeconds(30);
+            /** Time between two execution samples of a thread */
+            private Duration samplePeriod = Duration.ofMillis(10);
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            public Duration getSamplePeriod() {
+                return samplePeriod;
+            }
+
+            public void setSamplePeriod(Duration samplePeriod) {
+                this.samplePeriod = samplePeriod;
+            }
+        }
+    }
+
+    public static class Scheduler {
+
+        private final Lane bytecode = new Lane(4, 64);
+        private final Lane jit = new Lane(2, 16);
+        /** Native image builds use every core they get, so by default one runs at a time */
+        private final Lane aot = new Lane(1, 4);
+        /** Jobs one client may have waiting per mode; the lanes serve waiting clients in turn */
+        private int maxQueuedPerClient = 4;
+        /** Longest a job waits for a slot before it is rejected */
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        public Lane getBytecode() {
+            return bytecode;
+        }
+
+        public Lane getJit() {
+            return jit;
+        }
+
+        public Lane getAot() {
+            return aot;
+        }
+
+        public int getMaxQueuedPerClient() {
+            return maxQueuedPerClient;
+        }
+
+        public void setMaxQueuedPerClient(int maxQueuedPerClient) {
+            this.maxQueuedPerClient = maxQueuedPerClient;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public static class Lane {
+
+            /** Jobs of this mode running at once */
+            private int concurrency;
+            /** Jobs of this mode waiting for a slot before new ones are rejected */
+            private int queueCapacity;
+
+            public Lane(int concurrency, int queueCapacity) {
+                this.concurrency = concurrency;
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getConcurrency() {
+                return concurrency;
+            }
+
+            public void setConcurrency(int concurrency) {
+                this.concurrency = concurrency;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+    }
+
+    /** Where bytecode and JIT jobs run, see {@code ConsistentHashDispatcher}; in this JVM by default */
+    public static class Dispatch {
+
+        public enum Transport {
+            /** Run jobs in this JVM as they are requested */
+            LOCAL,
+            /** Queue jobs for worker threads of this JVM */
+            IN_MEMORY,
+            /** Queue jobs for workers connecting to {@code bind-address} and {@code port} */
+            SOCKET
+        }
+
+        private Transport transport = Transport.LOCAL;
+        private String bindAddress = "127.0.0.1";
+        private int port = 7410;
+        /** Workers this node runs on its own queue; 0 for a front that only dispatches */
+        private int localWorkers = 1;
+        /** Jobs a worker runs at once; further jobs wait in the front's queue */
+        private int workerConcurrency = 8;
+        /** Jobs waiting for one worker before further ones are rejected */
+        private int queueCapacity = 64;
+        /** host:port of the front nodes whose jobs this node works on */
+        private List<String> fronts = new ArrayList<>();
+        /** Id of this node's workers, and so their place on the hash ring; empty for the host name */
+        private String workerId = "";
+        /** Points per worker on the hash ring; more share the sources out more evenly */
+        private int virtualNodes = 128;
+        /** Shared by fronts and workers; a worker is only registered if it proves it knows it */
+        private String secret = "";
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        public void setTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public String getBindAddress() {
+            return bindAddress;
+        }
+
+        public void setBindAddress(String bindAddress) {
+            this.bindAddress = bindAddress;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public int getLocalWorkers() {
+            return localWorkers;
+        }
+
+        public void setLocalWorkers(int localWorkers) {
+            this.localWorkers = localWorkers;
+        }
+
+        public int getWorkerConcurrency() {
+            return workerConcurrency;
+        }
+
+        public void setWorkerConcurrency(int workerConcurrency) {
+            this.workerConcurrency = workerConcurrency;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public List<String> getFronts() {
+            return fronts;
+        }
+
+        public void setFronts(List<String> fronts) {
+            this.fronts = fronts;
+        }
+
+        public String getWorkerId() {
+            return workerId;
+        }
+
+        public void setWorkerId(String workerId) {
+            this.workerId = workerId;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
+    public static class Aot {
+
+        private String nativeImage = "native-image";
+        private String objdump = "objdump";
+        private Duration buildTimeout = Duration.ofMinutes(2);
+        /** Extra native-image options; -Ob trades peak performance of the image for build time */
+        private List<String> buildOptions = new ArrayList<>(List.of("-Ob"));
+        /** Heap of the native-image builder, which needs far more than the sandbox gives user code */
+        private DataSize buildMaxHeap = DataSize.ofGigabytes(2);
+        /** Cores the builder sizes its thread pools for */
+        private int buildProcessors = 4;
+        /** CPU time of a build and its disassembly, summed over the builder's threads */
+        private Duration buildCpuTimeLimit = Duration.ofMinutes(8);
+
+        public String getNativeImage() {
+            return nativeImage;
+        }
+
+        public void setNativeImage(String nativeImage) {
+            this.nativeImage = nativeImage;
+        }
+
+        public String getObjdump() {
+            return objdump;
+        }
+
+        public void setObjdump(String objdump) {
+            this.objdump = objdump;
+        }
+
+        public Duration getBuildTimeout() {
+            return buildTimeout;
+        }
+
+        public void setBuildTimeout(Duration buildTimeout) {
+            this.buildTimeout = buildTimeout;
+        }
+
+        public List<String> getBuildOptions() {
+            return buildOptions;
+        }
+
+        public void setBuildOptions(List<String> buildOptions) {
+            this.buildOptions = buildOptions;
+        }
+
+        public DataSize getBuildMaxHeap() {
+            return buildMaxHeap;
+        }
+
+        public void setBuildMaxHeap(DataSize buildMaxHeap) {
+            this.buildMaxHeap = buildMaxHeap;
+        }
+
+        public int getBuildProcessors() {
+            return buildProcessors;
+        }
+
+        public void setBuildProcessors(int buildProcessors) {
+            this.buildProcessors = buildProcessors;
+        }
+
+        public Duration getBuildCpuTimeLimit() {
+            return buildCpuTimeLimit;
+        }
+
+        public void setBuildCpuTimeLimit(Duration buildCpuTimeLimit) {
+            this.buildCpuTimeLimit = buildCpuTimeLimit;
+        }
+    }
+
+    /** JMH runs, which share the single-slot AOT lane so that no other heavy job skews their scores */
+    public static class Benchmark {
+
+        /** Jars of the JMH runtime, or directories of them; empty for the one on the service's class path */
+        private List<String> classpath = new ArrayList<>();
+        private Duration timeout = Duration.ofMinutes(3);
+        private int maxForks = 2;
+        /** Warm-up plus measured iterations per fork */
+        private int maxIterations = 20;
+        /** Time the iterations of a run may take in total, JVM start-up aside */
+        private Duration maxIterationsTime = Duration.ofMinutes(2);
+
+        public List<String> getClasspath() {
+            return classpath;
+        }
+
+        public void setClasspath(List<String> classpath) {
+            this.classpath = classpath;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getMaxForks() {
+            return maxForks;
+        }
+
+        public void setMaxForks(int maxForks) {
+            this.maxForks = maxForks;
+        }
+
+        public int getMaxIterations() {
+            return maxIterations;
+        }
+
+        public void setMaxIterations(int maxIterations) {
+            this.maxIterations = maxIterations;
+        }
+
+        public Duration getMaxIterationsTime() {
+            return maxIterationsTime;
+        }
+
+        public void setMaxIterationsTime(Duration maxIterationsTime) {
+            this.maxIterationsTime = maxIterationsTime;
+        }
+    }
+
+    public static class Batch {
+
+        /** Classes disassembled at once per batch; 0 uses one thread per core */
+        private int parallelism = 0;
+        /** Source files and class files a batch may contain */
+        private int maxFiles = 200;
+        /** Size of an uploaded JAR, and of its extracted entries */
+        private DataSize maxArchiveSize = DataSize.ofMegabytes(16);
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+
+        public DataSize getMaxArchiveSize() {
+            return maxArchiveSize;
+        }
+
+        public void setMaxArchiveSize(DataSize maxArchiveSize) {
+            this.maxArchiveSize = maxArchiveSize;
+        }
+    }
+
+    /** Live-editing sessions, which recompile only the edited class; need the in-process compiler */
+    public static class Sessions {
+
+        private int maxSessions = 100;
+        /** Bytes of sources, class files and listings all sessions may hold together */
+        private DataSize maxBytes = DataSize.ofMegabytes(64);
+        private int maxSessionsPerClient = 4;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        /** Classes a session may hold */
+        private int maxUnits = 20;
+
+        public int getMaxSessions() {
+            return maxSessions;
+        }
+
+        public void setMaxSessions(int maxSessions) {
+            this.maxSessions = maxSessions;
+        }
+
+        public DataSize getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(DataSize maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public int getMaxSessionsPerClient() {
+            return maxSessionsPerClient;
+        }
+
+        public void setMaxSessionsPerClient(int maxSessionsPerClient) {
+            this.maxSessionsPerClient = maxSessionsPerClient;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public int getMaxUnits() {
+            return maxUnits;
+        }
+
+        public void setMaxUnits(int maxUnits) {
+            this.maxUnits = maxUnits;
+        }
+    }
+
+    public static class Diff {
+
+        /** Edits per method beyond which a method is reported as replaced, bounding time and memory */
+        private int maxEdits = 1000;
+        /** Unchanged lines shown around each change */
+        private int context = 3;
+
+        public int getMaxEdits() {
+            return maxEdits;
+        }
+
+        public void setMaxEdits(int maxEdits) {
+            this.maxEdits = maxEdits;
+        }
+
+        public int getContext() {
+            return context;
+        }
+
+        public void setContext(int context) {
+            this.context = context;
+        }
+    }
+
+    public static class Workspace {
+
+        /** Parent of the scratch directories, ideally a tmpfs mount; empty uses java.io.tmpdir */
+        private String root = "";
+        /** Directories created up front and recycled */
+        private int poolSize = 8;
+        /** Bytes a job may write to its directory */
+        private DataSize quota = DataSize.ofMegabytes(256);
+
+        public String getRoot() {
+            return root;
+        }
+
+        public void setRoot(String root) {
+            this.root = root;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public DataSize getQuota() {
+            return quota;
+        }
+
+        public void setQuota(DataSize quota) {
+            this.quota = quota;
+        }
+    }
+
+    /**
+     * Limits of every process that compiles or runs user code: forked javac and javap, JIT workers
+     * and forked JIT runs. Zero turns a limit off.
+     */
+    public static class Sandbox {
+
+        private DataSize maxHeap = DataSize.ofMegabytes(256);
+        /** Cores a child JVM sizes its GC and compiler threads for */
+        private int activeProcessorCount = 2;
+        private DataSize codeCacheSize = DataSize.ofMegabytes(64);
+        /** CPU time of a job, summed over its threads */
+        private Duration cpuTimeLimit = Duration.ofSeconds(30);
+        /** Output kept per job; a job printing more is stopped and its output marked as truncated */
+        private DataSize maxOutput = DataSize.ofMegabytes(16);
+
+        public DataSize getMaxHeap() {
+            return maxHeap;
+        }
+
+        public void setMaxHeap(DataSize maxHeap) {
+            this.maxHeap = maxHeap;
+        }
+
+        public int getActiveProcessorCount() {
+            return activeProcessorCount;
+        }
+
+        public void setActiveProcessorCount(int activeProcessorCount) {
+            this.activeProcessorCount = activeProcessorCount;
+        }
+
+        public DataSize getCodeCacheSize() {
+            return codeCacheSize;
+        }
+
+        public void setCodeCacheSize(DataSize codeCacheSize) {
+            this.codeCacheSize = codeCacheSize;
+        }
+
+        public Duration getCpuTimeLimit() {
+            return cpuTimeLimit;
+        }
+
+        public void setCpuTimeLimit(Duration cpuTimeLimit) {
+            this.cpuTimeLimit = cpuTimeLimit;
+        }
+
+        public DataSize getMaxOutput() {
+            return maxOutput;
+        }
+
+        public void setMaxOutput(DataSize maxOutput) {
+            this.maxOutput = maxOutput;
+        }
+    }
+
+    /**
+     * A JDK installed next to the server's own. Its javac compiles the requests that select it
+     * and its java runs their JIT jobs; bytecode is listed by the configured engine, or by this
+     * JDK's javap when the engine is javap.
+     */
+    public static class Toolchain {
+
+        private String id;
+        private String javaHome;
+        /** Extra JVM options for JIT jobs, e.g. -XX:+UnlockExperimentalVMOptions -XX:+UseJVMCICompiler for Graal */
+        private List<String> jvmOptions = new ArrayList<>();
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getJavaHome() {
+            return javaHome;
+        }
+
+        public void setJavaHome(String javaHome) {
+            this.javaHome = javaHome;
+        }
+
+        public List<String> getJvmOptions() {
+            return jvmOptions;
+        }
+
+        public void setJvmOptions(List<String> jvmOptions) {
+            this.jvmOptions = jvmOptions;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.dispatch.ConsistentHashDispatcher;
+import com.dino.javadisassembler.service.dispatch.DispatchWorkers;
+import com.dino.javadisassembler.service.dispatch.InMemoryJobTransport;
+import com.dino.javadisassembler.service.dispatch.JobDispatcher;
+import com.dino.javadisassembler.service.dispatch.QueueLimits;
+import com.dino.javadisassembler.service.dispatch.SocketJobTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+@Configuration
+public class DispatchConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchConfig.class);
+
+    @Bean
+    public JobDispatcher jobDispatcher(DisassemblerProperties properties) throws IOException {
+        DisassemblerProperties.Dispatch settings = properties.getDispatch();
+        QueueLimits limits = new QueueLimits(settings.getQueueCapacity(),
+                properties.getScheduler().getMaxQueuedPerClient(), properties.getScheduler().getMaxWait());
+        return switch (settings.getTransport()) {
+            case LOCAL -> JobDispatcher.LOCAL;
+            case IN_MEMORY -> {
+                logger.info("Dispatching jobs to in-memory workers");
+                yield new ConsistentHashDispatcher(new InMemoryJobTransport(limits), settings.getVirtualNodes());
+            }
+            case SOCKET -> new ConsistentHashDispatcher(
+                    new SocketJobTransport(new InetSocketAddress(settings.getBindAddress(), settings.getPort()),
+                            limits, settings.getSecret()),
+                    settings.getVirtualNodes());
+        };
+    }
+
+    @Bean
+    public DispatchWorkers dispatchWorkers(DisassemblerProperties properties, JobDispatcher jobDispatcher,
+                                           JavaDisassemblyService disassemblyService) throws IOException {
+        DisassemblerProperties.Dispatch settings = properties.getDispatch();
+        List<InetSocketAddress> fronts = settings.getFronts().stream().map(DispatchConfig::address).toList();
+        return new DispatchWorkers(jobDispatcher, workerId(settings), settings.getLocalWorkers(),
+                settings.getWorkerConcurrency(), fronts, settings.getSecret(), disassemblyService::runJob);
+    }
+
+    private static String workerId(DisassemblerProperties.Dispatch settings) {
+        if (!settings.getWorkerId().isEmpty()) {
+            return settings.getWorkerId();
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "worker-" + ProcessHandle.current().pid();
+        }
+    }
+
+    private static InetSocketAddress address(String hostAndPort) {
+        int colon = hostAndPort.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Front address " + hostAndPort + " is not host:port");
+        }
+        return InetSocketAddress.createUnresolved(hostAndPort.substring(0, colon),
+                Integer.parseInt(hostAndPort.substring(colon + 1)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.jit.ForkingJitRunner;
+import com.dino.javadisassembler.service.jit.JitProfiler;
+import com.dino.javadisassembler.service.jit.JitRunner;
+import com.dino.javadisassembler.service.jit.JitWorkerPool;
+import com.dino.javadisassembler.service.jit.TieredJitExplorer;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.List;
+
+@Configuration
+public class JitConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitConfig.class);
+
+    @Bean
+    public JitRunner jitRunner(DisassemblerProperties properties, WorkspaceManager workspaces, ResourcePolicy policy)
+            throws IOException {
+        DisassemblerProperties.Jit settings = properties.getJit();
+        if (settings.getMode() == DisassemblerProperties.Jit.Mode.FORK) {
+            logger.info("Using forked JVM per JIT request");
+            return new ForkingJitRunner(workspaces, "java", List.of(), settings.getJobTimeout(), policy);
+        }
+        logger.info("Using JIT worker pool of {} JVMs", settings.getPoolSize());
+        return new JitWorkerPool(settings.getPoolSize(), settings.getQueueDepth(), settings.getMaxJobsPerWorker(),
+                settings.getCodeCacheRecyclePercent(), settings.getJobTimeout(), policy);
+    }
+
+    @Bean
+    public TieredJitExplorer tieredJitExplorer(DisassemblerProperties properties, WorkspaceManager workspaces,
+                                               ResourcePolicy policy) {
+        DisassemblerProperties.Jit.Tiered settings = properties.getJit().getTiered();
+        return new TieredJitExplorer(workspaces, settings.getTimeout(), settings.getIterations(), settings.getMaxIterations(),
+                policy);
+    }
+
+    @Bean
+    public JitProfiler jitProfiler(DisassemblerProperties properties, WorkspaceManager workspaces, ResourcePolicy policy) {
+        DisassemblerProperties.Jit.Profile settings = properties.getJit().getProfile();
+        return new JitProfiler(workspaces, settings.getTimeout(), settings.getSamplePeriod(), policy);
+    }
+}
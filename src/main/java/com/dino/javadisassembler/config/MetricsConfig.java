@@ -0,0 +1,21 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public DisassemblyMetrics disassemblyMetrics(MeterRegistry registry, JobScheduler scheduler,
+                                                 WorkspaceManager workspaces) {
+        DisassemblyMetrics metrics = new DisassemblyMetrics(registry);
+        metrics.bindScheduler(scheduler);
+        metrics.bindWorkspaces(workspaces);
+        return metrics;
+    }
+}
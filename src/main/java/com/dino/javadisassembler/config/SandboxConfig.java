@@ -0,0 +1,16 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SandboxConfig {
+
+    @Bean
+    public ResourcePolicy resourcePolicy(DisassemblerProperties properties) {
+        DisassemblerProperties.Sandbox settings = properties.getSandbox();
+        return new ResourcePolicy(settings.getMaxHeap().toBytes(), settings.getActiveProcessorCount(),
+                settings.getCodeCacheSize().toBytes(), settings.getCpuTimeLimit(), settings.getMaxOutput().toBytes());
+    }
+}
@@ -0,0 +1,27 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchedulerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerConfig.class);
+
+    @Bean
+    public JobScheduler jobScheduler(DisassemblerProperties properties) {
+        DisassemblerProperties.Scheduler settings = properties.getScheduler();
+        logger.info("Running up to {} bytecode, {} JIT and {} AOT jobs at once",
+                settings.getBytecode().getConcurrency(), settings.getJit().getConcurrency(),
+                settings.getAot().getConcurrency());
+        return new JobScheduler(limits(settings.getBytecode()), limits(settings.getJit()), limits(settings.getAot()),
+                settings.getMaxQueuedPerClient(), settings.getMaxWait());
+    }
+
+    private static JobScheduler.Limits limits(DisassemblerProperties.Scheduler.Lane lane) {
+        return new JobScheduler.Limits(lane.getConcurrency(), lane.getQueueCapacity());
+    }
+}
@@ -0,0 +1,27 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.service.compiler.SourceCompiler;
+import com.dino.javadisassembler.service.session.CompilationSessions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SessionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionConfig.class);
+
+    @Bean
+    public CompilationSessions compilationSessions(DisassemblerProperties properties, SourceCompiler sourceCompiler) {
+        DisassemblerProperties.Sessions settings = properties.getSessions();
+        // Sessions share the warm compiler of the default toolchain
+        InMemorySourceCompiler compiler = sourceCompiler instanceof InMemorySourceCompiler inMemory ? inMemory : null;
+        if (compiler == null) {
+            logger.info("Live-editing sessions disabled, they need the in-process compiler");
+        }
+        return new CompilationSessions(compiler, settings.getMaxSessions(), settings.getMaxBytes().toBytes(),
+                settings.getMaxSessionsPerClient(), settings.getIdleTimeout(), settings.getMaxUnits());
+    }
+}
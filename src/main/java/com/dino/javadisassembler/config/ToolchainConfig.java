@@ -0,0 +1,54 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.bytecode.BytecodeDisassembler;
+import com.dino.javadisassembler.service.bytecode.JavapBytecodeDisassembler;
+import com.dino.javadisassembler.service.compiler.ForkingSourceCompiler;
+import com.dino.javadisassembler.service.compiler.SourceCompiler;
+import com.dino.javadisassembler.service.jit.ForkingJitRunner;
+import com.dino.javadisassembler.service.jit.JitRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.toolchain.Toolchain;
+import com.dino.javadisassembler.service.toolchain.ToolchainRegistry;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ToolchainConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolchainConfig.class);
+
+    @Bean
+    public ToolchainRegistry toolchainRegistry(DisassemblerProperties properties, SourceCompiler sourceCompiler,
+                                               BytecodeDisassembler bytecodeDisassembler, JitRunner jitRunner,
+                                               WorkspaceManager workspaces, ResourcePolicy policy) {
+        Toolchain defaultToolchain = new Toolchain(ToolchainRegistry.DEFAULT_ID, Runtime.version().toString(),
+                sourceCompiler, bytecodeDisassembler, jitRunner);
+        boolean javap = properties.getBytecode().getEngine() == DisassemblerProperties.Bytecode.Engine.JAVAP;
+        List<Toolchain> others = new ArrayList<>();
+        for (DisassemblerProperties.Toolchain settings : properties.getToolchains()) {
+            Path bin = Path.of(settings.getJavaHome(), "bin");
+            if (!Files.isExecutable(bin.resolve("java")) || !Files.isExecutable(bin.resolve("javac"))) {
+                logger.warn("Skipping toolchain {}: no java and javac in {}", settings.getId(), bin);
+                continue;
+            }
+            String version = ToolchainRegistry.javaVersion(Path.of(settings.getJavaHome()));
+            logger.info("Registered toolchain {}: Java {} at {}", settings.getId(), version, settings.getJavaHome());
+            others.add(new Toolchain(settings.getId(), version,
+                    new ForkingSourceCompiler(workspaces, bin.resolve("javac").toString(),
+                            properties.getCompiler().getTimeout(), policy),
+                    javap ? new JavapBytecodeDisassembler(workspaces, bin.resolve("javap").toString(),
+                            properties.getBytecode().getTimeout(), policy) : bytecodeDisassembler,
+                    new ForkingJitRunner(workspaces, bin.resolve("java").toString(), settings.getJvmOptions(),
+                            properties.getJit().getJobTimeout(), policy)));
+        }
+        return new ToolchainRegistry(defaultToolchain, others);
+    }
+}
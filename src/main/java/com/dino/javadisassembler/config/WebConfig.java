@@ -0,0 +1,38 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.codec.JitMethodsMessageConverter;
+import com.dino.javadisassembler.controller.RequestSizeFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(DisassemblerProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Compact response formats, chosen through the Accept header. They are added after the default
+     * converters so clients accepting any type still get JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new JitMethodsMessageConverter());
+    }
+
+    /** Oversized bodies are turned away first, before security or any other filter reads them */
+    @Bean
+    public FilterRegistrationBean<RequestSizeFilter> requestSizeFilter(DisassemblerProperties properties) {
+        DisassemblerProperties.Input settings = properties.getInput();
+        FilterRegistrationBean<RequestSizeFilter> registration = new FilterRegistrationBean<>(new RequestSizeFilter(
+                settings.getMaxRequestSize().toBytes(), settings.getMaxBatchRequestSize().toBytes()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.dino.javadisassembler.config;
+
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class WorkspaceConfig {
+
+    @Bean
+    public WorkspaceManager workspaceManager(DisassemblerProperties properties) throws IOException {
+        DisassemblerProperties.Workspace settings = properties.getWorkspace();
+        String root = settings.getRoot().isBlank() ? System.getProperty("java.io.tmpdir") : settings.getRoot();
+        return new WorkspaceManager(Path.of(root), settings.getPoolSize(), settings.getQuota().toBytes());
+    }
+}
@@ -0,0 +1,50 @@
+package com.dino.javadisassembler.controller;
+
+import com.dino.javadisassembler.exception.ArtifactNotFoundException;
+import com.dino.javadisassembler.exception.InvalidRequestException;
+import com.dino.javadisassembler.model.CompilationResponse;
+import com.dino.javadisassembler.util.InputSanitizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Requests every controller turns away before starting any work on them, answered with the
+ * status that tells the client what to fix and the reason in the usual error message field
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    /** Requests referring to an artifact the server no longer holds; the client has to send the source */
+    @ExceptionHandler(ArtifactNotFoundException.class)
+    public ResponseEntity<CompilationResponse> artifactNotFound(ArtifactNotFoundException e) {
+        logger.info("Rejected request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new CompilationResponse(false, null, e.getMessage()));
+    }
+
+    /** Requests rejected before any work was started on them */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<CompilationResponse> invalidRequest(InvalidRequestException e) {
+        logger.info("Rejected request: {}", InputSanitizer.sanitizeForLog(e.getMessage()));
+        return ResponseEntity.badRequest().body(new CompilationResponse(false, null, e.getMessage()));
+    }
+
+    /** Bodies that could not be read, among them those cut off at the size limit by {@link RequestSizeFilter} */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<CompilationResponse> unreadableRequest(HttpMessageNotReadableException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RequestSizeFilter.RequestTooLargeException tooLarge) {
+                logger.info("Rejected request: {}", tooLarge.getMessage());
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(new CompilationResponse(false, null, tooLarge.getMessage()));
+            }
+        }
+        return ResponseEntity.badRequest().body(new CompilationResponse(false, null, "Malformed request body"));
+    }
+}
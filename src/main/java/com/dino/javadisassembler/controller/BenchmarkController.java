@@ -0,0 +1,90 @@
+package com.dino.javadisassembler.controller;
+
+import com.dino.javadisassembler.exception.InvalidRequestException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.model.BenchmarkResponse;
+import com.dino.javadisassembler.model.CompilationRequest;
+import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.benchmark.BenchmarkOptions;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.util.InputSanitizer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs JMH microbenchmarks: the request's source declares {@code @Benchmark} methods, and the
+ * response has their scores with error bars and, if requested, GC and perfasm profiler output
+ */
+@RestController
+@RequestMapping("/api/benchmark")
+public class BenchmarkController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkController.class);
+    private static final String MODE = "benchmark";
+    private final JavaDisassemblyService disassemblyService;
+    private final DisassemblyMetrics metrics;
+
+    public BenchmarkController(JavaDisassemblyService disassemblyService, DisassemblyMetrics metrics) {
+        this.disassemblyService = disassemblyService;
+        this.metrics = metrics;
+    }
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<BenchmarkResponse>> runBenchmark(@RequestBody CompilationRequest request,
+                                                                             @RequestParam(defaultValue = "1") int forks,
+                                                                             @RequestParam(defaultValue = "3") int warmupIterations,
+                                                                             @RequestParam(defaultValue = "5") int iterations,
+                                                                             @RequestParam(defaultValue = "1000") long iterationMillis,
+                                                                             @RequestParam(required = false) String mode,
+                                                                             @RequestParam(required = false) String timeUnit,
+                                                                             @RequestParam(defaultValue = "true") boolean gc,
+                                                                             @RequestParam(defaultValue = "false") boolean perfasm,
+                                                                             HttpServletRequest httpRequest) {
+        long started = System.nanoTime();
+        String className = InputSanitizer.sanitizeClassName(request.getClassName());
+        String sourceCode = InputSanitizer.sanitizeSourceCode(request.getSourceCode());
+        BenchmarkOptions options;
+        try {
+            InputSanitizer.checkClassName(className, sourceCode);
+            options = new BenchmarkOptions(forks, warmupIterations, iterations, Duration.ofMillis(iterationMillis),
+                    mode, timeUnit, gc, perfasm);
+        } catch (InvalidRequestException | IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(new BenchmarkResponse(false, null, e.getMessage())));
+        }
+        metrics.recordStage(DisassemblyMetrics.Stage.SANITIZE, MODE, started, null);
+        logger.info("Received benchmark request for class: {}",
+            className);
+        return disassemblyService.getBenchmarkAsync(
+                sourceCode,
+                className,
+                httpRequest.getRemoteAddr(),
+                options
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Successfully processed benchmark request for class: {}",
+                    className);
+                return ResponseEntity.ok(new BenchmarkResponse(true, result.scores(), null));
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new BenchmarkResponse(false, null, e.getMessage()));
+            }
+            logger.error("Error processing benchmark request for class {}: {}",
+                className,
+                InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            return ResponseEntity.ok(new BenchmarkResponse(false, null, e.getMessage()));
+        });
+    }
+}
@@ -1,96 +1,652 @@
 package com.dino.javadisassembler.controller;
 
+import com.dino.javadisassembler.exception.ArtifactNotFoundException;
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.InvalidRequestException;
+import com.dino.javadisassembler.exception.JobRejectedException;
 import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.artifact.ArtifactStore;
+import com.dino.javadisassembler.service.cache.DisassemblyCache;
+import com.dino.javadisassembler.service.diff.CodegenDiff;
+import com.dino.javadisassembler.service.jit.MethodFilter;
+import com.dino.javadisassembler.service.jit.TieredJitOptions;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import com.dino.javadisassembler.service.session.CompilationSessions;
+import com.dino.javadisassembler.service.toolchain.ToolchainRegistry;
+import com.dino.javadisassembler.service.toolchain.ToolchainResult;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import com.dino.javadisassembler.model.BatchRequest;
 import com.dino.javadisassembler.model.CompilationRequest;
 import com.dino.javadisassembler.model.CompilationResponse;
+import com.dino.javadisassembler.model.DiffRequest;
+import com.dino.javadisassembler.model.DiffResponse;
+import com.dino.javadisassembler.model.JitMethodsResponse;
+import com.dino.javadisassembler.model.JitProfileResponse;
+import com.dino.javadisassembler.model.SessionResponse;
+import com.dino.javadisassembler.model.TieredJitResponse;
 import com.dino.javadisassembler.util.InputSanitizer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
 @RestController
 @RequestMapping("/api/disassemble")
 public class DisassemblyController {
 
     private static final Logger logger = LoggerFactory.getLogger(DisassemblyController.class);
+    private static final Pattern ARTIFACT_ID = Pattern.compile("[0-9a-f]{64}");
     private final JavaDisassemblyService disassemblyService;
+    private final DisassemblyMetrics metrics;
 
-    public DisassemblyController(JavaDisassemblyService disassemblyService) {
+    public DisassemblyController(JavaDisassemblyService disassemblyService, DisassemblyMetrics metrics) {
         this.disassemblyService = disassemblyService;
+        this.metrics = metrics;
     }
 
     @PostMapping("/bytecode")
-    public ResponseEntity<CompilationResponse> getBytecode(@RequestBody CompilationRequest request) {
-        String sanitizedClassName = InputSanitizer.sanitizeClassName(request.getClassName());
-        String sanitizedSourceCode = InputSanitizer.sanitizeSourceCode(request.getSourceCode());
-        logger.info("Received bytecode disassembly request for class: {}", sanitizedSourceCode);
-        try {
-            String result = disassemblyService.getBytecode(
+    public CompletableFuture<ResponseEntity<CompilationResponse>> getBytecode(@RequestBody CompilationRequest request,
+                                                                              HttpServletRequest httpRequest) {
+        Sanitized sanitized = sanitize(request, "bytecode");
+        String sanitizedClassName = sanitized.className();
+        String sanitizedSourceCode = sanitized.sourceCode();
+        logger.info("Received bytecode disassembly request for class: {}", sanitizedClassName);
+        if (hasToolchains(request)) {
+            return perToolchain(disassemblyService.compareBytecodeAsync(
                     sanitizedSourceCode,
-                    sanitizedClassName
-            );
-            logger.info("Successfully processed bytecode request for class: {}", 
-                sanitizedClassName);
-            return ResponseEntity.ok(new CompilationResponse(true, result, null));
-        } catch (Exception e) {
+                    sanitizedClassName,
+                    clientId(httpRequest),
+                    request.getToolchains()
+            ), "bytecode", sanitizedClassName);
+        }
+        return disassemblyService.getBytecodeAsync(
+                sanitizedSourceCode,
+                sanitizedClassName,
+                clientId(httpRequest)
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Successfully processed bytecode request for class: {}", 
+                    sanitizedClassName);
+                return success(result, sanitized);
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new CompilationResponse(false, null, e.getMessage()));
+            }
             logger.error("Error processing bytecode request for class {}: {}", 
                 sanitizedClassName, 
                 InputSanitizer.sanitizeForLog(e.getMessage()), e);
             return ResponseEntity.ok(new CompilationResponse(false, null, e.getMessage()));
-        }
+        });
     }
 
     @PostMapping("/jit")
-    public ResponseEntity<CompilationResponse> getJitAssembly(@RequestBody CompilationRequest request) {
-        String sanitizedClassName = InputSanitizer.sanitizeClassName(request.getClassName());
-        String sanitizedSourceCode = InputSanitizer.sanitizeSourceCode(request.getSourceCode());
+    public CompletableFuture<ResponseEntity<CompilationResponse>> getJitAssembly(@RequestBody CompilationRequest request,
+                                                                                 HttpServletRequest httpRequest) {
+        Sanitized sanitized = sanitize(request, "jit");
+        String sanitizedClassName = sanitized.className();
+        String sanitizedSourceCode = sanitized.sourceCode();
         logger.info("Received JIT assembly request for class: {}", 
             sanitizedClassName);
-        try {
-            String result = disassemblyService.getJitAssembly(
+        if (hasToolchains(request)) {
+            return perToolchain(disassemblyService.compareJitAssemblyAsync(
                     sanitizedSourceCode,
-                    sanitizedClassName
-            );
-            logger.info("Successfully processed JIT assembly request for class: {}", 
-                sanitizedClassName);
-            return ResponseEntity.ok(new CompilationResponse(true, result, null));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("Interrupted JIT assembly request for class {}: {}",
+                    sanitizedClassName,
+                    clientId(httpRequest),
+                    request.getToolchains()
+            ), "JIT assembly", sanitizedClassName);
+        }
+        return disassemblyService.getJitAssemblyAsync(
+                sanitizedSourceCode,
                 sanitizedClassName,
-                InputSanitizer.sanitizeForLog(e.getMessage()), e);
+                clientId(httpRequest)
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Successfully processed JIT assembly request for class: {}", 
+                    sanitizedClassName);
+                return success(result, sanitized);
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new CompilationResponse(false, null, e.getMessage()));
+            }
+            if (e instanceof InterruptedException) {
+                logger.error("Interrupted JIT assembly request for class {}: {}",
+                    sanitizedClassName,
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            } else {
+                logger.error("Error processing JIT assembly request for class {}: {}", 
+                    sanitizedClassName, 
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            }
             return ResponseEntity.ok(new CompilationResponse(false, null, e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Error processing JIT assembly request for class {}: {}", 
-                sanitizedClassName, 
+        });
+    }
+
+    /**
+     * JIT assembly as structured records, one per compiled method, optionally restricted to
+     * methods whose name contains {@code method} and to the given tiers (1-4, c1 or c2)
+     */
+    @PostMapping("/jit/methods")
+    public CompletableFuture<ResponseEntity<JitMethodsResponse>> getJitMethods(@RequestBody CompilationRequest request,
+                                                                               @RequestParam(required = false) String method,
+                                                                               @RequestParam(required = false) List<String> tier,
+                                                                               HttpServletRequest httpRequest) {
+        Sanitized sanitized = sanitize(request, "jit-methods");
+        String sanitizedClassName = sanitized.className();
+        String sanitizedSourceCode = sanitized.sourceCode();
+        logger.info("Received structured JIT assembly request for class: {}",
+            sanitizedClassName);
+        MethodFilter filter;
+        try {
+            filter = MethodFilter.of(method, tier);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.ok(new JitMethodsResponse(false, null, false, e.getMessage())));
+        }
+        return disassemblyService.getJitMethodsAsync(
+                sanitizedSourceCode,
+                sanitizedClassName,
+                clientId(httpRequest),
+                filter
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Successfully processed structured JIT assembly request for class: {}",
+                    sanitizedClassName);
+                return ResponseEntity.ok(new JitMethodsResponse(true, result.methods(), result.hsdisMissing(), null));
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new JitMethodsResponse(false, null, false, e.getMessage()));
+            }
+            logger.error("Error processing structured JIT assembly request for class {}: {}",
+                sanitizedClassName,
                 InputSanitizer.sanitizeForLog(e.getMessage()), e);
-            return ResponseEntity.ok(new CompilationResponse(false, null, e.getMessage()));
+            return ResponseEntity.ok(new JitMethodsResponse(false, null, false, e.getMessage()));
+        });
+    }
+
+    /**
+     * JIT profiling: {@code main} runs with a flight recording, and the compiled methods it was
+     * sampled in are returned with the share of the samples each instruction got
+     */
+    @PostMapping("/jit/profile")
+    public CompletableFuture<ResponseEntity<JitProfileResponse>> getJitProfile(@RequestBody CompilationRequest request,
+                                                                               HttpServletRequest httpRequest) {
+        Sanitized sanitized = sanitize(request, "jit-profile");
+        String sanitizedClassName = sanitized.className();
+        logger.info("Received JIT profile request for class: {}",
+            sanitizedClassName);
+        return disassemblyService.getJitProfileAsync(
+                sanitized.sourceCode(),
+                sanitizedClassName,
+                clientId(httpRequest)
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Successfully processed JIT profile request for class: {}",
+                    sanitizedClassName);
+                return ResponseEntity.ok(new JitProfileResponse(true, result.samples(), result.compiledSamples(),
+                        result.methods(), result.hsdisMissing(), null));
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new JitProfileResponse(false, 0, 0, null, false, e.getMessage()));
+            }
+            logger.error("Error processing JIT profile request for class {}: {}",
+                sanitizedClassName,
+                InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            return ResponseEntity.ok(new JitProfileResponse(false, 0, 0, null, false, e.getMessage()));
+        });
+    }
+
+    /**
+     * Tiered JIT exploration: every method of the class is called in a warm-up loop and the code of
+     * each tier, the inlining decisions and the deoptimizations are returned per method
+     */
+    @PostMapping("/jit/tiered")
+    public CompletableFuture<ResponseEntity<TieredJitResponse>> getTieredJit(@RequestBody CompilationRequest request,
+                                                                             @RequestParam(defaultValue = "4") int stopAtLevel,
+                                                                             @RequestParam(defaultValue = "0") int iterations,
+                                                                             @RequestParam(defaultValue = "true") boolean inlining,
+                                                                             HttpServletRequest httpRequest) {
+        Sanitized sanitized = sanitize(request, "jit-tiered");
+        String sanitizedClassName = sanitized.className();
+        String sanitizedSourceCode = sanitized.sourceCode();
+        logger.info("Received tiered JIT request for class: {}",
+            sanitizedClassName);
+        TieredJitOptions options;
+        try {
+            options = new TieredJitOptions(stopAtLevel, iterations, inlining);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.ok(new TieredJitResponse(false, null, false, e.getMessage())));
         }
+        return disassemblyService.getTieredJitAsync(
+                sanitizedSourceCode,
+                sanitizedClassName,
+                clientId(httpRequest),
+                options
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Successfully processed tiered JIT request for class: {}",
+                    sanitizedClassName);
+                return ResponseEntity.ok(new TieredJitResponse(true, result.methods(), result.hsdisMissing(), null));
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new TieredJitResponse(false, null, false, e.getMessage()));
+            }
+            logger.error("Error processing tiered JIT request for class {}: {}",
+                sanitizedClassName,
+                InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            return ResponseEntity.ok(new TieredJitResponse(false, null, false, e.getMessage()));
+        });
+    }
+
+    /**
+     * Streams JIT assembly as server-sent events: an {@code nmethod} event per compiled method as
+     * soon as the JVM prints it, then {@code done}, or {@code error} with the failure message.
+     */
+    @PostMapping(value = "/jit/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJitAssembly(@RequestBody CompilationRequest request,
+                                                                   HttpServletRequest httpRequest) {
+        Sanitized sanitized;
+        try {
+            sanitized = sanitize(request, "jit-stream");
+        } catch (ArtifactNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(out -> writeEvent(out, "error", e.getMessage()));
+        } catch (InvalidRequestException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(out -> writeEvent(out, "error", e.getMessage()));
+        }
+        String sanitizedClassName = sanitized.className();
+        String sanitizedSourceCode = sanitized.sourceCode();
+        String clientId = clientId(httpRequest);
+        logger.info("Received streamed JIT assembly request for class: {}",
+            sanitizedClassName);
+        try {
+            // the status is sent with the first event, so saturation has to be detected up front
+            disassemblyService.checkJitAdmission(clientId);
+        } catch (JobRejectedException e) {
+            return JobFailures.rejected(e)
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(out -> writeEvent(out, "error", e.getMessage()));
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                disassemblyService.streamJitAssembly(sanitizedSourceCode, sanitizedClassName, clientId,
+                    block -> writeEvent(out, "nmethod", block));
+                writeEvent(out, "done", "");
+                logger.info("Successfully streamed JIT assembly for class: {}",
+                    sanitizedClassName);
+            } catch (UncheckedIOException e) {
+                // the client went away, nothing left to tell it
+                logger.info("Streamed JIT assembly for class {} aborted: {}",
+                    sanitizedClassName,
+                    InputSanitizer.sanitizeForLog(e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Interrupted streamed JIT assembly for class {}: {}",
+                    sanitizedClassName,
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+                writeEvent(out, "error", e.getMessage());
+            } catch (Exception e) {
+                logger.error("Error streaming JIT assembly for class {}: {}",
+                    sanitizedClassName,
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+                writeEvent(out, "error", e.getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(body);
+    }
+
+    /**
+     * Disassembles a batch of sources and/or a JAR as server-sent events: a {@code class} event per
+     * class with the class name as event id, or {@code class-error} with the failure message, as
+     * each class finishes, then {@code done} with the number of classes, or {@code error} if the
+     * batch as a whole failed, e.g. to compile.
+     */
+    @PostMapping(value = "/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBatch(@RequestBody BatchRequest request,
+                                                             HttpServletRequest httpRequest) {
+        long sanitizeStarted = System.nanoTime();
+        Map<String, String> sanitizedSources = new LinkedHashMap<>();
+        if (request.getSources() != null) {
+            request.getSources().forEach((path, sourceCode) ->
+                sanitizedSources.put(path, InputSanitizer.sanitizeSourceCode(sourceCode)));
+        }
+        metrics.recordStage(DisassemblyMetrics.Stage.SANITIZE, "batch", sanitizeStarted, null);
+        String clientId = clientId(httpRequest);
+        logger.info("Received batch disassembly request with {} sources{}",
+            sanitizedSources.size(), request.getJar() != null ? " and a JAR" : "");
+        try {
+            disassemblyService.checkBytecodeAdmission(clientId);
+        } catch (JobRejectedException e) {
+            return JobFailures.rejected(e)
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(out -> writeEvent(out, "error", e.getMessage()));
+        }
+        StreamingResponseBody body = out -> {
+            byte[] jar;
+            try {
+                jar = request.getJar() != null ? Base64.getMimeDecoder().decode(request.getJar()) : null;
+            } catch (IllegalArgumentException e) {
+                writeEvent(out, "error", "Invalid JAR encoding: " + e.getMessage());
+                return;
+            }
+            try {
+                int classes = disassemblyService.streamBatch(sanitizedSources, jar, clientId, result -> {
+                    if (result.success()) {
+                        writeEvent(out, "class", result.className(), result.result());
+                    } else {
+                        writeEvent(out, "class-error", result.className(), result.errorMessage());
+                    }
+                });
+                writeEvent(out, "done", String.valueOf(classes));
+                logger.info("Successfully streamed batch of {} classes", classes);
+            } catch (UncheckedIOException e) {
+                logger.info("Streamed batch aborted: {}",
+                    InputSanitizer.sanitizeForLog(e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Interrupted streamed batch: {}",
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+                writeEvent(out, "error", e.getMessage());
+            } catch (Exception e) {
+                logger.error("Error streaming batch: {}",
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+                writeEvent(out, "error", e.getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(body);
     }
 
     @PostMapping("/aot")
-    public ResponseEntity<CompilationResponse> getAotAssembly(@RequestBody CompilationRequest request) {
-        String sanitizedClassName = InputSanitizer.sanitizeClassName(request.getClassName());
-        String sanitizedSourceCode = InputSanitizer.sanitizeSourceCode(request.getSourceCode());
+    public CompletableFuture<ResponseEntity<CompilationResponse>> getAotAssembly(@RequestBody CompilationRequest request,
+                                                                                 HttpServletRequest httpRequest) {
+        Sanitized sanitized = sanitize(request, "aot");
+        String sanitizedClassName = sanitized.className();
+        String sanitizedSourceCode = sanitized.sourceCode();
         logger.info("Received AOT assembly request for class: {}", 
             sanitizedClassName);
-        try {
-            String result = disassemblyService.getAotAssembly(
-                    sanitizedSourceCode,
-                    sanitizedClassName
-            );
-            logger.info("Successfully processed AOT assembly request for class: {}", 
-                sanitizedClassName);
-            return ResponseEntity.ok(new CompilationResponse(true, result, null));
-        } catch (Exception e) {
+        return disassemblyService.getAotAssemblyAsync(
+                sanitizedSourceCode,
+                sanitizedClassName,
+                clientId(httpRequest)
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Successfully processed AOT assembly request for class: {}", 
+                    sanitizedClassName);
+                return success(result, sanitized);
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new CompilationResponse(false, null, e.getMessage()));
+            }
             logger.error("Error processing AOT assembly request for class {}: {}", 
                 sanitizedClassName, 
                 InputSanitizer.sanitizeForLog(e.getMessage()), e);
             return ResponseEntity.ok(new CompilationResponse(false, null, e.getMessage()));
+        });
+    }
+
+    /**
+     * Per-method diff of the code generated for two submissions, each given as source and class name
+     * or as artifact id; {@code view} is {@code bytecode}, {@code jit} or {@code both}
+     */
+    @PostMapping("/diff")
+    public CompletableFuture<ResponseEntity<DiffResponse>> getDiff(@RequestBody DiffRequest request,
+                                                                   @RequestParam(defaultValue = "bytecode") String view,
+                                                                   HttpServletRequest httpRequest) {
+        if (request.getBefore() == null || request.getAfter() == null) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.ok(new DiffResponse(false, "Both before and after are required")));
+        }
+        CodegenDiff.View diffView;
+        try {
+            diffView = CodegenDiff.View.of(view);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(new DiffResponse(false, e.getMessage())));
+        }
+        Sanitized before = sanitize(request.getBefore(), "diff");
+        Sanitized after = sanitize(request.getAfter(), "diff");
+        logger.info("Received {} diff request for class {} against class {}",
+            diffView, after.className(), before.className());
+        return disassemblyService.diffAsync(
+                before.sourceCode(),
+                before.className(),
+                after.sourceCode(),
+                after.className(),
+                diffView,
+                clientId(httpRequest)
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Diff of class {} found {} changed methods", after.className(), result.methods().size());
+                return ResponseEntity.ok(new DiffResponse(result));
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new DiffResponse(false, e.getMessage()));
+            }
+            logger.error("Error processing diff request for class {}: {}",
+                after.className(),
+                InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            return ResponseEntity.ok(new DiffResponse(false, e.getMessage()));
+        });
+    }
+
+    /** Starts a live-editing session; its edits are sent to {@code /sessions/{sessionId}/compile} */
+    @PostMapping("/sessions")
+    public ResponseEntity<SessionResponse> createSession(HttpServletRequest httpRequest) {
+        try {
+            String sessionId = disassemblyService.createSession(clientId(httpRequest));
+            logger.info("Created live-editing session {}", sessionId);
+            return ResponseEntity.ok(new SessionResponse(true, sessionId, null));
+        } catch (JobRejectedException e) {
+            return JobFailures.rejected(e)
+                    .body(new SessionResponse(false, null, e.getMessage()));
+        } catch (CompilationException e) {
+            return ResponseEntity.ok(new SessionResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * Applies an edit to a live-editing session: only the edited class is recompiled, and the
+     * methods whose bytecode changed are returned with their listings before and after
+     */
+    @PostMapping("/sessions/{sessionId}/compile")
+    public CompletableFuture<ResponseEntity<SessionResponse>> updateSession(@PathVariable String sessionId,
+                                                                            @RequestBody CompilationRequest request,
+                                                                            HttpServletRequest httpRequest) {
+        Sanitized sanitized = sanitize(request, "session");
+        String sanitizedClassName = sanitized.className();
+        logger.info("Received session edit for class: {}", sanitizedClassName);
+        return disassemblyService.updateSessionAsync(
+                sessionId,
+                sanitized.sourceCode(),
+                sanitizedClassName,
+                clientId(httpRequest)
+        ).handle((result, failure) -> {
+            if (failure == null) {
+                logger.info("Session edit of class {} changed {} methods", sanitizedClassName, result.changes().size());
+                return ResponseEntity.ok(new SessionResponse(sessionId, result));
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new SessionResponse(false, sessionId, e.getMessage()));
+            }
+            if (!(e instanceof CompilationException)) {
+                logger.error("Error processing session edit of class {}: {}",
+                    sanitizedClassName,
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            }
+            return ResponseEntity.ok(new SessionResponse(false, sessionId, e.getMessage()));
+        });
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> closeSession(@PathVariable String sessionId) {
+        disassemblyService.closeSession(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/toolchains")
+    public ResponseEntity<List<ToolchainRegistry.Info>> getToolchains() {
+        return ResponseEntity.ok(disassemblyService.getToolchains());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<DisassemblyCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(disassemblyService.getCacheStats());
+    }
+
+    @GetMapping("/workspace/stats")
+    public ResponseEntity<WorkspaceManager.Stats> getWorkspaceStats() {
+        return ResponseEntity.ok(disassemblyService.getWorkspaceStats());
+    }
+
+    @GetMapping("/artifacts/stats")
+    public ResponseEntity<ArtifactStore.Stats> getArtifactStats() {
+        return ResponseEntity.ok(disassemblyService.getArtifactStats());
+    }
+
+    @GetMapping("/sessions/stats")
+    public ResponseEntity<CompilationSessions.Stats> getSessionStats() {
+        return ResponseEntity.ok(disassemblyService.getSessionStats());
+    }
+
+    @GetMapping("/scheduler/stats")
+    public ResponseEntity<List<JobScheduler.Stats>> getSchedulerStats() {
+        return ResponseEntity.ok(disassemblyService.getSchedulerStats());
+    }
+
+    private record Sanitized(String className, String sourceCode) {
+    }
+
+    /**
+     * Sanitizes the class name and source of a request, timed as the sanitize stage of {@code mode}.
+     * A request without source that refers to an artifact gets the artifact's source and class name.
+     * Throws {@link InvalidRequestException} if the class name does not fit the source.
+     */
+    private Sanitized sanitize(CompilationRequest request, String mode) {
+        long started = System.nanoTime();
+        Sanitized sanitized;
+        String artifactId = request.getArtifactId();
+        if (isBlank(request.getSourceCode()) && !isBlank(artifactId)) {
+            ArtifactStore.Artifact artifact = ARTIFACT_ID.matcher(artifactId).matches()
+                    ? disassemblyService.getArtifact(artifactId) : null;
+            if (artifact == null) {
+                throw new ArtifactNotFoundException("Unknown or expired artifact, please send the source again");
+            }
+            sanitized = new Sanitized(artifact.className(), artifact.sourceCode());
+        } else {
+            sanitized = new Sanitized(InputSanitizer.sanitizeClassName(request.getClassName()),
+                    InputSanitizer.sanitizeSourceCode(request.getSourceCode()));
+            InputSanitizer.checkClassName(sanitized.className(), sanitized.sourceCode());
+        }
+        metrics.recordStage(DisassemblyMetrics.Stage.SANITIZE, mode, started, null);
+        return sanitized;
+    }
+
+    /** A successful result, with the id of the classes it was produced from while the server holds them */
+    private ResponseEntity<CompilationResponse> success(String result, Sanitized sanitized) {
+        CompilationResponse response = new CompilationResponse(true, result, null);
+        response.setArtifactId(disassemblyService.getArtifactId(sanitized.sourceCode(), sanitized.className()));
+        return ResponseEntity.ok(response);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean hasToolchains(CompilationRequest request) {
+        return request.getToolchains() != null && !request.getToolchains().isEmpty();
+    }
+
+    /** Answers with one result per toolchain; the request succeeds even if some toolchains failed */
+    private static CompletableFuture<ResponseEntity<CompilationResponse>> perToolchain(
+            CompletableFuture<List<ToolchainResult>> results, String mode, String className) {
+        return results.handle((result, failure) -> {
+            if (failure != null) {
+                Throwable e = JobFailures.unwrap(failure);
+                if (e instanceof JobRejectedException rejectedException) {
+                    return JobFailures.rejected(rejectedException)
+                            .body(new CompilationResponse(false, null, e.getMessage()));
+                }
+                logger.error("Error processing {} request for class {}: {}", mode, className,
+                    InputSanitizer.sanitizeForLog(e.getMessage()), e);
+                return ResponseEntity.ok(new CompilationResponse(false, null, e.getMessage()));
+            }
+            logger.info("Processed {} request for class {} on {} toolchains", mode, className, result.size());
+            CompilationResponse response = new CompilationResponse(true, null, null);
+            response.setResults(result);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /** Jobs are queued fairly per client; behind a proxy set server.forward-headers-strategy */
+    private static String clientId(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    /** Writes one server-sent event and flushes it to the client */
+    private static void writeEvent(OutputStream out, String name, String data) {
+        writeEvent(out, name, null, data);
+    }
+
+    /** Same as {@link #writeEvent(OutputStream, String, String)}, with an event id if not null */
+    private static void writeEvent(OutputStream out, String name, String id, String data) {
+        StringBuilder event = new StringBuilder("event: ").append(name).append('\n');
+        if (id != null) {
+            event.append("id: ").append(id).append('\n');
+        }
+        for (String line : String.valueOf(data).split("\n", -1)) {
+            event.append("data: ").append(line).append('\n');
+        }
+        event.append('\n');
+        try {
+            out.write(event.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.dino.javadisassembler.controller;
+
+import com.dino.javadisassembler.exception.JobRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * How the controllers answer jobs that failed: a rejected job gets {@code 429 Too Many Requests}
+ * with the time to wait before retrying, the body in whatever response type the endpoint has.
+ */
+final class JobFailures {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobFailures.class);
+
+    private JobFailures() {
+    }
+
+    /** Status and {@code Retry-After} of a rejected job; the caller adds its own body */
+    static ResponseEntity.BodyBuilder rejected(JobRejectedException e) {
+        logger.warn("Rejected request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
+
+    /** The job's own failure, without the wrapper added by a dependent future stage */
+    static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+}
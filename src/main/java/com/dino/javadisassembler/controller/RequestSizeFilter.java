@@ -0,0 +1,133 @@
+package com.dino.javadisassembler.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Caps request bodies before they are read: a body whose declared length is over the limit is
+ * answered with {@code 413 Payload Too Large} straight away, and a body of unknown length is cut
+ * off at the limit while it is read, so an oversized source is never held in memory as a whole.
+ * Batches, which carry whole JARs, have a limit of their own.
+ */
+public class RequestSizeFilter extends OncePerRequestFilter {
+
+    /** Raised while reading a body of unknown length that goes over the limit */
+    public static class RequestTooLargeException extends IOException {
+
+        RequestTooLargeException(long limit) {
+            super(message(limit));
+        }
+    }
+
+    private final long maxBytes;
+    private final long maxBatchBytes;
+
+    public RequestSizeFilter(long maxBytes, long maxBatchBytes) {
+        this.maxBytes = maxBytes;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long limit = request.getRequestURI().endsWith("/batch") ? maxBatchBytes : maxBytes;
+        long length = request.getContentLengthLong();
+        if (limit <= 0) {
+            chain.doFilter(request, response);
+        } else if (length > limit) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"errorMessage\":\"" + message(limit) + "\"}");
+        } else if (length < 0) {
+            chain.doFilter(new LimitedRequest(request, limit), response);
+        } else {
+            // The container reads no more than the declared length
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static String message(long limit) {
+        return "Request body is larger than " + limit + " bytes";
+    }
+
+    private static final class LimitedRequest extends HttpServletRequestWrapper {
+
+        private final long limit;
+        private ServletInputStream stream;
+
+        LimitedRequest(HttpServletRequest request, long limit) {
+            super(request);
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = new LimitedInputStream(super.getInputStream(), limit);
+            }
+            return stream;
+        }
+    }
+
+    private static final class LimitedInputStream extends ServletInputStream {
+
+        private final ServletInputStream in;
+        private final long limit;
+        private long read;
+
+        LimitedInputStream(ServletInputStream in, long limit) {
+            this.in = in;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = in.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int bytes) throws IOException {
+            read += bytes;
+            if (read > limit) {
+                throw new RequestTooLargeException(limit);
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return in.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            in.setReadListener(listener);
+        }
+    }
+}
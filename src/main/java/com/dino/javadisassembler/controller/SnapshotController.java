@@ -0,0 +1,203 @@
+package com.dino.javadisassembler.controller;
+
+import com.dino.javadisassembler.exception.InvalidRequestException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.model.CompilationRequest;
+import com.dino.javadisassembler.model.SnapshotResponse;
+import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.service.snapshot.SnapshotStore;
+import com.dino.javadisassembler.util.InputSanitizer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Shareable permalinks: a snapshot of a source with its bytecode, JIT and AOT views is created
+ * once, then served from storage without compiling or running anything
+ */
+@RestController
+@RequestMapping("/api/snapshots")
+public class SnapshotController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotController.class);
+    private static final String MODE = "snapshot";
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[A-Za-z0-9_-]{12}");
+    /** Snapshots never change, so clients and proxies may keep them for good */
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    /** Request attributes through which Tomcat sends a file with sendfile once the handler returns */
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private final JavaDisassemblyService disassemblyService;
+    private final DisassemblyMetrics metrics;
+
+    public SnapshotController(JavaDisassemblyService disassemblyService, DisassemblyMetrics metrics) {
+        this.disassemblyService = disassemblyService;
+        this.metrics = metrics;
+    }
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<SnapshotResponse>> createSnapshot(@RequestBody CompilationRequest request,
+                                                                              HttpServletRequest httpRequest) {
+        if (!disassemblyService.isSnapshotsEnabled()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new SnapshotResponse(false, null, null, "Snapshots are disabled on this server")));
+        }
+        long started = System.nanoTime();
+        String className = InputSanitizer.sanitizeClassName(request.getClassName());
+        String sourceCode = InputSanitizer.sanitizeSourceCode(request.getSourceCode());
+        try {
+            InputSanitizer.checkClassName(className, sourceCode);
+        } catch (InvalidRequestException e) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(new SnapshotResponse(false, null, null, e.getMessage())));
+        }
+        metrics.recordStage(DisassemblyMetrics.Stage.SANITIZE, MODE, started, null);
+        logger.info("Received snapshot request for class: {}",
+            className);
+        return disassemblyService.createSnapshotAsync(
+                sourceCode,
+                className,
+                httpRequest.getRemoteAddr()
+        ).handle((snapshotId, failure) -> {
+            if (failure == null) {
+                logger.info("Snapshot {} holds class: {}", snapshotId, className);
+                String url = "/api/snapshots/" + snapshotId;
+                return ResponseEntity.created(URI.create(url)).body(new SnapshotResponse(true, snapshotId, url, null));
+            }
+            Throwable e = JobFailures.unwrap(failure);
+            if (e instanceof JobRejectedException rejectedException) {
+                return JobFailures.rejected(rejectedException)
+                        .body(new SnapshotResponse(false, null, null, e.getMessage()));
+            }
+            logger.error("Error processing snapshot request for class {}: {}",
+                className,
+                InputSanitizer.sanitizeForLog(e.getMessage()), e);
+            return ResponseEntity.ok(new SnapshotResponse(false, null, null, e.getMessage()));
+        });
+    }
+
+    /**
+     * Serves a snapshot as stored, gzip-compressed to clients accepting it. On Tomcat the file goes
+     * from the page cache to the socket with sendfile; elsewhere it is copied through a channel.
+     * Answers {@code null} once the response is written, which Spring treats as handled. A snapshot
+     * evicted between lookup and transfer is answered as unknown.
+     */
+    @GetMapping("/{snapshotId}")
+    public ResponseEntity<SnapshotResponse> getSnapshot(@PathVariable String snapshotId, HttpServletRequest request,
+                                                        HttpServletResponse response) throws IOException {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        Path file = SNAPSHOT_ID.matcher(snapshotId).matches() ? disassemblyService.getSnapshotFile(snapshotId, gzip) : null;
+        if (file == null) {
+            return notFound();
+        }
+        try {
+            return sendSnapshot(snapshotId, file, gzip, request, response);
+        } catch (NoSuchFileException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            return notFound();
+        }
+    }
+
+    private ResponseEntity<SnapshotResponse> sendSnapshot(String snapshotId, Path file, boolean gzip,
+                                                          HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified("W/\"" + snapshotId + "\"")) {
+            return null;
+        }
+        long length = Files.size(file);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLengthLong(length);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long sent = 0; sent < length; ) {
+                sent += channel.transferTo(sent, length - sent, out);
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity<SnapshotResponse> notFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new SnapshotResponse(false, null, null, "Unknown or expired snapshot"));
+    }
+
+    /** Whether an Accept-Encoding header allows gzip: listed, or covered by {@code *}, with a q-value above zero */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = quality(parts) > 0;
+            if (name.equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /** The q-value among a coding's parameters, 1 if it has none and 0 if it is malformed */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<SnapshotStore.Stats> getSnapshotStats() {
+        return ResponseEntity.ok(disassemblyService.getSnapshotStats());
+    }
+}
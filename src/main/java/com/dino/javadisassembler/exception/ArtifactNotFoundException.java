@@ -0,0 +1,12 @@
+package com.dino.javadisassembler.exception;
+
+/**
+ * Thrown when a request refers to a compiled artifact that the server no longer holds, e.g. after
+ * it was evicted or the server restarted; clients should send the source again.
+ */
+public class ArtifactNotFoundException extends RuntimeException {
+
+    public ArtifactNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.dino.javadisassembler.exception;
+
+/**
+ * Thrown when the source cannot be compiled: a compiler reports errors in it, or a tool the job
+ * needs is not installed. Unlike other failures it recurs on every run of the same source.
+ */
+public class CompileErrorException extends CompilationException {
+
+    public CompileErrorException(String message) {
+        super(message);
+    }
+}
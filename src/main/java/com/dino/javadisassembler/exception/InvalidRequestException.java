@@ -0,0 +1,12 @@
+package com.dino.javadisassembler.exception;
+
+/**
+ * Thrown for requests rejected before any work is started on them, e.g. a class name that does
+ * not match the source or a body over the size limit
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.dino.javadisassembler.exception;
+
+/**
+ * Thrown when a job is turned away because its mode is saturated; clients should retry after
+ * {@link #getRetryAfterSeconds()}.
+ */
+public class JobRejectedException extends CompilationException {
+
+    private final long retryAfterSeconds;
+
+    public JobRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
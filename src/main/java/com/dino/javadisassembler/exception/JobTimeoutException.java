@@ -0,0 +1,11 @@
+package com.dino.javadisassembler.exception;
+
+/**
+ * Thrown when a job's tool runs longer than its wall-clock limit and is stopped
+ */
+public class JobTimeoutException extends CompilationException {
+
+    public JobTimeoutException(String message) {
+        super(message);
+    }
+}
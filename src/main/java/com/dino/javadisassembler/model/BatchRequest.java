@@ -0,0 +1,35 @@
+package com.dino.javadisassembler.model;
+
+import java.util.Map;
+
+public class BatchRequest {
+    // Source files by relative path, e.g. "com/example/Main.java", compiled together
+    private Map<String, String> sources;
+    // Base64 encoded JAR whose classes are disassembled and whose sources are compiled with the others
+    private String jar;
+
+    // Default constructor for deserialization
+    public BatchRequest() {
+    }
+
+    public BatchRequest(Map<String, String> sources, String jar) {
+        this.sources = sources;
+        this.jar = jar;
+    }
+
+    public Map<String, String> getSources() {
+        return sources;
+    }
+
+    public void setSources(Map<String, String> sources) {
+        this.sources = sources;
+    }
+
+    public String getJar() {
+        return jar;
+    }
+
+    public void setJar(String jar) {
+        this.jar = jar;
+    }
+}
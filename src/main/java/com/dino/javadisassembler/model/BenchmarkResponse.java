@@ -0,0 +1,44 @@
+package com.dino.javadisassembler.model;
+
+import com.dino.javadisassembler.service.benchmark.BenchmarkReport;
+
+import java.util.List;
+
+public class BenchmarkResponse {
+    private boolean success;
+    private List<BenchmarkReport.Score> scores;
+    private String errorMessage;
+
+    public BenchmarkResponse() {
+    }
+
+    public BenchmarkResponse(boolean success, List<BenchmarkReport.Score> scores, String errorMessage) {
+        this.success = success;
+        this.scores = scores;
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public List<BenchmarkReport.Score> getScores() {
+        return scores;
+    }
+
+    public void setScores(List<BenchmarkReport.Score> scores) {
+        this.scores = scores;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -1,8 +1,14 @@
 package com.dino.javadisassembler.model;
 
+import java.util.List;
+
 public class CompilationRequest {
     private String sourceCode;
     private String className;
+    // Toolchain ids to run the request on, one result each; the default toolchain if empty
+    private List<String> toolchains;
+    // Artifact id of an earlier response, used instead of sourceCode and className when those are empty
+    private String artifactId;
 
     // Default constructor for deserialization
     public CompilationRequest() {
@@ -28,4 +34,20 @@ public class CompilationRequest {
     public void setClassName(String className) {
         this.className = className;
     }
+
+    public List<String> getToolchains() {
+        return toolchains;
+    }
+
+    public void setToolchains(List<String> toolchains) {
+        this.toolchains = toolchains;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
 }
@@ -1,9 +1,17 @@
 package com.dino.javadisassembler.model;
 
+import com.dino.javadisassembler.service.toolchain.ToolchainResult;
+
+import java.util.List;
+
 public class CompilationResponse {
     private boolean success;
     private String result;
     private String errorMessage;
+    // One entry per toolchain when the request selected toolchains, otherwise null
+    private List<ToolchainResult> results;
+    // Id of the compiled classes, which later requests can send instead of the source; null if not kept
+    private String artifactId;
 
     public CompilationResponse() {
     }
@@ -37,4 +45,20 @@ public class CompilationResponse {
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
-}
\ No newline at end of file
+
+    public List<ToolchainResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ToolchainResult> results) {
+        this.results = results;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+}
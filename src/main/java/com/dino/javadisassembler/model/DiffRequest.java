@@ -0,0 +1,32 @@
+package com.dino.javadisassembler.model;
+
+public class DiffRequest {
+    // Earlier submission, as source and class name or as artifact id
+    private CompilationRequest before;
+    // Later submission, compared against before
+    private CompilationRequest after;
+
+    public DiffRequest() {
+    }
+
+    public DiffRequest(CompilationRequest before, CompilationRequest after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public CompilationRequest getBefore() {
+        return before;
+    }
+
+    public void setBefore(CompilationRequest before) {
+        this.before = before;
+    }
+
+    public CompilationRequest getAfter() {
+        return after;
+    }
+
+    public void setAfter(CompilationRequest after) {
+        this.after = after;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dino.javadisassembler.model;
+
+import com.dino.javadisassembler.service.diff.CodegenDiff;
+
+import java.util.List;
+
+public class DiffResponse {
+    private boolean success;
+    // Methods whose code differs, with their hunks
+    private List<CodegenDiff.MethodDiff> methods;
+    // Methods present in both submissions with the same code
+    private int unchangedMethods;
+    private String errorMessage;
+
+    public DiffResponse() {
+    }
+
+    public DiffResponse(boolean success, String errorMessage) {
+        this.success = success;
+        this.errorMessage = errorMessage;
+    }
+
+    public DiffResponse(CodegenDiff.Result result) {
+        this(true, null);
+        this.methods = result.methods();
+        this.unchangedMethods = result.unchanged();
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public List<CodegenDiff.MethodDiff> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<CodegenDiff.MethodDiff> methods) {
+        this.methods = methods;
+    }
+
+    public int getUnchangedMethods() {
+        return unchangedMethods;
+    }
+
+    public void setUnchangedMethods(int unchangedMethods) {
+        this.unchangedMethods = unchangedMethods;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
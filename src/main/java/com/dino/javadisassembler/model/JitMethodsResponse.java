@@ -0,0 +1,54 @@
+package com.dino.javadisassembler.model;
+
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+
+import java.util.List;
+
+public class JitMethodsResponse {
+    private boolean success;
+    private List<CompiledMethod> methods;
+    private boolean hsdisMissing;
+    private String errorMessage;
+
+    public JitMethodsResponse() {
+    }
+
+    public JitMethodsResponse(boolean success, List<CompiledMethod> methods, boolean hsdisMissing, String errorMessage) {
+        this.success = success;
+        this.methods = methods;
+        this.hsdisMissing = hsdisMissing;
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public List<CompiledMethod> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<CompiledMethod> methods) {
+        this.methods = methods;
+    }
+
+    public boolean isHsdisMissing() {
+        return hsdisMissing;
+    }
+
+    public void setHsdisMissing(boolean hsdisMissing) {
+        this.hsdisMissing = hsdisMissing;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,75 @@
+package com.dino.javadisassembler.model;
+
+import com.dino.javadisassembler.service.jit.JitProfile;
+
+import java.util.List;
+
+public class JitProfileResponse {
+    private boolean success;
+    private long samples;
+    private long compiledSamples;
+    private List<JitProfile.ProfiledMethod> methods;
+    private boolean hsdisMissing;
+    private String errorMessage;
+
+    public JitProfileResponse() {
+    }
+
+    public JitProfileResponse(boolean success, long samples, long compiledSamples, List<JitProfile.ProfiledMethod> methods,
+                              boolean hsdisMissing, String errorMessage) {
+        this.success = success;
+        this.samples = samples;
+        this.compiledSamples = compiledSamples;
+        this.methods = methods;
+        this.hsdisMissing = hsdisMissing;
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(long samples) {
+        this.samples = samples;
+    }
+
+    public long getCompiledSamples() {
+        return compiledSamples;
+    }
+
+    public void setCompiledSamples(long compiledSamples) {
+        this.compiledSamples = compiledSamples;
+    }
+
+    public List<JitProfile.ProfiledMethod> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<JitProfile.ProfiledMethod> methods) {
+        this.methods = methods;
+    }
+
+    public boolean isHsdisMissing() {
+        return hsdisMissing;
+    }
+
+    public void setHsdisMissing(boolean hsdisMissing) {
+        this.hsdisMissing = hsdisMissing;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,80 @@
+package com.dino.javadisassembler.model;
+
+import com.dino.javadisassembler.service.session.CompilationSession;
+
+import java.util.List;
+
+public class SessionResponse {
+    private boolean success;
+    private String sessionId;
+    // False when the source was the same as in the previous edit
+    private boolean recompiled;
+    private long compileMillis;
+    // Methods whose bytecode the edit added, removed or changed
+    private List<CompilationSession.MethodChange> changes;
+    private String errorMessage;
+
+    public SessionResponse() {
+    }
+
+    public SessionResponse(boolean success, String sessionId, String errorMessage) {
+        this.success = success;
+        this.sessionId = sessionId;
+        this.errorMessage = errorMessage;
+    }
+
+    public SessionResponse(String sessionId, CompilationSession.Result result) {
+        this(true, sessionId, null);
+        this.recompiled = result.recompiled();
+        this.compileMillis = result.compileMillis();
+        this.changes = result.changes();
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public boolean isRecompiled() {
+        return recompiled;
+    }
+
+    public void setRecompiled(boolean recompiled) {
+        this.recompiled = recompiled;
+    }
+
+    public long getCompileMillis() {
+        return compileMillis;
+    }
+
+    public void setCompileMillis(long compileMillis) {
+        this.compileMillis = compileMillis;
+    }
+
+    public List<CompilationSession.MethodChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<CompilationSession.MethodChange> changes) {
+        this.changes = changes;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,51 @@
+package com.dino.javadisassembler.model;
+
+public class SnapshotResponse {
+    private boolean success;
+    private String snapshotId;
+    // Permalink of the snapshot, relative to the server
+    private String url;
+    private String errorMessage;
+
+    public SnapshotResponse() {
+    }
+
+    public SnapshotResponse(boolean success, String snapshotId, String url, String errorMessage) {
+        this.success = success;
+        this.snapshotId = snapshotId;
+        this.url = url;
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getSnapshotId() {
+        return snapshotId;
+    }
+
+    public void setSnapshotId(String snapshotId) {
+        this.snapshotId = snapshotId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
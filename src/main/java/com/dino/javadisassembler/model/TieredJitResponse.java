@@ -0,0 +1,54 @@
+package com.dino.javadisassembler.model;
+
+import com.dino.javadisassembler.service.jit.TieredJitReport;
+
+import java.util.List;
+
+public class TieredJitResponse {
+    private boolean success;
+    private List<TieredJitReport.MethodTiers> methods;
+    private boolean hsdisMissing;
+    private String errorMessage;
+
+    public TieredJitResponse() {
+    }
+
+    public TieredJitResponse(boolean success, List<TieredJitReport.MethodTiers> methods, boolean hsdisMissing, String errorMessage) {
+        this.success = success;
+        this.methods = methods;
+        this.hsdisMissing = hsdisMissing;
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public List<TieredJitReport.MethodTiers> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<TieredJitReport.MethodTiers> methods) {
+        this.methods = methods;
+    }
+
+    public boolean isHsdisMissing() {
+        return hsdisMissing;
+    }
+
+    public void setHsdisMissing(boolean hsdisMissing) {
+        this.hsdisMissing = hsdisMissing;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
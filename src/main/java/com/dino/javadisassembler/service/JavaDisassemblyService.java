@@ -1,202 +1,845 @@
 package com.dino.javadisassembler.service;
 
 import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.service.aot.NativeImageAotCompiler;
+import com.dino.javadisassembler.service.artifact.ArtifactStore;
+import com.dino.javadisassembler.service.batch.BatchDisassembler;
+import com.dino.javadisassembler.service.batch.ClassResult;
+import com.dino.javadisassembler.service.benchmark.BenchmarkOptions;
+import com.dino.javadisassembler.service.benchmark.BenchmarkReport;
+import com.dino.javadisassembler.service.benchmark.JmhBenchmarkRunner;
+import com.dino.javadisassembler.service.cache.DisassemblyCache;
+import com.dino.javadisassembler.service.bytecode.ClassFileDisassembler;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.diff.CodegenDiff;
+import com.dino.javadisassembler.service.dispatch.DispatchJob;
+import com.dino.javadisassembler.service.dispatch.JobDispatcher;
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+import com.dino.javadisassembler.service.jit.JitMethods;
+import com.dino.javadisassembler.service.jit.JitProfile;
+import com.dino.javadisassembler.service.jit.JitProfiler;
+import com.dino.javadisassembler.service.jit.MethodFilter;
+import com.dino.javadisassembler.service.jit.NmethodBlockSplitter;
+import com.dino.javadisassembler.service.jit.PrintAssemblyParser;
+import com.dino.javadisassembler.service.jit.TieredJitExplorer;
+import com.dino.javadisassembler.service.jit.TieredJitOptions;
+import com.dino.javadisassembler.service.jit.TieredJitReport;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import com.dino.javadisassembler.service.session.CompilationSession;
+import com.dino.javadisassembler.service.session.CompilationSessions;
+import com.dino.javadisassembler.service.snapshot.SnapshotStore;
+import com.dino.javadisassembler.service.toolchain.Toolchain;
+import com.dino.javadisassembler.service.toolchain.ToolchainRegistry;
+import com.dino.javadisassembler.service.toolchain.ToolchainResult;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.util.Comparator;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class JavaDisassemblyService {
 
     private static final Logger logger = LoggerFactory.getLogger(JavaDisassemblyService.class);
-    private static final String TEMP_DIR = System.getProperty("java.io.tmpdir");
-    private static final int TIMEOUT_SECONDS = 10;
+
+    /** Client id for callers that do not identify their client; they share one fair-queueing slot */
+    public static final String ANONYMOUS_CLIENT = "anonymous";
+
+    /** Mode tags of the request and stage metrics */
+    private static final String BYTECODE = "bytecode";
+    private static final String JIT = "jit";
+    private static final String JIT_STREAM = "jit-stream";
+    private static final String JIT_METHODS = "jit-methods";
+    private static final String JIT_TIERED = "jit-tiered";
+    private static final String JIT_PROFILE = "jit-profile";
+    private static final String AOT = "aot";
+    private static final String BATCH = "batch";
+    private static final String BENCHMARK = "benchmark";
+    private static final String SESSION = "session";
+    private static final String DIFF = "diff";
+    private static final String SNAPSHOT = "snapshot";
+
+    private static final String HSDIS_HINT = "HotSpot Disassembler (hsdis) plugin is not installed.\n\n" +
+            "To use JIT assembly view, you need to install the hsdis plugin for your JVM:\n\n" +
+            "1. Download the appropriate hsdis plugin for your platform from:\n" +
+            "   https://github.com/openjdk/jdk/tree/master/src/utils/hsdis\n\n" +
+            "2. Place the library file (hsdis-<arch>.so or hsdis-<arch>.dll) in your JRE's lib directory:\n" +
+            "   - For Linux/Mac: $JAVA_HOME/lib/\n" +
+            "   - For Windows: $JAVA_HOME\\lib\\\n\n" +
+            "Original output:\n";
+
+    private final ToolchainRegistry toolchains;
+    private final DisassemblyCache cache;
+    private final ArtifactStore artifacts;
+    private final JobScheduler scheduler;
+    private final JobDispatcher dispatcher;
+    private final TieredJitExplorer tieredJitExplorer;
+    private final JitProfiler jitProfiler;
+    private final NativeImageAotCompiler aotCompiler;
+    private final BatchDisassembler batchDisassembler;
+    private final JmhBenchmarkRunner benchmarkRunner;
+    private final CompilationSessions sessions;
+    private final CodegenDiff codegenDiff;
+    private final SnapshotStore snapshots;
+    /** Splits classes into per-method listings for the diff, whichever disassembler the toolchain uses */
+    private final ClassFileDisassembler methodDisassembler = new ClassFileDisassembler();
+    private final WorkspaceManager workspaces;
+    private final DisassemblyMetrics metrics;
+    /** Native image builds in progress by cache key, so identical requests wait for one build */
+    private final Map<String, CompletableFuture<String>> aotBuilds = new ConcurrentHashMap<>();
+
+    public JavaDisassemblyService(ToolchainRegistry toolchains, DisassemblyCache cache, ArtifactStore artifacts,
+                                  JobScheduler scheduler, JobDispatcher dispatcher, TieredJitExplorer tieredJitExplorer,
+                                  JitProfiler jitProfiler, NativeImageAotCompiler aotCompiler,
+                                  BatchDisassembler batchDisassembler, JmhBenchmarkRunner benchmarkRunner,
+                                  CompilationSessions sessions, CodegenDiff codegenDiff, SnapshotStore snapshots,
+                                  WorkspaceManager workspaces, DisassemblyMetrics metrics) {
+        this.toolchains = toolchains;
+        this.cache = cache;
+        this.artifacts = artifacts;
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+        this.tieredJitExplorer = tieredJitExplorer;
+        this.jitProfiler = jitProfiler;
+        this.aotCompiler = aotCompiler;
+        this.batchDisassembler = batchDisassembler;
+        this.benchmarkRunner = benchmarkRunner;
+        this.sessions = sessions;
+        this.codegenDiff = codegenDiff;
+        this.snapshots = snapshots;
+        this.workspaces = workspaces;
+        this.metrics = metrics;
+    }
 
     /**
      * Compiles Java source code to bytecode and returns the bytecode disassembly
      */
     public String getBytecode(String sourceCode, String className) throws CompilationException, IOException {
-        logger.info("Starting bytecode disassembly for class: {}", className);
-        // Create a unique working directory
-        String workingDirName = UUID.randomUUID().toString();
-        File workingDir = new File(TEMP_DIR, workingDirName);
-        workingDir.mkdir();
-        logger.debug("Created working directory: {}", workingDir);
+        return getBytecode(sourceCode, className, ANONYMOUS_CLIENT);
+    }
 
+    /**
+     * Same as {@link #getBytecode(String, String)}, queued fairly against other jobs of {@code clientId}
+     */
+    public String getBytecode(String sourceCode, String className, String clientId) throws CompilationException, IOException {
         try {
-            // Write source to file
-            File sourceFile = new File(workingDir, className + ".java");
-            logger.debug("Writing source code to file: {}", sourceFile);
-            try (FileWriter writer = new FileWriter(sourceFile)) {
-                writer.write(sourceCode);
-            }
-
-            // Compile the Java file
-            logger.debug("Compiling Java file: {}", sourceFile);
-            boolean compiled = compileJavaFile(sourceFile);
-            if (!compiled) {
-                logger.error("Compilation failed for class: {}", className);
-                throw new CompilationException("Compilation failed");
-            }
-            logger.info("Successfully compiled class: {}", className);
-
-            // Get bytecode using javap
-            return getBytecodeDisassembly(workingDir, className);
+            return await(getBytecodeAsync(sourceCode, className, clientId));
         } catch (InterruptedException e) {
             logger.error("Interuption {}:", className);
             Thread.currentThread().interrupt();
             throw new CompilationException(e);
-        }catch (Exception e) {
-            logger.error("Error during bytecode disassembly for class {}:", className);
-            throw new CompilationException(e);
-        } finally {
-            // Clean up
-            deleteDirectory(workingDir);
-            logger.debug("Cleaned up working directory: {}", workingDir);
         }
     }
 
     /**
-     * Removed AOT assembly functionality for now
+     * Asynchronous form of {@link #getBytecode(String, String, String)}: no thread is held while
+     * the job waits for a slot
+     */
+    public CompletableFuture<String> getBytecodeAsync(String sourceCode, String className, String clientId) {
+        return getBytecodeAsync(sourceCode, className, clientId, ToolchainRegistry.DEFAULT_ID);
+    }
+
+    /**
+     * Same as {@link #getBytecodeAsync(String, String, String)}, compiled by the toolchain with id
+     * {@code toolchainId}. The job goes through the {@link JobDispatcher}, so it may run on a worker.
+     */
+    public CompletableFuture<String> getBytecodeAsync(String sourceCode, String className, String clientId,
+                                                      String toolchainId) {
+        return metrics.timeRequest(BYTECODE, () -> dispatcher.dispatch(
+                new DispatchJob(DispatchJob.Kind.BYTECODE, sourceCode, className, toolchainId), clientId, this::runJob));
+    }
+
+    /**
+     * Runs a bytecode or JIT job in this JVM: the jobs a {@link JobDispatcher} hands to this node's
+     * workers, and those it keeps here. Cached results are answered straight away, the rest are
+     * queued in the scheduler lane of their kind.
+     */
+    public CompletableFuture<String> runJob(DispatchJob job, String clientId) {
+        return switch (job.kind()) {
+            case BYTECODE -> bytecodeJob(job.sourceCode(), job.className(), clientId, job.toolchainId());
+            case JIT -> jitJob(job.sourceCode(), job.className(), clientId, job.toolchainId());
+        };
+    }
+
+    private CompletableFuture<String> bytecodeJob(String sourceCode, String className, String clientId,
+                                                  String toolchainId) {
+        Toolchain toolchain;
+        try {
+            toolchain = toolchains.get(toolchainId);
+        } catch (CompilationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        logger.info("Starting bytecode disassembly for class: {} with toolchain {}", className, toolchain.id());
+        String cacheKey = DisassemblyCache.key("bytecode", sourceCode, className,
+                cacheFlags(toolchain, toolchain.disassembler()));
+        String cached = cache.get(cacheKey);
+        if (cached != null) {
+            logger.info("Returning cached bytecode for class: {}", className);
+            return CompletableFuture.completedFuture(cached);
+        }
+        return scheduler.submit(JobScheduler.Mode.BYTECODE, clientId, () -> {
+            try {
+                CompiledClasses classes = compile(toolchain, sourceCode, className, BYTECODE);
+                String result = timed(DisassemblyMetrics.Stage.DISASSEMBLE, BYTECODE,
+                        () -> toolchain.disassembler().disassemble(classes, className));
+                metrics.recordOutputSize(BYTECODE, result);
+                cache.put(cacheKey, result);
+                return result;
+            } catch (CompilationException e) {
+                throw e;
+            } catch (InterruptedException e) {
+                logger.error("Interuption {}:", className);
+                Thread.currentThread().interrupt();
+                throw new CompilationException(e);
+            } catch (Exception e) {
+                logger.error("Error during bytecode disassembly for class {}:", className);
+                throw new CompilationException(e);
+            }
+        });
+    }
+
+    /**
+     * Disassembles a whole batch: {@code sources} (paths such as {@code com/example/Main.java} to
+     * content) and the Java sources of {@code jar} are compiled together in one compilation, then
+     * every class they produced, and every class file in {@code jar}, is disassembled in parallel.
+     * Results are passed to {@code results} one class at a time as they finish. The batch holds one
+     * bytecode slot; it is not cached, since batches rarely repeat.
+     *
+     * @param jar JAR content, or {@code null}
+     * @return the number of classes reported
+     */
+    public int streamBatch(Map<String, String> sources, byte[] jar, String clientId, Consumer<ClassResult> results)
+            throws CompilationException, InterruptedException {
+        long started = System.nanoTime();
+        try {
+            int classes = batch(sources, jar, clientId, results);
+            metrics.recordRequest(BATCH, started, null);
+            return classes;
+        } catch (Throwable e) {
+            metrics.recordRequest(BATCH, started, e);
+            throw e;
+        }
+    }
+
+    private int batch(Map<String, String> sources, byte[] jar, String clientId, Consumer<ClassResult> results)
+            throws CompilationException, InterruptedException {
+        try (JobScheduler.Slot slot = scheduler.acquire(JobScheduler.Mode.BYTECODE, clientId)) {
+            Map<String, String> allSources = new LinkedHashMap<>(sources);
+            Map<String, byte[]> allClasses = new LinkedHashMap<>();
+            if (jar != null) {
+                BatchDisassembler.Archive archive = batchDisassembler.readJar(jar);
+                allSources.putAll(archive.sources());
+                allClasses.putAll(archive.classes());
+            }
+            batchDisassembler.checkSources(allSources);
+            Toolchain toolchain = toolchains.getDefault();
+            if (!allSources.isEmpty()) {
+                logger.info("Compiling batch of {} source files", allSources.size());
+                long compileStarted = System.nanoTime();
+                CompiledClasses compiled;
+                try {
+                    compiled = toolchain.compiler().compile(allSources);
+                    metrics.recordStage(DisassemblyMetrics.Stage.COMPILE, BATCH, compileStarted, null);
+                } catch (Throwable e) {
+                    metrics.recordStage(DisassemblyMetrics.Stage.COMPILE, BATCH, compileStarted, e);
+                    throw e;
+                }
+                compiled.classNames().forEach(className -> allClasses.put(className, compiled.bytes(className)));
+            }
+            if (allClasses.isEmpty()) {
+                throw new CompilationException("The batch contains no sources or classes");
+            }
+            logger.info("Disassembling batch of {} classes", allClasses.size());
+            long disassembleStarted = System.nanoTime();
+            int disassembled = batchDisassembler.disassemble(new CompiledClasses(allClasses), toolchain.disassembler(), results);
+            metrics.recordStage(DisassemblyMetrics.Stage.DISASSEMBLE, BATCH, disassembleStarted, null);
+            return disassembled;
+        }
+    }
+
+    /**
+     * Starts a live-editing session, see {@link CompilationSessions}
+     */
+    public String createSession(String clientId) throws CompilationException {
+        return sessions.create(clientId);
+    }
+
+    /**
+     * Applies an edit to a live-editing session: only the edited class is compiled, against the
+     * classes of the session's other units, and the methods whose bytecode changed are returned.
+     * Runs in the bytecode lane; not cached, since a session's result depends on its history.
+     */
+    public CompletableFuture<CompilationSession.Result> updateSessionAsync(String sessionId, String sourceCode,
+                                                                           String className, String clientId) {
+        return metrics.timeRequest(SESSION, () -> scheduler.submit(JobScheduler.Mode.BYTECODE, clientId,
+                () -> timed(DisassemblyMetrics.Stage.COMPILE, SESSION,
+                        () -> sessions.update(sessionId, sourceCode, className))));
+    }
+
+    public void closeSession(String sessionId) {
+        sessions.close(sessionId);
+    }
+
+    public CompilationSessions.Stats getSessionStats() {
+        return sessions.stats();
+    }
+
+    /**
+     * Compares the code generated for two submissions method by method, see {@link CodegenDiff}.
+     * The bytecode view compiles both sides, or takes them from the artifact store, in one bytecode
+     * job; the JIT view runs one JIT job per side, whose output is cached like that of the JIT
+     * endpoints.
+     */
+    public CompletableFuture<CodegenDiff.Result> diffAsync(String beforeSource, String beforeClassName,
+                                                           String afterSource, String afterClassName,
+                                                           CodegenDiff.View view, String clientId) {
+        logger.info("Starting {} diff of class {} against class {}", view, afterClassName, beforeClassName);
+        return metrics.timeRequest(DIFF, () -> {
+            CompletableFuture<CodegenDiff.Result> bytecode = view.includesBytecode()
+                    ? bytecodeDiffJob(beforeSource, beforeClassName, afterSource, afterClassName, clientId)
+                    : CompletableFuture.completedFuture(new CodegenDiff.Result(List.of(), 0));
+            CompletableFuture<CodegenDiff.Result> jit = view.includesJit()
+                    ? jitDiffJob(beforeSource, beforeClassName, afterSource, afterClassName, clientId)
+                    : CompletableFuture.completedFuture(new CodegenDiff.Result(List.of(), 0));
+            return bytecode.thenCombine(jit, CodegenDiff.Result::plus);
+        });
+    }
+
+    private CompletableFuture<CodegenDiff.Result> bytecodeDiffJob(String beforeSource, String beforeClassName,
+                                                                  String afterSource, String afterClassName,
+                                                                  String clientId) {
+        Toolchain toolchain = toolchains.getDefault();
+        return scheduler.submit(JobScheduler.Mode.BYTECODE, clientId, () -> {
+            CompiledClasses before = compile(toolchain, beforeSource, beforeClassName, DIFF);
+            CompiledClasses after = compile(toolchain, afterSource, afterClassName, DIFF);
+            return timed(DisassemblyMetrics.Stage.DISASSEMBLE, DIFF, () -> codegenDiff.diffBytecode(
+                    CodegenDiff.bytecodeListings(before, methodDisassembler),
+                    CodegenDiff.bytecodeListings(after, methodDisassembler)));
+        });
+    }
+
+    private CompletableFuture<CodegenDiff.Result> jitDiffJob(String beforeSource, String beforeClassName,
+                                                             String afterSource, String afterClassName,
+                                                             String clientId) {
+        return jitMethodsJob(beforeSource, beforeClassName, clientId, MethodFilter.ALL)
+                .thenCombine(jitMethodsJob(afterSource, afterClassName, clientId, MethodFilter.ALL),
+                        (before, after) -> codegenDiff.diffJit(
+                                CodegenDiff.jitListings(before.methods()),
+                                CodegenDiff.jitListings(after.methods())));
+    }
+
+    /**
+     * Stores the source with its bytecode, JIT and AOT views as a snapshot, see {@link SnapshotStore},
+     * and returns the snapshot's id. The views run as their own jobs, so they share the cache and the
+     * compilation with the requests of those views. A view that fails the same way on every run,
+     * such as a compile error or a missing tool, is stored with its error; a rejection, timeout or
+     * infrastructure error fails the whole snapshot rather than being stored for good. A source
+     * stored before is answered with its id straight away, and nothing is run if snapshots are
+     * disabled.
+     */
+    public CompletableFuture<String> createSnapshotAsync(String sourceCode, String className, String clientId) {
+        if (!snapshots.isEnabled()) {
+            return CompletableFuture.failedFuture(new CompilationException("Snapshots are disabled on this server"));
+        }
+        return metrics.timeRequest(SNAPSHOT, () -> {
+            String id = SnapshotStore.id(sourceCode, className);
+            if (snapshots.contains(id)) {
+                logger.info("Snapshot {} of class {} is stored already", id, className);
+                return CompletableFuture.completedFuture(id);
+            }
+            logger.info("Creating snapshot {} of class: {}", id, className);
+            CompletableFuture<SnapshotStore.View> bytecode = snapshotView(dispatcher.dispatch(new DispatchJob(
+                    DispatchJob.Kind.BYTECODE, sourceCode, className, ToolchainRegistry.DEFAULT_ID), clientId, this::runJob));
+            CompletableFuture<SnapshotStore.View> jit = snapshotView(dispatcher.dispatch(new DispatchJob(
+                    DispatchJob.Kind.JIT, sourceCode, className, ToolchainRegistry.DEFAULT_ID), clientId, this::runJob));
+            CompletableFuture<SnapshotStore.View> aot = snapshotView(aotJob(sourceCode, className, clientId));
+            return CompletableFuture.allOf(bytecode, jit, aot).thenApply(done -> {
+                try {
+                    snapshots.put(new SnapshotStore.Snapshot(id, className, sourceCode, bytecode.join(), jit.join(),
+                            aot.join()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return id;
+            });
+        });
+    }
+
+    static CompletableFuture<SnapshotStore.View> snapshotView(CompletableFuture<String> job) {
+        return job.handle((result, failure) -> {
+            if (failure == null) {
+                return SnapshotStore.View.success(result);
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (!deterministic(cause)) {
+                throw new CompletionException(cause);
+            }
+            return SnapshotStore.View.failure(cause.getMessage());
+        });
+    }
+
+    /**
+     * Whether a job would fail the same way if run again: a {@link CompileErrorException}, possibly
+     * wrapped in other {@link CompilationException}s
+     */
+    private static boolean deterministic(Throwable failure) {
+        for (Throwable cause = failure; cause instanceof CompilationException; cause = cause.getCause()) {
+            if (cause instanceof CompileErrorException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * File holding snapshot {@code id} as JSON, gzip-compressed if {@code gzip} is set, or
+     * {@code null} if there is no such snapshot
+     */
+    public Path getSnapshotFile(String id, boolean gzip) {
+        return snapshots.file(id, gzip);
+    }
+
+    public boolean isSnapshotsEnabled() {
+        return snapshots.isEnabled();
+    }
+
+    public SnapshotStore.Stats getSnapshotStats() {
+        return snapshots.stats();
+    }
+
+    /**
+     * Builds a native image of the class with GraalVM native-image and returns the machine code of
+     * its methods
+     */
+    public String getAotAssembly(String sourceCode, String className) throws CompilationException, IOException, InterruptedException {
+        return await(getAotAssemblyAsync(sourceCode, className, ANONYMOUS_CLIENT));
+    }
+
+    /**
+     * Asynchronous form of {@link #getAotAssembly(String, String)}. A build takes tens of seconds,
+     * so builds run in their own scheduler lane, results are cached by source, and a request for
+     * a source whose build is already running waits for that build instead of starting another.
+     */
+    public CompletableFuture<String> getAotAssemblyAsync(String sourceCode, String className, String clientId) {
+        return metrics.timeRequest(AOT, () -> aotJob(sourceCode, className, clientId));
+    }
+
+    private CompletableFuture<String> aotJob(String sourceCode, String className, String clientId) {
+        logger.info("Starting AOT assembly for class: {}", className);
+        Toolchain toolchain = toolchains.getDefault();
+        String cacheKey = DisassemblyCache.key("aot", sourceCode, className, cacheFlags(toolchain, aotCompiler));
+        String cached = cache.get(cacheKey);
+        if (cached != null) {
+            logger.info("Returning cached AOT assembly for class: {}", className);
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<String> build = new CompletableFuture<>();
+        CompletableFuture<String> running = aotBuilds.putIfAbsent(cacheKey, build);
+        if (running != null) {
+            logger.info("Joining running native image build for class: {}", className);
+            return running.copy();
+        }
+        scheduler.submit(JobScheduler.Mode.AOT, clientId, () -> {
+            CompiledClasses classes = compile(toolchain, sourceCode, className, AOT);
+            String result = timed(DisassemblyMetrics.Stage.DISASSEMBLE, AOT, () -> aotCompiler.disassemble(classes, className));
+            metrics.recordOutputSize(AOT, result);
+            cache.put(cacheKey, result);
+            return result;
+        }).whenComplete((result, failure) -> {
+            aotBuilds.remove(cacheKey, build);
+            if (failure != null) {
+                build.completeExceptionally(failure);
+            } else {
+                build.complete(result);
+            }
+        });
+        return build.copy();
+    }
+
+    /**
+     * Compiles {@code sourceCode} with the JMH annotation processor and runs its benchmarks. Runs
+     * take the whole machine for up to minutes, so they queue in the single-slot AOT lane, and
+     * are not cached, since scores are only meaningful for the machine state they were taken in.
      */
-    public String getAotAssembly(String sourceCode, String className) {
-        return """
-               AOT assembly currently disabled.
-               We are working on improving this feature.
-               Please try the bytecode or JIT assembly views instead.""" + " \n" +sourceCode + "\n" + className;
+    public CompletableFuture<BenchmarkReport> getBenchmarkAsync(String sourceCode, String className, String clientId,
+                                                                BenchmarkOptions options) {
+        logger.info("Starting benchmark of class: {} ({} forks, {} iterations)", className, options.forks(),
+                options.iterations());
+        return metrics.timeRequest(BENCHMARK, () -> scheduler.submit(JobScheduler.Mode.AOT, clientId, () -> {
+            BenchmarkReport report = timed(DisassemblyMetrics.Stage.JIT_RUN, BENCHMARK,
+                    () -> benchmarkRunner.run(sourceCode, className, options));
+            logger.info("Benchmark of class {} returned {} scores", className, report.scores().size());
+            return report;
+        }));
     }
 
     /**
      * Returns JIT compiler output using -XX:+PrintAssembly
      */
     public String getJitAssembly(String sourceCode, String className) throws CompilationException, IOException, InterruptedException {
-        logger.info("Starting JIT assembly for class: {}", className);
-        // Create a unique working directory
-        String workingDirName = UUID.randomUUID().toString();
-        File workingDir = new File(TEMP_DIR, workingDirName);
-        workingDir.mkdir();
-        logger.debug("Created working directory: {}", workingDir);
+        return getJitAssembly(sourceCode, className, ANONYMOUS_CLIENT);
+    }
+
+    /**
+     * Same as {@link #getJitAssembly(String, String)}, queued fairly against other jobs of {@code clientId}
+     */
+    public String getJitAssembly(String sourceCode, String className, String clientId)
+            throws CompilationException, IOException, InterruptedException {
+        return await(getJitAssemblyAsync(sourceCode, className, clientId));
+    }
+
+    /**
+     * Asynchronous form of {@link #getJitAssembly(String, String, String)}: no thread is held
+     * while the job waits for a slot
+     */
+    public CompletableFuture<String> getJitAssemblyAsync(String sourceCode, String className, String clientId) {
+        return getJitAssemblyAsync(sourceCode, className, clientId, ToolchainRegistry.DEFAULT_ID);
+    }
+
+    /**
+     * Same as {@link #getJitAssemblyAsync(String, String, String)}, compiled and run by the
+     * toolchain with id {@code toolchainId}. The job goes through the {@link JobDispatcher}.
+     */
+    public CompletableFuture<String> getJitAssemblyAsync(String sourceCode, String className, String clientId,
+                                                         String toolchainId) {
+        return metrics.timeRequest(JIT, () -> dispatcher.dispatch(
+                new DispatchJob(DispatchJob.Kind.JIT, sourceCode, className, toolchainId), clientId, this::runJob));
+    }
 
+    private CompletableFuture<String> jitJob(String sourceCode, String className, String clientId, String toolchainId) {
+        Toolchain toolchain;
         try {
-            // Write source to file
-            File sourceFile = new File(workingDir, className + ".java");
-            logger.debug("Writing source code to file: {}", sourceFile);
-            try (FileWriter writer = new FileWriter(sourceFile)) {
-                writer.write(sourceCode);
+            toolchain = toolchains.get(toolchainId);
+        } catch (CompilationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        logger.info("Starting JIT assembly for class: {} with toolchain {}", className, toolchain.id());
+        String cacheKey = DisassemblyCache.key("jit", sourceCode, className, cacheFlags(toolchain, toolchain.jitRunner()));
+        String cached = cache.get(cacheKey);
+        if (cached != null) {
+            logger.info("Returning cached JIT assembly for class: {}", className);
+            return CompletableFuture.completedFuture(cached);
+        }
+        return scheduler.submit(JobScheduler.Mode.JIT, clientId, () -> {
+            try {
+                CompiledClasses classes = compile(toolchain, sourceCode, className, JIT);
+                StringBuilder output = new StringBuilder();
+                PrintAssemblyParser parser = new PrintAssemblyParser(method -> { });
+                runJit(toolchain, classes, className, JIT, line -> {
+                    output.append(line).append('\n');
+                    parser.accept(line);
+                });
+                String result = parser.isHsdisMissing() ? HSDIS_HINT + output : output.toString();
+                metrics.recordOutputSize(JIT, result);
+                cache.put(cacheKey, result);
+                return result;
+            } catch (Exception e) {
+                logger.error("Error during JIT assembly for class {}", className);
+                throw e;
             }
+        });
+    }
+
+    /**
+     * Streams JIT compiler output to {@code blocks}, one compiled method at a time, while the JVM
+     * is still running. Only the current block is held in memory, so streamed results are not
+     * added to the cache; results already cached are replayed block by block.
+     */
+    public void streamJitAssembly(String sourceCode, String className, Consumer<String> blocks)
+            throws CompilationException, IOException, InterruptedException {
+        streamJitAssembly(sourceCode, className, ANONYMOUS_CLIENT, blocks);
+    }
+
+    /**
+     * Same as {@link #streamJitAssembly(String, String, Consumer)}, queued fairly against other jobs
+     * of {@code clientId}
+     */
+    public void streamJitAssembly(String sourceCode, String className, String clientId, Consumer<String> blocks)
+            throws CompilationException, IOException, InterruptedException {
+        long started = System.nanoTime();
+        try {
+            streamJit(sourceCode, className, clientId, blocks);
+            metrics.recordRequest(JIT_STREAM, started, null);
+        } catch (Throwable e) {
+            metrics.recordRequest(JIT_STREAM, started, e);
+            throw e;
+        }
+    }
+
+    private void streamJit(String sourceCode, String className, String clientId, Consumer<String> blocks)
+            throws CompilationException, IOException, InterruptedException {
+        logger.info("Starting streamed JIT assembly for class: {}", className);
+        NmethodBlockSplitter splitter = new NmethodBlockSplitter(blocks);
+        Toolchain toolchain = toolchains.getDefault();
+        String cached = cache.get(DisassemblyCache.key("jit", sourceCode, className, cacheFlags(toolchain, toolchain.jitRunner())));
+        if (cached != null) {
+            logger.info("Returning cached JIT assembly for class: {}", className);
+            cached.lines().forEach(splitter);
+            splitter.finish();
+            return;
+        }
+        try (JobScheduler.Slot slot = scheduler.acquire(JobScheduler.Mode.JIT, clientId)) {
+            CompiledClasses classes = compile(toolchain, sourceCode, className, JIT_STREAM);
+            PrintAssemblyParser parser = new PrintAssemblyParser(method -> { });
+            runJit(toolchain, classes, className, JIT_STREAM, line -> {
+                boolean hinted = parser.isHsdisMissing();
+                parser.accept(line);
+                if (!hinted && parser.isHsdisMissing()) {
+                    blocks.accept(HSDIS_HINT);
+                }
+                splitter.accept(line);
+            });
+        }
+        splitter.finish();
+    }
+
+    /**
+     * Runs the JIT job like {@link #getJitAssemblyAsync} and returns the compiled methods selected
+     * by {@code filter} as structured records instead of raw text. The output is parsed while the
+     * JVM runs, so only the selected methods are kept in memory.
+     */
+    public CompletableFuture<JitMethods> getJitMethodsAsync(String sourceCode, String className, String clientId,
+                                                            MethodFilter filter) {
+        return metrics.timeRequest(JIT_METHODS, () -> jitMethodsJob(sourceCode, className, clientId, filter));
+    }
+
+    private CompletableFuture<JitMethods> jitMethodsJob(String sourceCode, String className, String clientId,
+                                                        MethodFilter filter) {
+        logger.info("Starting structured JIT assembly for class: {}", className);
+        List<CompiledMethod> methods = new ArrayList<>();
+        PrintAssemblyParser parser = new PrintAssemblyParser(methods::add, filter);
+        Toolchain toolchain = toolchains.getDefault();
+        String cached = cache.get(DisassemblyCache.key("jit", sourceCode, className, cacheFlags(toolchain, toolchain.jitRunner())));
+        if (cached != null) {
+            logger.info("Returning cached JIT assembly for class: {}", className);
+            cached.lines().forEach(parser);
+            parser.finish();
+            return CompletableFuture.completedFuture(new JitMethods(methods, parser.isHsdisMissing()));
+        }
+        return scheduler.submit(JobScheduler.Mode.JIT, clientId, () -> {
+            CompiledClasses classes = compile(toolchain, sourceCode, className, JIT_METHODS);
+            runJit(toolchain, classes, className, JIT_METHODS, parser);
+            parser.finish();
+            logger.info("Parsed {} compiled methods for class {}, kept {}", parser.getMethodCount(), className, methods.size());
+            return new JitMethods(methods, parser.isHsdisMissing());
+        });
+    }
+
+    /**
+     * Calls every method of {@code className} in a warm-up loop in a JVM of its own and reports the
+     * code of each tier, the inlining decisions and the deoptimizations per method. Runs in the JIT
+     * lane; results are not cached, since each run profiles differently.
+     */
+    public CompletableFuture<TieredJitReport> getTieredJitAsync(String sourceCode, String className, String clientId,
+                                                                TieredJitOptions options) {
+        logger.info("Starting tiered JIT exploration for class: {} (stop at level {})", className, options.stopAtLevel());
+        return metrics.timeRequest(JIT_TIERED, () -> scheduler.submit(JobScheduler.Mode.JIT, clientId, () -> {
+            CompiledClasses classes = compile(toolchains.getDefault(), sourceCode, className, JIT_TIERED);
+            TieredJitReport report = timed(DisassemblyMetrics.Stage.JIT_RUN, JIT_TIERED,
+                    () -> tieredJitExplorer.explore(classes, className, options));
+            logger.info("Tiered JIT exploration of class {} compiled {} methods", className, report.methods().size());
+            return report;
+        }));
+    }
+
+    /**
+     * Runs the {@code main} method of {@code className} in a JVM of its own with a flight recording
+     * and returns the compiled methods it was sampled in, with the share of the samples each of
+     * their instructions got. Runs in the JIT lane; results are not cached, since each run samples
+     * differently.
+     */
+    public CompletableFuture<JitProfile> getJitProfileAsync(String sourceCode, String className, String clientId) {
+        logger.info("Starting JIT profiling run for class: {}", className);
+        return metrics.timeRequest(JIT_PROFILE, () -> scheduler.submit(JobScheduler.Mode.JIT, clientId, () -> {
+            CompiledClasses classes = compile(toolchains.getDefault(), sourceCode, className, JIT_PROFILE);
+            JitProfile profile = timed(DisassemblyMetrics.Stage.JIT_RUN, JIT_PROFILE,
+                    () -> jitProfiler.profile(classes, className));
+            logger.info("JIT profiling run of class {} took {} samples, {} in compiled code", className,
+                    profile.samples(), profile.compiledSamples());
+            return profile;
+        }));
+    }
+
+    /**
+     * Runs the bytecode job once per toolchain in {@code toolchainIds}, in parallel as far as the
+     * scheduler allows, and returns one result per distinct toolchain in request order. A failure
+     * of one toolchain, including an unknown id, is reported in its result and does not fail the
+     * others.
+     */
+    public CompletableFuture<List<ToolchainResult>> compareBytecodeAsync(String sourceCode, String className,
+                                                                         String clientId, List<String> toolchainIds) {
+        return fanOut(toolchainIds, toolchainId -> getBytecodeAsync(sourceCode, className, clientId, toolchainId));
+    }
+
+    /**
+     * JIT form of {@link #compareBytecodeAsync}
+     */
+    public CompletableFuture<List<ToolchainResult>> compareJitAssemblyAsync(String sourceCode, String className,
+                                                                            String clientId, List<String> toolchainIds) {
+        return fanOut(toolchainIds, toolchainId -> getJitAssemblyAsync(sourceCode, className, clientId, toolchainId));
+    }
+
+    public List<ToolchainRegistry.Info> getToolchains() {
+        return toolchains.list();
+    }
+
+    private static CompletableFuture<List<ToolchainResult>> fanOut(List<String> toolchainIds,
+                                                                   Function<String, CompletableFuture<String>> job) {
+        List<CompletableFuture<ToolchainResult>> results = new ArrayList<>();
+        for (String toolchainId : new LinkedHashSet<>(toolchainIds)) {
+            results.add(job.apply(toolchainId).handle((result, failure) -> {
+                if (failure == null) {
+                    return ToolchainResult.success(toolchainId, result);
+                }
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                return ToolchainResult.failure(toolchainId, cause.getMessage());
+            }));
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    /** Results depend on the toolchain's JDK as well as on the engine that produced them */
+    private static String cacheFlags(Toolchain toolchain, Object engine) {
+        return toolchain.id() + "@" + toolchain.version() + "/" + engine.getClass().getName();
+    }
+
+    /**
+     * Fails fast with {@link JobRejectedException} when a JIT job of {@code clientId} would be
+     * rejected right now, for callers that must decide before they start answering
+     */
+    public void checkJitAdmission(String clientId) throws JobRejectedException {
+        scheduler.checkAdmission(JobScheduler.Mode.JIT, clientId);
+    }
+
+    /**
+     * Bytecode form of {@link #checkJitAdmission}, for batches
+     */
+    public void checkBytecodeAdmission(String clientId) throws JobRejectedException {
+        scheduler.checkAdmission(JobScheduler.Mode.BYTECODE, clientId);
+    }
+
+    public List<JobScheduler.Stats> getSchedulerStats() {
+        return scheduler.stats();
+    }
+
+    public DisassemblyCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    public WorkspaceManager.Stats getWorkspaceStats() {
+        return workspaces.stats();
+    }
+
+    public ArtifactStore.Stats getArtifactStats() {
+        return artifacts.stats();
+    }
 
-            // Compile the Java file
-            logger.debug("Compiling Java file: {}", sourceFile);
-            boolean compiled = compileJavaFile(sourceFile);
-            if (!compiled) {
+    /**
+     * Id of the artifact the default toolchain compiles from {@code sourceCode}, if the store holds
+     * it, so clients can refer to it instead of sending the source again; {@code null} otherwise
+     */
+    public String getArtifactId(String sourceCode, String className) {
+        Toolchain toolchain = toolchains.getDefault();
+        String id = ArtifactStore.id(sourceCode, className, cacheFlags(toolchain, toolchain.compiler()));
+        return artifacts.contains(id) ? id : null;
+    }
+
+    /** Returns the stored artifact with {@code artifactId}, or {@code null} if it is not held any more */
+    public ArtifactStore.Artifact getArtifact(String artifactId) {
+        return artifacts.get(artifactId);
+    }
+
+    /**
+     * Compiles the source, or takes its classes from the artifact store if any mode compiled the
+     * same source with the same toolchain before
+     */
+    private CompiledClasses compile(Toolchain toolchain, String sourceCode, String className, String mode)
+            throws CompilationException, IOException, InterruptedException {
+        String id = ArtifactStore.id(sourceCode, className, cacheFlags(toolchain, toolchain.compiler()));
+        ArtifactStore.Artifact artifact = artifacts.getOrCompile(id, () -> {
+            logger.debug("Compiling class: {}", className);
+            try {
+                CompiledClasses classes = timed(DisassemblyMetrics.Stage.COMPILE, mode,
+                        () -> toolchain.compiler().compile(sourceCode, className));
+                logger.info("Successfully compiled class: {}", className);
+                return new ArtifactStore.Artifact(id, sourceCode, className, classes);
+            } catch (CompilationException e) {
                 logger.error("Compilation failed for class: {}", className);
-                throw new CompilationException("Compilation failed");
+                throw e;
             }
-            logger.info("Successfully compiled class: {}", className);
+        });
+        logger.debug("Using classes of artifact {} for class: {}", id, className);
+        return artifact.classes();
+    }
+
+    private void runJit(Toolchain toolchain, CompiledClasses classes, String className, String mode,
+                        Consumer<String> output) throws CompilationException, IOException, InterruptedException {
+        timed(DisassemblyMetrics.Stage.JIT_RUN, mode, () -> {
+            toolchain.jitRunner().run(classes, className, output);
+            return null;
+        });
+    }
 
-            // Get JIT assembly using hsdis and PrintAssembly
-            return getJitAssemblyOutput(workingDir, className);
-        } catch (Exception e) {
-            logger.error("Error during JIT assembly for class {}", className);
+    /** Runs one stage of a job and records its time and outcome */
+    private <T> T timed(DisassemblyMetrics.Stage stage, String mode, StageBody<T> body)
+            throws CompilationException, IOException, InterruptedException {
+        long started = System.nanoTime();
+        try {
+            T result = body.run();
+            metrics.recordStage(stage, mode, started, null);
+            return result;
+        } catch (Throwable e) {
+            metrics.recordStage(stage, mode, started, e);
             throw e;
-        } finally {
-            // Clean up
-            deleteDirectory(workingDir);
-            logger.debug("Cleaned up working directory: {}", workingDir);
-        }
-    }
-
-    private boolean compileJavaFile(File sourceFile) throws IOException, InterruptedException {
-        logger.debug("Starting compilation of file: {}", sourceFile);
-        ProcessBuilder processBuilder = new ProcessBuilder("javac", sourceFile.getAbsolutePath());
-        Process process = processBuilder.start();
-        boolean completed = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-        if (!completed) {
-            logger.warn("Compilation timed out for file: {}", sourceFile);
-            process.destroyForcibly();
-            throw new InterruptedException("Compilation timed out");
-        }
-
-        boolean success = process.exitValue() == 0;
-        logger.debug("Compilation finished with status: {}", success);
-        return success;
-    }
-
-    private String getBytecodeDisassembly(File workingDir, String className) throws IOException, CompilationException, InterruptedException {
-        logger.debug("Starting bytecode disassembly for class: {}", className);
-        ProcessBuilder processBuilder = new ProcessBuilder(
-                "javap", "-c", "-verbose", "-p", className
-        );
-        processBuilder.directory(workingDir);
-
-        Process process = processBuilder.start();
-        boolean completed = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-        if (!completed) {
-            logger.warn("Disassembly timed out for class: {}", className);
-            process.destroyForcibly();
-            throw new CompilationException("Disassembly timed out");
-        }
-
-        return new String(process.getInputStream().readAllBytes());
-    }
-
-    private String getJitAssemblyOutput(File workingDir, String className) throws IOException, InterruptedException {
-        logger.debug("Starting JIT assembly output for class: {}", className);
-        // This requires hsdis (HotSpot Disassembler) plugin to be installed
-        ProcessBuilder processBuilder = new ProcessBuilder(
-                "java",
-                "-XX:+UnlockDiagnosticVMOptions",
-                "-XX:+PrintAssembly",
-                "-XX:CompileOnly=" + className + "::*",
-                className
-        );
-        processBuilder.directory(workingDir);
-        processBuilder.redirectErrorStream(true); // Merge stderr and stdout
-
-        Process process = processBuilder.start();
-        boolean completed = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-        if (!completed) {
-            logger.warn("JIT disassembly timed out for class: {}", className);
-            process.destroyForcibly();
-            throw new InterruptedException("JIT disassembly timed out");
-        }
-
-        String output = new String(process.getInputStream().readAllBytes());
-        
-        // Check if the output contains actual assembly or just the warning message
-        if (output.contains("Could not load hsdis") || 
-            (!output.contains("<nmethod>") && !output.contains("Assembly") && 
-             output.contains("PrintAssembly is enabled"))) {
-            return "HotSpot Disassembler (hsdis) plugin is not installed.\n\n" +
-                   "To use JIT assembly view, you need to install the hsdis plugin for your JVM:\n\n" +
-                   "1. Download the appropriate hsdis plugin for your platform from:\n" +
-                   "   https://github.com/openjdk/jdk/tree/master/src/utils/hsdis\n\n" +
-                   "2. Place the library file (hsdis-<arch>.so or hsdis-<arch>.dll) in your JRE's lib directory:\n" +
-                   "   - For Linux/Mac: $JAVA_HOME/lib/\n" +
-                   "   - For Windows: $JAVA_HOME\\lib\\\n\n" +
-                   "Original output:\n" + output;
-        }
-        
-        return output;
-    }
-
-    private void deleteDirectory(File directory) throws IOException {
-        logger.debug("Deleting directory: {}", directory);
-        try (var dir = Files.walk(directory.toPath())) {
-                dir.sorted(Comparator.reverseOrder())
-                .map(Path::toFile)
-                .forEach(File::delete);
-             }
-    }
-}
\ No newline at end of file
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageBody<T> {
+        T run() throws CompilationException, IOException, InterruptedException;
+    }
+
+    /** Waits for a job, rethrowing its failure as thrown by the job itself */
+    private static <T> T await(CompletableFuture<T> job) throws CompilationException, IOException, InterruptedException {
+        try {
+            return job.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompilationException compilationException) {
+                throw compilationException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof InterruptedException interruptedException) {
+                throw interruptedException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompilationException(cause.getMessage(), cause);
+        }
+    }
+}
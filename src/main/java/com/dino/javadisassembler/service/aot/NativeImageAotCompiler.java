@@ -0,0 +1,230 @@
+package com.dino.javadisassembler.service.aot;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.Workspace;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a native image of the user's classes with GraalVM {@code native-image} and lists the
+ * machine code of their methods with {@code objdump}.
+ * <p>
+ * The image is built with local symbols kept, so every compiled method is a named function in
+ * the binary. Without debug info native-image names them {@code Class_method_<digest>}, with
+ * {@code -g} objdump demangles them to {@code Class::method(args)}; both are recognised. Methods
+ * that were inlined everywhere, or found unreachable by the points-to analysis, have no code of
+ * their own and do not appear.
+ * <p>
+ * The builder runs under {@code policy}, whose heap and CPU time are sized for a native-image
+ * build rather than for user code. objdump shares its CPU time limit but not its output cap: its
+ * listing of the whole image is filtered down to the user's methods here.
+ */
+public class NativeImageAotCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(NativeImageAotCompiler.class);
+    private static final Duration OBJDUMP_TIMEOUT = Duration.ofSeconds(60);
+    private static final String IMAGE_NAME = "image";
+    /** e.g. {@code 0000000000403000 <Test_main_7a5e1c0b9d2f4e6a>:} */
+    private static final Pattern FUNCTION = Pattern.compile("^[0-9a-fA-F]+ <(.+)>:$");
+    private static final Pattern DIGEST_SUFFIX = Pattern.compile("_[0-9a-fA-F]{8,}$");
+
+    private final WorkspaceManager workspaces;
+    private final String nativeImage;
+    private final String objdump;
+    private final Duration buildTimeout;
+    private final List<String> buildOptions;
+    private final ResourcePolicy policy;
+
+    /**
+     * @param buildOptions extra native-image options, e.g. {@code -Ob} for the quick build mode
+     */
+    public NativeImageAotCompiler(WorkspaceManager workspaces, String nativeImage, String objdump, Duration buildTimeout,
+                                  List<String> buildOptions, ResourcePolicy policy) {
+        this.workspaces = workspaces;
+        this.nativeImage = nativeImage;
+        this.objdump = objdump;
+        this.buildTimeout = buildTimeout;
+        this.buildOptions = List.copyOf(buildOptions);
+        this.policy = policy;
+    }
+
+    /**
+     * Builds the image with {@code className} as entry point and returns the assembly of the
+     * methods declared by the compiled classes
+     */
+    public String disassemble(CompiledClasses classes, String className) throws CompilationException, InterruptedException {
+        try (Workspace workspace = workspaces.acquire()) {
+            Path workingDir = workspace.directory();
+            Path classesDir = workspace.writeClasses("classes", classes);
+            Path image = workingDir.resolve(IMAGE_NAME);
+
+            List<String> command = new ArrayList<>();
+            command.add(nativeImage);
+            command.addAll(policy.toolOptions());
+            command.addAll(List.of(
+                    "-cp", classesDir.toString(),
+                    "--no-fallback",
+                    // Keep the method symbols, which native-image strips by default
+                    "-H:-DeleteLocalSymbols",
+                    "-o", image.toString()
+            ));
+            command.addAll(buildOptions);
+            command.add(className);
+            ProcessBuilder build = new ProcessBuilder(command);
+            build.directory(workingDir.toFile());
+            build.redirectErrorStream(true);
+
+            long started = System.nanoTime();
+            ProcessRunner.Result result = run(build, buildTimeout, policy, "native-image");
+            if (result.cpuExceeded()) {
+                throw new CompilationException("Native image build stopped: " + policy.cpuLimitMessage());
+            }
+            if (result.truncated()) {
+                throw new CompilationException("Native image build printed more than " + policy.maxOutputBytes() + " bytes");
+            }
+            if (result.timedOut()) {
+                logger.warn("Native image build timed out for class: {}", className);
+                throw new JobTimeoutException("Native image build timed out after " + buildTimeout.toSeconds() + " seconds");
+            }
+            if (result.exitCode() != 0) {
+                throw new CompileErrorException("Native image build failed\n" + result.stdout());
+            }
+            logger.info("Built native image of class {} in {} ms", className, (System.nanoTime() - started) / 1_000_000);
+
+            // The listing of a whole image runs to hundreds of megabytes, so only the kept functions are held
+            MethodExtractor extractor = new MethodExtractor(classes.classNames());
+            ProcessRunner.Result dump;
+            try {
+                dump = ProcessRunner.run(new ProcessBuilder(objdump, "-d", "-C", "--no-show-raw-insn", image.toString()),
+                        OBJDUMP_TIMEOUT, new ResourcePolicy(0, 0, 0, policy.cpuTimeLimit(), policy.maxOutputBytes()),
+                        extractor);
+            } catch (IOException e) {
+                checkInstalled(e, "objdump");
+                throw e;
+            }
+            if (dump.cpuExceeded()) {
+                throw new CompilationException("Disassembly of the native image stopped: " + policy.cpuLimitMessage());
+            }
+            if (dump.timedOut() || dump.exitCode() != 0) {
+                throw new CompilationException("Disassembly of the native image failed\n" + dump.stderr());
+            }
+            String assembly = extractor.assembly();
+            if (assembly.isEmpty()) {
+                return "No machine code found for the methods of " + className
+                        + ": they were inlined into their callers or are unreachable from main.\n";
+            }
+            return assembly;
+        } catch (IOException e) {
+            throw new CompilationException("Native image build failed", e);
+        }
+    }
+
+    /**
+     * Keeps the functions of {@code objdump -d} output that belong to one of {@code classNames},
+     * each under a {@code Class::method:} heading
+     */
+    static String extractMethods(String objdumpOutput, Collection<String> classNames) {
+        MethodExtractor extractor = new MethodExtractor(classNames);
+        objdumpOutput.lines().forEach(extractor);
+        return extractor.assembly();
+    }
+
+    /** Does what {@link #extractMethods} does one line at a time, as objdump prints them */
+    static final class MethodExtractor implements Consumer<String> {
+
+        private final List<String> prefixes;
+        private final StringBuilder assembly = new StringBuilder();
+        private boolean keep;
+
+        MethodExtractor(Collection<String> classNames) {
+            this.prefixes = symbolPrefixes(classNames);
+        }
+
+        @Override
+        public void accept(String line) {
+            Matcher function = FUNCTION.matcher(line);
+            if (function.matches()) {
+                String method = methodName(function.group(1), prefixes);
+                keep = method != null;
+                if (keep) {
+                    assembly.append(method).append(":\n");
+                }
+            } else if (line.isBlank()) {
+                if (keep) {
+                    assembly.append('\n');
+                }
+                keep = false;
+            } else if (keep) {
+                assembly.append(line).append('\n');
+            }
+        }
+
+        String assembly() {
+            return assembly.toString();
+        }
+    }
+
+    /** Class names as they may start a symbol: binary, package-less and, for nested classes, innermost */
+    private static List<String> symbolPrefixes(Collection<String> classNames) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String className : classNames) {
+            String simple = className.substring(className.lastIndexOf('.') + 1);
+            prefixes.add(className);
+            prefixes.add(simple);
+            prefixes.add(simple.substring(simple.lastIndexOf('$') + 1));
+        }
+        List<String> sorted = new ArrayList<>(prefixes);
+        // Outer$Inner must win over Outer
+        sorted.sort(Comparator.comparingInt(String::length).reversed());
+        return sorted;
+    }
+
+    private static String methodName(String symbol, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (symbol.startsWith(prefix + "::")) {
+                return symbol;
+            }
+            if (symbol.startsWith(prefix + "_") && symbol.length() > prefix.length() + 1) {
+                String method = DIGEST_SUFFIX.matcher(symbol.substring(prefix.length() + 1)).replaceFirst("");
+                return prefix + "::" + method;
+            }
+        }
+        return null;
+    }
+
+    private static ProcessRunner.Result run(ProcessBuilder processBuilder, Duration timeout, ResourcePolicy policy,
+                                            String tool) throws CompilationException, IOException, InterruptedException {
+        try {
+            return ProcessRunner.run(processBuilder, timeout, policy);
+        } catch (IOException e) {
+            checkInstalled(e, tool);
+            throw e;
+        }
+    }
+
+    /** Reports {@code e}, a failure to start {@code tool}, as the tool missing if it is */
+    private static void checkInstalled(IOException e, String tool) throws CompileErrorException {
+        if (e.getMessage() != null && e.getMessage().startsWith("Cannot run program")) {
+            throw new CompileErrorException(tool + " is not installed; AOT assembly needs GraalVM native-image and binutils");
+        }
+    }
+}
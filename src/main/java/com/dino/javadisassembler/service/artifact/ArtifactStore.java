@@ -0,0 +1,163 @@
+package com.dino.javadisassembler.service.artifact;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.cache.DisassemblyCache;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class files of recent compilations, so the views of one snippet share a single compilation:
+ * users look at the bytecode and then at the JIT output of the same source, which used to compile
+ * it twice. Artifacts are identified by a hash of the source, class name, toolchain and compiler,
+ * and keep their source, so clients can send the id back instead of the source.
+ * <p>
+ * Bounded by the total size of sources and class files and, like {@link DisassemblyCache}, through
+ * a minimum per-entry weight by entry count; artifacts not used for a while are evicted first.
+ */
+public class ArtifactStore {
+
+    /**
+     * @param sourceCode the sanitized source the classes were compiled from
+     */
+    public record Artifact(String id, String sourceCode, String className, CompiledClasses classes) {
+
+        long weight() {
+            return (long) classes.totalBytes() + sourceCode.length();
+        }
+    }
+
+    /**
+     * @param shared compilations a request waited for instead of compiling the same source itself
+     */
+    public record Stats(long hits, long misses, long shared, long evictions, long entries, long bytes) {
+    }
+
+    @FunctionalInterface
+    public interface Compilation {
+        Artifact compile() throws CompilationException, IOException, InterruptedException;
+    }
+
+    private final boolean enabled;
+    private final Cache<String, Artifact> artifacts;
+    /** Compilations in progress by artifact id, so concurrent requests for one source compile once */
+    private final Map<String, CompletableFuture<Artifact>> compilations = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * @param maxEntries maximum number of artifacts kept
+     * @param maxBytes   maximum total size of the sources and class files kept
+     */
+    public ArtifactStore(int maxEntries, long maxBytes) {
+        this.enabled = maxEntries > 0 && maxBytes > 0;
+        // Every entry weighs at least maxBytes / maxEntries, which caps the entry count as well
+        int minimumWeight = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / Math.max(1, maxEntries)));
+        this.artifacts = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, maxBytes))
+                .weigher((String id, Artifact artifact) ->
+                        (int) Math.max(minimumWeight, Math.min(Integer.MAX_VALUE, artifact.weight())))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    /** A store that keeps nothing, so every request compiles its source */
+    public static ArtifactStore disabled() {
+        return new ArtifactStore(0, 0);
+    }
+
+    /**
+     * Computes the id of the artifact compiled from {@code sourceCode}
+     *
+     * @param flags the toolchain and compiler, as for {@link DisassemblyCache#key}
+     */
+    public static String id(String sourceCode, String className, String flags) {
+        return DisassemblyCache.key("artifact", sourceCode, className, flags);
+    }
+
+    /** Returns the artifact, or {@code null} if it was never compiled or has been evicted */
+    public Artifact get(String id) {
+        return enabled ? artifacts.getIfPresent(id) : null;
+    }
+
+    /** Same as {@link #get}, without counting a hit or miss */
+    public boolean contains(String id) {
+        return enabled && artifacts.asMap().containsKey(id);
+    }
+
+    /**
+     * Returns the artifact with {@code id}, running {@code compilation} if it is not stored yet. A
+     * request for an artifact that another request is compiling right now waits for that
+     * compilation and gets its result or failure. Failed compilations are not stored.
+     */
+    public Artifact getOrCompile(String id, Compilation compilation)
+            throws CompilationException, IOException, InterruptedException {
+        Artifact artifact = get(id);
+        if (artifact != null) {
+            return artifact;
+        }
+        CompletableFuture<Artifact> compiling = new CompletableFuture<>();
+        CompletableFuture<Artifact> running = compilations.putIfAbsent(id, compiling);
+        if (running != null) {
+            shared.increment();
+            return await(running);
+        }
+        try {
+            artifact = compilation.compile();
+            if (enabled) {
+                artifacts.put(id, artifact);
+            }
+            compiling.complete(artifact);
+            return artifact;
+        } catch (Throwable e) {
+            compiling.completeExceptionally(e);
+            throw e;
+        } finally {
+            compilations.remove(id, compiling);
+        }
+    }
+
+    public Stats stats() {
+        CacheStats stats = artifacts.stats();
+        return new Stats(
+                stats.hitCount(),
+                stats.missCount(),
+                shared.sum(),
+                stats.evictionCount(),
+                artifacts.estimatedSize(),
+                artifacts.asMap().values().stream().mapToLong(Artifact::weight).sum());
+    }
+
+    private static Artifact await(CompletableFuture<Artifact> compilation)
+            throws CompilationException, IOException, InterruptedException {
+        try {
+            return compilation.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompilationException compilationException) {
+                throw compilationException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof InterruptedException interruptedException) {
+                throw interruptedException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompilationException(cause.getMessage(), cause);
+        }
+    }
+}
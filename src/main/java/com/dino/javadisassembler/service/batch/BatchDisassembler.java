@@ -0,0 +1,186 @@
+package com.dino.javadisassembler.service.batch;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.bytecode.BytecodeDisassembler;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Disassembles every class of a batch on a fixed pool of threads, one class per task, and hands
+ * each result over as soon as it is ready, so a large module is listed at the pace of all cores
+ * rather than one class after the other. Also reads uploaded JARs and checks batches against the
+ * configured limits.
+ */
+public class BatchDisassembler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDisassembler.class);
+    /** Relative paths of Java identifiers only, so nothing can point outside a source directory */
+    private static final Pattern SOURCE_PATH = Pattern.compile("([A-Za-z_$][A-Za-z0-9_$]*/)*[A-Za-z_$][A-Za-z0-9_$]*\\.java");
+    /**
+     * Class files the same way: their names become class names handed to the disassembler, which
+     * for javap are command line arguments
+     */
+    private static final Pattern CLASS_PATH = Pattern.compile("([A-Za-z_$][A-Za-z0-9_$]*/)*[A-Za-z_$][A-Za-z0-9_$]*\\.class");
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String SOURCE_SUFFIX = ".java";
+
+    /**
+     * Entries of a JAR: class files keyed by binary class name, Java sources keyed by path
+     */
+    public record Archive(Map<String, byte[]> classes, Map<String, String> sources) {
+    }
+
+    private final int maxFiles;
+    private final long maxArchiveBytes;
+    private final ExecutorService executor;
+
+    public BatchDisassembler(int parallelism, int maxFiles, long maxArchiveBytes) {
+        this.maxFiles = Math.max(1, maxFiles);
+        this.maxArchiveBytes = maxArchiveBytes;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "batch-disassembler-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Disassembles every class in {@code classes} in parallel and passes each result to
+     * {@code results} on the calling thread, in the order they finish. A class that cannot be
+     * disassembled is reported as a failure and does not stop the others. If {@code results}
+     * throws, e.g. because the client went away, the classes not started yet are dropped.
+     *
+     * @return the number of classes reported
+     */
+    public int disassemble(CompiledClasses classes, BytecodeDisassembler disassembler, Consumer<ClassResult> results)
+            throws InterruptedException {
+        CompletionService<ClassResult> completion = new ExecutorCompletionService<>(executor);
+        List<Future<ClassResult>> tasks = new ArrayList<>();
+        for (String className : classes.classNames().stream().sorted().toList()) {
+            tasks.add(completion.submit(() -> disassembleClass(classes, className, disassembler)));
+        }
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                results.accept(completion.take().get());
+            }
+            return tasks.size();
+        } catch (ExecutionException e) {
+            // disassembleClass reports failures as results, so only errors get here
+            throw new IllegalStateException("Batch disassembly failed", e.getCause());
+        } finally {
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+
+    private static ClassResult disassembleClass(CompiledClasses classes, String className,
+                                                BytecodeDisassembler disassembler) {
+        try {
+            return ClassResult.success(className, disassembler.disassemble(classes, className));
+        } catch (CompilationException e) {
+            return ClassResult.failure(className, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ClassResult.failure(className, "Interrupted");
+        } catch (RuntimeException e) {
+            logger.error("Error disassembling class {} of a batch", className, e);
+            return ClassResult.failure(className, "Disassembly failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the class files and Java sources of a JAR, ignoring other entries and {@code META-INF}.
+     * Throws if the JAR, or what it extracts to, exceeds the size limit, if it holds more files
+     * than a batch may contain, or if a class file is not named after a binary class name.
+     * Sources are checked with the rest of the batch by {@link #checkSources}.
+     */
+    public Archive readJar(byte[] jar) throws CompilationException {
+        if (jar.length > maxArchiveBytes) {
+            throw new CompilationException("JAR exceeds the limit of " + maxArchiveBytes + " bytes");
+        }
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        Map<String, String> sources = new LinkedHashMap<>();
+        long extracted = 0;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(jar))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                boolean classFile = name.endsWith(CLASS_SUFFIX) && !name.endsWith("module-info" + CLASS_SUFFIX)
+                        && !name.endsWith("package-info" + CLASS_SUFFIX);
+                if (entry.isDirectory() || name.startsWith("META-INF/") || !(classFile || name.endsWith(SOURCE_SUFFIX))) {
+                    continue;
+                }
+                if (classFile && !CLASS_PATH.matcher(name).matches()) {
+                    throw new CompilationException("Invalid class file name in JAR: " + name);
+                }
+                if (classes.size() + sources.size() >= maxFiles) {
+                    throw new CompilationException("JAR holds more than " + maxFiles + " classes and sources");
+                }
+                byte[] content = readEntry(zip, maxArchiveBytes - extracted);
+                extracted += content.length;
+                if (classFile) {
+                    classes.put(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'), content);
+                } else {
+                    sources.put(name, new String(content, StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            throw new CompilationException("Could not read JAR: " + e.getMessage(), e);
+        }
+        logger.debug("Read {} classes and {} sources from JAR", classes.size(), sources.size());
+        return new Archive(classes, sources);
+    }
+
+    private byte[] readEntry(ZipInputStream zip, long budget) throws IOException, CompilationException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = zip.read(buffer)) != -1) {
+            if (content.size() + read > budget) {
+                throw new CompilationException("JAR extracts to more than " + maxArchiveBytes + " bytes");
+            }
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * Throws unless {@code sources} fit in a batch and every path is a relative {@code .java} path
+     */
+    public void checkSources(Map<String, String> sources) throws CompilationException {
+        if (sources.size() > maxFiles) {
+            throw new CompilationException("A batch may contain at most " + maxFiles + " source files");
+        }
+        for (String path : sources.keySet()) {
+            if (path == null || !SOURCE_PATH.matcher(path).matches()) {
+                throw new CompilationException("Invalid source path: " + path);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
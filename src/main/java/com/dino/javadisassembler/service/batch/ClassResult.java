@@ -0,0 +1,15 @@
+package com.dino.javadisassembler.service.batch;
+
+/**
+ * Outcome of one class of a batch
+ */
+public record ClassResult(String className, boolean success, String result, String errorMessage) {
+
+    public static ClassResult success(String className, String result) {
+        return new ClassResult(className, true, result, null);
+    }
+
+    public static ClassResult failure(String className, String errorMessage) {
+        return new ClassResult(className, false, null, errorMessage);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dino.javadisassembler.service.benchmark;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Settings of a benchmark run. They are passed to JMH on its command line, where they take
+ * precedence over the annotations of the benchmark.
+ *
+ * @param forks            JVMs forked per benchmark, each running all warm-up and measured iterations
+ * @param warmupIterations iterations run before measuring
+ * @param iterations       measured iterations
+ * @param iterationTime    length of each warm-up and measured iteration
+ * @param mode             JMH mode ({@code thrpt}, {@code avgt}, {@code sample}, {@code ss}), or {@code null}
+ *                         for the one the benchmark declares
+ * @param timeUnit         unit of the scores ({@code ns}, {@code us}, {@code ms}, {@code s}), or {@code null}
+ *                         for the one the benchmark declares
+ * @param gcProfiler       whether to report allocation rates and collections ({@code -prof gc})
+ * @param perfasm          whether to report the hottest code annotated with perf samples
+ *                         ({@code -prof perfasm}), which needs Linux perf and hsdis on the server
+ */
+public record BenchmarkOptions(int forks, int warmupIterations, int iterations, Duration iterationTime, String mode,
+                               String timeUnit, boolean gcProfiler, boolean perfasm) {
+
+    private static final Set<String> MODES = Set.of("thrpt", "avgt", "sample", "ss");
+    private static final Set<String> TIME_UNITS = Set.of("ns", "us", "ms", "s");
+
+    public BenchmarkOptions {
+        if (forks < 1) {
+            throw new IllegalArgumentException("At least one fork is required, was " + forks);
+        }
+        if (warmupIterations < 0) {
+            throw new IllegalArgumentException("Warm-up iterations must not be negative, was " + warmupIterations);
+        }
+        if (iterations < 1) {
+            throw new IllegalArgumentException("At least one measured iteration is required, was " + iterations);
+        }
+        if (iterationTime.toMillis() < 1) {
+            throw new IllegalArgumentException("Iterations must take at least 1 ms, was " + iterationTime);
+        }
+        if (mode != null && !MODES.contains(mode)) {
+            throw new IllegalArgumentException("Unknown mode: " + mode + ", expected one of thrpt, avgt, sample, ss");
+        }
+        if (timeUnit != null && !TIME_UNITS.contains(timeUnit)) {
+            throw new IllegalArgumentException("Unknown time unit: " + timeUnit + ", expected one of ns, us, ms, s");
+        }
+    }
+
+    /** Time spent in iterations, JVM start-up and benchmark setup aside */
+    public Duration iterationsTime() {
+        return iterationTime.multipliedBy((long) forks * (warmupIterations + iterations));
+    }
+}
@@ -0,0 +1,28 @@
+package com.dino.javadisassembler.service.benchmark;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores of a benchmark run, one per benchmark method and combination of {@code @Param} values
+ */
+public record BenchmarkReport(List<Score> scores) {
+
+    /**
+     * @param benchmark qualified benchmark method, e.g. {@code demo.Bench.sum}
+     * @param mode      JMH mode the score was measured in
+     * @param params    values of the {@code @Param} fields the score was measured with
+     * @param score     mean over the measured iterations of all forks
+     * @param error     half-width of the 99.9% confidence interval, {@code null} when there were too few
+     *                  iterations to tell
+     * @param unit      unit of score and error, e.g. {@code ns/op}
+     * @param secondary further results by name, e.g. the allocation per operation {@code gc.alloc.rate.norm}
+     * @param hotRegion hottest code annotated by perfasm, {@code null} unless requested
+     */
+    public record Score(String benchmark, String mode, Map<String, String> params, double score, Double error,
+                        String unit, Map<String, Metric> secondary, String hotRegion) {
+    }
+
+    public record Metric(double score, Double error, String unit) {
+    }
+}
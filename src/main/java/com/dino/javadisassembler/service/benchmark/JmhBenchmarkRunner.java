@@ -0,0 +1,328 @@
+package com.dino.javadisassembler.service.benchmark;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.Workspace;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles the user's {@code @Benchmark} source against the JMH runtime bundled with the service
+ * and runs it with JMH in a JVM of its own. The source is compiled by a forked {@code javac} with
+ * the JMH annotation processor, which generates the benchmark harness next to the user's classes.
+ * <p>
+ * JMH forks the measuring JVMs itself; they get the memory and processor limits of the
+ * {@link ResourcePolicy} through {@code -jvmArgsPrepend}, and are killed with the harness when the
+ * run goes over its time. The CPU time limit only applies to the harness, which does little work,
+ * so runs are bounded by their number of forks, iterations and iteration time instead.
+ */
+public class JmhBenchmarkRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmhBenchmarkRunner.class);
+    private static final Duration COMPILE_TIMEOUT = Duration.ofSeconds(60);
+    private static final String PROCESSOR = "org.openjdk.jmh.generators.BenchmarkProcessor";
+    private static final String BENCHMARK_LIST = "META-INF/BenchmarkList";
+    private static final String RESULT = "result.json";
+    /** Bound of the results read back when the policy does not cap output */
+    private static final long MAX_RESULT_BYTES = 16L * 1024 * 1024;
+    /** A class of each jar of the JMH runtime: core, annotation processor, and the libraries of core */
+    private static final List<String> RUNTIME_CLASSES = List.of("org.openjdk.jmh.Main", PROCESSOR,
+            "joptsimple.OptionParser", "org.apache.commons.math3.stat.descriptive.StatisticalSummary");
+    /** e.g. {@code Secondary result "demo.Bench.sum:asm":}; JMH before 1.36 put a dot before the name */
+    private static final Pattern ASM_RESULT = Pattern.compile("^Secondary result \"(.+):·?asm\":$");
+    private static final Pattern SECTION_END = Pattern.compile("^(Secondary result \"|Result \"|# )");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final WorkspaceManager workspaces;
+    private final List<Path> classpath;
+    private final Duration timeout;
+    private final int maxForks;
+    private final int maxIterations;
+    private final Duration maxIterationsTime;
+    private final ResourcePolicy policy;
+
+    /**
+     * @param classpath         jars of the JMH runtime, see {@link #bundledClasspath(Path)}
+     * @param timeout           wall-clock time after which a run is killed
+     * @param maxIterations     most warm-up plus measured iterations per fork
+     * @param maxIterationsTime most time the iterations of a run may take in total
+     */
+    public JmhBenchmarkRunner(WorkspaceManager workspaces, List<Path> classpath, Duration timeout, int maxForks,
+                              int maxIterations, Duration maxIterationsTime, ResourcePolicy policy) {
+        this.workspaces = workspaces;
+        this.classpath = List.copyOf(classpath);
+        this.timeout = timeout;
+        this.maxForks = maxForks;
+        this.maxIterations = maxIterations;
+        this.maxIterationsTime = maxIterationsTime;
+        this.policy = policy;
+    }
+
+    public BenchmarkReport run(String sourceCode, String className, BenchmarkOptions options)
+            throws CompilationException, IOException, InterruptedException {
+        checkLimits(options);
+        try (Workspace workspace = workspaces.acquire()) {
+            Path workingDir = workspace.directory();
+            Path source = workspace.writeString("src/" + className.replace('.', '/') + ".java", sourceCode);
+            Path classesDir = workspace.createDirectories("classes");
+            compile(workspace, source, classesDir, className);
+
+            ProcessBuilder processBuilder = new ProcessBuilder(command(classesDir, workingDir.resolve(RESULT), options));
+            processBuilder.directory(workingDir.toFile());
+            processBuilder.redirectErrorStream(true);
+            long started = System.nanoTime();
+            ProcessRunner.Result result = ProcessRunner.run(processBuilder, timeout, policy);
+            if (result.cpuExceeded()) {
+                logger.warn("Benchmark harness went over its CPU time limit for class: {}", className);
+                throw new CompilationException(policy.cpuLimitMessage());
+            }
+            if (result.truncated()) {
+                throw new CompilationException("Benchmark run printed more than " + policy.maxOutputBytes() + " bytes");
+            }
+            if (result.timedOut()) {
+                logger.warn("Benchmark run timed out for class: {}", className);
+                throw new JobTimeoutException("Benchmark run timed out after " + timeout.toSeconds()
+                        + " seconds, try fewer forks or iterations");
+            }
+            if (result.exitCode() != 0 || !Files.exists(workingDir.resolve(RESULT))) {
+                throw new CompilationException("Benchmark run failed\n" + tail(result.stdout(), 60));
+            }
+            logger.info("Benchmarked class {} in {} ms", className, (System.nanoTime() - started) / 1_000_000);
+            long maxResultBytes = policy.limitsOutput() ? policy.maxOutputBytes() : MAX_RESULT_BYTES;
+            return report(readResult(workingDir.resolve(RESULT), maxResultBytes), result.stdout());
+        }
+    }
+
+    /**
+     * Reads the results JMH wrote. The benchmark's own code may have replaced or grown the file, so
+     * it must be a regular file within the output cap.
+     */
+    static String readResult(Path file, long maxBytes) throws CompilationException, IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (!attributes.isRegularFile() || attributes.size() > maxBytes) {
+            throw new CompilationException("Benchmark results are not a file of at most " + maxBytes + " bytes");
+        }
+        return Files.readString(file);
+    }
+
+    private void checkLimits(BenchmarkOptions options) throws CompilationException {
+        if (options.forks() > maxForks) {
+            throw new CompilationException("At most " + maxForks + " forks are allowed");
+        }
+        if (options.warmupIterations() + options.iterations() > maxIterations) {
+            throw new CompilationException("At most " + maxIterations + " warm-up and measured iterations are allowed");
+        }
+        if (options.iterationsTime().compareTo(maxIterationsTime) > 0) {
+            throw new CompilationException("The iterations would take " + options.iterationsTime().toSeconds()
+                    + " seconds, at most " + maxIterationsTime.toSeconds() + " are allowed");
+        }
+    }
+
+    private void compile(Workspace workspace, Path source, Path classesDir, String className)
+            throws CompilationException, IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("javac");
+        command.addAll(policy.toolOptions());
+        command.addAll(List.of(
+                "-cp", joinedClasspath(),
+                "-processor", PROCESSOR,
+                "-d", classesDir.toString(),
+                "-s", workspace.createDirectories("generated").toString(),
+                source.toString()
+        ));
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        ProcessRunner.Result result = ProcessRunner.run(processBuilder, COMPILE_TIMEOUT, policy);
+        if (result.timedOut() || result.cpuExceeded()) {
+            throw new JobTimeoutException("Compilation of the benchmark did not finish in time");
+        }
+        if (result.exitCode() != 0) {
+            throw new CompileErrorException("Compilation failed\n"
+                    + result.stdout().replace(workspace.directory().resolve("src") + File.separator, ""));
+        }
+        Path benchmarkList = classesDir.resolve(BENCHMARK_LIST);
+        if (!Files.exists(benchmarkList) || Files.size(benchmarkList) == 0) {
+            throw new CompilationException("No @Benchmark methods found in " + className);
+        }
+    }
+
+    List<String> command(Path classesDir, Path resultFile, BenchmarkOptions options) {
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.addAll(policy.jvmOptions());
+        command.addAll(List.of(
+                "-cp", classesDir + File.pathSeparator + joinedClasspath(),
+                "org.openjdk.jmh.Main",
+                "-f", String.valueOf(options.forks()),
+                "-wi", String.valueOf(options.warmupIterations()),
+                "-i", String.valueOf(options.iterations()),
+                "-w", options.iterationTime().toMillis() + "ms",
+                "-r", options.iterationTime().toMillis() + "ms",
+                // Fail the run on the first exception a benchmark throws instead of reporting no score
+                "-foe", "true",
+                "-rf", "json",
+                "-rff", resultFile.toString()
+        ));
+        if (options.mode() != null) {
+            command.addAll(List.of("-bm", options.mode()));
+        }
+        if (options.timeUnit() != null) {
+            command.addAll(List.of("-tu", options.timeUnit()));
+        }
+        if (options.gcProfiler()) {
+            command.addAll(List.of("-prof", "gc"));
+        }
+        if (options.perfasm()) {
+            command.addAll(List.of("-prof", "perfasm"));
+        }
+        if (!policy.jvmOptions().isEmpty()) {
+            // JMH splits each value at spaces into options of the forked JVMs. Given on the command
+            // line they replace those of @Fork annotations, and the last of each option counts, so
+            // the benchmark's code cannot lift the limits.
+            String limits = String.join(" ", policy.jvmOptions());
+            command.addAll(List.of("-jvmArgsPrepend", limits, "-jvmArgs", limits, "-jvmArgsAppend", limits));
+        }
+        return command;
+    }
+
+    /**
+     * Reads the JSON results JMH wrote, with the perfasm sections of its console output as the hot
+     * regions of the scores they were printed for
+     */
+    static BenchmarkReport report(String resultJson, String output) throws IOException {
+        Map<String, Deque<String>> hotRegions = hotRegions(output);
+        List<BenchmarkReport.Score> scores = new ArrayList<>();
+        for (JsonNode run : MAPPER.readTree(resultJson)) {
+            String benchmark = run.path("benchmark").asText();
+            Map<String, String> params = new LinkedHashMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            JsonNode primary = run.path("primaryMetric");
+            Map<String, BenchmarkReport.Metric> secondary = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> metrics = run.path("secondaryMetrics").fields();
+            while (metrics.hasNext()) {
+                Map.Entry<String, JsonNode> metric = metrics.next();
+                String name = metric.getKey().startsWith("·") ? metric.getKey().substring(1) : metric.getKey();
+                double score = number(metric.getValue().path("score"));
+                // Text results such as perfasm's have no score
+                if (!name.equals("asm") && !Double.isNaN(score)) {
+                    secondary.put(name, new BenchmarkReport.Metric(score, error(metric.getValue()),
+                            metric.getValue().path("scoreUnit").asText()));
+                }
+            }
+            Deque<String> regions = hotRegions.get(benchmark);
+            scores.add(new BenchmarkReport.Score(benchmark, run.path("mode").asText(), params,
+                    number(primary.path("score")), error(primary), primary.path("scoreUnit").asText(), secondary,
+                    regions == null ? null : regions.poll()));
+        }
+        return new BenchmarkReport(scores);
+    }
+
+    /** perfasm sections by benchmark, in the order the runs printed them */
+    static Map<String, Deque<String>> hotRegions(String output) {
+        Map<String, Deque<String>> regions = new HashMap<>();
+        String benchmark = null;
+        StringBuilder section = new StringBuilder();
+        for (String line : output.split("\n", -1)) {
+            if (benchmark != null && SECTION_END.matcher(line).find()) {
+                regions.computeIfAbsent(benchmark, key -> new ArrayDeque<>()).add(section.toString().strip());
+                benchmark = null;
+            }
+            Matcher asm = ASM_RESULT.matcher(line);
+            if (asm.matches()) {
+                benchmark = asm.group(1);
+                section.setLength(0);
+            } else if (benchmark != null) {
+                section.append(line).append('\n');
+            }
+        }
+        if (benchmark != null) {
+            regions.computeIfAbsent(benchmark, key -> new ArrayDeque<>()).add(section.toString().strip());
+        }
+        return regions;
+    }
+
+    /** JMH writes NaN, for an error it could not estimate, as a string */
+    private static double number(JsonNode node) {
+        return node.isNumber() ? node.asDouble() : node.asDouble(Double.NaN);
+    }
+
+    private static Double error(JsonNode metric) {
+        double error = number(metric.path("scoreError"));
+        return Double.isNaN(error) ? null : error;
+    }
+
+    private String joinedClasspath() {
+        return classpath.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static String tail(String output, int lines) {
+        String[] split = output.split("\n");
+        return String.join("\n", List.of(split).subList(Math.max(0, split.length - lines), split.length));
+    }
+
+    /**
+     * Jars of the JMH runtime the service was built with, for the class path of the benchmark
+     * JVMs. Jars nested in the application jar cannot go on a class path, so they are copied to
+     * {@code directory} first.
+     */
+    public static List<Path> bundledClasspath(Path directory) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        for (String className : RUNTIME_CLASSES) {
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, JmhBenchmarkRunner.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IOException("JMH runtime class " + className + " not found", e);
+            }
+            jars.add(locate(type, directory));
+        }
+        return jars;
+    }
+
+    private static Path locate(Class<?> type, Path directory) throws IOException {
+        URL location = type.getProtectionDomain().getCodeSource().getLocation();
+        if (location.getProtocol().equals("file")) {
+            return Path.of(URI.create(location.toExternalForm()));
+        }
+        // e.g. jar:nested:/app.jar/!BOOT-INF/lib/jmh-core-1.37.jar!/
+        String external = location.toExternalForm();
+        if (!external.startsWith("jar:") || !external.endsWith("!/")) {
+            throw new IOException("Cannot put " + external + " on a class path");
+        }
+        String nested = external.substring("jar:".length(), external.length() - "!/".length());
+        Path jar = directory.resolve(nested.substring(nested.lastIndexOf('/') + 1));
+        try (InputStream in = URI.create(nested).toURL().openStream()) {
+            Files.copy(in, jar, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return jar;
+    }
+}
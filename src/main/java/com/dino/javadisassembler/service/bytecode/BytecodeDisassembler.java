@@ -0,0 +1,16 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+
+/**
+ * Produces the {@code javap -c -verbose -p} style listing of a compiled class
+ */
+public interface BytecodeDisassembler {
+
+    /**
+     * Disassembles {@code className} from the given compilation output. Throws if the class is
+     * missing or cannot be disassembled.
+     */
+    String disassemble(CompiledClasses classes, String className) throws CompilationException, InterruptedException;
+}
@@ -0,0 +1,120 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Structural view of a class file (JVMS chapter 4). Attribute bodies are kept as slices of the
+ * original bytes and decoded on demand by the printer.
+ */
+final class ClassFile {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_VARARGS = 0x0080;
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ABSTRACT = 0x0400;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    record Attribute(String name, int nameIndex, ByteBuffer data) {
+
+        /** A fresh big-endian reader positioned at the start of the attribute body */
+        ByteBuffer reader() {
+            return data.duplicate();
+        }
+
+        int length() {
+            return data.remaining();
+        }
+    }
+
+    record Member(int access, int nameIndex, int descriptorIndex, List<Attribute> attributes) {
+
+        Attribute attribute(String name) {
+            return find(attributes, name);
+        }
+    }
+
+    final int size;
+    final int minorVersion;
+    final int majorVersion;
+    final ConstantPool constantPool;
+    final int access;
+    final int thisClass;
+    final int superClass;
+    final int[] interfaces;
+    final List<Member> fields;
+    final List<Member> methods;
+    final List<Attribute> attributes;
+
+    ClassFile(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < 10 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+        size = bytes.length;
+        minorVersion = buffer.getShort() & 0xFFFF;
+        majorVersion = buffer.getShort() & 0xFFFF;
+        constantPool = new ConstantPool(buffer);
+        access = buffer.getShort() & 0xFFFF;
+        thisClass = buffer.getShort() & 0xFFFF;
+        superClass = buffer.getShort() & 0xFFFF;
+        interfaces = new int[buffer.getShort() & 0xFFFF];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaces[i] = buffer.getShort() & 0xFFFF;
+        }
+        fields = readMembers(buffer, constantPool);
+        methods = readMembers(buffer, constantPool);
+        attributes = readAttributes(buffer, constantPool);
+    }
+
+    boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    String name() {
+        return constantPool.className(thisClass);
+    }
+
+    Attribute attribute(String name) {
+        return find(attributes, name);
+    }
+
+    static List<Attribute> readAttributes(ByteBuffer buffer, ConstantPool constantPool) {
+        int count = buffer.getShort() & 0xFFFF;
+        List<Attribute> attributes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int nameIndex = buffer.getShort() & 0xFFFF;
+            int length = buffer.getInt();
+            ByteBuffer data = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            attributes.add(new Attribute(constantPool.utf8(nameIndex), nameIndex, data));
+        }
+        return attributes;
+    }
+
+    private static List<Member> readMembers(ByteBuffer buffer, ConstantPool constantPool) {
+        int count = buffer.getShort() & 0xFFFF;
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int access = buffer.getShort() & 0xFFFF;
+            int nameIndex = buffer.getShort() & 0xFFFF;
+            int descriptorIndex = buffer.getShort() & 0xFFFF;
+            members.add(new Member(access, nameIndex, descriptorIndex, readAttributes(buffer, constantPool)));
+        }
+        return members;
+    }
+
+    private static Attribute find(List<Attribute> attributes, String name) {
+        for (Attribute attribute : attributes) {
+            if (name.equals(attribute.name())) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+}
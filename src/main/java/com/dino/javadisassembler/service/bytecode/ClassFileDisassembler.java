@@ -0,0 +1,986 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import com.dino.javadisassembler.service.bytecode.ClassFile.Attribute;
+import com.dino.javadisassembler.service.bytecode.ClassFile.Member;
+import com.dino.javadisassembler.service.bytecode.TypeSignatures.ClassType;
+import com.dino.javadisassembler.service.bytecode.TypeSignatures.MethodType;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Disassembles class files in process, producing the same listing as {@code javap -c -verbose -p}.
+ * Only the header differs: there is no source file path or modification time to report.
+ * <p>
+ * Instances are stateless and thread-safe.
+ */
+public class ClassFileDisassembler {
+
+    private static final int[][] CLASS_FLAGS = {
+            {0x0001, 0}, {0x0010, 1}, {0x0020, 2}, {0x0200, 3}, {0x0400, 4}, {0x1000, 5}, {0x2000, 6}, {0x4000, 7}, {0x8000, 8}
+    };
+    private static final String[] CLASS_FLAG_NAMES = {
+            "ACC_PUBLIC", "ACC_FINAL", "ACC_SUPER", "ACC_INTERFACE", "ACC_ABSTRACT", "ACC_SYNTHETIC", "ACC_ANNOTATION",
+            "ACC_ENUM", "ACC_MODULE"
+    };
+    private static final int[][] FIELD_FLAGS = {
+            {0x0001, 0}, {0x0002, 1}, {0x0004, 2}, {0x0008, 3}, {0x0010, 4}, {0x0040, 5}, {0x0080, 6}, {0x1000, 7}, {0x4000, 8}
+    };
+    private static final String[] FIELD_FLAG_NAMES = {
+            "ACC_PUBLIC", "ACC_PRIVATE", "ACC_PROTECTED", "ACC_STATIC", "ACC_FINAL", "ACC_VOLATILE", "ACC_TRANSIENT",
+            "ACC_SYNTHETIC", "ACC_ENUM"
+    };
+    private static final int[][] METHOD_FLAGS = {
+            {0x0001, 0}, {0x0002, 1}, {0x0004, 2}, {0x0008, 3}, {0x0010, 4}, {0x0020, 5}, {0x0040, 6}, {0x0080, 7},
+            {0x0100, 8}, {0x0400, 9}, {0x0800, 10}, {0x1000, 11}
+    };
+    private static final String[] METHOD_FLAG_NAMES = {
+            "ACC_PUBLIC", "ACC_PRIVATE", "ACC_PROTECTED", "ACC_STATIC", "ACC_FINAL", "ACC_SYNCHRONIZED", "ACC_BRIDGE",
+            "ACC_VARARGS", "ACC_NATIVE", "ACC_ABSTRACT", "ACC_STRICT", "ACC_SYNTHETIC"
+    };
+
+    private static final int[] CLASS_MODIFIER_FLAGS = {0x0001, 0x0010, 0x0400};
+    private static final String[] CLASS_MODIFIERS = {"public", "final", "abstract"};
+    private static final int[] INNER_CLASS_MODIFIER_FLAGS = {0x0001, 0x0002, 0x0004, 0x0008, 0x0010, 0x0400};
+    private static final String[] INNER_CLASS_MODIFIERS = {"public", "private", "protected", "static", "final", "abstract"};
+    private static final int[] FIELD_MODIFIER_FLAGS = {0x0001, 0x0002, 0x0004, 0x0008, 0x0010, 0x0040, 0x0080};
+    private static final String[] FIELD_MODIFIERS = {"public", "private", "protected", "static", "final", "volatile", "transient"};
+    private static final int[] METHOD_MODIFIER_FLAGS = {0x0001, 0x0002, 0x0004, 0x0008, 0x0010, 0x0020, 0x0100, 0x0400, 0x0800};
+    private static final String[] METHOD_MODIFIERS = {
+            "public", "private", "protected", "static", "final", "synchronized", "native", "abstract", "strictfp"
+    };
+
+    /**
+     * Disassembles a single class file.
+     *
+     * @param classBytes the class file contents
+     * @return the javap style listing
+     * @throws IllegalArgumentException if the bytes are not a well-formed class file
+     */
+    public String disassemble(byte[] classBytes) {
+        ClassFile classFile;
+        try {
+            classFile = new ClassFile(classBytes);
+        } catch (RuntimeException e) {
+            throw malformed(e);
+        }
+        try {
+            Printer printer = new Printer(classFile, new JavapWriter(classBytes.length * 8));
+            printer.writeHeader(classBytes);
+            printer.writeClass();
+            return printer.out.toString();
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw malformed(e);
+        }
+    }
+
+    /**
+     * Disassembles every method of a class file on its own, as {@link #disassemble} lists it.
+     *
+     * @return the listings in class file order, keyed by name and descriptor, e.g. {@code run(I)I}
+     * @throws IllegalArgumentException if the bytes are not a well-formed class file
+     */
+    public Map<String, String> disassembleMethods(byte[] classBytes) {
+        try {
+            ClassFile classFile = new ClassFile(classBytes);
+            Map<String, String> methods = new LinkedHashMap<>();
+            for (Member method : classFile.methods) {
+                Printer printer = new Printer(classFile, new JavapWriter(256));
+                printer.writeMethod(method);
+                methods.put(classFile.constantPool.utf8(method.nameIndex())
+                        + classFile.constantPool.utf8(method.descriptorIndex()), printer.out.toString());
+            }
+            return methods;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw malformed(e);
+        }
+    }
+
+    private static IllegalArgumentException malformed(RuntimeException cause) {
+        return new IllegalArgumentException("Malformed class file: " + cause.getMessage(), cause);
+    }
+
+    private static String javaName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    private static String flags(int access, int[][] known, String[] names) {
+        StringBuilder builder = new StringBuilder(String.format("(0x%04x)", access));
+        String separator = " ";
+        int remaining = access;
+        for (int[] flag : known) {
+            if ((remaining & flag[0]) != 0) {
+                builder.append(separator).append(names[flag[1]]);
+                separator = ", ";
+                remaining &= ~flag[0];
+            }
+        }
+        while (remaining != 0) {
+            int bit = Integer.highestOneBit(remaining);
+            builder.append(separator).append("0x").append(Integer.toHexString(bit));
+            separator = ", ";
+            remaining &= ~bit;
+        }
+        return builder.toString();
+    }
+
+    private static String modifiers(int access, int[] flags, String[] words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < flags.length; i++) {
+            if ((access & flags[i]) != 0) {
+                builder.append(words[i]).append(' ');
+            }
+        }
+        return builder.toString();
+    }
+
+    /** Per-class printing state */
+    private static final class Printer {
+
+        private final ClassFile classFile;
+        private final ConstantPool constantPool;
+        private final JavapWriter out;
+
+        Printer(ClassFile classFile, JavapWriter out) {
+            this.classFile = classFile;
+            this.constantPool = classFile.constantPool;
+            this.out = out;
+        }
+
+        void writeHeader(byte[] classBytes) {
+            out.println("Classfile " + classFile.name() + ".class");
+            out.indent(1);
+            out.println("Size " + classFile.size + " bytes");
+            out.println("SHA-256 checksum " + sha256(classBytes));
+            Attribute sourceFile = classFile.attribute("SourceFile");
+            if (sourceFile != null) {
+                out.println("Compiled from \"" + constantPool.utf8(sourceFile.reader().getShort() & 0xFFFF) + "\"");
+            }
+            out.indent(-1);
+        }
+
+        void writeClass() {
+            writeClassDeclaration();
+            out.indent(1);
+            out.println("minor version: " + classFile.minorVersion);
+            out.println("major version: " + classFile.majorVersion);
+            out.println("flags: " + flags(classFile.access, CLASS_FLAGS, CLASS_FLAG_NAMES));
+            out.print("this_class: #" + classFile.thisClass);
+            out.tab();
+            out.println("// " + constantPool.stringValue(classFile.thisClass));
+            out.print("super_class: #" + classFile.superClass);
+            out.tab();
+            out.println("// " + constantPool.stringValue(classFile.superClass));
+            out.println("interfaces: " + classFile.interfaces.length
+                    + ", fields: " + classFile.fields.size()
+                    + ", methods: " + classFile.methods.size()
+                    + ", attributes: " + classFile.attributes.size());
+            out.indent(-1);
+            writeConstantPool();
+            out.println("{");
+            out.indent(1);
+            for (Member field : classFile.fields) {
+                writeField(field);
+            }
+            for (Member method : classFile.methods) {
+                writeMethod(method);
+            }
+            out.indent(-1);
+            out.setPendingNewline(false);
+            out.println("}");
+            for (Attribute attribute : classFile.attributes) {
+                writeAttribute(attribute, null);
+            }
+        }
+
+        private void writeClassDeclaration() {
+            int access = classFile.access;
+            if (classFile.isInterface()) {
+                access &= ~ClassFile.ACC_ABSTRACT;
+            }
+            out.print(modifiers(access, CLASS_MODIFIER_FLAGS, CLASS_MODIFIERS));
+            out.print(classFile.isInterface() ? "interface " : "class ");
+            out.print(javaName(classFile.name()));
+
+            Attribute signature = classFile.attribute("Signature");
+            if (signature == null) {
+                if (classFile.superClass != 0 && !classFile.isInterface()) {
+                    String superName = constantPool.className(classFile.superClass);
+                    if (!superName.equals("java/lang/Object")) {
+                        out.print(" extends " + javaName(superName));
+                    }
+                }
+                for (int i = 0; i < classFile.interfaces.length; i++) {
+                    out.print(i == 0 ? (classFile.isInterface() ? " extends " : " implements ") : ",");
+                    out.print(javaName(constantPool.className(classFile.interfaces[i])));
+                }
+            } else {
+                ClassType type = TypeSignatures.classType(constantPool.utf8(signature.reader().getShort() & 0xFFFF));
+                if (!type.typeParameters().isEmpty()) {
+                    out.print("<" + String.join(", ", type.typeParameters()) + ">");
+                }
+                if (classFile.isInterface()) {
+                    if (!type.interfaces().isEmpty()) {
+                        out.print(" extends " + String.join(", ", type.interfaces()));
+                    }
+                } else {
+                    out.print(" extends " + type.superclass());
+                    if (!type.interfaces().isEmpty()) {
+                        out.print(" implements " + String.join(", ", type.interfaces()));
+                    }
+                }
+            }
+            out.println();
+        }
+
+        private void writeConstantPool() {
+            out.println("Constant pool:");
+            out.indent(1);
+            int width = String.valueOf(constantPool.size()).length() + 1;
+            for (int i = 1; i < constantPool.size(); i++) {
+                int tag = constantPool.tag(i);
+                if (tag == 0) {
+                    // second slot of a long or double
+                    continue;
+                }
+                out.print(String.format("%" + width + "s", "#" + i));
+                out.print(" = ");
+                out.print(String.format("%-19s", ConstantPool.tagName(tag)));
+                switch (tag) {
+                    case ConstantPool.UTF8, ConstantPool.INTEGER, ConstantPool.FLOAT, ConstantPool.LONG, ConstantPool.DOUBLE ->
+                            out.println(constantPool.stringValue(i));
+                    case ConstantPool.CLASS, ConstantPool.STRING, ConstantPool.MODULE, ConstantPool.PACKAGE ->
+                            writeEntryComment("#" + constantPool.first(i), "// ", i);
+                    case ConstantPool.METHOD_TYPE -> writeEntryComment("#" + constantPool.first(i), "//  ", i);
+                    case ConstantPool.FIELDREF, ConstantPool.METHODREF, ConstantPool.INTERFACE_METHODREF ->
+                            writeEntryComment("#" + constantPool.first(i) + ".#" + constantPool.second(i), "// ", i);
+                    case ConstantPool.METHOD_HANDLE ->
+                            writeEntryComment(constantPool.first(i) + ":#" + constantPool.second(i), "// ", i);
+                    default -> writeEntryComment("#" + constantPool.first(i) + ":#" + constantPool.second(i), "// ", i);
+                }
+            }
+            out.indent(-1);
+        }
+
+        private void writeEntryComment(String operands, String commentPrefix, int index) {
+            out.print(operands);
+            out.tab();
+            out.println(commentPrefix + constantPool.stringValue(index));
+        }
+
+        private void writeField(Member field) {
+            out.print(modifiers(field.access(), FIELD_MODIFIER_FLAGS, FIELD_MODIFIERS));
+            Attribute signature = field.attribute("Signature");
+            String descriptor = constantPool.utf8(field.descriptorIndex());
+            String type = TypeSignatures.fieldType(signature != null ? signatureOf(signature) : descriptor);
+            out.println(type + " " + constantPool.utf8(field.nameIndex()) + ";");
+            out.indent(1);
+            out.println("descriptor: " + descriptor);
+            out.println("flags: " + flags(field.access(), FIELD_FLAGS, FIELD_FLAG_NAMES));
+            for (Attribute attribute : field.attributes()) {
+                writeAttribute(attribute, field);
+            }
+            out.indent(-1);
+            // unlike methods, javap separates fields with an unconditional blank line
+            out.println();
+        }
+
+        private void writeMethod(Member method) {
+            String name = constantPool.utf8(method.nameIndex());
+            String descriptor = constantPool.utf8(method.descriptorIndex());
+            Attribute signature = method.attribute("Signature");
+            MethodType type = TypeSignatures.methodType(signature != null ? signatureOf(signature) : descriptor);
+
+            out.print(modifiers(method.access(), METHOD_MODIFIER_FLAGS, METHOD_MODIFIERS));
+            if (classFile.isInterface() && classFile.majorVersion >= 52 && !name.equals("<clinit>")
+                    && (method.access() & (ClassFile.ACC_ABSTRACT | ClassFile.ACC_STATIC | ClassFile.ACC_PRIVATE)) == 0) {
+                out.print("default ");
+            }
+            if (!type.typeParameters().isEmpty()) {
+                out.print("<" + String.join(", ", type.typeParameters()) + "> ");
+            }
+            switch (name) {
+                case "<init>" -> out.print(javaName(classFile.name()) + parameters(type, method.access()));
+                case "<clinit>" -> out.print("{}");
+                default -> out.print(type.returnType() + " " + name + parameters(type, method.access()));
+            }
+            Attribute exceptions = method.attribute("Exceptions");
+            if (exceptions != null) {
+                out.print(" throws ");
+                if (!type.throwsTypes().isEmpty()) {
+                    out.print(String.join(", ", type.throwsTypes()));
+                } else {
+                    out.print(String.join(", ", exceptionNames(exceptions)));
+                }
+            }
+            out.println(";");
+
+            out.indent(1);
+            out.println("descriptor: " + descriptor);
+            out.println("flags: " + flags(method.access(), METHOD_FLAGS, METHOD_FLAG_NAMES));
+            for (Attribute attribute : method.attributes()) {
+                writeAttribute(attribute, method);
+            }
+            out.indent(-1);
+            out.setPendingNewline(true);
+        }
+
+        private String parameters(MethodType type, int access) {
+            StringBuilder builder = new StringBuilder("(");
+            List<String> parameters = type.parameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                String parameter = parameters.get(i);
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                if (i == parameters.size() - 1 && (access & ClassFile.ACC_VARARGS) != 0 && parameter.endsWith("[]")) {
+                    parameter = parameter.substring(0, parameter.length() - 2) + "...";
+                }
+                builder.append(parameter);
+            }
+            return builder.append(')').toString();
+        }
+
+        private List<String> exceptionNames(Attribute exceptions) {
+            ByteBuffer data = exceptions.reader();
+            int count = data.getShort() & 0xFFFF;
+            List<String> names = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(javaName(constantPool.className(data.getShort() & 0xFFFF)));
+            }
+            return names;
+        }
+
+        private String signatureOf(Attribute signature) {
+            return constantPool.utf8(signature.reader().getShort() & 0xFFFF);
+        }
+
+        // ---- attributes ----
+
+        private void writeAttribute(Attribute attribute, Member owner) {
+            ByteBuffer data = attribute.reader();
+            switch (attribute.name()) {
+                case "Code" -> writeCode(data, owner);
+                case "ConstantValue" -> out.println("ConstantValue: " + constantComment(data.getShort() & 0xFFFF));
+                case "Deprecated" -> out.println("Deprecated: true");
+                case "Synthetic" -> out.println("Synthetic: true");
+                case "SourceFile" -> out.println("SourceFile: \"" + constantPool.utf8(data.getShort() & 0xFFFF) + "\"");
+                case "Signature" -> {
+                    int index = data.getShort() & 0xFFFF;
+                    out.print("Signature: #" + index);
+                    out.tab();
+                    out.println("// " + constantPool.stringValue(index));
+                }
+                case "Exceptions" -> {
+                    out.println("Exceptions:");
+                    out.indent(1);
+                    out.println("throws " + String.join(", ", exceptionNames(attribute)));
+                    out.indent(-1);
+                }
+                case "LineNumberTable" -> writeLineNumberTable(data);
+                case "LocalVariableTable", "LocalVariableTypeTable" -> writeLocalVariableTable(attribute.name(), data);
+                case "StackMapTable" -> writeStackMapTable(data);
+                case "InnerClasses" -> writeInnerClasses(data);
+                case "EnclosingMethod" -> writeEnclosingMethod(data);
+                case "NestHost" -> out.println("NestHost: " + constantComment(data.getShort() & 0xFFFF));
+                case "NestMembers", "PermittedSubclasses" -> writeClassList(attribute.name(), data);
+                case "BootstrapMethods" -> writeBootstrapMethods(data);
+                case "MethodParameters" -> writeMethodParameters(data);
+                case "Record" -> writeRecord(data);
+                case "RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations" -> writeAnnotations(attribute.name(), data);
+                case "RuntimeVisibleParameterAnnotations", "RuntimeInvisibleParameterAnnotations" ->
+                        writeParameterAnnotations(attribute.name(), data);
+                case "AnnotationDefault" -> {
+                    out.println("AnnotationDefault:");
+                    out.indent(1);
+                    out.print("default_value: ");
+                    int start = data.position();
+                    writeElementValue(data, false);
+                    out.println();
+                    out.indent(1);
+                    data.position(start);
+                    writeElementValue(data, true);
+                    out.indent(-1);
+                    out.println();
+                    out.indent(-1);
+                }
+                default -> writeUnknownAttribute(attribute);
+            }
+        }
+
+        /** "kind value" form used after attribute names, e.g. {@code int 42} or {@code class Foo} */
+        private String constantComment(int index) {
+            int tag = constantPool.tag(index);
+            if (tag == ConstantPool.FIELDREF || tag == ConstantPool.METHODREF || tag == ConstantPool.INTERFACE_METHODREF) {
+                int classIndex = constantPool.first(index);
+                if (classIndex == classFile.thisClass) {
+                    return ConstantPool.commentTagName(tag) + " " + constantPool.stringValue(constantPool.second(index));
+                }
+            }
+            return ConstantPool.commentTagName(tag) + " " + constantPool.stringValue(index);
+        }
+
+        private void writeLineNumberTable(ByteBuffer data) {
+            out.println("LineNumberTable:");
+            out.indent(1);
+            int count = data.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                int startPc = data.getShort() & 0xFFFF;
+                int line = data.getShort() & 0xFFFF;
+                out.println("line " + line + ": " + startPc);
+            }
+            out.indent(-1);
+        }
+
+        private void writeLocalVariableTable(String name, ByteBuffer data) {
+            out.println(name + ":");
+            out.indent(1);
+            out.println("Start  Length  Slot  Name   Signature");
+            int count = data.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                int start = data.getShort() & 0xFFFF;
+                int length = data.getShort() & 0xFFFF;
+                int nameIndex = data.getShort() & 0xFFFF;
+                int descriptorIndex = data.getShort() & 0xFFFF;
+                int slot = data.getShort() & 0xFFFF;
+                out.println(String.format("%5d %7d %5d %5s   %s", start, length, slot,
+                        constantPool.stringValue(nameIndex), constantPool.stringValue(descriptorIndex)));
+            }
+            out.indent(-1);
+        }
+
+        private void writeStackMapTable(ByteBuffer data) {
+            int count = data.getShort() & 0xFFFF;
+            out.println("StackMapTable: number_of_entries = " + count);
+            out.indent(1);
+            for (int i = 0; i < count; i++) {
+                int frameType = data.get() & 0xFF;
+                if (frameType < 64) {
+                    out.println("frame_type = " + frameType + " /* same */");
+                } else if (frameType < 128) {
+                    out.println("frame_type = " + frameType + " /* same_locals_1_stack_item */");
+                    out.indent(1);
+                    out.println("stack = [ " + verificationType(data) + " ]");
+                    out.indent(-1);
+                } else if (frameType < 247) {
+                    out.println("frame_type = " + frameType + " /* unknown */");
+                } else if (frameType == 247) {
+                    out.println("frame_type = " + frameType + " /* same_locals_1_stack_item_frame_extended */");
+                    out.indent(1);
+                    out.println("offset_delta = " + (data.getShort() & 0xFFFF));
+                    out.println("stack = [ " + verificationType(data) + " ]");
+                    out.indent(-1);
+                } else if (frameType < 251) {
+                    out.println("frame_type = " + frameType + " /* chop */");
+                    out.indent(1);
+                    out.println("offset_delta = " + (data.getShort() & 0xFFFF));
+                    out.indent(-1);
+                } else if (frameType == 251) {
+                    out.println("frame_type = " + frameType + " /* same_frame_extended */");
+                    out.indent(1);
+                    out.println("offset_delta = " + (data.getShort() & 0xFFFF));
+                    out.indent(-1);
+                } else if (frameType < 255) {
+                    out.println("frame_type = " + frameType + " /* append */");
+                    out.indent(1);
+                    out.println("offset_delta = " + (data.getShort() & 0xFFFF));
+                    out.println("locals = " + verificationTypes(data, frameType - 251));
+                    out.indent(-1);
+                } else {
+                    out.println("frame_type = " + frameType + " /* full_frame */");
+                    out.indent(1);
+                    out.println("offset_delta = " + (data.getShort() & 0xFFFF));
+                    out.println("locals = " + verificationTypes(data, data.getShort() & 0xFFFF));
+                    out.println("stack = " + verificationTypes(data, data.getShort() & 0xFFFF));
+                    out.indent(-1);
+                }
+            }
+            out.indent(-1);
+        }
+
+        private String verificationTypes(ByteBuffer data, int count) {
+            if (count == 0) {
+                return "[]";
+            }
+            StringBuilder builder = new StringBuilder("[ ");
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(verificationType(data));
+            }
+            return builder.append(" ]").toString();
+        }
+
+        private String verificationType(ByteBuffer data) {
+            int tag = data.get() & 0xFF;
+            return switch (tag) {
+                case 0 -> "top";
+                case 1 -> "int";
+                case 2 -> "float";
+                case 3 -> "double";
+                case 4 -> "long";
+                case 5 -> "null";
+                case 6 -> "this";
+                case 7 -> "class " + constantPool.stringValue(data.getShort() & 0xFFFF);
+                case 8 -> "uninitialized " + (data.getShort() & 0xFFFF);
+                default -> "[unknown verification type " + tag + "]";
+            };
+        }
+
+        private void writeInnerClasses(ByteBuffer data) {
+            out.println("InnerClasses:");
+            out.indent(1);
+            int count = data.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                int innerClass = data.getShort() & 0xFFFF;
+                int outerClass = data.getShort() & 0xFFFF;
+                int innerName = data.getShort() & 0xFFFF;
+                int access = data.getShort() & 0xFFFF;
+                if ((access & ClassFile.ACC_INTERFACE) != 0) {
+                    access &= ~ClassFile.ACC_ABSTRACT;
+                }
+                out.print(modifiers(access, INNER_CLASS_MODIFIER_FLAGS, INNER_CLASS_MODIFIERS));
+                if (innerName != 0) {
+                    out.print("#" + innerName + "= ");
+                }
+                out.print("#" + innerClass);
+                if (outerClass != 0) {
+                    out.print(" of #" + outerClass);
+                }
+                out.print(";");
+                out.tab();
+                out.print("// ");
+                if (innerName != 0) {
+                    out.print(constantPool.utf8(innerName) + "=");
+                }
+                out.print(constantComment(innerClass));
+                if (outerClass != 0) {
+                    out.print(" of " + constantComment(outerClass));
+                }
+                out.println();
+            }
+            out.indent(-1);
+        }
+
+        private void writeEnclosingMethod(ByteBuffer data) {
+            int classIndex = data.getShort() & 0xFFFF;
+            int methodIndex = data.getShort() & 0xFFFF;
+            out.print("EnclosingMethod: #" + classIndex + ".#" + methodIndex);
+            out.tab();
+            out.print("// " + javaName(constantPool.className(classIndex)));
+            if (methodIndex != 0) {
+                out.print("." + constantPool.utf8(constantPool.first(methodIndex)));
+            }
+            out.println();
+        }
+
+        private void writeClassList(String name, ByteBuffer data) {
+            out.println(name + ":");
+            out.indent(1);
+            int count = data.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                out.println(constantPool.stringValue(data.getShort() & 0xFFFF));
+            }
+            out.indent(-1);
+        }
+
+        private void writeBootstrapMethods(ByteBuffer data) {
+            out.println("BootstrapMethods:");
+            int count = data.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                int methodRef = data.getShort() & 0xFFFF;
+                out.indent(1);
+                out.print(i + ": #" + methodRef + " ");
+                out.println(constantPool.stringValue(methodRef));
+                out.indent(1);
+                out.println("Method arguments:");
+                out.indent(1);
+                int arguments = data.getShort() & 0xFFFF;
+                for (int j = 0; j < arguments; j++) {
+                    int argument = data.getShort() & 0xFFFF;
+                    out.println("#" + argument + " " + constantPool.stringValue(argument));
+                }
+                out.indent(-3);
+            }
+        }
+
+        private void writeMethodParameters(ByteBuffer data) {
+            out.println("MethodParameters:");
+            out.indent(1);
+            out.println(String.format("%-31s%s", "Name", "Flags"));
+            int count = data.get() & 0xFF;
+            for (int i = 0; i < count; i++) {
+                int nameIndex = data.getShort() & 0xFFFF;
+                int access = data.getShort() & 0xFFFF;
+                StringBuilder flags = new StringBuilder();
+                if ((access & ClassFile.ACC_FINAL) != 0) {
+                    flags.append(" final");
+                }
+                if ((access & 0x8000) != 0) {
+                    flags.append(" mandated");
+                }
+                if ((access & 0x1000) != 0) {
+                    flags.append(" synthetic");
+                }
+                String name = nameIndex == 0 ? "<no name>" : constantPool.utf8(nameIndex);
+                out.println(String.format("%-31s%s", name, flags.toString().stripLeading()));
+            }
+            out.indent(-1);
+        }
+
+        private void writeRecord(ByteBuffer data) {
+            out.println("Record:");
+            out.indent(1);
+            int count = data.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                int nameIndex = data.getShort() & 0xFFFF;
+                int descriptorIndex = data.getShort() & 0xFFFF;
+                List<Attribute> attributes = ClassFile.readAttributes(data, constantPool);
+                Member component = new Member(0, nameIndex, descriptorIndex, attributes);
+                Attribute signature = component.attribute("Signature");
+                String descriptor = constantPool.utf8(descriptorIndex);
+                String type = TypeSignatures.fieldType(signature != null ? signatureOf(signature) : descriptor);
+                out.println(type + " " + constantPool.utf8(nameIndex) + ";");
+                out.indent(1);
+                out.println("descriptor: " + descriptor);
+                for (Attribute attribute : attributes) {
+                    writeAttribute(attribute, component);
+                }
+                out.indent(-1);
+                out.println();
+            }
+            out.indent(-1);
+        }
+
+        // ---- annotations ----
+
+        private void writeAnnotations(String name, ByteBuffer data) {
+            out.println(name + ":");
+            out.indent(1);
+            int count = data.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                out.print(i + ": ");
+                writeAnnotation(data);
+                out.println();
+            }
+            out.indent(-1);
+        }
+
+        private void writeParameterAnnotations(String name, ByteBuffer data) {
+            out.println(name + ":");
+            out.indent(1);
+            int parameters = data.get() & 0xFF;
+            for (int p = 0; p < parameters; p++) {
+                out.println("parameter " + p + ": ");
+                out.indent(1);
+                int count = data.getShort() & 0xFFFF;
+                for (int i = 0; i < count; i++) {
+                    out.print(i + ": ");
+                    writeAnnotation(data);
+                    out.println();
+                }
+                out.indent(-1);
+            }
+            out.indent(-1);
+        }
+
+        /** Writes the index form, then the resolved form on the following lines */
+        private void writeAnnotation(ByteBuffer data) {
+            int start = data.position();
+            writeAnnotation(data, false);
+            out.println();
+            out.indent(1);
+            data.position(start);
+            writeAnnotation(data, true);
+            out.indent(-1);
+        }
+
+        private void writeAnnotation(ByteBuffer data, boolean resolve) {
+            int typeIndex = data.getShort() & 0xFFFF;
+            int pairs = data.getShort() & 0xFFFF;
+            if (!resolve) {
+                out.print("#" + typeIndex + "(");
+                for (int i = 0; i < pairs; i++) {
+                    if (i > 0) {
+                        out.print(",");
+                    }
+                    out.print("#" + (data.getShort() & 0xFFFF) + "=");
+                    writeElementValue(data, false);
+                }
+                out.print(")");
+                return;
+            }
+            out.print(TypeSignatures.fieldType(constantPool.utf8(typeIndex)));
+            if (pairs > 0) {
+                out.println("(");
+                out.indent(1);
+                for (int i = 0; i < pairs; i++) {
+                    out.print(constantPool.utf8(data.getShort() & 0xFFFF) + "=");
+                    writeElementValue(data, true);
+                    out.println();
+                }
+                out.indent(-1);
+                out.print(")");
+            }
+        }
+
+        private void writeElementValue(ByteBuffer data, boolean resolve) {
+            char tag = (char) (data.get() & 0xFF);
+            switch (tag) {
+                case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's' -> {
+                    int index = data.getShort() & 0xFFFF;
+                    out.print(resolve ? constValue(tag, index) : tag + "#" + index);
+                }
+                case 'e' -> {
+                    int typeIndex = data.getShort() & 0xFFFF;
+                    int nameIndex = data.getShort() & 0xFFFF;
+                    out.print(resolve
+                            ? constantPool.utf8(typeIndex) + "." + constantPool.utf8(nameIndex)
+                            : "e#" + typeIndex + ".#" + nameIndex);
+                }
+                case 'c' -> {
+                    int index = data.getShort() & 0xFFFF;
+                    out.print(resolve ? "class " + constantPool.utf8(index) : "c#" + index);
+                }
+                case '@' -> {
+                    out.print("@");
+                    writeAnnotation(data, resolve);
+                }
+                case '[' -> {
+                    int count = data.getShort() & 0xFFFF;
+                    out.print("[");
+                    for (int i = 0; i < count; i++) {
+                        if (i > 0) {
+                            out.print(",");
+                        }
+                        writeElementValue(data, resolve);
+                    }
+                    out.print("]");
+                }
+                default -> throw new IllegalArgumentException("Unknown element value tag '" + tag + "'");
+            }
+        }
+
+        private String constValue(char tag, int index) {
+            Object value = constantPool.value(index);
+            return switch (tag) {
+                case 'B' -> "(byte) " + value;
+                case 'C' -> "'" + ConstantPool.escape(String.valueOf((char) ((Integer) value).intValue())) + "'";
+                case 'D' -> value + "d";
+                case 'F' -> value + "f";
+                case 'J' -> value + "l";
+                case 'S' -> "(short) " + value;
+                case 'Z' -> ((Integer) value) != 0 ? "true" : "false";
+                case 's' -> "\"" + constantPool.stringValue(index) + "\"";
+                default -> String.valueOf(value);
+            };
+        }
+
+        private void writeUnknownAttribute(Attribute attribute) {
+            ByteBuffer data = attribute.reader();
+            out.println(attribute.name() + ": length = 0x" + Integer.toHexString(attribute.length()).toUpperCase()
+                    + " (unknown attribute)");
+            out.print("   ");
+            int column = 0;
+            while (data.hasRemaining()) {
+                out.print(String.format("%02X", data.get() & 0xFF));
+                if (++column == 16) {
+                    out.println();
+                    out.print("   ");
+                    column = 0;
+                } else {
+                    out.print(" ");
+                }
+            }
+            out.println();
+        }
+
+        // ---- code ----
+
+        private void writeCode(ByteBuffer data, Member method) {
+            int maxStack = data.getShort() & 0xFFFF;
+            int maxLocals = data.getShort() & 0xFFFF;
+            int codeLength = data.getInt();
+            ByteBuffer code = data.slice(data.position(), codeLength);
+            data.position(data.position() + codeLength);
+
+            // javap counts declared parameters here, not local variable slots
+            int argsSize = TypeSignatures.methodType(constantPool.utf8(method.descriptorIndex())).parameters().size();
+            if ((method.access() & ClassFile.ACC_STATIC) == 0) {
+                argsSize++;
+            }
+            out.println("Code:");
+            out.indent(1);
+            out.println("stack=" + maxStack + ", locals=" + maxLocals + ", args_size=" + argsSize);
+            writeInstructions(code);
+
+            int exceptionCount = data.getShort() & 0xFFFF;
+            if (exceptionCount > 0) {
+                out.println("Exception table:");
+                out.indent(1);
+                out.println(" from    to  target type");
+                for (int i = 0; i < exceptionCount; i++) {
+                    int startPc = data.getShort() & 0xFFFF;
+                    int endPc = data.getShort() & 0xFFFF;
+                    int handlerPc = data.getShort() & 0xFFFF;
+                    int catchType = data.getShort() & 0xFFFF;
+                    out.print(String.format("%6d%6d%6d   ", startPc, endPc, handlerPc));
+                    out.println(catchType == 0 ? "any" : "Class " + constantPool.stringValue(catchType));
+                }
+                out.indent(-1);
+            }
+            for (Attribute attribute : ClassFile.readAttributes(data, constantPool)) {
+                writeAttribute(attribute, method);
+            }
+            out.indent(-1);
+        }
+
+        private void writeInstructions(ByteBuffer code) {
+            int pc = 0;
+            int length = code.limit();
+            while (pc < length) {
+                int opcode = code.get(pc) & 0xFF;
+                if (opcode == Opcodes.WIDE) {
+                    int modified = code.get(pc + 1) & 0xFF;
+                    out.print(String.format("%4d: %-13s ", pc, Opcodes.wideMnemonic(modified)));
+                    int index = code.getShort(pc + 2) & 0xFFFF;
+                    if (modified == Opcodes.IINC) {
+                        out.println(index + ", " + code.getShort(pc + 4));
+                        pc += 6;
+                    } else {
+                        out.println(index);
+                        pc += 4;
+                    }
+                    continue;
+                }
+                out.print(String.format("%4d: %-13s ", pc, Opcodes.mnemonic(opcode)));
+                pc = writeOperands(code, pc, opcode);
+                out.println();
+            }
+        }
+
+        /** Prints the operands of the instruction at {@code pc} and returns the pc of the next one */
+        private int writeOperands(ByteBuffer code, int pc, int opcode) {
+            switch (Opcodes.operands(opcode)) {
+                case NONE -> {
+                    return pc + 1;
+                }
+                case BYTE -> {
+                    out.print(code.get(pc + 1));
+                    return pc + 2;
+                }
+                case SHORT -> {
+                    out.print(code.getShort(pc + 1));
+                    return pc + 3;
+                }
+                case CPREF -> {
+                    writeConstantOperand(code.get(pc + 1) & 0xFF, "");
+                    return pc + 2;
+                }
+                case CPREF_W -> {
+                    writeConstantOperand(code.getShort(pc + 1) & 0xFFFF, "");
+                    return pc + 3;
+                }
+                case CPREF_W_UBYTE -> {
+                    writeConstantOperand(code.getShort(pc + 1) & 0xFFFF, ",  " + (code.get(pc + 3) & 0xFF));
+                    return pc + 4;
+                }
+                case CPREF_W_UBYTE_ZERO -> {
+                    writeConstantOperand(code.getShort(pc + 1) & 0xFFFF, ",  " + (code.get(pc + 3) & 0xFF));
+                    return pc + 5;
+                }
+                case LOCAL -> {
+                    out.print(code.get(pc + 1) & 0xFF);
+                    return pc + 2;
+                }
+                case LOCAL_BYTE -> {
+                    out.print((code.get(pc + 1) & 0xFF) + ", " + code.get(pc + 2));
+                    return pc + 3;
+                }
+                case BRANCH -> {
+                    out.print(pc + code.getShort(pc + 1));
+                    return pc + 3;
+                }
+                case BRANCH_W -> {
+                    out.print(pc + code.getInt(pc + 1));
+                    return pc + 5;
+                }
+                case ATYPE -> {
+                    out.print(" " + Opcodes.arrayType(code.get(pc + 1) & 0xFF));
+                    return pc + 2;
+                }
+                case TABLESWITCH -> {
+                    return writeTableSwitch(code, pc);
+                }
+                case LOOKUPSWITCH -> {
+                    return writeLookupSwitch(code, pc);
+                }
+                default -> throw new IllegalStateException("Unexpected operands for opcode " + opcode);
+            }
+        }
+
+        private void writeConstantOperand(int index, String suffix) {
+            out.print("#" + index + suffix);
+            out.tab();
+            out.print("// " + constantComment(index));
+        }
+
+        private int writeTableSwitch(ByteBuffer code, int pc) {
+            int position = align(pc);
+            int defaultOffset = code.getInt(position);
+            int low = code.getInt(position + 4);
+            int high = code.getInt(position + 8);
+            position += 12;
+            out.print("{ // " + low + " to " + high);
+            out.indent(3);
+            for (int value = low; value <= high; value++) {
+                out.print(String.format("\n%12d: %d", value, pc + code.getInt(position)));
+                position += 4;
+            }
+            out.print("\n     default: " + (pc + defaultOffset) + "\n}");
+            out.indent(-3);
+            return position;
+        }
+
+        private int writeLookupSwitch(ByteBuffer code, int pc) {
+            int position = align(pc);
+            int defaultOffset = code.getInt(position);
+            int pairs = code.getInt(position + 4);
+            position += 8;
+            out.print("{ // " + pairs);
+            out.indent(3);
+            for (int i = 0; i < pairs; i++) {
+                int match = code.getInt(position);
+                int offset = code.getInt(position + 4);
+                out.print(String.format("\n%12d: %d", match, pc + offset));
+                position += 8;
+            }
+            out.print("\n     default: " + (pc + defaultOffset) + "\n}");
+            out.indent(-3);
+            return position;
+        }
+
+        private static int align(int pc) {
+            return (pc + 4) & ~3;
+        }
+
+        private static String sha256(byte[] bytes) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
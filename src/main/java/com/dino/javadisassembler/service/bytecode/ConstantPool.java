@@ -0,0 +1,261 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parsed constant pool of a class file, with the string renderings javap uses for entries and comments
+ */
+class ConstantPool {
+
+    static final int UTF8 = 1;
+    static final int INTEGER = 3;
+    static final int FLOAT = 4;
+    static final int LONG = 5;
+    static final int DOUBLE = 6;
+    static final int CLASS = 7;
+    static final int STRING = 8;
+    static final int FIELDREF = 9;
+    static final int METHODREF = 10;
+    static final int INTERFACE_METHODREF = 11;
+    static final int NAME_AND_TYPE = 12;
+    static final int METHOD_HANDLE = 15;
+    static final int METHOD_TYPE = 16;
+    static final int DYNAMIC = 17;
+    static final int INVOKE_DYNAMIC = 18;
+    static final int MODULE = 19;
+    static final int PACKAGE = 20;
+
+    private static final String[] REFERENCE_KINDS = {
+            null, "REF_getField", "REF_getStatic", "REF_putField", "REF_putStatic", "REF_invokeVirtual",
+            "REF_invokeStatic", "REF_invokeSpecial", "REF_newInvokeSpecial", "REF_invokeInterface"
+    };
+
+    private final int[] tags;
+    private final int[] first;
+    private final int[] second;
+    private final Object[] values;
+
+    ConstantPool(ByteBuffer buffer) {
+        int count = buffer.getShort() & 0xFFFF;
+        tags = new int[count];
+        first = new int[count];
+        second = new int[count];
+        values = new Object[count];
+        for (int i = 1; i < count; i++) {
+            int tag = buffer.get() & 0xFF;
+            tags[i] = tag;
+            switch (tag) {
+                case UTF8 -> values[i] = readModifiedUtf8(buffer);
+                case INTEGER -> values[i] = buffer.getInt();
+                case FLOAT -> values[i] = buffer.getFloat();
+                case LONG -> values[i++] = buffer.getLong();
+                case DOUBLE -> values[i++] = buffer.getDouble();
+                case CLASS, STRING, METHOD_TYPE, MODULE, PACKAGE -> first[i] = buffer.getShort() & 0xFFFF;
+                case METHOD_HANDLE -> {
+                    first[i] = buffer.get() & 0xFF;
+                    second[i] = buffer.getShort() & 0xFFFF;
+                }
+                case FIELDREF, METHODREF, INTERFACE_METHODREF, NAME_AND_TYPE, DYNAMIC, INVOKE_DYNAMIC -> {
+                    first[i] = buffer.getShort() & 0xFFFF;
+                    second[i] = buffer.getShort() & 0xFFFF;
+                }
+                default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+    }
+
+    int size() {
+        return tags.length;
+    }
+
+    int tag(int index) {
+        return tags[index];
+    }
+
+    int first(int index) {
+        return first[index];
+    }
+
+    int second(int index) {
+        return second[index];
+    }
+
+    String utf8(int index) {
+        return (String) values[index];
+    }
+
+    /** Internal name of a CONSTANT_Class entry, e.g. {@code java/lang/Object} */
+    String className(int index) {
+        return utf8(first[index]);
+    }
+
+    Object value(int index) {
+        return values[index];
+    }
+
+    /** Name of the tag as shown in the "Constant pool:" listing */
+    static String tagName(int tag) {
+        return switch (tag) {
+            case UTF8 -> "Utf8";
+            case INTEGER -> "Integer";
+            case FLOAT -> "Float";
+            case LONG -> "Long";
+            case DOUBLE -> "Double";
+            case CLASS -> "Class";
+            case STRING -> "String";
+            case FIELDREF -> "Fieldref";
+            case METHODREF -> "Methodref";
+            case INTERFACE_METHODREF -> "InterfaceMethodref";
+            case NAME_AND_TYPE -> "NameAndType";
+            case METHOD_HANDLE -> "MethodHandle";
+            case METHOD_TYPE -> "MethodType";
+            case DYNAMIC -> "Dynamic";
+            case INVOKE_DYNAMIC -> "InvokeDynamic";
+            case MODULE -> "Module";
+            case PACKAGE -> "Package";
+            default -> "Unknown";
+        };
+    }
+
+    /** Name of the tag as shown in instruction and attribute comments, e.g. {@code // Method ...} */
+    static String commentTagName(int tag) {
+        return switch (tag) {
+            case UTF8 -> "Utf8";
+            case INTEGER -> "int";
+            case FLOAT -> "float";
+            case LONG -> "long";
+            case DOUBLE -> "double";
+            case CLASS -> "class";
+            case STRING -> "String";
+            case FIELDREF -> "Field";
+            case METHODREF -> "Method";
+            case INTERFACE_METHODREF -> "InterfaceMethod";
+            case NAME_AND_TYPE -> "NameAndType";
+            case METHOD_HANDLE -> "MethodHandle";
+            case METHOD_TYPE -> "MethodType";
+            case DYNAMIC -> "Dynamic";
+            case INVOKE_DYNAMIC -> "InvokeDynamic";
+            case MODULE -> "Module";
+            case PACKAGE -> "Package";
+            default -> "Unknown";
+        };
+    }
+
+    static String referenceKind(int kind) {
+        return kind > 0 && kind < REFERENCE_KINDS.length ? REFERENCE_KINDS[kind] : "REF_" + kind;
+    }
+
+    /** The text javap shows for an entry inside {@code //} comments and attribute listings */
+    String stringValue(int index) {
+        if (index <= 0 || index >= tags.length) {
+            return "#" + index;
+        }
+        return switch (tags[index]) {
+            case UTF8 -> escape(utf8(index));
+            case INTEGER -> String.valueOf(values[index]);
+            case FLOAT -> values[index] + "f";
+            case LONG -> values[index] + "l";
+            case DOUBLE -> values[index] + "d";
+            case CLASS -> checkName(className(index));
+            case STRING -> escape(utf8(first[index]));
+            case FIELDREF, METHODREF, INTERFACE_METHODREF ->
+                    checkName(className(first[index])) + "." + stringValue(second[index]);
+            case NAME_AND_TYPE -> checkName(utf8(first[index])) + ":" + utf8(second[index]);
+            case METHOD_HANDLE -> referenceKind(first[index]) + " " + stringValue(second[index]);
+            case METHOD_TYPE -> utf8(first[index]);
+            case DYNAMIC, INVOKE_DYNAMIC -> "#" + first[index] + ":" + stringValue(second[index]);
+            case MODULE, PACKAGE -> checkName(utf8(first[index]));
+            default -> "#" + index;
+        };
+    }
+
+    /** Quotes names that are not plain (slash separated) Java identifiers, like javap does */
+    static String checkName(String name) {
+        if (name == null) {
+            return "null";
+        }
+        if (name.isEmpty()) {
+            return "\"\"";
+        }
+        int previous = '/';
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = name.codePointAt(i);
+            if ((previous == '/' && !Character.isJavaIdentifierStart(codePoint))
+                    || (codePoint != '/' && !Character.isJavaIdentifierPart(codePoint))) {
+                return "\"" + escapeName(name) + "\"";
+            }
+            previous = codePoint;
+            i += Character.charCount(codePoint);
+        }
+        return name;
+    }
+
+    private static String escapeName(String name) {
+        return name.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\t", "\\t");
+    }
+
+    static String escape(String value) {
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '\t' -> "\\t";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\b' -> "\\b";
+                case '\f' -> "\\f";
+                case '"' -> "\\\"";
+                case '\'' -> "\\'";
+                case '\\' -> "\\\\";
+                default -> Character.isISOControl(c) ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (replacement != null && builder == null) {
+                builder = new StringBuilder(value.length() + 8).append(value, 0, i);
+            }
+            if (builder != null) {
+                if (replacement != null) {
+                    builder.append(replacement);
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder == null ? value : builder.toString();
+    }
+
+    private static String readModifiedUtf8(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        boolean ascii = true;
+        for (byte b : bytes) {
+            if (b <= 0) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        char[] chars = new char[length];
+        int count = 0;
+        for (int i = 0; i < length; ) {
+            int b = bytes[i] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+                i++;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+                i += 2;
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+                i += 3;
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
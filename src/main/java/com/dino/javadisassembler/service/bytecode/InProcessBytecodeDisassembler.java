@@ -0,0 +1,26 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+
+/**
+ * Disassembles class bytes directly from memory with {@link ClassFileDisassembler}, without
+ * touching the file system or starting a javap process
+ */
+public class InProcessBytecodeDisassembler implements BytecodeDisassembler {
+
+    private final ClassFileDisassembler disassembler = new ClassFileDisassembler();
+
+    @Override
+    public String disassemble(CompiledClasses classes, String className) throws CompilationException {
+        byte[] classBytes = classes.bytes(className);
+        if (classBytes == null) {
+            throw new CompilationException("Class not found: " + className);
+        }
+        try {
+            return disassembler.disassemble(classBytes);
+        } catch (IllegalArgumentException e) {
+            throw new CompilationException("Disassembly failed for class " + className, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.Workspace;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fallback disassembler that writes the classes to a workspace and forks javap
+ */
+public class JavapBytecodeDisassembler implements BytecodeDisassembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(JavapBytecodeDisassembler.class);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WorkspaceManager workspaces;
+    private final String javap;
+    private final Duration timeout;
+    private final ResourcePolicy policy;
+
+    /** Uses the javap found on the PATH */
+    public JavapBytecodeDisassembler() {
+        this("javap");
+    }
+
+    public JavapBytecodeDisassembler(String javap) {
+        this(WorkspaceManager.systemTemp(), javap);
+    }
+
+    public JavapBytecodeDisassembler(WorkspaceManager workspaces, String javap) {
+        this(workspaces, javap, DEFAULT_TIMEOUT, ResourcePolicy.defaults());
+    }
+
+    public JavapBytecodeDisassembler(WorkspaceManager workspaces, String javap, Duration timeout, ResourcePolicy policy) {
+        this.workspaces = workspaces;
+        this.javap = javap;
+        this.timeout = timeout;
+        this.policy = policy;
+    }
+
+    @Override
+    public String disassemble(CompiledClasses classes, String className) throws CompilationException, InterruptedException {
+        try (Workspace workspace = workspaces.acquire()) {
+            workspace.writeClasses("", classes);
+            List<String> command = new ArrayList<>();
+            command.add(javap);
+            command.addAll(policy.toolOptions());
+            // The class file's path rather than the class name, so that no name is read as an option
+            command.addAll(List.of("-c", "-verbose", "-p", "./" + className.replace('.', '/') + ".class"));
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.directory(workspace.directory().toFile());
+
+            ProcessRunner.Result result = ProcessRunner.run(processBuilder, timeout, policy);
+
+            if (result.truncated()) {
+                // The listing up to the cap is still worth showing, it ends with the truncation marker
+                return result.stdout();
+            }
+            if (result.timedOut()) {
+                logger.warn("Disassembly timed out for class: {}", className);
+                throw new JobTimeoutException("Disassembly timed out");
+            }
+            if (result.exitCode() != 0) {
+                throw new CompilationException("Disassembly failed for class " + className + "\n" + result.stderr());
+            }
+
+            return result.stdout();
+        } catch (IOException e) {
+            throw new CompilationException("Disassembly failed for class " + className, e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.dino.javadisassembler.service.bytecode;
+
+/**
+ * Line oriented writer reproducing javap's layout rules: two-space indentation levels,
+ * {@code //} comments aligned on a tab column, no trailing whitespace and blank separator
+ * lines that are only emitted when more output follows.
+ */
+final class JavapWriter {
+
+    private static final int INDENT_WIDTH = 2;
+    private static final int TAB_COLUMN = 40;
+
+    private final StringBuilder out;
+    private final StringBuilder line = new StringBuilder();
+    private int indent;
+    private boolean pendingNewline;
+
+    JavapWriter(int expectedSize) {
+        this.out = new StringBuilder(expectedSize);
+    }
+
+    void print(Object value) {
+        String text = String.valueOf(value);
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                append(text, start, i);
+                println();
+                start = i + 1;
+            }
+        }
+        append(text, start, text.length());
+    }
+
+    void println(Object value) {
+        print(value);
+        println();
+    }
+
+    void println() {
+        flushPendingNewline();
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) == ' ') {
+            end--;
+        }
+        out.append(line, 0, end).append('\n');
+        line.setLength(0);
+    }
+
+    /** Pads the current line to the comment column, or a single space if it is already past it */
+    void tab() {
+        int column = indent * INDENT_WIDTH + TAB_COLUMN;
+        if (line.length() >= column) {
+            line.append(' ');
+        } else {
+            line.append(" ".repeat(column - line.length()));
+        }
+    }
+
+    void indent(int delta) {
+        indent += delta;
+    }
+
+    void setPendingNewline(boolean pendingNewline) {
+        this.pendingNewline = pendingNewline;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void append(String text, int start, int end) {
+        if (start == end) {
+            return;
+        }
+        flushPendingNewline();
+        if (line.length() == 0) {
+            line.append(" ".repeat(indent * INDENT_WIDTH));
+        }
+        line.append(text, start, end);
+    }
+
+    private void flushPendingNewline() {
+        if (pendingNewline) {
+            pendingNewline = false;
+            out.append('\n');
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.dino.javadisassembler.service.bytecode;
+
+/**
+ * JVM instruction set: mnemonics and operand layouts (JVMS chapter 6)
+ */
+final class Opcodes {
+
+    enum Operands {
+        NONE,
+        /** signed byte immediate (bipush) */
+        BYTE,
+        /** signed short immediate (sipush) */
+        SHORT,
+        /** u1 constant pool index (ldc) */
+        CPREF,
+        /** u2 constant pool index */
+        CPREF_W,
+        /** u2 constant pool index followed by u1 dimensions (multianewarray) */
+        CPREF_W_UBYTE,
+        /** u2 constant pool index followed by u1 count and a zero byte (invokeinterface, invokedynamic) */
+        CPREF_W_UBYTE_ZERO,
+        /** u1 local variable index */
+        LOCAL,
+        /** u1 local variable index followed by signed byte increment (iinc) */
+        LOCAL_BYTE,
+        /** s2 branch offset */
+        BRANCH,
+        /** s4 branch offset */
+        BRANCH_W,
+        /** u1 primitive array type (newarray) */
+        ATYPE,
+        TABLESWITCH,
+        LOOKUPSWITCH,
+        WIDE
+    }
+
+    static final int IINC = 132;
+    static final int WIDE = 196;
+
+    private static final String[] MNEMONICS = {
+            "nop", "aconst_null", "iconst_m1", "iconst_0", "iconst_1", "iconst_2", "iconst_3", "iconst_4",
+            "iconst_5", "lconst_0", "lconst_1", "fconst_0", "fconst_1", "fconst_2", "dconst_0", "dconst_1",
+            "bipush", "sipush", "ldc", "ldc_w", "ldc2_w", "iload", "lload", "fload",
+            "dload", "aload", "iload_0", "iload_1", "iload_2", "iload_3", "lload_0", "lload_1",
+            "lload_2", "lload_3", "fload_0", "fload_1", "fload_2", "fload_3", "dload_0", "dload_1",
+            "dload_2", "dload_3", "aload_0", "aload_1", "aload_2", "aload_3", "iaload", "laload",
+            "faload", "daload", "aaload", "baload", "caload", "saload", "istore", "lstore",
+            "fstore", "dstore", "astore", "istore_0", "istore_1", "istore_2", "istore_3", "lstore_0",
+            "lstore_1", "lstore_2", "lstore_3", "fstore_0", "fstore_1", "fstore_2", "fstore_3", "dstore_0",
+            "dstore_1", "dstore_2", "dstore_3", "astore_0", "astore_1", "astore_2", "astore_3", "iastore",
+            "lastore", "fastore", "dastore", "aastore", "bastore", "castore", "sastore", "pop",
+            "pop2", "dup", "dup_x1", "dup_x2", "dup2", "dup2_x1", "dup2_x2", "swap",
+            "iadd", "ladd", "fadd", "dadd", "isub", "lsub", "fsub", "dsub",
+            "imul", "lmul", "fmul", "dmul", "idiv", "ldiv", "fdiv", "ddiv",
+            "irem", "lrem", "frem", "drem", "ineg", "lneg", "fneg", "dneg",
+            "ishl", "lshl", "ishr", "lshr", "iushr", "lushr", "iand", "land",
+            "ior", "lor", "ixor", "lxor", "iinc", "i2l", "i2f", "i2d",
+            "l2i", "l2f", "l2d", "f2i", "f2l", "f2d", "d2i", "d2l",
+            "d2f", "i2b", "i2c", "i2s", "lcmp", "fcmpl", "fcmpg", "dcmpl",
+            "dcmpg", "ifeq", "ifne", "iflt", "ifge", "ifgt", "ifle", "if_icmpeq",
+            "if_icmpne", "if_icmplt", "if_icmpge", "if_icmpgt", "if_icmple", "if_acmpeq", "if_acmpne", "goto",
+            "jsr", "ret", "tableswitch", "lookupswitch", "ireturn", "lreturn", "freturn", "dreturn",
+            "areturn", "return", "getstatic", "putstatic", "getfield", "putfield", "invokevirtual", "invokespecial",
+            "invokestatic", "invokeinterface", "invokedynamic", "new", "newarray", "anewarray", "arraylength", "athrow",
+            "checkcast", "instanceof", "monitorenter", "monitorexit", "wide", "multianewarray", "ifnull", "ifnonnull",
+            "goto_w", "jsr_w", "breakpoint"
+    };
+
+    private static final String[] ARRAY_TYPES = {
+            null, null, null, null, "boolean", "char", "float", "double", "byte", "short", "int", "long"
+    };
+
+    private Opcodes() {
+    }
+
+    static String mnemonic(int opcode) {
+        if (opcode < MNEMONICS.length) {
+            return MNEMONICS[opcode];
+        }
+        return switch (opcode) {
+            case 254 -> "impdep1";
+            case 255 -> "impdep2";
+            default -> "bytecode " + opcode;
+        };
+    }
+
+    /** Mnemonic of an instruction modified by the wide prefix, e.g. {@code iinc_w} */
+    static String wideMnemonic(int opcode) {
+        return mnemonic(opcode) + "_w";
+    }
+
+    static String arrayType(int type) {
+        return type >= 0 && type < ARRAY_TYPES.length && ARRAY_TYPES[type] != null ? ARRAY_TYPES[type] : "BOGUS TYPE:" + type;
+    }
+
+    static Operands operands(int opcode) {
+        return switch (opcode) {
+            case 16 -> Operands.BYTE;
+            case 17 -> Operands.SHORT;
+            case 18 -> Operands.CPREF;
+            case 19, 20, 178, 179, 180, 181, 182, 183, 184, 187, 189, 192, 193 -> Operands.CPREF_W;
+            case 21, 22, 23, 24, 25, 54, 55, 56, 57, 58, 169 -> Operands.LOCAL;
+            case IINC -> Operands.LOCAL_BYTE;
+            case 153, 154, 155, 156, 157, 158, 159, 160, 161, 162, 163, 164, 165, 166, 167, 168, 198, 199 -> Operands.BRANCH;
+            case 200, 201 -> Operands.BRANCH_W;
+            case 170 -> Operands.TABLESWITCH;
+            case 171 -> Operands.LOOKUPSWITCH;
+            case 185, 186 -> Operands.CPREF_W_UBYTE_ZERO;
+            case 188 -> Operands.ATYPE;
+            case WIDE -> Operands.WIDE;
+            case 197 -> Operands.CPREF_W_UBYTE;
+            default -> Operands.NONE;
+        };
+    }
+}
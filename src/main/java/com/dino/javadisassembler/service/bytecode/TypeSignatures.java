@@ -0,0 +1,171 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders field/method descriptors and generic signatures as Java source types, following javap's conventions
+ */
+final class TypeSignatures {
+
+    record MethodType(List<String> typeParameters, List<String> parameters, String returnType, List<String> throwsTypes) {
+    }
+
+    record ClassType(List<String> typeParameters, String superclass, List<String> interfaces) {
+    }
+
+    private final String signature;
+    private final boolean javaNames;
+    private int position;
+
+    private TypeSignatures(String signature, boolean javaNames) {
+        this.signature = signature;
+        this.javaNames = javaNames;
+    }
+
+    /** Renders a field descriptor or field signature, e.g. {@code java.util.List<T>} */
+    static String fieldType(String signature) {
+        return new TypeSignatures(signature, true).type();
+    }
+
+    static MethodType methodType(String signature) {
+        TypeSignatures parser = new TypeSignatures(signature, true);
+        List<String> typeParameters = parser.typeParameters();
+        List<String> parameters = new ArrayList<>();
+        parser.expect('(');
+        while (parser.peek() != ')') {
+            parameters.add(parser.type());
+        }
+        parser.expect(')');
+        String returnType = parser.type();
+        List<String> throwsTypes = new ArrayList<>();
+        // javap prints generic throws clauses without converting to Java names
+        TypeSignatures rawParser = new TypeSignatures(signature, false);
+        rawParser.position = parser.position;
+        while (rawParser.position < signature.length() && rawParser.peek() == '^') {
+            rawParser.position++;
+            throwsTypes.add(rawParser.type());
+        }
+        return new MethodType(typeParameters, parameters, returnType, throwsTypes);
+    }
+
+    static ClassType classType(String signature) {
+        TypeSignatures parser = new TypeSignatures(signature, true);
+        List<String> typeParameters = parser.typeParameters();
+        String superclass = parser.type();
+        List<String> interfaces = new ArrayList<>();
+        while (parser.position < signature.length()) {
+            interfaces.add(parser.type());
+        }
+        return new ClassType(typeParameters, superclass, interfaces);
+    }
+
+    private List<String> typeParameters() {
+        List<String> parameters = new ArrayList<>();
+        if (peek() != '<') {
+            return parameters;
+        }
+        position++;
+        while (peek() != '>') {
+            int colon = signature.indexOf(':', position);
+            StringBuilder parameter = new StringBuilder(signature.substring(position, colon));
+            position = colon + 1;
+            String separator = " extends ";
+            // Class bound (may be empty), followed by any number of interface bounds
+            if (peek() != ':') {
+                parameter.append(separator).append(type());
+                separator = " & ";
+            }
+            while (peek() == ':') {
+                position++;
+                parameter.append(separator).append(type());
+                separator = " & ";
+            }
+            parameters.add(parameter.toString());
+        }
+        position++;
+        return parameters;
+    }
+
+    private String type() {
+        char c = signature.charAt(position++);
+        return switch (c) {
+            case 'B' -> "byte";
+            case 'C' -> "char";
+            case 'D' -> "double";
+            case 'F' -> "float";
+            case 'I' -> "int";
+            case 'J' -> "long";
+            case 'S' -> "short";
+            case 'Z' -> "boolean";
+            case 'V' -> "void";
+            case '[' -> type() + "[]";
+            case 'T' -> {
+                int end = signature.indexOf(';', position);
+                String name = signature.substring(position, end);
+                position = end + 1;
+                yield name;
+            }
+            case 'L' -> classTypeSignature();
+            default -> throw new IllegalArgumentException("Bad signature " + signature + " at " + (position - 1));
+        };
+    }
+
+    private String classTypeSignature() {
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            int start = position;
+            while (peek() != '<' && peek() != '.' && peek() != ';') {
+                position++;
+            }
+            String name = signature.substring(start, position);
+            builder.append(javaNames ? name.replace('/', '.') : name);
+            if (peek() == '<') {
+                position++;
+                builder.append('<');
+                String separator = "";
+                while (peek() != '>') {
+                    builder.append(separator).append(typeArgument());
+                    separator = ", ";
+                }
+                position++;
+                builder.append('>');
+            }
+            if (peek() == '.') {
+                position++;
+                builder.append('.');
+                continue;
+            }
+            position++;
+            return builder.toString();
+        }
+    }
+
+    private String typeArgument() {
+        char c = peek();
+        if (c == '*') {
+            position++;
+            return "?";
+        }
+        if (c == '+') {
+            position++;
+            return "? extends " + type();
+        }
+        if (c == '-') {
+            position++;
+            return "? super " + type();
+        }
+        return type();
+    }
+
+    private char peek() {
+        return signature.charAt(position);
+    }
+
+    private void expect(char c) {
+        if (signature.charAt(position) != c) {
+            throw new IllegalArgumentException("Bad signature " + signature + ", expected '" + c + "' at " + position);
+        }
+        position++;
+    }
+}
@@ -0,0 +1,115 @@
+package com.dino.javadisassembler.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed cache of disassembly results. Keys are SHA-256 hashes of everything that
+ * determines the output (source, class name, mode, JDK version and flags), so identical snippets
+ * are only compiled and disassembled once.
+ * <p>
+ * The memory tier is bounded by total weight (characters of output) and, through a minimum
+ * per-entry weight, by entry count. An optional {@link DiskCacheTier} backs it across restarts.
+ */
+public class DisassemblyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisassemblyCache.class);
+    private static final String JDK_VERSION = Runtime.version().toString();
+
+    public record Stats(long hits, long misses, long evictions, long diskHits, long entries, long weight,
+                        long diskEntries, long diskBytes) {
+    }
+
+    private final boolean enabled;
+    private final Cache<String, String> memory;
+    private final DiskCacheTier disk;
+    private final LongAdder diskHits = new LongAdder();
+
+    /**
+     * @param maxEntries maximum number of results kept in memory
+     * @param maxWeight  maximum total length of the results kept in memory
+     * @param disk       optional persistent tier, may be {@code null}
+     */
+    public DisassemblyCache(int maxEntries, long maxWeight, DiskCacheTier disk) {
+        this.enabled = maxEntries > 0 && maxWeight > 0;
+        // Every entry weighs at least maxWeight / maxEntries, which caps the entry count as well
+        int minimumWeight = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxWeight / Math.max(1, maxEntries)));
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, String value) -> Math.max(minimumWeight, value.length()))
+                // Maintenance is cheap here; running it on the caller keeps the counters exact
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        this.disk = disk;
+    }
+
+    /** A cache that never stores anything, for deployments that turn caching off */
+    public static DisassemblyCache disabled() {
+        return new DisassemblyCache(0, 0, null);
+    }
+
+    /** Computes the cache key for a request */
+    public static String key(String mode, String sourceCode, String className, String flags) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{mode, JDK_VERSION, flags, className, sourceCode}) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Returns the cached result, or {@code null} on a miss */
+    public String get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        String value = memory.getIfPresent(key);
+        if (value != null || disk == null) {
+            return value;
+        }
+        value = disk.read(key);
+        if (value != null) {
+            diskHits.increment();
+            memory.put(key, value);
+            logger.debug("Cache entry {} promoted from disk", key);
+        }
+        return value;
+    }
+
+    public void put(String key, String value) {
+        if (!enabled) {
+            return;
+        }
+        memory.put(key, value);
+        if (disk != null) {
+            disk.write(key, value);
+        }
+    }
+
+    public Stats stats() {
+        CacheStats stats = memory.stats();
+        return new Stats(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                diskHits.sum(),
+                memory.estimatedSize(),
+                memory.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L),
+                disk == null ? 0 : disk.entries(),
+                disk == null ? 0 : disk.totalBytes());
+    }
+}
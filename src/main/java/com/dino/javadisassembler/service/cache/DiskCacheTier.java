@@ -0,0 +1,164 @@
+package com.dino.javadisassembler.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Second cache tier that keeps results as files named after their key, so they survive restarts.
+ * The least recently used files are deleted once the directory grows past its byte budget.
+ * I/O errors are logged and treated as misses: the tier is an optimization, never a failure source.
+ */
+public class DiskCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskCacheTier.class);
+    private static final String SUFFIX = ".txt";
+
+    private final Path directory;
+    private final long maxBytes;
+    /** key -> file size, in access order */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    public DiskCacheTier(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cache directory " + directory, e);
+        }
+        loadIndex();
+    }
+
+    public String read(String key) {
+        synchronized (this) {
+            if (!index.containsKey(key)) {
+                return null;
+            }
+        }
+        try {
+            String value = Files.readString(path(key), StandardCharsets.UTF_8);
+            synchronized (this) {
+                // refreshes the entry's position in the access ordered index
+                index.get(key);
+            }
+            return value;
+        } catch (NoSuchFileException e) {
+            forget(key);
+            return null;
+        } catch (IOException e) {
+            logger.warn("Could not read cache entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    public void write(String key, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            return;
+        }
+        Path target = path(key);
+        try {
+            Files.createDirectories(target.getParent());
+            // Write then rename, so a concurrent reader or a crash never sees a partial entry
+            Path temp = target.resolveSibling(key + "." + UUID.randomUUID() + ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write cache entry {}: {}", key, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            Long previous = index.put(key, (long) bytes.length);
+            totalBytes += bytes.length - (previous == null ? 0 : previous);
+            evictOverflow();
+        }
+    }
+
+    public synchronized int entries() {
+        return index.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void forget(String key) {
+        Long size = index.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(path(entry.getKey()));
+            } catch (IOException e) {
+                logger.warn("Could not delete cache entry {}: {}", entry.getKey(), e.getMessage());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private Path path(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    /** Rebuilds the index from a previous run, oldest files first so they are evicted first */
+    private void loadIndex() {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory, 2)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            logger.warn("Could not scan cache directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        record Entry(Path path, long modified, long size) {
+        }
+        files.stream()
+                .map(file -> {
+                    try {
+                        return new Entry(file, Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+                    } catch (IOException e) {
+                        return null;
+                    }
+                })
+                .filter(entry -> entry != null)
+                .sorted(Comparator.comparingLong(Entry::modified))
+                .forEach(entry -> {
+                    String name = entry.path().getFileName().toString();
+                    if (name.endsWith(SUFFIX)) {
+                        index.put(name.substring(0, name.length() - SUFFIX.length()), entry.size());
+                        totalBytes += entry.size();
+                    } else {
+                        // leftover temporary file from an interrupted write
+                        try {
+                            Files.deleteIfExists(entry.path());
+                        } catch (IOException ignored) {
+                            // retried on the next start
+                        }
+                    }
+                });
+        evictOverflow();
+        logger.info("Loaded {} cached results ({} bytes) from {}", index.size(), totalBytes, directory);
+    }
+}
@@ -0,0 +1,38 @@
+package com.dino.javadisassembler.service.compiler;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class file bytes produced by a compilation, keyed by binary class name (e.g. {@code pkg.Outer$Inner})
+ */
+public class CompiledClasses {
+
+    private final Map<String, byte[]> classes;
+
+    public CompiledClasses(Map<String, byte[]> classes) {
+        this.classes = Collections.unmodifiableMap(new LinkedHashMap<>(classes));
+    }
+
+    public Set<String> classNames() {
+        return classes.keySet();
+    }
+
+    public byte[] bytes(String className) {
+        return classes.get(className);
+    }
+
+    public boolean contains(String className) {
+        return classes.containsKey(className);
+    }
+
+    public int totalBytes() {
+        int total = 0;
+        for (byte[] bytes : classes.values()) {
+            total += bytes.length;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,115 @@
+package com.dino.javadisassembler.service.compiler;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.Workspace;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Fallback compiler that forks javac per request, used when the in-process compiler is disabled or
+ * the server JVM does not ship one, and for toolchains other than the server's own JDK
+ */
+public class ForkingSourceCompiler implements SourceCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForkingSourceCompiler.class);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WorkspaceManager workspaces;
+    private final String javac;
+    private final Duration timeout;
+    private final ResourcePolicy policy;
+
+    /** Uses the javac found on the PATH */
+    public ForkingSourceCompiler() {
+        this("javac");
+    }
+
+    public ForkingSourceCompiler(String javac) {
+        this(WorkspaceManager.systemTemp(), javac);
+    }
+
+    public ForkingSourceCompiler(WorkspaceManager workspaces, String javac) {
+        this(workspaces, javac, DEFAULT_TIMEOUT, ResourcePolicy.defaults());
+    }
+
+    public ForkingSourceCompiler(WorkspaceManager workspaces, String javac, Duration timeout, ResourcePolicy policy) {
+        this.workspaces = workspaces;
+        this.javac = javac;
+        this.timeout = timeout;
+        this.policy = policy;
+    }
+
+    @Override
+    public CompiledClasses compile(Map<String, String> sources) throws CompilationException, InterruptedException {
+        try (Workspace workspace = workspaces.acquire()) {
+            Path sourcesDir = workspace.createDirectories("src");
+            Path classesDir = workspace.createDirectories("classes");
+            List<String> command = new ArrayList<>();
+            command.add(javac);
+            command.addAll(policy.toolOptions());
+            command.addAll(List.of("-d", classesDir.toString()));
+            for (Map.Entry<String, String> source : sources.entrySet()) {
+                Path sourceFile = workspace.resolve("src/" + source.getKey());
+                if (!sourceFile.startsWith(sourcesDir)) {
+                    throw new CompilationException("Invalid source path: " + source.getKey());
+                }
+                workspace.writeString("src/" + source.getKey(), source.getValue());
+                command.add(sourceFile.toString());
+            }
+
+            logger.debug("Starting compilation of {} files in: {}", sources.size(), sourcesDir);
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.redirectErrorStream(true);
+            ProcessRunner.Result result = ProcessRunner.run(processBuilder, timeout, policy);
+
+            if (result.cpuExceeded()) {
+                logger.warn("Compilation went over its CPU time limit in: {}", sourcesDir);
+                throw new CompilationException(policy.cpuLimitMessage());
+            }
+            if (result.timedOut()) {
+                logger.warn("Compilation timed out in: {}", sourcesDir);
+                throw new InterruptedException("Compilation timed out");
+            }
+
+            String diagnostics = result.stdout();
+            logger.debug("Compilation finished with exit code: {}", result.exitCode());
+            if (result.exitCode() != 0) {
+                throw new CompileErrorException("Compilation failed\n"
+                        + diagnostics.replace(sourcesDir.toAbsolutePath() + File.separator, ""));
+            }
+            return new CompiledClasses(readClasses(classesDir));
+        } catch (IOException e) {
+            throw new CompilationException("Compilation failed", e);
+        }
+    }
+
+    private static Map<String, byte[]> readClasses(Path classesDir) throws IOException {
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            classFiles = files.filter(p -> p.toString().endsWith(".class")).toList();
+        }
+        for (Path classFile : classFiles) {
+            String relative = classesDir.relativize(classFile).toString();
+            String binaryName = relative.substring(0, relative.length() - ".class".length())
+                    .replace(File.separatorChar, '.');
+            classes.put(binaryName, Files.readAllBytes(classFile));
+        }
+        return classes;
+    }
+}
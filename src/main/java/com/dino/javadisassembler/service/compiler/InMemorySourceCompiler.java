@@ -0,0 +1,262 @@
+package com.dino.javadisassembler.service.compiler;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Compiles sources with the JDK's javax.tools compiler inside the server JVM.
+ * Sources are read from memory and class files are captured in memory, so nothing touches the disk.
+ * The compiler and a small pool of standard file managers (which cache the platform class index)
+ * are kept warm between requests.
+ */
+public class InMemorySourceCompiler implements SourceCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySourceCompiler.class);
+    private static final List<String> OPTIONS = List.of("-proc:none");
+
+    private final JavaCompiler compiler;
+    private final BlockingQueue<StandardJavaFileManager> fileManagers;
+
+    public InMemorySourceCompiler() {
+        this(4);
+    }
+
+    public InMemorySourceCompiler(int fileManagerPoolSize) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No system Java compiler available, the server must run on a JDK");
+        }
+        this.fileManagers = new ArrayBlockingQueue<>(Math.max(1, fileManagerPoolSize));
+    }
+
+    public static boolean isAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    /**
+     * Runs a throwaway compilation so the first user request does not pay for javac class loading
+     */
+    public void warmUp() {
+        try {
+            compile("class Warmup { int run(int x) { return x * 2; } }", "Warmup");
+            logger.debug("In-process compiler warmed up");
+        } catch (Exception e) {
+            logger.warn("In-process compiler warm up failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public CompiledClasses compile(Map<String, String> sources) throws CompilationException {
+        return compile(sources, new CompiledClasses(Map.of()));
+    }
+
+    /**
+     * Compiles {@code sources} against the classes of an earlier compilation, so a change to one
+     * file recompiles only that file. Returns the classes of {@code sources} alone.
+     */
+    public CompiledClasses compile(Map<String, String> sources, CompiledClasses classpath) throws CompilationException {
+        logger.debug("Compiling {} source files in process against {} classes", sources.size(), classpath.classNames().size());
+        StandardJavaFileManager standardFileManager = acquireFileManager();
+        try {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            MemoryFileManager fileManager = new MemoryFileManager(standardFileManager, classpath);
+            List<SourceObject> units = new ArrayList<>();
+            sources.forEach((path, sourceCode) -> units.add(new SourceObject(path, sourceCode)));
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                    null, fileManager, diagnostics, OPTIONS, null, units
+            );
+
+            boolean success = task.call();
+            logger.debug("Compilation finished with status: {}", success);
+            if (!success) {
+                throw new CompileErrorException("Compilation failed\n" + formatDiagnostics(diagnostics));
+            }
+            return new CompiledClasses(fileManager.outputs());
+        } finally {
+            releaseFileManager(standardFileManager);
+        }
+    }
+
+    private StandardJavaFileManager acquireFileManager() {
+        StandardJavaFileManager fileManager = fileManagers.poll();
+        if (fileManager != null) {
+            return fileManager;
+        }
+        fileManager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+        try {
+            // User code must not see the server's own classpath
+            fileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not configure compiler file manager", e);
+        }
+        return fileManager;
+    }
+
+    private void releaseFileManager(StandardJavaFileManager fileManager) {
+        if (!fileManagers.offer(fileManager)) {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                logger.debug("Could not close surplus file manager: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String formatDiagnostics(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder builder = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            String fileName = diagnostic.getSource() == null ? "" : diagnostic.getSource().getName();
+            if (fileName.startsWith("/")) {
+                fileName = fileName.substring(1);
+            }
+            builder.append(fileName)
+                    .append(':').append(diagnostic.getLineNumber())
+                    .append(": ").append(diagnostic.getKind().toString().toLowerCase(Locale.ROOT))
+                    .append(": ").append(diagnostic.getMessage(Locale.ROOT))
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static final class SourceObject extends SimpleJavaFileObject {
+
+        private final String sourceCode;
+
+        SourceObject(String path, String sourceCode) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.sourceCode = sourceCode;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return sourceCode;
+        }
+    }
+
+    private static final class ClassObject extends SimpleJavaFileObject {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassObject(String className) {
+            super(URI.create("mem:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /** A class of an earlier compilation, read by javac from the class path */
+    private static final class ClassInput extends SimpleJavaFileObject {
+
+        private final String className;
+        private final byte[] bytes;
+
+        ClassInput(String className, byte[] bytes) {
+            super(URI.create("mem:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final Map<String, ClassObject> outputs = new LinkedHashMap<>();
+        private final CompiledClasses classpath;
+
+        MemoryFileManager(JavaFileManager fileManager, CompiledClasses classpath) {
+            super(fileManager);
+            this.classpath = classpath;
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                                             boolean recurse) throws IOException {
+            Iterable<JavaFileObject> listed = super.list(location, packageName, kinds, recurse);
+            if (location != StandardLocation.CLASS_PATH || !kinds.contains(JavaFileObject.Kind.CLASS)
+                    || classpath.classNames().isEmpty()) {
+                return listed;
+            }
+            List<JavaFileObject> files = new ArrayList<>();
+            listed.forEach(files::add);
+            for (String className : classpath.classNames()) {
+                int dot = className.lastIndexOf('.');
+                String classPackage = dot < 0 ? "" : className.substring(0, dot);
+                if (classPackage.equals(packageName)
+                        || recurse && (packageName.isEmpty() || classPackage.startsWith(packageName + "."))) {
+                    files.add(new ClassInput(className, classpath.bytes(className)));
+                }
+            }
+            return files;
+        }
+
+        @Override
+        public String inferBinaryName(Location location, JavaFileObject file) {
+            if (file instanceof ClassInput input) {
+                return input.className;
+            }
+            return super.inferBinaryName(location, file);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+            if (kind != JavaFileObject.Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+            ClassObject classObject = new ClassObject(className);
+            outputs.put(className, classObject);
+            return classObject;
+        }
+
+        @Override
+        public void close() {
+            // The wrapped standard file manager is pooled, keep it open
+        }
+
+        Map<String, byte[]> outputs() {
+            Map<String, byte[]> classes = new LinkedHashMap<>();
+            outputs.forEach((name, classObject) -> classes.put(name, classObject.toByteArray()));
+            return classes;
+        }
+    }
+}
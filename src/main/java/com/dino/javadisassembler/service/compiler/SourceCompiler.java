@@ -0,0 +1,31 @@
+package com.dino.javadisassembler.service.compiler;
+
+import com.dino.javadisassembler.exception.CompilationException;
+
+import java.util.Map;
+
+/**
+ * Turns Java sources into class file bytes
+ */
+public interface SourceCompiler {
+
+    /**
+     * Compiles the source declared as {@code className} and returns every class it produced,
+     * including nested and local classes. Throws if javac reports errors.
+     */
+    default CompiledClasses compile(String sourceCode, String className) throws CompilationException, InterruptedException {
+        return compile(Map.of(sourcePath(className), sourceCode));
+    }
+
+    /**
+     * Compiles the given source files together in one compilation, so they can refer to each other,
+     * and returns every class they produced. {@code sources} maps relative paths such as
+     * {@code com/example/Main.java} to their content. Throws if javac reports errors.
+     */
+    CompiledClasses compile(Map<String, String> sources) throws CompilationException, InterruptedException;
+
+    /** The conventional source path of {@code className}, e.g. {@code com/example/Main.java} */
+    static String sourcePath(String className) {
+        return className.replace('.', '/') + ".java";
+    }
+}
@@ -0,0 +1,362 @@
+package com.dino.javadisassembler.service.diff;
+
+import com.dino.javadisassembler.service.bytecode.ClassFileDisassembler;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Structural diff of the code generated for two submissions. Methods are paired by signature (and,
+ * for JIT code, by compiler, tier and OSR entry), and each pair is compared line by line after
+ * addresses, constant-pool indices, bytecode offsets and line numbers are normalised away, so only
+ * code that actually changed shows up.
+ * <p>
+ * Each method is diffed with Myers' algorithm after its common head and tail are cut off, which
+ * takes O((N + M) * D) time and O(D * D) memory for D edits. D is capped at {@code maxEdits}; a
+ * method with more edits than that is reported as entirely replaced, which keeps the diff linear
+ * in the size of the listings and its memory bounded even for large PrintAssembly dumps.
+ */
+public class CodegenDiff {
+
+    /** Constant pool references, renumbered whenever any constant is added or removed */
+    private static final Pattern CONSTANT_INDEX = Pattern.compile("#\\d+");
+    /** Bytecode offset prefix of an instruction, shifted by every instruction inserted above it */
+    private static final Pattern BYTECODE_OFFSET = Pattern.compile("^\\s*\\d+: ");
+    /** Branch targets, which are bytecode offsets as well */
+    private static final Pattern BRANCH_TARGET = Pattern.compile("^(\\s*(?:if\\w*|goto\\w*|jsr\\w*)\\s+)\\d+");
+    /** Line number table entries */
+    private static final Pattern LINE_NUMBER = Pattern.compile("^\\s*(?:line \\d+: \\d+|LineNumberTable:)$");
+    /** Code and metadata addresses in the generated code, different in every run */
+    private static final Pattern ADDRESS = Pattern.compile("0x[0-9a-fA-F]{8,}");
+    /** Source lines in HotSpot's annotations */
+    private static final Pattern SOURCE_LINE = Pattern.compile("\\(line \\d+\\)");
+
+    private static final char EQUAL = ' ';
+    private static final char DELETE = '-';
+    private static final char INSERT = '+';
+
+    public enum View {
+        BYTECODE,
+        JIT,
+        BOTH;
+
+        /**
+         * @throws IllegalArgumentException if {@code view} is none of bytecode, jit and both
+         */
+        public static View of(String view) {
+            try {
+                return valueOf(view.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown view: " + view + ", expected bytecode, jit or both");
+            }
+        }
+
+        public boolean includesBytecode() {
+            return this != JIT;
+        }
+
+        public boolean includesJit() {
+            return this != BYTECODE;
+        }
+    }
+
+    /**
+     * A run of changed lines with their context, in unified diff form
+     *
+     * @param beforeLine first line of the hunk in the earlier listing, from 1
+     * @param afterLine  first line of the hunk in the later listing, from 1
+     * @param lines      lines prefixed with {@code ' '} (unchanged), {@code '-'} (removed) or
+     *                   {@code '+'} (added)
+     */
+    public record Hunk(int beforeLine, int afterLine, List<String> lines) {
+    }
+
+    /**
+     * @param view   {@code bytecode} or {@code jit}
+     * @param method method signature, for JIT code followed by compiler, tier and OSR entry
+     */
+    public record MethodDiff(String view, String method, Kind kind, int added, int removed, List<Hunk> hunks) {
+
+        public enum Kind {
+            ADDED,
+            REMOVED,
+            CHANGED
+        }
+    }
+
+    /**
+     * @param methods   methods that differ, in the order of the later listing, removed ones last
+     * @param unchanged methods present in both listings with the same normalised code
+     */
+    public record Result(List<MethodDiff> methods, int unchanged) {
+
+        public Result plus(Result other) {
+            List<MethodDiff> all = new ArrayList<>(methods);
+            all.addAll(other.methods);
+            return new Result(all, unchanged + other.unchanged);
+        }
+    }
+
+    private final int maxEdits;
+    private final int context;
+
+    /**
+     * @param maxEdits edits per method beyond which a method is reported as replaced
+     * @param context  unchanged lines shown around each change
+     */
+    public CodegenDiff(int maxEdits, int context) {
+        this.maxEdits = Math.max(0, maxEdits);
+        this.context = Math.max(0, context);
+    }
+
+    /** Bytecode listings of every method of {@code classes}, keyed by {@code Class::name(descriptor)} */
+    public static Map<String, List<String>> bytecodeListings(CompiledClasses classes, ClassFileDisassembler disassembler) {
+        Map<String, List<String>> listings = new LinkedHashMap<>();
+        for (String className : classes.classNames()) {
+            disassembler.disassembleMethods(classes.bytes(className)).forEach((method, listing) ->
+                    listings.put(className + "::" + method, listing.lines()
+                            .filter(line -> !LINE_NUMBER.matcher(line).matches())
+                            .toList()));
+        }
+        return listings;
+    }
+
+    /**
+     * JIT listings of {@code methods}, one per compilation, keyed by method, compiler, tier and OSR
+     * entry. Instructions are listed without their addresses, preceded by their code section.
+     */
+    public static Map<String, List<String>> jitListings(List<CompiledMethod> methods) {
+        Map<String, List<String>> listings = new LinkedHashMap<>();
+        for (CompiledMethod method : methods) {
+            String key = method.method() + " " + method.compiler() + " tier " + method.tier()
+                    + (method.osr() ? " osr@" + method.osrBci() : "");
+            // A method compiled again at the same tier, e.g. after a deoptimization
+            String unique = key;
+            for (int compilation = 2; listings.containsKey(unique); compilation++) {
+                unique = key + " #" + compilation;
+            }
+            List<String> lines = new ArrayList<>();
+            String section = null;
+            for (CompiledMethod.Instruction instruction : method.instructions()) {
+                if (instruction.section() != null && !instruction.section().equals(section)) {
+                    section = instruction.section();
+                    lines.add("[" + section + "]");
+                }
+                lines.add(instruction.comment().isEmpty() ? instruction.assembly()
+                        : instruction.assembly() + "  ; " + instruction.comment().replace('\n', ' '));
+            }
+            listings.put(unique, lines);
+        }
+        return listings;
+    }
+
+    public Result diffBytecode(Map<String, List<String>> before, Map<String, List<String>> after) {
+        return diff("bytecode", before, after, CodegenDiff::normalizeBytecode);
+    }
+
+    public Result diffJit(Map<String, List<String>> before, Map<String, List<String>> after) {
+        return diff("jit", before, after, CodegenDiff::normalizeJit);
+    }
+
+    static String normalizeBytecode(String line) {
+        String normalized = BYTECODE_OFFSET.matcher(line).replaceFirst("");
+        normalized = BRANCH_TARGET.matcher(normalized).replaceFirst("$1L");
+        return CONSTANT_INDEX.matcher(normalized).replaceAll("#");
+    }
+
+    static String normalizeJit(String line) {
+        return SOURCE_LINE.matcher(ADDRESS.matcher(line).replaceAll("0x?")).replaceAll("(line ?)");
+    }
+
+    private Result diff(String view, Map<String, List<String>> before, Map<String, List<String>> after,
+                        UnaryOperator<String> normalizer) {
+        List<MethodDiff> methods = new ArrayList<>();
+        int unchanged = 0;
+        for (Map.Entry<String, List<String>> entry : after.entrySet()) {
+            List<String> old = before.get(entry.getKey());
+            if (old == null) {
+                methods.add(whole(view, entry.getKey(), MethodDiff.Kind.ADDED, entry.getValue(), INSERT));
+                continue;
+            }
+            MethodDiff diff = diffMethod(view, entry.getKey(), old, entry.getValue(), normalizer);
+            if (diff == null) {
+                unchanged++;
+            } else {
+                methods.add(diff);
+            }
+        }
+        before.forEach((method, lines) -> {
+            if (!after.containsKey(method)) {
+                methods.add(whole(view, method, MethodDiff.Kind.REMOVED, lines, DELETE));
+            }
+        });
+        return new Result(methods, unchanged);
+    }
+
+    private static MethodDiff whole(String view, String method, MethodDiff.Kind kind, List<String> lines, char op) {
+        List<String> hunk = lines.stream().map(line -> op + line).toList();
+        return new MethodDiff(view, method, kind, op == INSERT ? lines.size() : 0, op == DELETE ? lines.size() : 0,
+                List.of(new Hunk(op == DELETE ? 1 : 0, op == INSERT ? 1 : 0, hunk)));
+    }
+
+    /** Diff of one method present in both listings, or {@code null} if it is unchanged */
+    private MethodDiff diffMethod(String view, String method, List<String> before, List<String> after,
+                                  UnaryOperator<String> normalizer) {
+        // Equal normalised lines get equal ids, so the diff compares ints
+        Map<String, Integer> ids = new HashMap<>();
+        int[] a = ids(before, normalizer, ids);
+        int[] b = ids(after, normalizer, ids);
+        if (Arrays.equals(a, b)) {
+            return null;
+        }
+        int head = 0;
+        while (head < a.length && head < b.length && a[head] == b[head]) {
+            head++;
+        }
+        int tail = 0;
+        while (tail < a.length - head && tail < b.length - head
+                && a[a.length - 1 - tail] == b[b.length - 1 - tail]) {
+            tail++;
+        }
+        StringBuilder ops = new StringBuilder(a.length + b.length);
+        ops.append(String.valueOf(EQUAL).repeat(head));
+        ops.append(middle(Arrays.copyOfRange(a, head, a.length - tail), Arrays.copyOfRange(b, head, b.length - tail)));
+        ops.append(String.valueOf(EQUAL).repeat(tail));
+
+        int added = 0;
+        int removed = 0;
+        for (int i = 0; i < ops.length(); i++) {
+            if (ops.charAt(i) == INSERT) {
+                added++;
+            } else if (ops.charAt(i) == DELETE) {
+                removed++;
+            }
+        }
+        return new MethodDiff(view, method, MethodDiff.Kind.CHANGED, added, removed, hunks(ops, before, after));
+    }
+
+    private static int[] ids(List<String> lines, UnaryOperator<String> normalizer, Map<String, Integer> ids) {
+        int[] result = new int[lines.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.computeIfAbsent(normalizer.apply(lines.get(i)), line -> ids.size());
+        }
+        return result;
+    }
+
+    /**
+     * Edit script turning {@code a} into {@code b}, one op per line: Myers' greedy algorithm, keeping
+     * the frontier of each round to trace the path back. Falls back to deleting all of {@code a}
+     * and inserting all of {@code b} beyond {@code maxEdits} edits.
+     */
+    private CharSequence middle(int[] a, int[] b) {
+        int n = a.length;
+        int m = b.length;
+        int max = Math.min(n + m, maxEdits);
+        int offset = max + 1;
+        int[] frontier = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            // Frontier of the previous round, diagonals -d-1 to d+1
+            trace.add(Arrays.copyOfRange(frontier, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && frontier[offset + k - 1] < frontier[offset + k + 1])
+                        ? frontier[offset + k + 1] : frontier[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[x] == b[y]) {
+                    x++;
+                    y++;
+                }
+                frontier[offset + k] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(trace, n, m);
+                }
+            }
+        }
+        return String.valueOf(DELETE).repeat(n) + String.valueOf(INSERT).repeat(m);
+    }
+
+    private static CharSequence backtrack(List<int[]> trace, int n, int m) {
+        StringBuilder ops = new StringBuilder(n + m);
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d >= 0; d--) {
+            int[] frontier = trace.get(d);
+            int base = d + 1;
+            int k = x - y;
+            int previousK = k == -d || (k != d && frontier[base + k - 1] < frontier[base + k + 1]) ? k + 1 : k - 1;
+            int previousX = d == 0 ? 0 : frontier[base + previousK];
+            int previousY = d == 0 ? 0 : previousX - previousK;
+            while (x > previousX && y > previousY) {
+                ops.append(EQUAL);
+                x--;
+                y--;
+            }
+            if (d > 0) {
+                ops.append(x == previousX ? INSERT : DELETE);
+                x = previousX;
+                y = previousY;
+            }
+        }
+        return ops.reverse();
+    }
+
+    /** Groups the edit script into hunks with {@code context} unchanged lines around each change */
+    private List<Hunk> hunks(CharSequence ops, List<String> before, List<String> after) {
+        List<Hunk> hunks = new ArrayList<>();
+        int length = ops.length();
+        int x = 0;
+        int y = 0;
+        int i = 0;
+        int previousEnd = 0;
+        while (i < length) {
+            if (ops.charAt(i) == EQUAL) {
+                i++;
+                x++;
+                y++;
+                continue;
+            }
+            int start = Math.max(i - context, previousEnd);
+            x -= i - start;
+            y -= i - start;
+            // Changes separated by at most twice the context share a hunk
+            int j = i;
+            int equalRun = 0;
+            while (j < length) {
+                if (ops.charAt(j) == EQUAL) {
+                    if (++equalRun > 2 * context) {
+                        equalRun--;
+                        break;
+                    }
+                } else {
+                    equalRun = 0;
+                }
+                j++;
+            }
+            int end = j - equalRun + Math.min(equalRun, context);
+            Hunk hunk = new Hunk(x + 1, y + 1, new ArrayList<>());
+            for (int op = start; op < end; op++) {
+                switch (ops.charAt(op)) {
+                    case DELETE -> hunk.lines().add(DELETE + before.get(x++));
+                    case INSERT -> hunk.lines().add(INSERT + after.get(y++));
+                    default -> {
+                        hunk.lines().add(EQUAL + after.get(y++));
+                        x++;
+                    }
+                }
+            }
+            hunks.add(hunk);
+            i = end;
+            previousEnd = end;
+        }
+        return hunks;
+    }
+}
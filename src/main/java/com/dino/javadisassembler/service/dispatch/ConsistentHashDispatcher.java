@@ -0,0 +1,84 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends each job over a {@link JobTransport} to the worker a {@link HashRing} picks for the job's
+ * source. Repeated requests for a source, in any mode, therefore land on the worker that already
+ * holds its artifact and cached results, and a worker joining or leaving only moves a share of
+ * the sources.
+ * <p>
+ * A job whose worker goes away before answering is sent again, to the worker the ring picks once
+ * the lost one is gone. A job that cannot reach any worker, including when none is connected,
+ * runs in this JVM, so a front keeps answering while its workers restart.
+ */
+public class ConsistentHashDispatcher implements JobDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsistentHashDispatcher.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JobTransport transport;
+    private final int virtualNodes;
+    private volatile HashRing ring;
+
+    public ConsistentHashDispatcher(JobTransport transport, int virtualNodes) {
+        this.transport = transport;
+        this.virtualNodes = virtualNodes;
+        this.ring = new HashRing(List.of(), virtualNodes);
+    }
+
+    @Override
+    public CompletableFuture<String> dispatch(DispatchJob job, String clientId, JobExecutor local) {
+        return dispatch(job, clientId, local, job.routingHash(), MAX_ATTEMPTS);
+    }
+
+    private CompletableFuture<String> dispatch(DispatchJob job, String clientId, JobExecutor local, long hash,
+                                               int attempts) {
+        String workerId = ring().route(hash);
+        if (workerId == null) {
+            logger.debug("No worker connected, running {} job for class {} here", job.kind(), job.className());
+            return local.execute(job, clientId);
+        }
+        return transport.send(workerId, job, clientId).exceptionallyCompose(failure -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (!(cause instanceof WorkerUnavailableException)) {
+                return CompletableFuture.failedFuture(cause);
+            }
+            if (attempts > 1) {
+                logger.info("{}, sending {} job for class {} again", cause.getMessage(), job.kind(), job.className());
+                return dispatch(job, clientId, local, hash, attempts - 1);
+            }
+            logger.warn("{}, running {} job for class {} here", cause.getMessage(), job.kind(), job.className());
+            return local.execute(job, clientId);
+        });
+    }
+
+    /** The ring over the workers connected now, rebuilt when they change */
+    private HashRing ring() {
+        List<String> workers = transport.workers();
+        HashRing current = ring;
+        if (!current.nodes().equals(workers)) {
+            current = new HashRing(workers, virtualNodes);
+            ring = current;
+            logger.info("Dispatching jobs to workers {}", workers);
+        }
+        return current;
+    }
+
+    @Override
+    public void startWorker(String workerId, int concurrency, JobExecutor executor) throws IOException {
+        transport.startWorker(workerId, concurrency, executor);
+    }
+
+    @Override
+    public void close() {
+        transport.close();
+    }
+}
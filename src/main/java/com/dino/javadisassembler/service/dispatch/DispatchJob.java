@@ -0,0 +1,21 @@
+package com.dino.javadisassembler.service.dispatch;
+
+/**
+ * A job a front node hands to a worker: the bytecode or JIT listing of {@code className},
+ * compiled by the toolchain with id {@code toolchainId}
+ */
+public record DispatchJob(Kind kind, String sourceCode, String className, String toolchainId) {
+
+    public enum Kind {
+        BYTECODE,
+        JIT
+    }
+
+    /**
+     * Hash of the source and class name. It is the same for every kind and toolchain, so all jobs
+     * on one source go to the worker that holds its artifact and cached results.
+     */
+    public long routingHash() {
+        return HashRing.hash(className, sourceCode);
+    }
+}
@@ -0,0 +1,254 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Frames of the socket transport. A worker opens the connection, the front sends a challenge and
+ * the worker answers with a hello proving it knows the shared secret; the front then sends jobs,
+ * never more unanswered ones than the worker's concurrency, and the worker answers each with a
+ * result carrying the job's id, in the order the jobs finish.
+ * <pre>
+ * challenge = magic "JDW" version(3) bytes(32 random)
+ * hello  = magic utf(workerId) int(concurrency) int(length) bytes(HMAC-SHA256 of challenge and workerId)
+ * job    = long(id) byte(kind) text(clientId) text(className) text(toolchainId) text(sourceCode)
+ * result = long(id) byte(status) [long(retryAfterSeconds) if REJECTED] text(value or failure message)
+ * text   = int(UTF-8 length) bytes
+ * </pre>
+ * A failed job's {@link CompilationException} is rebuilt on the front with its message and, for a
+ * {@link JobRejectedException}, {@link CompileErrorException} or {@link JobTimeoutException}, its
+ * type, so the front answers as if the job had failed there; any other failure comes back as an
+ * {@link IOException}. Without a secret the hello carries an empty proof, which
+ * only a front without a secret accepts.
+ * <p>
+ * Jobs and results are encoded whole before they are written, so a frame that cannot be encoded
+ * never leaves half of itself on the connection.
+ */
+final class DispatchProtocol {
+
+    private static final byte[] MAGIC = {'J', 'D', 'W', 3};
+    private static final int CHALLENGE_BYTES = 32;
+    private static final int MAX_PROOF_BYTES = 64;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    /** Bound of a text, well above the request and output limits, against a corrupt stream */
+    private static final int MAX_TEXT_BYTES = 256 * 1024 * 1024;
+
+    private static final int OK = 0;
+    private static final int FAILED = 1;
+    private static final int REJECTED = 2;
+    private static final int ERROR = 3;
+    private static final int COMPILE_ERROR = 4;
+    private static final int TIMED_OUT = 5;
+
+    record Hello(String workerId, int concurrency) {
+    }
+
+    record Job(long id, DispatchJob job, String clientId) {
+    }
+
+    /** A worker's answer: {@code value} if the job succeeded, otherwise {@code failure} */
+    record Result(long id, String value, Exception failure) {
+    }
+
+    private DispatchProtocol() {
+    }
+
+    /** Writes a fresh challenge and returns it */
+    static byte[] writeChallenge(DataOutputStream out) throws IOException {
+        byte[] challenge = new byte[CHALLENGE_BYTES];
+        RANDOM.nextBytes(challenge);
+        out.write(MAGIC);
+        out.write(challenge);
+        return challenge;
+    }
+
+    static byte[] readChallenge(DataInputStream in) throws IOException {
+        readMagic(in, "front");
+        byte[] challenge = new byte[CHALLENGE_BYTES];
+        in.readFully(challenge);
+        return challenge;
+    }
+
+    static void writeHello(DataOutputStream out, String workerId, int concurrency, byte[] challenge, byte[] secret)
+            throws IOException {
+        byte[] proof = proof(secret, challenge, workerId);
+        out.write(MAGIC);
+        out.writeUTF(workerId);
+        out.writeInt(concurrency);
+        out.writeInt(proof.length);
+        out.write(proof);
+    }
+
+    /** Reads a hello, and fails unless its proof matches {@code challenge} and {@code secret} */
+    static Hello readHello(DataInputStream in, byte[] challenge, byte[] secret) throws IOException {
+        readMagic(in, "worker");
+        String workerId = in.readUTF();
+        int concurrency = in.readInt();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PROOF_BYTES) {
+            throw new IOException("Proof length out of range: " + length);
+        }
+        byte[] proof = new byte[length];
+        in.readFully(proof);
+        if (!MessageDigest.isEqual(proof, proof(secret, challenge, workerId))) {
+            throw new IOException("Worker '" + workerId + "' does not know the dispatch secret");
+        }
+        if (workerId.isEmpty() || concurrency < 1) {
+            throw new IOException("Invalid hello from worker '" + workerId + "' with concurrency " + concurrency);
+        }
+        return new Hello(workerId, concurrency);
+    }
+
+    private static void readMagic(DataInputStream in, String peer) throws IOException {
+        for (byte expected : MAGIC) {
+            if (in.readUnsignedByte() != (expected & 0xFF)) {
+                throw new IOException("Not a dispatch " + peer + " of version " + MAGIC[3]);
+            }
+        }
+    }
+
+    /** HMAC-SHA256 of challenge and worker id under {@code secret}, empty without a secret */
+    private static byte[] proof(byte[] secret, byte[] challenge, String workerId) {
+        if (secret.length == 0) {
+            return new byte[0];
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            mac.update(challenge);
+            return mac.doFinal(workerId.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /** Encodes a job frame, or fails if one of its texts is over the length limit */
+    static byte[] encodeJob(long id, DispatchJob job, String clientId) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(frame);
+        out.writeLong(id);
+        out.writeByte(job.kind().ordinal());
+        writeText(out, clientId);
+        writeText(out, job.className());
+        writeText(out, job.toolchainId());
+        writeText(out, job.sourceCode());
+        return frame.toByteArray();
+    }
+
+    static Job readJob(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        int kind = in.readUnsignedByte();
+        if (kind >= DispatchJob.Kind.values().length) {
+            throw new IOException("Unknown job kind " + kind);
+        }
+        String clientId = readText(in);
+        String className = readText(in);
+        String toolchainId = readText(in);
+        String sourceCode = readText(in);
+        return new Job(id, new DispatchJob(DispatchJob.Kind.values()[kind], sourceCode, className, toolchainId), clientId);
+    }
+
+    /**
+     * Encodes the outcome of a job: {@code value} if {@code failure} is {@code null}. A value over
+     * the length limit is answered as a failure instead.
+     */
+    static byte[] encodeResult(long id, String value, Throwable failure) {
+        try {
+            return result(id, value, failure);
+        } catch (IOException e) {
+            try {
+                return result(id, null, e);
+            } catch (IOException unexpected) {
+                throw new IllegalStateException(unexpected);
+            }
+        }
+    }
+
+    private static byte[] result(long id, String value, Throwable failure) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(frame);
+        out.writeLong(id);
+        if (failure == null) {
+            out.writeByte(OK);
+            writeText(out, value);
+            return frame.toByteArray();
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        Throwable typed = typedCause(cause);
+        if (typed instanceof JobRejectedException rejected) {
+            out.writeByte(REJECTED);
+            out.writeLong(rejected.getRetryAfterSeconds());
+        } else if (typed instanceof CompileErrorException) {
+            out.writeByte(COMPILE_ERROR);
+        } else if (typed instanceof JobTimeoutException) {
+            out.writeByte(TIMED_OUT);
+        } else {
+            out.writeByte(cause instanceof CompilationException ? FAILED : ERROR);
+        }
+        writeText(out, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        return frame.toByteArray();
+    }
+
+    /** The first of the failure's wrapping {@link CompilationException}s with a type of its own, or the failure */
+    private static Throwable typedCause(Throwable failure) {
+        for (Throwable cause = failure; cause instanceof CompilationException; cause = cause.getCause()) {
+            if (cause instanceof JobRejectedException || cause instanceof CompileErrorException
+                    || cause instanceof JobTimeoutException) {
+                return cause;
+            }
+        }
+        return failure;
+    }
+
+    static Result readResult(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        int status = in.readUnsignedByte();
+        long retryAfterSeconds = status == REJECTED ? in.readLong() : 0;
+        String text = readText(in);
+        return switch (status) {
+            case OK -> new Result(id, text, null);
+            case FAILED -> new Result(id, null, new CompilationException(text));
+            case REJECTED -> new Result(id, null, new JobRejectedException(text, retryAfterSeconds));
+            case ERROR -> new Result(id, null, new IOException(text));
+            case COMPILE_ERROR -> new Result(id, null, new CompileErrorException(text));
+            case TIMED_OUT -> new Result(id, null, new JobTimeoutException(text));
+            default -> throw new IOException("Unknown result status " + status);
+        };
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_BYTES) {
+            throw new IOException("Text of " + bytes.length + " bytes is over the limit of " + MAX_TEXT_BYTES);
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_TEXT_BYTES) {
+            throw new IOException("Text length out of range: " + length);
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
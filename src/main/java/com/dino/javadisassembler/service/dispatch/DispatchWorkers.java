@@ -0,0 +1,41 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * The workers a node runs: {@code localWorkers} taking jobs from the node's own dispatcher and,
+ * if {@code fronts} is not empty, one pulling jobs from those front nodes over sockets. A node
+ * with {@link JobDispatcher#LOCAL} and a list of fronts is a pure worker.
+ */
+public class DispatchWorkers implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchWorkers.class);
+
+    private final SocketJobWorker remoteWorker;
+
+    public DispatchWorkers(JobDispatcher dispatcher, String workerId, int localWorkers, int concurrency,
+                           List<InetSocketAddress> fronts, String secret, JobExecutor executor) throws IOException {
+        for (int i = 0; i < localWorkers; i++) {
+            dispatcher.startWorker(localWorkers == 1 ? workerId : workerId + "-" + i, concurrency, executor);
+        }
+        if (fronts.isEmpty()) {
+            remoteWorker = null;
+        } else {
+            logger.info("Working on jobs of front nodes {} as worker {}", fronts, workerId);
+            remoteWorker = new SocketJobWorker(fronts, workerId, concurrency, secret, executor);
+            remoteWorker.start();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (remoteWorker != null) {
+            remoteWorker.close();
+        }
+    }
+}
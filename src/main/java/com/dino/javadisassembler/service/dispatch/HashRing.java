@@ -0,0 +1,59 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hashing of jobs onto workers. Each worker takes {@code virtualNodes} points on a ring
+ * of 64-bit hashes, and a job goes to the worker owning the first point at or after the job's
+ * hash. Adding or removing a worker therefore only moves the jobs next to its own points, and the
+ * other workers keep the sources whose artifacts they hold.
+ */
+public final class HashRing {
+
+    private final List<String> nodes;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public HashRing(List<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(nodes);
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the smaller id wins, so every front builds the same ring
+                points.merge(hash(node, String.valueOf(i)), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /** The node for {@code hash}, or {@code null} if the ring is empty */
+    public String route(long hash) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash);
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    /** First 64 bits of the SHA-256 of {@code parts}, each followed by a zero byte */
+    public static long hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transport for a single node and for tests. Workers are threads of this JVM taking jobs from an
+ * in-memory queue per worker id, bounded by {@code limits}, one thread per job a worker runs at a
+ * time, and results and failures are handed over as they are.
+ */
+public class InMemoryJobTransport implements JobTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryJobTransport.class);
+
+    private final QueueLimits limits;
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private static final class Worker {
+        final WorkerQueue queue;
+        final List<Thread> threads = new ArrayList<>();
+
+        Worker(String workerId, QueueLimits limits) {
+            this.queue = new WorkerQueue(workerId, limits);
+        }
+    }
+
+    public InMemoryJobTransport(QueueLimits limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    public CompletableFuture<String> send(String workerId, DispatchJob job, String clientId) {
+        PendingJob pending = new PendingJob(job, clientId);
+        synchronized (workers) {
+            Worker worker = workers.get(workerId);
+            if (worker == null) {
+                pending.fail(workerId);
+            } else {
+                worker.queue.add(pending);
+            }
+        }
+        return pending.result();
+    }
+
+    @Override
+    public List<String> workers() {
+        return workers.keySet().stream().sorted().toList();
+    }
+
+    @Override
+    public void startWorker(String workerId, int concurrency, JobExecutor executor) {
+        Worker worker = new Worker(workerId, limits);
+        synchronized (workers) {
+            if (closed) {
+                throw new IllegalStateException("Transport is closed");
+            }
+            if (workers.putIfAbsent(workerId, worker) != null) {
+                throw new IllegalStateException("Worker " + workerId + " is already running");
+            }
+            for (int i = 0; i < concurrency; i++) {
+                Thread thread = new Thread(() -> take(worker, executor), "dispatch-" + workerId + "-" + i);
+                thread.setDaemon(true);
+                worker.threads.add(thread);
+                thread.start();
+            }
+        }
+        logger.info("Started in-memory worker {} running {} jobs at a time", workerId, concurrency);
+    }
+
+    /** Stops a worker; the jobs queued for it fail with {@link WorkerUnavailableException} */
+    public void stopWorker(String workerId) {
+        Worker worker;
+        List<PendingJob> orphaned = new ArrayList<>();
+        synchronized (workers) {
+            worker = workers.remove(workerId);
+            if (worker == null) {
+                return;
+            }
+            worker.queue.drainTo(orphaned);
+        }
+        worker.threads.forEach(Thread::interrupt);
+        orphaned.forEach(pending -> pending.fail(workerId));
+    }
+
+    @Override
+    public void close() {
+        synchronized (workers) {
+            closed = true;
+        }
+        workers().forEach(this::stopWorker);
+    }
+
+    private void take(Worker worker, JobExecutor executor) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                PendingJob pending = worker.queue.take();
+                run(pending, executor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Runs the job and waits for it, so the thread is busy for as long as the job runs */
+    private static void run(PendingJob pending, JobExecutor executor) {
+        CompletableFuture<String> result;
+        try {
+            result = executor.execute(pending.job(), pending.clientId());
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.handle((value, failure) -> {
+            if (failure == null) {
+                pending.result().complete(value);
+            } else {
+                pending.result().completeExceptionally(
+                        failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+            }
+            return null;
+        }).join();
+    }
+}
@@ -0,0 +1,31 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where the service sends its bytecode and JIT jobs. {@link #LOCAL} runs them in this JVM, the way
+ * a single node always has; {@link ConsistentHashDispatcher} queues them for a fleet of workers.
+ */
+public interface JobDispatcher extends AutoCloseable {
+
+    /** Runs every job in this JVM, straight away */
+    JobDispatcher LOCAL = (job, clientId, local) -> local.execute(job, clientId);
+
+    /**
+     * Runs {@code job} on a worker, or with {@code local} when no worker can take it
+     */
+    CompletableFuture<String> dispatch(DispatchJob job, String clientId, JobExecutor local);
+
+    /**
+     * Starts a worker in this JVM that takes jobs from this dispatcher's queue and runs up to
+     * {@code concurrency} of them at a time with {@code executor}. Dispatchers without a queue run
+     * jobs in this JVM already and ignore it.
+     */
+    default void startWorker(String workerId, int concurrency, JobExecutor executor) throws IOException {
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,12 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs a job in this JVM
+ */
+@FunctionalInterface
+public interface JobExecutor {
+
+    CompletableFuture<String> execute(DispatchJob job, String clientId);
+}
@@ -0,0 +1,29 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Carries jobs from a front node to the workers that pull them. A transport keeps a queue per
+ * worker id, and a worker takes jobs from its queue only while it has room for them, so a busy
+ * worker is not sent more than it can run.
+ */
+public interface JobTransport extends AutoCloseable {
+
+    /**
+     * Queues {@code job} for {@code workerId}. The future fails with
+     * {@link WorkerUnavailableException} if the worker is not connected, or goes away before it
+     * answers, and otherwise with the failure the job had on the worker.
+     */
+    CompletableFuture<String> send(String workerId, DispatchJob job, String clientId);
+
+    /** Ids of the workers that can take jobs now, sorted */
+    List<String> workers();
+
+    /** Starts a worker in this JVM, see {@link JobDispatcher#startWorker} */
+    void startWorker(String workerId, int concurrency, JobExecutor executor) throws IOException;
+
+    @Override
+    void close();
+}
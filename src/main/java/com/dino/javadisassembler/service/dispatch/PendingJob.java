@@ -0,0 +1,17 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A job queued on a front node, with the future its worker's answer completes
+ */
+record PendingJob(DispatchJob job, String clientId, CompletableFuture<String> result) {
+
+    PendingJob(DispatchJob job, String clientId) {
+        this(job, clientId, new CompletableFuture<>());
+    }
+
+    void fail(String workerId) {
+        result.completeExceptionally(new WorkerUnavailableException("Worker " + workerId + " is not connected"));
+    }
+}
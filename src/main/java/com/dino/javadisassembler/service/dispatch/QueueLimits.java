@@ -0,0 +1,10 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import java.time.Duration;
+
+/**
+ * Bounds of a transport's queue per worker: jobs waiting at once, jobs of one client among them,
+ * and how long a job may wait for its worker to take it
+ */
+public record QueueLimits(int capacity, int maxQueuedPerClient, Duration maxWait) {
+}
@@ -0,0 +1,294 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transport between hosts: workers connect to the front's port and pull jobs over the connection,
+ * see {@link DispatchProtocol}. Each connection has a sender thread, which takes a job from the
+ * worker's queue whenever the worker has a free slot, and a reader thread, which completes jobs as
+ * their results arrive. A worker's queue is bounded by {@code limits}; jobs it has no room for, and
+ * jobs that wait too long, fail with a {@link com.dino.javadisassembler.exception.JobRejectedException}.
+ * <p>
+ * A worker is listed from its hello until its last connection closes. The jobs it had not
+ * answered, and those still queued for it, then fail with {@link WorkerUnavailableException}, so
+ * the dispatcher can send them elsewhere. {@link #startWorker} connects a worker of this JVM over
+ * the loopback interface, for a single node that still goes through the queue.
+ * <p>
+ * Only workers proving they know {@code secret} are registered, see {@link DispatchProtocol}. A
+ * transport without a secret accepts any peer that reaches its port, so it only binds to a
+ * loopback address.
+ */
+public class SocketJobTransport implements JobTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(SocketJobTransport.class);
+    private static final int HELLO_TIMEOUT_MILLIS = 10_000;
+
+    private final ServerSocket server;
+    private final QueueLimits limits;
+    private final byte[] secret;
+    /** Workers by id; mutated, and sent to, under its own lock so no job is queued for a worker being removed */
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+    private final List<SocketJobWorker> localWorkers = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextJobId = new AtomicLong();
+    private volatile boolean closed;
+
+    /** Queue of one worker id, shared by all its connections */
+    private static final class Worker {
+        final WorkerQueue queue;
+        final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+        Worker(String workerId, QueueLimits limits) {
+            this.queue = new WorkerQueue(workerId, limits);
+        }
+    }
+
+    private static final class Connection {
+        final Socket socket;
+        final Semaphore slots;
+        final Map<Long, PendingJob> inFlight = new ConcurrentHashMap<>();
+
+        Connection(Socket socket, int concurrency) {
+            this.socket = socket;
+            this.slots = new Semaphore(concurrency);
+        }
+
+        void close() {
+            closeQuietly(socket);
+        }
+    }
+
+    public SocketJobTransport(InetSocketAddress bindAddress, QueueLimits limits, String secret) throws IOException {
+        if (secret.isEmpty() && (bindAddress.getAddress() == null || !bindAddress.getAddress().isLoopbackAddress())) {
+            throw new IllegalArgumentException("A dispatch secret is required to accept workers on " + bindAddress);
+        }
+        this.limits = limits;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        server = new ServerSocket();
+        server.bind(bindAddress);
+        Thread acceptor = new Thread(this::accept, "dispatch-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Accepting dispatch workers on {}", server.getLocalSocketAddress());
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    @Override
+    public CompletableFuture<String> send(String workerId, DispatchJob job, String clientId) {
+        PendingJob pending = new PendingJob(job, clientId);
+        synchronized (workers) {
+            Worker worker = workers.get(workerId);
+            if (worker == null) {
+                pending.fail(workerId);
+            } else {
+                worker.queue.add(pending);
+            }
+        }
+        return pending.result();
+    }
+
+    @Override
+    public List<String> workers() {
+        return workers.keySet().stream().sorted().toList();
+    }
+
+    @Override
+    public void startWorker(String workerId, int concurrency, JobExecutor executor) {
+        InetAddress address = server.getInetAddress().isAnyLocalAddress()
+                ? InetAddress.getLoopbackAddress() : server.getInetAddress();
+        SocketJobWorker worker = new SocketJobWorker(List.of(new InetSocketAddress(address, port())), workerId,
+                concurrency, new String(secret, StandardCharsets.UTF_8), executor);
+        localWorkers.add(worker);
+        worker.start();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        localWorkers.forEach(SocketJobWorker::close);
+        try {
+            server.close();
+        } catch (IOException e) {
+            logger.debug("Closing dispatch socket failed: {}", e.getMessage());
+        }
+        synchronized (workers) {
+            workers.values().forEach(worker -> worker.connections.forEach(Connection::close));
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Accepting a worker connection failed: {}", e.getMessage());
+                }
+                continue;
+            }
+            Thread reader = new Thread(() -> serve(socket), "dispatch-read-" + socket.getRemoteSocketAddress());
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    /** Reads the results of one connection until it closes, then hands its jobs back */
+    private void serve(Socket socket) {
+        DispatchProtocol.Hello hello;
+        DataInputStream in;
+        DataOutputStream out;
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(HELLO_TIMEOUT_MILLIS);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            byte[] challenge = DispatchProtocol.writeChallenge(out);
+            out.flush();
+            hello = DispatchProtocol.readHello(in, challenge, secret);
+            socket.setSoTimeout(0);
+        } catch (IOException e) {
+            logger.warn("Rejected worker connection from {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            closeQuietly(socket);
+            return;
+        }
+
+        Connection connection = new Connection(socket, hello.concurrency());
+        Worker worker = register(hello.workerId(), connection);
+        logger.info("Worker {} connected from {}, taking {} jobs at a time", hello.workerId(),
+                socket.getRemoteSocketAddress(), hello.concurrency());
+        Thread sender = new Thread(() -> pump(hello.workerId(), worker, connection, out),
+                "dispatch-send-" + hello.workerId());
+        sender.setDaemon(true);
+        sender.start();
+        try {
+            while (true) {
+                DispatchProtocol.Result result = DispatchProtocol.readResult(in);
+                PendingJob pending = connection.inFlight.remove(result.id());
+                if (pending == null) {
+                    logger.warn("Worker {} answered unknown job {}", hello.workerId(), result.id());
+                    continue;
+                }
+                connection.slots.release();
+                if (result.failure() == null) {
+                    pending.result().complete(result.value());
+                } else {
+                    pending.result().completeExceptionally(result.failure());
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                logger.info("Worker {} disconnected: {}", hello.workerId(), e.getMessage());
+            }
+        } finally {
+            connection.close();
+            sender.interrupt();
+            unregister(hello.workerId(), worker, connection);
+        }
+    }
+
+    /** Sends the worker's queued jobs over the connection, one per free slot */
+    private void pump(String workerId, Worker worker, Connection connection, DataOutputStream out) {
+        try {
+            while (!connection.socket.isClosed()) {
+                connection.slots.acquire();
+                PendingJob pending = worker.queue.take();
+                long id = nextJobId.incrementAndGet();
+                byte[] frame;
+                try {
+                    frame = DispatchProtocol.encodeJob(id, pending.job(), pending.clientId());
+                } catch (IOException e) {
+                    // It would fail the same way on any connection
+                    connection.slots.release();
+                    pending.result().completeExceptionally(
+                            new CompilationException("Job cannot be sent to a worker: " + e.getMessage()));
+                    continue;
+                }
+                connection.inFlight.put(id, pending);
+                try {
+                    out.write(frame);
+                    out.flush();
+                } catch (IOException e) {
+                    logger.info("Sending to worker {} failed: {}", workerId, e.getMessage());
+                    // Unless the closing connection failed it already, another connection may send it
+                    if (connection.inFlight.remove(id) != null) {
+                        requeue(workerId, worker, pending);
+                    }
+                    // Ends the reader, which unregisters the connection
+                    connection.close();
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Worker register(String workerId, Connection connection) {
+        synchronized (workers) {
+            Worker worker = workers.computeIfAbsent(workerId, id -> new Worker(id, limits));
+            worker.connections.add(connection);
+            return worker;
+        }
+    }
+
+    private void unregister(String workerId, Worker worker, Connection connection) {
+        List<PendingJob> orphaned = new ArrayList<>();
+        synchronized (workers) {
+            worker.connections.remove(connection);
+            if (worker.connections.isEmpty()) {
+                workers.remove(workerId, worker);
+                worker.queue.drainTo(orphaned);
+            }
+        }
+        orphaned.addAll(connection.inFlight.values());
+        connection.inFlight.clear();
+        if (!orphaned.isEmpty()) {
+            logger.info("Worker {} left {} jobs unanswered", workerId, orphaned.size());
+        }
+        orphaned.forEach(pending -> pending.fail(workerId));
+    }
+
+    /** Puts back a job taken by a connection that closed before sending it */
+    private void requeue(String workerId, Worker worker, PendingJob pending) {
+        synchronized (workers) {
+            if (workers.get(workerId) == worker) {
+                worker.queue.addFirst(pending);
+                return;
+            }
+        }
+        pending.fail(workerId);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("Closing worker connection failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Worker end of the socket transport. It keeps a connection to each front node, reconnecting with
+ * backoff when one drops, and runs the jobs a front sends with its executor, answering each as
+ * soon as it completes. The front sends at most {@code concurrency} unanswered jobs over a
+ * connection, so jobs the worker has no room for wait in the front's queue. It proves to each
+ * front that it knows {@code secret}, which must be the fronts' own.
+ */
+public class SocketJobWorker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SocketJobWorker.class);
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final List<InetSocketAddress> fronts;
+    private final String workerId;
+    private final int concurrency;
+    private final byte[] secret;
+    private final JobExecutor executor;
+    private final List<Thread> threads = new ArrayList<>();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public SocketJobWorker(List<InetSocketAddress> fronts, String workerId, int concurrency, String secret,
+                           JobExecutor executor) {
+        this.fronts = List.copyOf(fronts);
+        this.workerId = workerId;
+        this.concurrency = concurrency;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.executor = executor;
+    }
+
+    public synchronized void start() {
+        for (InetSocketAddress front : fronts) {
+            Thread thread = new Thread(() -> connect(front), "dispatch-worker-" + front);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        threads.forEach(Thread::interrupt);
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Closing connection to front failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void connect(InetSocketAddress front) {
+        Duration backoff = MIN_BACKOFF;
+        while (!closed) {
+            Socket socket = new Socket();
+            sockets.add(socket);
+            if (closed) {
+                // close() may have run before the socket was added, and would not have closed it
+                sockets.remove(socket);
+                return;
+            }
+            try {
+                // Resolved on every attempt, so a front that moves is found again
+                socket.connect(front.isUnresolved() ? new InetSocketAddress(front.getHostString(), front.getPort())
+                        : front, CONNECT_TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                backoff = MIN_BACKOFF;
+                serve(socket, front);
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Connection to front {} lost: {}, reconnecting in {} s", front, e.getMessage(),
+                            backoff.toSeconds());
+                }
+            } finally {
+                sockets.remove(socket);
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    logger.debug("Closing connection to front {} failed: {}", front, e.getMessage());
+                }
+            }
+            try {
+                Thread.sleep(backoff.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+        }
+    }
+
+    /** Runs the jobs of one connection until it closes */
+    private void serve(Socket socket, InetSocketAddress front) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        DispatchProtocol.writeHello(out, workerId, concurrency, DispatchProtocol.readChallenge(in), secret);
+        out.flush();
+        logger.info("Connected to front {} as worker {}", front, workerId);
+        while (true) {
+            DispatchProtocol.Job job = DispatchProtocol.readJob(in);
+            CompletableFuture<String> result;
+            try {
+                result = executor.execute(job.job(), job.clientId());
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            result.whenComplete((value, failure) -> {
+                byte[] frame = DispatchProtocol.encodeResult(job.id(), value, failure);
+                synchronized (out) {
+                    try {
+                        out.write(frame);
+                        out.flush();
+                    } catch (IOException e) {
+                        // The front fails the job itself once it sees the connection close
+                        logger.debug("Could not answer job {} to front {}: {}", job.id(), front, e.getMessage());
+                        // Ends serve(), so no further result lands behind a half-written one
+                        try {
+                            socket.close();
+                        } catch (IOException closing) {
+                            logger.debug("Closing connection to front {} failed: {}", front, closing.getMessage());
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import com.dino.javadisassembler.exception.JobRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jobs waiting for one worker, admitted the way a scheduler lane admits them: a job is rejected
+ * with {@link JobRejectedException} when the queue is full or holds too many jobs of its client,
+ * and fails the same way once it has waited longer than {@link QueueLimits#maxWait()}.
+ */
+final class WorkerQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerQueue.class);
+
+    private final String workerId;
+    private final QueueLimits limits;
+    private final ArrayDeque<PendingJob> jobs = new ArrayDeque<>();
+    private final Map<String, Integer> queuedPerClient = new HashMap<>();
+
+    WorkerQueue(String workerId, QueueLimits limits) {
+        this.workerId = workerId;
+        this.limits = limits;
+    }
+
+    /** Queues {@code pending}, or fails it if the queue has no room for it */
+    void add(PendingJob pending) {
+        String rejection = null;
+        synchronized (this) {
+            if (jobs.size() >= limits.capacity()) {
+                rejection = "Too many requests, please try again later";
+            } else if (queuedPerClient.getOrDefault(pending.clientId(), 0) >= limits.maxQueuedPerClient()) {
+                rejection = "Too many queued requests from this client, please try again later";
+            } else {
+                push(pending, false);
+            }
+        }
+        if (rejection != null) {
+            reject(pending, rejection);
+            return;
+        }
+        CompletableFuture.delayedExecutor(limits.maxWait().toNanos(), TimeUnit.NANOSECONDS).execute(() -> expire(pending));
+    }
+
+    /** Puts back a job that was taken but could not be sent; it keeps its place at the front */
+    synchronized void addFirst(PendingJob pending) {
+        push(pending, true);
+    }
+
+    /** Waits for the next job */
+    synchronized PendingJob take() throws InterruptedException {
+        while (jobs.isEmpty()) {
+            wait();
+        }
+        PendingJob pending = jobs.pollFirst();
+        removed(pending);
+        return pending;
+    }
+
+    /** Removes every queued job into {@code target} */
+    synchronized void drainTo(List<PendingJob> target) {
+        target.addAll(jobs);
+        jobs.clear();
+        queuedPerClient.clear();
+    }
+
+    private void push(PendingJob pending, boolean first) {
+        if (first) {
+            jobs.addFirst(pending);
+        } else {
+            jobs.addLast(pending);
+        }
+        queuedPerClient.merge(pending.clientId(), 1, Integer::sum);
+        notifyAll();
+    }
+
+    private void removed(PendingJob pending) {
+        queuedPerClient.computeIfPresent(pending.clientId(), (client, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void expire(PendingJob pending) {
+        synchronized (this) {
+            if (!jobs.removeIf(queued -> queued == pending)) {
+                return;
+            }
+            removed(pending);
+        }
+        reject(pending, "Timed out waiting for a worker");
+    }
+
+    private void reject(PendingJob pending, String message) {
+        logger.warn("Rejected {} job for worker {}: {}", pending.job().kind(), workerId, message);
+        // The queue ahead has drained within max-wait
+        pending.result().completeExceptionally(
+                new JobRejectedException(message, Math.max(1, limits.maxWait().toSeconds())));
+    }
+}
@@ -0,0 +1,14 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a job cannot reach its worker, or the worker went away before answering. The job
+ * may not have run, so it can be sent to another worker.
+ */
+public class WorkerUnavailableException extends IOException {
+
+    public WorkerUnavailableException(String message) {
+        super(message);
+    }
+}
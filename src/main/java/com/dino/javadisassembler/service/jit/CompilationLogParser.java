@@ -0,0 +1,90 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the uncommon traps hit at run time from a {@code -XX:+LogCompilation} file. JDK 17 has
+ * no unified logging tag for deoptimization, and this XML log is where HotSpot records each trap
+ * with its reason, action and bytecode position.
+ * <p>
+ * A trap that was hit is an {@code <uncommon_trap thread=...>} element followed by one
+ * {@code <jvms>} element per inlining level, innermost first. The {@code <uncommon_trap>} elements
+ * without a thread describe traps placed in the code while compiling and are skipped.
+ */
+public final class CompilationLogParser {
+
+    private static final String TRAP = "<uncommon_trap thread=";
+    private static final String JVMS = "<jvms ";
+    private static final Pattern ATTRIBUTE = Pattern.compile("(\\w+)='([^']*)'");
+
+    private CompilationLogParser() {
+    }
+
+    public static List<Deoptimization> parseDeoptimizations(Path logFile) throws IOException {
+        List<Deoptimization> deoptimizations = new ArrayList<>();
+        if (!Files.exists(logFile)) {
+            return deoptimizations;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            Map<String, String> trap = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(TRAP)) {
+                    trap = attributes(line);
+                } else if (trap != null && line.startsWith(JVMS)) {
+                    Map<String, String> frame = attributes(line);
+                    deoptimizations.add(new Deoptimization(
+                            intValue(trap.get("compile_id")),
+                            trap.getOrDefault("compiler", ""),
+                            intValue(trap.get("level")),
+                            methodName(frame.getOrDefault("method", "")),
+                            intValue(frame.get("bci")),
+                            trap.getOrDefault("reason", ""),
+                            trap.getOrDefault("action", ""),
+                            trap.containsKey("stamp") ? Double.parseDouble(trap.get("stamp")) : 0));
+                    trap = null;
+                } else {
+                    trap = null;
+                }
+            }
+        }
+        return deoptimizations;
+    }
+
+    /** {@code pkg/Test pick (I)I} becomes {@code pkg.Test::pick} */
+    static String methodName(String logMethod) {
+        String[] parts = logMethod.split(" ");
+        if (parts.length < 2) {
+            return logMethod;
+        }
+        return parts[0].replace('/', '.') + "::" + parts[1];
+    }
+
+    private static Map<String, String> attributes(String element) {
+        Map<String, String> attributes = new HashMap<>();
+        Matcher attribute = ATTRIBUTE.matcher(element);
+        while (attribute.find()) {
+            attributes.put(attribute.group(1), unescape(attribute.group(2)));
+        }
+        return attributes;
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private static int intValue(String value) {
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,38 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.List;
+
+/**
+ * One nmethod printed by PrintAssembly
+ *
+ * @param method        qualified method name, e.g. {@code Test::sq}
+ * @param compileId     HotSpot compile id; OSR and normal compilations of a method have their own
+ * @param compiler      {@code c1} or {@code c2}
+ * @param tier          compilation tier, 1-3 for C1 and 4 for C2
+ * @param osr           whether this is an on-stack-replacement compilation of a loop
+ * @param osrBci        bytecode index of the loop an OSR compilation enters at, otherwise {@code null}
+ * @param bytecodeSize  size of the method's bytecode
+ * @param codeSize      size of the generated main code
+ * @param disassembled  {@code false} when hsdis was not available and the instructions are raw hex
+ * @param instructions  generated code in address order
+ * @param bciMappings   bytecode positions recorded for the generated code, innermost scope first
+ */
+public record CompiledMethod(String method, int compileId, String compiler, int tier, boolean osr, Integer osrBci,
+                             int bytecodeSize, int codeSize, boolean disassembled, List<Instruction> instructions,
+                             List<BciMapping> bciMappings) {
+
+    /**
+     * @param section  code section, e.g. {@code Verified Entry Point} or {@code Exception Handler}
+     * @param assembly the instruction, or the raw bytes when not disassembled
+     * @param comment  HotSpot's annotation of the instruction, may be empty
+     */
+    public record Instruction(String address, String section, String assembly, String comment) {
+    }
+
+    /**
+     * Maps the code at {@code address} to bytecode index {@code bci} of {@code method}. Code inlined
+     * from other methods maps to several entries, one per inlining level.
+     */
+    public record BciMapping(String address, String method, int bci, Integer line) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.dino.javadisassembler.service.jit;
+
+/**
+ * An uncommon trap hit by compiled code, which sends the method back to the interpreter
+ *
+ * @param compileId compile id of the nmethod that trapped
+ * @param compiler  {@code c1} or {@code c2}
+ * @param tier      tier of the nmethod that trapped
+ * @param method    method whose bytecode the trap is in; differs from the compiled method when the
+ *                  trap is in inlined code
+ * @param bci       bytecode index of the trap in {@code method}
+ * @param reason    e.g. {@code unstable_if}, {@code class_check} or {@code null_check}
+ * @param action    what the JVM does about it, e.g. {@code reinterpret} or {@code make_not_entrant}
+ * @param seconds   time since JVM start
+ */
+public record Deoptimization(int compileId, String compiler, int tier, String method, int bci, String reason,
+                             String action, double seconds) {
+}
@@ -0,0 +1,133 @@
+package com.dino.javadisassembler.service.jit;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.Workspace;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Starts a fresh {@code java -XX:+PrintAssembly} process per request and passes its output on
+ * line by line while it runs. Simple, but most of the time goes to JVM startup and loading hsdis;
+ * {@link JitWorkerPool} avoids that.
+ */
+public class ForkingJitRunner implements JitRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForkingJitRunner.class);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WorkspaceManager workspaces;
+    private final String java;
+    private final List<String> jvmOptions;
+    private final Duration timeout;
+    private final ResourcePolicy policy;
+
+    /** Uses the java found on the PATH */
+    public ForkingJitRunner() {
+        this("java", List.of());
+    }
+
+    /**
+     * @param jvmOptions extra options for the JVM, e.g. the flags that switch HotSpot to the Graal JIT
+     */
+    public ForkingJitRunner(String java, List<String> jvmOptions) {
+        this(WorkspaceManager.systemTemp(), java, jvmOptions);
+    }
+
+    public ForkingJitRunner(WorkspaceManager workspaces, String java, List<String> jvmOptions) {
+        this(workspaces, java, jvmOptions, DEFAULT_TIMEOUT, ResourcePolicy.defaults());
+    }
+
+    /**
+     * @param timeout wall-clock time after which the JVM is killed
+     * @param policy  limits of the JVM; {@code jvmOptions} come after its options and may override them
+     */
+    public ForkingJitRunner(WorkspaceManager workspaces, String java, List<String> jvmOptions, Duration timeout,
+                            ResourcePolicy policy) {
+        this.workspaces = workspaces;
+        this.java = java;
+        this.jvmOptions = List.copyOf(jvmOptions);
+        this.timeout = timeout;
+        this.policy = policy;
+    }
+
+    @Override
+    public void run(CompiledClasses classes, String className, Consumer<String> output)
+            throws CompilationException, IOException, InterruptedException {
+        try (Workspace workspace = workspaces.acquire()) {
+            workspace.writeClasses("", classes);
+            // This requires hsdis (HotSpot Disassembler) plugin to be installed
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(policy.jvmOptions());
+            command.addAll(jvmOptions);
+            command.addAll(List.of(
+                    "-XX:+UnlockDiagnosticVMOptions",
+                    "-XX:+PrintAssembly",
+                    "-XX:CompileCommand=quiet",
+                    "-XX:CompileCommand=compileonly," + className + "::*",
+                    "-XX:CompileCommand=compileonly," + className + "$*::*",
+                    className
+            ));
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.directory(workspace.directory().toFile());
+            processBuilder.redirectErrorStream(true); // Merge stderr and stdout
+
+            Process process = ProcessRunner.start(processBuilder);
+            // Kills the JVM at the deadline, which ends the read loop below
+            AtomicBoolean timedOut = new AtomicBoolean();
+            CompletableFuture<Void> watchdog = CompletableFuture.runAsync(() -> {
+                timedOut.set(true);
+                process.destroyForcibly();
+            }, CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS));
+            AtomicBoolean cpuExceeded = new AtomicBoolean();
+            Future<?> cpuWatch = ProcessRunner.limitCpu(process, policy, cpuExceeded);
+
+            long outputBytes = 0;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    outputBytes += line.length() + 1;
+                    if (policy.limitsOutput() && outputBytes > policy.maxOutputBytes()) {
+                        logger.info("JIT output of class {} truncated after {} bytes", className, policy.maxOutputBytes());
+                        output.accept(policy.truncationMarker());
+                        break;
+                    }
+                    output.accept(line);
+                }
+            } catch (IOException e) {
+                if (!timedOut.get() && !cpuExceeded.get()) {
+                    throw e;
+                }
+            } finally {
+                watchdog.cancel(false);
+                cpuWatch.cancel(false);
+                process.destroyForcibly();
+            }
+
+            if (cpuExceeded.get()) {
+                logger.warn("JIT run of class {} went over its CPU time limit", className);
+                throw new CompilationException(policy.cpuLimitMessage());
+            }
+            if (timedOut.get()) {
+                logger.warn("JIT disassembly timed out for class: {}", className);
+                throw new InterruptedException("JIT disassembly timed out");
+            }
+        }
+    }
+}
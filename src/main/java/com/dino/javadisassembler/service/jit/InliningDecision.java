@@ -0,0 +1,16 @@
+package com.dino.javadisassembler.service.jit;
+
+/**
+ * One call site considered for inlining while compiling a method, as reported by PrintInlining
+ *
+ * @param compileId compile id of the compilation that made the decision
+ * @param caller    method containing the call, the compiled method itself or a method inlined into it
+ * @param bci       bytecode index of the call in {@code caller}
+ * @param callee    called method, e.g. {@code java.lang.String::length}
+ * @param depth     inlining depth, 1 for calls made directly by the compiled method
+ * @param inlined   whether the callee was inlined
+ * @param reason    HotSpot's reason, e.g. {@code inline (hot)} or {@code callee is too large}
+ */
+public record InliningDecision(int compileId, String caller, int bci, String callee, int depth, boolean inlined,
+                               String reason) {
+}
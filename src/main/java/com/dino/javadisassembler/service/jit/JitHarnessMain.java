@@ -0,0 +1,147 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the warm-up JVM started by {@link TieredJitExplorer}.
+ * <p>
+ * Instead of running {@code main} once and hoping it gets hot, every other method declared by the
+ * user's class is called in a loop, so the JVM compiles it at each tier it is allowed to reach.
+ * Static methods are called directly, instance methods on an instance made with the no-argument
+ * constructor. Arguments are derived from the iteration number, so branches see varying values.
+ * Exceptions thrown by the calls are counted, not reported, since uncommon traps are part of what
+ * is being studied. A class without such methods has its {@code main} method called in a loop
+ * instead.
+ * <p>
+ * After the loop, one {@link #WARMED} line per method reports how often it was called. This class
+ * is copied to the job's working directory and run on a bare JDK, so it must only depend on the
+ * JDK and must not have nested or anonymous classes.
+ */
+public final class JitHarnessMain {
+
+    static final String WARMED = "@@jit-harness-warmed ";
+
+    private static final int ARRAY_LENGTH = 16;
+
+    private JitHarnessMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String className = args[0];
+        int iterations = Integer.parseInt(args[1]);
+        Class<?> target = Class.forName(className);
+        Object instance = newInstance(target);
+
+        List<Method> methods = new ArrayList<>();
+        Method main = null;
+        for (Method method : target.getDeclaredMethods()) {
+            if (method.isSynthetic() || method.isBridge() || Modifier.isAbstract(method.getModifiers())) {
+                continue;
+            }
+            if (isMain(method)) {
+                main = method;
+            } else if (Modifier.isStatic(method.getModifiers()) || instance != null) {
+                method.setAccessible(true);
+                methods.add(method);
+            }
+        }
+        if (methods.isEmpty() && main != null) {
+            main.setAccessible(true);
+            methods.add(main);
+        }
+        if (methods.isEmpty()) {
+            throw new IllegalStateException("No methods to warm up in class " + className
+                    + ", declare static methods or instance methods and a no-argument constructor");
+        }
+
+        for (Method method : methods) {
+            Object receiver = Modifier.isStatic(method.getModifiers()) ? null : instance;
+            Class<?>[] types = method.getParameterTypes();
+            int exceptions = 0;
+            for (int i = 0; i < iterations; i++) {
+                try {
+                    method.invoke(receiver, arguments(types, i));
+                } catch (InvocationTargetException e) {
+                    exceptions++;
+                }
+            }
+            System.out.flush();
+            System.out.println(WARMED + target.getName() + "::" + method.getName() + " " + iterations + " " + exceptions);
+        }
+        System.out.flush();
+    }
+
+    private static boolean isMain(Method method) {
+        return method.getName().equals("main") && Modifier.isStatic(method.getModifiers())
+                && method.getParameterCount() == 1 && method.getParameterTypes()[0] == String[].class;
+    }
+
+    private static Object newInstance(Class<?> target) {
+        if (Modifier.isAbstract(target.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = target.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object[] arguments(Class<?>[] types, int iteration) {
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = argument(types[i], iteration + i);
+        }
+        return arguments;
+    }
+
+    private static Object argument(Class<?> type, int value) {
+        if (type == int.class) {
+            return value;
+        } else if (type == long.class) {
+            return (long) value;
+        } else if (type == double.class) {
+            return value * 0.5;
+        } else if (type == float.class) {
+            return value * 0.5f;
+        } else if (type == boolean.class) {
+            return (value & 1) == 0;
+        } else if (type == char.class) {
+            return (char) ('a' + value % 26);
+        } else if (type == byte.class) {
+            return (byte) value;
+        } else if (type == short.class) {
+            return (short) value;
+        } else if (type == String.class) {
+            return Integer.toString(value % 1024);
+        } else if (type == String[].class) {
+            return new String[0];
+        } else if (type == int[].class) {
+            int[] array = new int[ARRAY_LENGTH];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = value + i;
+            }
+            return array;
+        } else if (type == long[].class) {
+            long[] array = new long[ARRAY_LENGTH];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = value + i;
+            }
+            return array;
+        } else if (type == double[].class) {
+            double[] array = new double[ARRAY_LENGTH];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (value + i) * 0.5;
+            }
+            return array;
+        }
+        return null;
+    }
+}
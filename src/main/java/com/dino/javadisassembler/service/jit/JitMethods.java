@@ -0,0 +1,11 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.List;
+
+/**
+ * Compiled methods selected from a JIT run
+ *
+ * @param hsdisMissing whether hsdis could not be loaded, so instructions are raw hex
+ */
+public record JitMethods(List<CompiledMethod> methods, boolean hsdisMissing) {
+}
@@ -0,0 +1,22 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.List;
+
+/**
+ * Execution samples of a profiling run attributed to the code the JIT generated
+ *
+ * @param samples         samples taken while the user's code ran
+ * @param compiledSamples samples taken in compiled code of the user's classes; the others were in the
+ *                        interpreter, in JDK code or in native code
+ * @param methods         compiled methods that were sampled, hottest first
+ * @param hsdisMissing    whether hsdis could not be loaded, so instructions are raw hex
+ */
+public record JitProfile(long samples, long compiledSamples, List<ProfiledMethod> methods, boolean hsdisMissing) {
+
+    /**
+     * @param percent             share of all samples taken in this code
+     * @param instructionPercents share of all samples per instruction, in the order of the code's instructions
+     */
+    public record ProfiledMethod(CompiledMethod code, long samples, double percent, List<Double> instructionPercents) {
+    }
+}
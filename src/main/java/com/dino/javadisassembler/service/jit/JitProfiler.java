@@ -0,0 +1,343 @@
+package com.dino.javadisassembler.service.jit;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.Workspace;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the {@code main} method of the user's class in a fresh JVM with PrintAssembly and a Java
+ * Flight Recorder recording, and attributes the recorded execution samples to the compiled code,
+ * the way perfasm attributes hardware samples. Needs nothing but the JDK.
+ * <p>
+ * JFR samples hold the method and bytecode index of each frame rather than a program counter, so
+ * they are matched against the scopes HotSpot prints with the code, which
+ * {@code -XX:+DebugNonSafepoints} makes dense: the instructions up to and including the one a scope
+ * is printed at belong to that scope, and a sample in a scope counts for its instructions in equal
+ * parts. Of several compilations of a method, a sample goes to the newest one installed before it
+ * was taken that has the sampled scope.
+ */
+public class JitProfiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitProfiler.class);
+    private static final String RECORDING = "profile.jfr";
+    private static final String SETTINGS = "profile.jfc";
+    /** Far above what a run within the timeout records with the settings below */
+    private static final long MAX_RECORDING_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_EVENTS = 200_000;
+
+    /** One execution sample, frames innermost first */
+    record Sample(Instant time, List<Frame> frames) {
+    }
+
+    record Frame(String method, int bci, Kind kind) {
+
+        enum Kind { INTERPRETED, COMPILED, INLINED, NATIVE }
+    }
+
+    private final WorkspaceManager workspaces;
+    private final Duration timeout;
+    private final Duration samplePeriod;
+    private final ResourcePolicy policy;
+
+    public JitProfiler(Duration timeout, Duration samplePeriod) {
+        this(WorkspaceManager.systemTemp(), timeout, samplePeriod);
+    }
+
+    public JitProfiler(WorkspaceManager workspaces, Duration timeout, Duration samplePeriod) {
+        this(workspaces, timeout, samplePeriod, ResourcePolicy.defaults());
+    }
+
+    /**
+     * @param samplePeriod time between two execution samples of a thread
+     */
+    public JitProfiler(WorkspaceManager workspaces, Duration timeout, Duration samplePeriod, ResourcePolicy policy) {
+        this.workspaces = workspaces;
+        this.timeout = timeout;
+        this.samplePeriod = samplePeriod;
+        this.policy = policy;
+    }
+
+    public JitProfile profile(CompiledClasses classes, String className)
+            throws CompilationException, IOException, InterruptedException {
+        try (Workspace workspace = workspaces.acquire()) {
+            Path workingDir = workspace.directory();
+            workspace.writeClasses("", classes);
+            workspace.writeString(SETTINGS, settings());
+            ProcessBuilder processBuilder = new ProcessBuilder(command(className, workingDir));
+            processBuilder.directory(workingDir.toFile());
+
+            ProcessRunner.Result result = ProcessRunner.run(processBuilder, timeout, policy);
+            if (result.cpuExceeded()) {
+                logger.warn("JIT profiling run went over its CPU time limit for class: {}", className);
+                throw new CompilationException(policy.cpuLimitMessage());
+            }
+            if (result.truncated()) {
+                throw new CompilationException("JIT profiling run printed more than " + policy.maxOutputBytes() + " bytes");
+            }
+            if (result.timedOut()) {
+                logger.warn("JIT profiling run timed out for class: {}", className);
+                throw new JobTimeoutException("JIT profiling run timed out after " + timeout.toSeconds()
+                        + " seconds, make main return sooner");
+            }
+            if (result.exitCode() != 0) {
+                throw new CompilationException("Run failed:\n" + result.stderr());
+            }
+            Path recording = workingDir.resolve(RECORDING);
+            if (!Files.exists(recording, LinkOption.NOFOLLOW_LINKS)) {
+                throw new CompilationException("The JVM did not write a flight recording:\n" + result.stderr());
+            }
+            // Written by the JVM running the user's code, which may have replaced or grown it
+            BasicFileAttributes attributes = Files.readAttributes(recording, BasicFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS);
+            if (!attributes.isRegularFile() || attributes.size() > MAX_RECORDING_BYTES) {
+                throw new CompilationException("The flight recording is not a file of at most "
+                        + MAX_RECORDING_BYTES + " bytes, make main return sooner");
+            }
+
+            List<CompiledMethod> methods = new ArrayList<>();
+            PrintAssemblyParser parser = new PrintAssemblyParser(methods::add);
+            result.stdout().lines().forEach(parser);
+            parser.finish();
+            Map<Integer, Instant> installed = new HashMap<>();
+            List<Sample> samples = new ArrayList<>();
+            readRecording(recording, installed, samples);
+            logger.info("Profiled class {}: {} samples over {} compiled methods", className, samples.size(), methods.size());
+            return attribute(methods, installed, samples, parser.isHsdisMissing());
+        }
+    }
+
+    private List<String> command(String className, Path workingDir) {
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.addAll(policy.jvmOptions());
+        command.addAll(List.of(
+                "-XX:+UnlockDiagnosticVMOptions",
+                "-XX:+DebugNonSafepoints",
+                "-XX:+PrintAssembly",
+                "-XX:StartFlightRecording=settings=" + workingDir.resolve(SETTINGS)
+                        + ",filename=" + workingDir.resolve(RECORDING) + ",dumponexit=true",
+                "-XX:CompileCommand=quiet",
+                "-XX:CompileCommand=compileonly," + className + "::*",
+                "-XX:CompileCommand=compileonly," + className + "$*::*",
+                "-cp", workingDir.toString(),
+                className
+        ));
+        return command;
+    }
+
+    /** Only the events the attribution needs, so the recording stays small */
+    private String settings() {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <configuration version="2.0">
+                  <event name="jdk.ExecutionSample">
+                    <setting name="enabled">true</setting>
+                    <setting name="period">%d ms</setting>
+                  </event>
+                  <event name="jdk.Compilation">
+                    <setting name="enabled">true</setting>
+                    <setting name="threshold">0 ms</setting>
+                  </event>
+                </configuration>
+                """.formatted(Math.max(1, samplePeriod.toMillis()));
+    }
+
+    /** Reads at most {@link #MAX_EVENTS} compilations and samples; the rest of the recording is ignored */
+    private static void readRecording(Path file, Map<Integer, Instant> installed, List<Sample> samples) throws IOException {
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                if (installed.size() + samples.size() >= MAX_EVENTS) {
+                    logger.info("Flight recording {} holds more than {} events, ignoring the rest", file, MAX_EVENTS);
+                    return;
+                }
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                if (type.equals("jdk.Compilation")) {
+                    installed.put((int) event.getLong("compileId"), event.getEndTime());
+                } else if (type.equals("jdk.ExecutionSample") && event.getStackTrace() != null) {
+                    samples.add(new Sample(event.getStartTime(), frames(event.getStackTrace())));
+                }
+            }
+        }
+    }
+
+    private static List<Frame> frames(RecordedStackTrace stackTrace) {
+        List<Frame> frames = new ArrayList<>(stackTrace.getFrames().size());
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            Frame.Kind kind = switch (frame.getType()) {
+                case "JIT compiled" -> Frame.Kind.COMPILED;
+                case "Inlined" -> Frame.Kind.INLINED;
+                case "Interpreted" -> Frame.Kind.INTERPRETED;
+                default -> Frame.Kind.NATIVE;
+            };
+            String method = frame.getMethod().getType().getName() + "::" + frame.getMethod().getName();
+            frames.add(new Frame(method, frame.getBytecodeIndex(), kind));
+        }
+        return frames;
+    }
+
+    /**
+     * @param installed time each compile id was installed; compilations missing here count as
+     *                  installed from the start
+     */
+    static JitProfile attribute(List<CompiledMethod> methods, Map<Integer, Instant> installed, List<Sample> samples,
+                                boolean hsdisMissing) {
+        Map<String, List<Code>> codeByMethod = new HashMap<>();
+        for (CompiledMethod method : methods) {
+            codeByMethod.computeIfAbsent(method.method(), key -> new ArrayList<>())
+                    .add(new Code(method, installed.getOrDefault(method.compileId(), Instant.MIN)));
+        }
+        long compiledSamples = 0;
+        for (Sample sample : samples) {
+            int root = compiledRoot(sample.frames());
+            List<Code> candidates = root < 0 ? null : codeByMethod.get(sample.frames().get(root).method());
+            if (candidates == null) {
+                continue;
+            }
+            String scope = scope(sample.frames(), root);
+            Code code = newest(candidates, sample.time(), scope);
+            if (code == null) {
+                // The scope is in none of the compilations; the sample still counts for the method
+                code = newest(candidates, sample.time(), null);
+            }
+            if (code != null) {
+                code.hit(scope);
+                compiledSamples++;
+            }
+        }
+
+        long total = samples.size();
+        List<JitProfile.ProfiledMethod> profiled = new ArrayList<>();
+        for (List<Code> codes : codeByMethod.values()) {
+            for (Code code : codes) {
+                if (code.samples > 0) {
+                    List<Double> instructionPercents = new ArrayList<>(code.hits.length);
+                    for (double hits : code.hits) {
+                        instructionPercents.add(percent(hits, total));
+                    }
+                    profiled.add(new JitProfile.ProfiledMethod(code.method, code.samples, percent(code.samples, total),
+                            instructionPercents));
+                }
+            }
+        }
+        profiled.sort(Comparator.comparingLong(JitProfile.ProfiledMethod::samples).reversed()
+                .thenComparingInt(method -> method.code().compileId()));
+        return new JitProfile(total, compiledSamples, profiled, hsdisMissing);
+    }
+
+    /**
+     * Index of the frame of the compiled method a sample was taken in: the first frame that is not
+     * inlined, if the sample was taken in compiled code at all; otherwise -1
+     */
+    private static int compiledRoot(List<Frame> frames) {
+        for (int i = 0; i < frames.size(); i++) {
+            Frame.Kind kind = frames.get(i).kind();
+            if (kind == Frame.Kind.COMPILED) {
+                return i;
+            }
+            if (kind != Frame.Kind.INLINED) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /** Frames from the innermost to the compiled method, in the form {@link Code} keys its scopes by */
+    private static String scope(List<Frame> frames, int root) {
+        StringBuilder scope = new StringBuilder();
+        for (int i = 0; i <= root; i++) {
+            scope.append(frames.get(i).method()).append('@').append(frames.get(i).bci()).append(' ');
+        }
+        return scope.toString();
+    }
+
+    /** Newest of {@code codes} installed by {@code time} with {@code scope}, or with any scope if it is null */
+    private static Code newest(List<Code> codes, Instant time, String scope) {
+        Code newest = null;
+        for (Code code : codes) {
+            if (code.installed.isAfter(time) || scope != null && !code.regions.containsKey(scope)) {
+                continue;
+            }
+            if (newest == null || code.installed.isAfter(newest.installed)
+                    || code.installed.equals(newest.installed) && code.method.compileId() > newest.method.compileId()) {
+                newest = code;
+            }
+        }
+        return newest;
+    }
+
+    private static double percent(double samples, long total) {
+        return total == 0 ? 0 : Math.round(samples * 10_000 / total) / 100.0;
+    }
+
+    /** One compilation with the samples it got so far */
+    private static final class Code {
+
+        final CompiledMethod method;
+        final Instant installed;
+        /** Instruction index ranges, {@code [from, to)}, of each scope */
+        final Map<String, List<int[]>> regions = new HashMap<>();
+        final double[] hits;
+        long samples;
+
+        Code(CompiledMethod method, Instant installed) {
+            this.method = method;
+            this.installed = installed;
+            this.hits = new double[method.instructions().size()];
+            Map<String, StringBuilder> scopes = new LinkedHashMap<>();
+            for (CompiledMethod.BciMapping mapping : method.bciMappings()) {
+                scopes.computeIfAbsent(mapping.address(), address -> new StringBuilder())
+                        .append(mapping.method()).append('@').append(mapping.bci()).append(' ');
+            }
+            int from = 0;
+            for (int i = 0; i < hits.length; i++) {
+                StringBuilder scope = scopes.get(method.instructions().get(i).address());
+                if (scope != null) {
+                    regions.computeIfAbsent(scope.toString(), key -> new ArrayList<>()).add(new int[]{from, i + 1});
+                    from = i + 1;
+                }
+            }
+        }
+
+        void hit(String scope) {
+            samples++;
+            List<int[]> ranges = regions.get(scope);
+            if (ranges == null) {
+                return;
+            }
+            int instructions = 0;
+            for (int[] range : ranges) {
+                instructions += range[1] - range[0];
+            }
+            for (int[] range : ranges) {
+                for (int i = range[0]; i < range[1]; i++) {
+                    hits[i] += 1.0 / instructions;
+                }
+            }
+        }
+    }
+}
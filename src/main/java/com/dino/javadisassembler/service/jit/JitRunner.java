@@ -0,0 +1,29 @@
+package com.dino.javadisassembler.service.jit;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Runs compiled user code in a HotSpot JVM with PrintAssembly enabled for its classes
+ */
+public interface JitRunner {
+
+    /**
+     * Runs the {@code main} method of {@code className} and hands every line the JVM prints,
+     * including the assembly of the methods it compiled, to {@code output} as soon as it is read.
+     */
+    void run(CompiledClasses classes, String className, Consumer<String> output)
+            throws CompilationException, IOException, InterruptedException;
+
+    /**
+     * Same as {@link #run(CompiledClasses, String, Consumer)}, collecting the whole output
+     */
+    default String run(CompiledClasses classes, String className) throws CompilationException, IOException, InterruptedException {
+        StringBuilder output = new StringBuilder();
+        run(classes, className, line -> output.append(line).append('\n'));
+        return output.toString();
+    }
+}
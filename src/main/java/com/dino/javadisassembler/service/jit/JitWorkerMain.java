@@ -0,0 +1,232 @@
+package com.dino.javadisassembler.service.jit;
+
+import javax.management.ObjectName;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Entry point of a long-lived JIT worker JVM, started by {@link JitWorkerProcess}.
+ * <p>
+ * The worker reads a token from stdin and connects back to the loopback port given as its only
+ * argument, proving itself with the token; stdin carries nothing else. Jobs arrive as class bytes
+ * on that control connection, and each job's status goes back on it, so the job's own code, which
+ * only shares stdout, can neither read the next job nor forge a status.
+ * <p>
+ * Each job is loaded in its own class loader (an instance of this class) and its {@code main}
+ * method is run with a compiler directive that enables PrintAssembly for the job's classes only.
+ * The worker runs with {@code -Xbatch}, so every compilation triggered by the job has been printed
+ * by the time {@code main} returns. The job's output is framed on stdout by {@link #BEGIN} and
+ * {@link #END} markers carrying a nonce the job is sent with and its code never sees.
+ * <p>
+ * A job that leaves threads running after {@code main} returns is flagged in its status, and the
+ * worker is retired: such a thread could print into the next job's output or use up its CPU time.
+ * <p>
+ * This class is copied to a scratch directory and run on a bare JDK, so it must only depend on the
+ * JDK and must not have nested or anonymous classes.
+ */
+public final class JitWorkerMain extends ClassLoader {
+
+    static final String READY = "@@jit-worker-ready";
+    static final String BEGIN = "@@jit-job-begin ";
+    static final String END = "@@jit-job-end ";
+
+    private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    private static final int WARM_UP_ITERATIONS = 20_000;
+    /** How long threads a job started may take to finish after its {@code main} returned */
+    private static final long THREAD_GRACE_MILLIS = 100;
+
+    private final Map<String, byte[]> classes;
+
+    private JitWorkerMain(Map<String, byte[]> classes) {
+        super(JitWorkerMain.class.getClassLoader().getParent());
+        this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = classes.get(name);
+        if (bytes == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String token = new DataInputStream(System.in).readUTF();
+        // Jobs must not be able to read stdin
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+        // Only held in locals of this method, out of reach of the jobs' code
+        Socket control = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+        DataInputStream input = new DataInputStream(new BufferedInputStream(control.getInputStream()));
+        DataOutputStream status = new DataOutputStream(new BufferedOutputStream(control.getOutputStream()));
+        status.writeUTF(token);
+        status.flush();
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+
+        // Compiling and printing one method loads hsdis before the first real job
+        withPrintAssembly(JitWorkerMain.class.getName(), () -> {
+            long sum = 0;
+            for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+                sum += warmUp(i);
+            }
+            return sum;
+        });
+        out.flush();
+        out.println(READY);
+        out.flush();
+
+        while (true) {
+            String nonce;
+            try {
+                nonce = input.readUTF();
+            } catch (EOFException e) {
+                return;
+            }
+            String className = input.readUTF();
+            int count = input.readInt();
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = input.readUTF();
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                classes.put(name, bytes);
+            }
+            // A job may have replaced them; the markers always go to the real stdout
+            System.setOut(out);
+            System.setErr(err);
+            boolean threadsLeft = runJob(out, nonce, className, classes);
+            status.writeLong(codeCacheUsagePercent());
+            status.writeBoolean(threadsLeft);
+            status.flush();
+        }
+    }
+
+    /** Runs a job framed by its markers, and answers whether it left threads running */
+    private static boolean runJob(PrintStream out, String nonce, String className, Map<String, byte[]> classes)
+            throws InterruptedException {
+        Set<Thread> threadsBefore = Thread.getAllStackTraces().keySet();
+        out.println(BEGIN + nonce);
+        out.flush();
+        try {
+            withPrintAssembly(className, () -> {
+                runMain(new JitWorkerMain(classes), className);
+                return null;
+            });
+        } catch (Throwable t) {
+            System.err.print("Exception in thread \"main\" ");
+            t.printStackTrace();
+        }
+        boolean threadsLeft = threadsLeft(threadsBefore);
+        System.out.flush();
+        System.err.flush();
+        // Output that did not end with a newline shares its last line with the marker
+        out.println(END + nonce);
+        out.flush();
+        return threadsLeft;
+    }
+
+    /** Whether a thread started since {@code before} is still alive once the grace period is over */
+    private static boolean threadsLeft(Set<Thread> before) throws InterruptedException {
+        long deadline = System.nanoTime() + THREAD_GRACE_MILLIS * 1_000_000;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!before.contains(thread)) {
+                thread.join(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+                if (thread.isAlive()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void runMain(ClassLoader loader, String className) throws Exception {
+        Class<?> mainClass = Class.forName(className, true, loader);
+        Method main;
+        try {
+            main = mainClass.getDeclaredMethod("main", String[].class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Main method not found in class " + className
+                    + ", please define the main method as:\n   public static void main(String[] args)");
+        }
+        if (!Modifier.isStatic(main.getModifiers())) {
+            throw new IllegalStateException("Main method is not static in class " + className);
+        }
+        main.setAccessible(true);
+        try {
+            main.invoke(null, (Object) new String[0]);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (Exception) e.getCause();
+        }
+    }
+
+    /**
+     * Runs the task with a compiler directive printing the assembly of {@code className} and its
+     * nested classes, then removes the directive again.
+     */
+    private static void withPrintAssembly(String className, Callable<?> task) throws Exception {
+        String pattern = className.replace('.', '/');
+        String directive = "[{ match: [\"" + pattern + ".*\", \"" + pattern + "$*.*\"], PrintAssembly: true }]";
+        Path file = Files.createTempFile("jit-directive", ".json");
+        try {
+            Files.writeString(file, directive, StandardCharsets.UTF_8);
+            diagnosticCommand("compilerDirectivesAdd", file.toString());
+            try {
+                task.call();
+            } finally {
+                diagnosticCommand("compilerDirectivesRemove");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void diagnosticCommand(String operation, String... arguments) throws Exception {
+        ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName(DIAGNOSTIC_COMMAND),
+                operation,
+                new Object[]{arguments},
+                new String[]{String[].class.getName()});
+    }
+
+    private static long codeCacheUsagePercent() {
+        long used = 0;
+        long max = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.NON_HEAP && pool.getName().startsWith("Code")) {
+                MemoryUsage usage = pool.getUsage();
+                used += usage.getUsed();
+                max += Math.max(usage.getMax(), 0);
+            }
+        }
+        return max == 0 ? 0 : used * 100 / max;
+    }
+
+    private static int warmUp(int value) {
+        return value * 31 + (value >>> 3);
+    }
+}
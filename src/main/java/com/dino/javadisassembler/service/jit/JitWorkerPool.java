@@ -0,0 +1,226 @@
+package com.dino.javadisassembler.service.jit;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a few {@link JitWorkerMain} JVMs running with hsdis already loaded and hands each JIT
+ * request to an idle one, so a request no longer pays for JVM startup.
+ * <p>
+ * Workers are replaced after {@code maxJobsPerWorker} jobs, once their code cache fills past
+ * {@code codeCacheRecyclePercent}, or when a job kills or hangs them. At most {@code poolSize}
+ * jobs run at once and at most {@code queueDepth} more wait for a worker; further requests are
+ * rejected straight away with {@link JobRejectedException}, as are requests no worker became
+ * available for.
+ */
+public class JitWorkerPool implements JitRunner, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitWorkerPool.class);
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(30);
+
+    public record Stats(int idleWorkers, int busyWorkers, int queuedJobs, long workersStarted, long workersRecycled,
+                        long jobsCompleted) {
+    }
+
+    private final int poolSize;
+    private final int maxJobsPerWorker;
+    private final int codeCacheRecyclePercent;
+    private final Duration jobTimeout;
+    private final ResourcePolicy policy;
+    private final Path classpath;
+    private final List<String> command;
+    private final Semaphore admission;
+    private final BlockingQueue<JitWorkerProcess> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService starter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jit-worker-starter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Workers running or being started */
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong workersStarted = new AtomicLong();
+    private final AtomicLong workersRecycled = new AtomicLong();
+    private final AtomicLong jobsCompleted = new AtomicLong();
+    private volatile boolean closed;
+
+    public JitWorkerPool(int poolSize, int queueDepth, int maxJobsPerWorker, int codeCacheRecyclePercent,
+                         Duration jobTimeout) throws IOException {
+        this(poolSize, queueDepth, maxJobsPerWorker, codeCacheRecyclePercent, jobTimeout, ResourcePolicy.defaults());
+    }
+
+    /**
+     * @param policy limits of every worker JVM; CPU time and output are limited per job
+     */
+    public JitWorkerPool(int poolSize, int queueDepth, int maxJobsPerWorker, int codeCacheRecyclePercent,
+                         Duration jobTimeout, ResourcePolicy policy) throws IOException {
+        this.poolSize = Math.max(1, poolSize);
+        this.maxJobsPerWorker = Math.max(1, maxJobsPerWorker);
+        this.codeCacheRecyclePercent = codeCacheRecyclePercent;
+        this.jobTimeout = jobTimeout;
+        this.policy = policy;
+        this.admission = new Semaphore(this.poolSize + Math.max(0, queueDepth));
+        this.classpath = extractWorkerClass();
+        // This requires hsdis (HotSpot Disassembler) plugin to be installed
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.addAll(policy.jvmOptions());
+        command.addAll(List.of(
+                "-XX:+UnlockDiagnosticVMOptions",
+                // Set up front, otherwise every job repeats the warning that PrintAssembly turns it on
+                "-XX:+DebugNonSafepoints",
+                // Compile in the foreground so a job's methods are printed before its main returns
+                "-Xbatch",
+                "-cp", classpath.toString(),
+                JitWorkerMain.class.getName()
+        ));
+        this.command = List.copyOf(command);
+        ensureWorkers();
+    }
+
+    @Override
+    public void run(CompiledClasses classes, String className, Consumer<String> output)
+            throws CompilationException, IOException, InterruptedException {
+        if (closed) {
+            throw new CompilationException("JIT worker pool is shut down");
+        }
+        if (!admission.tryAcquire()) {
+            // A slot frees up once a running job ends, within the job timeout
+            throw new JobRejectedException("JIT worker queue is full, please try again later",
+                    Math.max(1, jobTimeout.toSeconds()));
+        }
+        try {
+            ensureWorkers();
+            JitWorkerProcess worker;
+            waiting.incrementAndGet();
+            try {
+                worker = idle.poll(START_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } finally {
+                waiting.decrementAndGet();
+            }
+            if (worker == null) {
+                throw new JobRejectedException("No JIT worker became available, please try again later",
+                        START_TIMEOUT.toSeconds());
+            }
+            busy.incrementAndGet();
+            try {
+                worker.execute(classes, className, jobTimeout, policy, output);
+                jobsCompleted.incrementAndGet();
+            } finally {
+                busy.decrementAndGet();
+                release(worker);
+            }
+        } finally {
+            admission.release();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(idle.size(), busy.get(), waiting.get(), workersStarted.get(), workersRecycled.get(),
+                jobsCompleted.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        starter.shutdownNow();
+        JitWorkerProcess worker;
+        while ((worker = idle.poll()) != null) {
+            worker.close();
+        }
+        try (Stream<Path> files = Files.walk(classpath)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            logger.warn("Could not delete JIT worker classpath {}: {}", classpath, e.getMessage());
+        }
+    }
+
+    private void release(JitWorkerProcess worker) {
+        if (!closed && worker.isAlive() && !worker.threadsLeft() && worker.jobs() < maxJobsPerWorker
+                && worker.codeCacheUsagePercent() < codeCacheRecyclePercent) {
+            idle.add(worker);
+            return;
+        }
+        if (worker.threadsLeft()) {
+            logger.info("Retiring JIT worker {}, its last job left threads running", worker.pid());
+        }
+        logger.debug("Retiring JIT worker {} after {} jobs, code cache {}% used",
+                worker.pid(), worker.jobs(), worker.codeCacheUsagePercent());
+        worker.close();
+        workersRecycled.incrementAndGet();
+        live.decrementAndGet();
+        if (!closed) {
+            ensureWorkers();
+        }
+    }
+
+    /** Starts workers in the background until {@code poolSize} are running or starting */
+    private void ensureWorkers() {
+        int current;
+        while (!closed && (current = live.get()) < poolSize) {
+            if (live.compareAndSet(current, current + 1)) {
+                starter.execute(this::startWorker);
+            }
+        }
+    }
+
+    private void startWorker() {
+        try {
+            JitWorkerProcess worker = JitWorkerProcess.start(command, START_TIMEOUT);
+            workersStarted.incrementAndGet();
+            logger.debug("Started JIT worker {}", worker.pid());
+            if (closed) {
+                worker.close();
+            } else {
+                idle.add(worker);
+            }
+        } catch (IOException e) {
+            // Retried by the next request rather than in a loop here
+            live.decrementAndGet();
+            logger.warn("Could not start JIT worker: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            live.decrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Copies the worker entry point out of the application jar, so the worker JVM sees nothing else */
+    private static Path extractWorkerClass() throws IOException {
+        Path directory = Files.createTempDirectory("jit-worker");
+        String resource = JitWorkerMain.class.getName().replace('.', '/') + ".class";
+        Path target = directory.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = JitWorkerMain.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Worker class " + resource + " not found");
+            }
+            Files.copy(in, target);
+        }
+        return directory;
+    }
+}
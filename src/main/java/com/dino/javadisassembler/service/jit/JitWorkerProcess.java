@@ -0,0 +1,317 @@
+package com.dino.javadisassembler.service.jit;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Handle on one running {@link JitWorkerMain} JVM. Not thread safe: the pool hands a worker to a
+ * single job at a time.
+ */
+class JitWorkerProcess implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitWorkerProcess.class);
+    /** Queued by the reader thread once the worker's output ends; compared by identity */
+    private static final String EOF = new String("<eof>");
+    /** Lines buffered ahead of the job; a worker printing faster than they are consumed blocks on its pipe */
+    private static final int MAX_QUEUED_LINES = 10_000;
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** How long the worker may take to send a job's status once its end marker is printed */
+    private static final int STATUS_TIMEOUT_MILLIS = 5_000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Process process;
+    private Socket control;
+    private DataOutputStream input;
+    private DataInputStream status;
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>(MAX_QUEUED_LINES);
+    /** Printed once by the worker at startup, but by a forked JVM for every run, so it is repeated per job */
+    private String hsdisWarning = "";
+    private volatile boolean exited;
+    private int nextJobId;
+    private int jobs;
+    private long codeCacheUsagePercent;
+    private boolean threadsLeft;
+
+    private JitWorkerProcess(Process process) {
+        this.process = process;
+        Thread reader = new Thread(this::readOutput, "jit-worker-" + process.pid());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Starts a worker, accepts its control connection and waits until it has loaded hsdis and is
+     * ready for jobs
+     */
+    static JitWorkerProcess start(List<String> command, Duration startTimeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + startTimeout.toNanos();
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            List<String> workerCommand = new ArrayList<>(command);
+            workerCommand.add(String.valueOf(server.getLocalPort()));
+            ProcessBuilder processBuilder = new ProcessBuilder(workerCommand);
+            processBuilder.redirectErrorStream(true);
+            JitWorkerProcess worker = new JitWorkerProcess(ProcessRunner.start(processBuilder));
+            try {
+                worker.connect(server, deadline);
+                worker.awaitReady(startTimeout);
+                return worker;
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                worker.close();
+                throw e;
+            }
+        }
+    }
+
+    /** Sends the worker its token on stdin and accepts the connection that presents it back */
+    private void connect(ServerSocket server, long deadline) throws IOException {
+        String token = nonce();
+        try (DataOutputStream stdin = new DataOutputStream(process.getOutputStream())) {
+            stdin.writeUTF(token);
+        }
+        while (true) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new IOException("JIT worker did not connect in time");
+            }
+            server.setSoTimeout((int) Math.min(Integer.MAX_VALUE, remaining));
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (SocketTimeoutException e) {
+                throw new IOException("JIT worker did not connect in time");
+            }
+            try {
+                socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, Math.max(1, remaining)));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                if (in.readUTF().equals(token)) {
+                    control = socket;
+                    status = in;
+                    input = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                    return;
+                }
+            } catch (IOException e) {
+                logger.debug("Dropped connection to JIT worker port: {}", e.getMessage());
+            }
+            socket.close();
+        }
+    }
+
+    private static String nonce() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private void awaitReady(Duration timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        StringBuilder startupOutput = new StringBuilder();
+        while (true) {
+            String line = lines.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (line == null) {
+                throw new IOException("JIT worker did not start within " + timeout.toSeconds() + " seconds");
+            }
+            if (line == EOF) {
+                throw new IOException("JIT worker exited during startup:\n" + startupOutput);
+            }
+            if (line.endsWith(JitWorkerMain.READY)) {
+                return;
+            }
+            if (line.contains("Could not load hsdis")) {
+                hsdisWarning = line;
+            }
+            startupOutput.append(line).append('\n');
+        }
+    }
+
+    /**
+     * Runs one job, passing its output lines to {@code output} as they arrive. A job that outlives
+     * {@code timeout} kills the worker; a job that ends the worker (e.g. {@code System.exit}) ends
+     * after what it printed so far. If {@code output} throws, the worker is killed as well, since
+     * the rest of the job's output would otherwise be read by the next job.
+     * <p>
+     * The job's CPU time and output are limited by {@code policy}: a job going over its CPU time
+     * fails, one printing too much ends with the truncation marker, and both kill the worker.
+     * <p>
+     * The job is framed on stdout by markers carrying a fresh nonce, so its own output cannot end
+     * it or start the next one.
+     */
+    void execute(CompiledClasses classes, String className, Duration timeout, ResourcePolicy policy,
+                 Consumer<String> output) throws CompilationException, IOException, InterruptedException {
+        int jobId = ++nextJobId;
+        String nonce = nonce();
+        input.writeUTF(nonce);
+        input.writeUTF(className);
+        input.writeInt(classes.classNames().size());
+        for (String name : classes.classNames()) {
+            byte[] bytes = classes.bytes(name);
+            input.writeUTF(name);
+            input.writeInt(bytes.length);
+            input.write(bytes);
+        }
+        input.flush();
+
+        String begin = JitWorkerMain.BEGIN + nonce;
+        String end = JitWorkerMain.END + nonce;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long nextCpuCheck = System.nanoTime() + CHECK_INTERVAL_NANOS;
+        // The worker's CPU time so far belongs to earlier jobs and its startup
+        Duration cpuLimit = ProcessRunner.cpuTime(process.toHandle()).plus(policy.cpuTimeLimit());
+        long outputBytes = 0;
+        boolean started = false;
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                String line = lines.poll(Math.max(0, Math.min(remaining, CHECK_INTERVAL_NANOS)), TimeUnit.NANOSECONDS);
+                if (line == null && remaining <= 0) {
+                    logger.warn("JIT job {} timed out on worker {}", jobId, process.pid());
+                    close();
+                    throw new InterruptedException("JIT disassembly timed out");
+                }
+                if (policy.limitsCpu() && System.nanoTime() - nextCpuCheck >= 0) {
+                    nextCpuCheck = System.nanoTime() + CHECK_INTERVAL_NANOS;
+                    if (ProcessRunner.cpuTime(process.toHandle()).compareTo(cpuLimit) > 0) {
+                        logger.warn("JIT job {} went over its CPU time limit on worker {}", jobId, process.pid());
+                        close();
+                        throw new CompilationException(policy.cpuLimitMessage());
+                    }
+                }
+                if (line == null) {
+                    continue;
+                }
+                if (line == EOF) {
+                    exited = true;
+                    logger.info("JIT worker {} exited while running job {}", process.pid(), jobId);
+                    return;
+                }
+                if (!started) {
+                    started = line.equals(begin);
+                    if (started && !hsdisWarning.isEmpty()) {
+                        output.accept(hsdisWarning);
+                    }
+                    continue;
+                }
+                int marker = line.endsWith(end) ? line.length() - end.length() : -1;
+                outputBytes += (marker >= 0 ? marker : line.length()) + 1;
+                if (policy.limitsOutput() && outputBytes > policy.maxOutputBytes()) {
+                    logger.info("JIT job {} output truncated after {} bytes, stopping worker {}",
+                            jobId, policy.maxOutputBytes(), process.pid());
+                    close();
+                    output.accept(policy.truncationMarker());
+                    return;
+                }
+                if (marker >= 0) {
+                    // Output that did not end with a newline shares its last line with the marker
+                    if (marker > 0) {
+                        output.accept(line.substring(0, marker));
+                    }
+                    readStatus(jobId);
+                    jobs++;
+                    return;
+                }
+                output.accept(line);
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /** Reads the status the worker sends on its control connection right after the end marker */
+    private void readStatus(int jobId) throws IOException {
+        try {
+            control.setSoTimeout(STATUS_TIMEOUT_MILLIS);
+            codeCacheUsagePercent = status.readLong();
+            threadsLeft = status.readBoolean();
+        } catch (IOException e) {
+            logger.warn("JIT worker {} sent no status for job {}: {}", process.pid(), jobId, e.getMessage());
+            close();
+            throw e;
+        }
+    }
+
+    int jobs() {
+        return jobs;
+    }
+
+    long codeCacheUsagePercent() {
+        return codeCacheUsagePercent;
+    }
+
+    /** Whether the last job left threads running, which makes the worker unfit for other jobs */
+    boolean threadsLeft() {
+        return threadsLeft;
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    boolean isAlive() {
+        return !exited && process.isAlive();
+    }
+
+    @Override
+    public void close() {
+        exited = true;
+        process.destroyForcibly();
+        if (control != null) {
+            try {
+                control.close();
+            } catch (IOException e) {
+                logger.debug("Could not close JIT worker {} control connection: {}", process.pid(), e.getMessage());
+            }
+        }
+    }
+
+    private void readOutput() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                enqueue(line);
+            }
+        } catch (IOException e) {
+            logger.debug("JIT worker {} output closed: {}", process.pid(), e.getMessage());
+        } finally {
+            enqueue(EOF);
+        }
+    }
+
+    /** Waits for room in the queue, which is dropped instead once nobody reads it any more */
+    private void enqueue(String line) {
+        try {
+            while (!lines.offer(line, 100, TimeUnit.MILLISECONDS)) {
+                if (exited) {
+                    lines.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
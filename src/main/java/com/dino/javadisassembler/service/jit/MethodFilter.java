@@ -0,0 +1,49 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Selects compiled methods by name and tier
+ *
+ * @param method    part of the qualified method name (e.g. {@code sq} or {@code Test::sq}), or
+ *                  {@code null} for any method
+ * @param tiers     tiers to keep, empty for all
+ * @param compilers compilers to keep ({@code c1}, {@code c2}), empty for all
+ */
+public record MethodFilter(String method, Set<Integer> tiers, Set<String> compilers) {
+
+    public static final MethodFilter ALL = new MethodFilter(null, Set.of(), Set.of());
+
+    /**
+     * Builds a filter from request parameters; a tier is either a number ({@code 1}-{@code 4}) or a
+     * compiler name ({@code c1}, {@code c2})
+     *
+     * @throws IllegalArgumentException if a tier is neither
+     */
+    public static MethodFilter of(String method, List<String> tiers) {
+        Set<Integer> tierNumbers = new HashSet<>();
+        Set<String> compilers = new HashSet<>();
+        if (tiers != null) {
+            for (String tier : tiers) {
+                String value = tier.trim().toLowerCase(Locale.ROOT);
+                if (value.matches("[1-4]")) {
+                    tierNumbers.add(Integer.parseInt(value));
+                } else if (value.equals("c1") || value.equals("c2")) {
+                    compilers.add(value);
+                } else {
+                    throw new IllegalArgumentException("Unknown tier: " + tier + ", expected 1-4, c1 or c2");
+                }
+            }
+        }
+        return new MethodFilter(method == null || method.isBlank() ? null : method.trim(), tierNumbers, compilers);
+    }
+
+    public boolean matches(String methodName, int tier, String compiler) {
+        return (method == null || methodName.contains(method))
+                && (tiers.isEmpty() || tiers.contains(tier))
+                && (compilers.isEmpty() || compilers.contains(compiler));
+    }
+}
@@ -0,0 +1,41 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.function.Consumer;
+
+/**
+ * Groups PrintAssembly output lines into blocks, one per compiled method, so each can be sent on
+ * as soon as it is complete. Text printed between methods (program output, warnings) stays with
+ * the block before it. Only the block being built is kept in memory.
+ */
+public class NmethodBlockSplitter implements Consumer<String> {
+
+    /** First line of every nmethod printed by PrintAssembly, e.g. {@code ===== C2-compiled nmethod =====} */
+    private static final String BLOCK_HEADER = "============================= ";
+
+    private final Consumer<String> blocks;
+    private final StringBuilder current = new StringBuilder();
+
+    public NmethodBlockSplitter(Consumer<String> blocks) {
+        this.blocks = blocks;
+    }
+
+    @Override
+    public void accept(String line) {
+        if (line.startsWith(BLOCK_HEADER)) {
+            flush();
+        }
+        current.append(line).append('\n');
+    }
+
+    /** Sends the last block; call once the output has ended */
+    public void finish() {
+        flush();
+    }
+
+    private void flush() {
+        if (!current.isEmpty()) {
+            blocks.accept(current.toString());
+            current.setLength(0);
+        }
+    }
+}
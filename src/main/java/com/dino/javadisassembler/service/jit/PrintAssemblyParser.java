@@ -0,0 +1,200 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns PrintAssembly output into {@link CompiledMethod} records, line by line. Each method is
+ * handed on as soon as its code has been read, and methods rejected by the filter are skipped
+ * without collecting their instructions, so memory use depends on the largest kept method rather
+ * than on the whole output.
+ * <p>
+ * Understands both the disassembled form printed with hsdis ({@code [Disassembly]}) and the raw
+ * hex form HotSpot falls back to without it ({@code [MachCode]}).
+ */
+public class PrintAssemblyParser implements Consumer<String> {
+
+    private static final String BLOCK_HEADER = "============================= ";
+    /** Printed by JDKs before 17 when hsdis is missing; later ones only switch to [MachCode] */
+    private static final String HSDIS_LOAD_FAILURE = "Could not load hsdis";
+    /**
+     * e.g. {@code Compiled method (c1)  454  582 %  3  Test::main @ 4 (32 bytes)}. Numbers are
+     * bounded to what fits an int, since the program's own output is parsed as well.
+     */
+    private static final Pattern METHOD_HEADER = Pattern.compile(
+            "^Compiled method \\((\\w+)\\)\\s+\\d+\\s+(\\d{1,9})\\s+([%sb!n ]*?)\\s*(\\d)\\s+(\\S+)(?:\\s+@\\s+(\\d{1,9}))?\\s+\\((\\d{1,9}) bytes\\)");
+    private static final Pattern MAIN_CODE = Pattern.compile("^\\s*main code\\s+\\[.*]\\s*=\\s*(\\d{1,9})(?!\\d)");
+    private static final Pattern SECTION = Pattern.compile("^\\[([^/\\]][^\\]]*)]\\s*$");
+    /** Addresses are 64-bit, so longer hex numbers come from the program's own output */
+    private static final Pattern CODE_LINE = Pattern.compile("^\\s+0x([0-9a-fA-F]{1,16}):\\s*(.*)$");
+    private static final Pattern COMMENT_LINE = Pattern.compile("^\\s+;(.*)$");
+    /** e.g. {@code - Test::sq@0 (line 1)} */
+    private static final Pattern SCOPE = Pattern.compile("- (\\S+)@(-?\\d{1,9})(?!\\d)(?: \\(line (-?\\d{1,9})\\))?");
+
+    private final Consumer<CompiledMethod> methods;
+    private final MethodFilter filter;
+
+    private boolean hsdisMissing;
+    private int methodCount;
+
+    // state of the method being read
+    private boolean inMethod;
+    private boolean keep;
+    private String method;
+    private int compileId;
+    private String compiler;
+    private int tier;
+    private boolean osr;
+    private Integer osrBci;
+    private int bytecodeSize;
+    private int codeSize;
+    private boolean disassembled;
+    private String section = "";
+    private String address;
+    private List<CompiledMethod.Instruction> instructions = new ArrayList<>();
+    private List<CompiledMethod.BciMapping> bciMappings = new ArrayList<>();
+
+    public PrintAssemblyParser(Consumer<CompiledMethod> methods) {
+        this(methods, MethodFilter.ALL);
+    }
+
+    public PrintAssemblyParser(Consumer<CompiledMethod> methods, MethodFilter filter) {
+        this.methods = methods;
+        this.filter = filter;
+    }
+
+    @Override
+    public void accept(String line) {
+        if (line.contains(HSDIS_LOAD_FAILURE)) {
+            hsdisMissing = true;
+            return;
+        }
+        if (line.startsWith(BLOCK_HEADER)) {
+            flush();
+            inMethod = true;
+            keep = false;
+            return;
+        }
+        if (!inMethod) {
+            return;
+        }
+        if (method == null) {
+            Matcher header = METHOD_HEADER.matcher(line);
+            if (header.find()) {
+                startMethod(header);
+            }
+            return;
+        }
+        if (line.startsWith("[/Disassembly]") || line.startsWith("[/MachCode]")) {
+            flush();
+            return;
+        }
+        if (line.startsWith("[Disassembly]")) {
+            disassembled = true;
+            return;
+        }
+        if (line.startsWith("[MachCode]")) {
+            disassembled = false;
+            hsdisMissing = true;
+            return;
+        }
+        if (!keep) {
+            return;
+        }
+        Matcher code = CODE_LINE.matcher(line);
+        if (code.matches()) {
+            address = "0x" + code.group(1);
+            String rest = code.group(2);
+            int comment = rest.indexOf(';');
+            if (comment == 0) {
+                // raw hex form: annotations get a line of their own before the bytes
+                addScopes(rest);
+            } else {
+                String assembly = (comment < 0 ? rest : rest.substring(0, comment)).strip();
+                String annotation = comment < 0 ? "" : rest.substring(comment + 1).strip();
+                instructions.add(new CompiledMethod.Instruction(address, section, assembly, annotation));
+                addScopes(annotation);
+            }
+            return;
+        }
+        Matcher comment = COMMENT_LINE.matcher(line);
+        if (comment.matches() && address != null) {
+            String annotation = comment.group(1).strip();
+            int last = instructions.size() - 1;
+            if (last >= 0 && instructions.get(last).address().equals(address)) {
+                CompiledMethod.Instruction instruction = instructions.get(last);
+                String joined = instruction.comment().isEmpty() ? annotation : instruction.comment() + "\n" + annotation;
+                instructions.set(last, new CompiledMethod.Instruction(instruction.address(), instruction.section(),
+                        instruction.assembly(), joined));
+            }
+            addScopes(annotation);
+            return;
+        }
+        Matcher mainCode = MAIN_CODE.matcher(line);
+        if (mainCode.find()) {
+            codeSize = Integer.parseInt(mainCode.group(1));
+            return;
+        }
+        Matcher sectionName = SECTION.matcher(line);
+        if (sectionName.matches()) {
+            section = sectionName.group(1);
+        }
+    }
+
+    /** Hands on the method still being read; call once the output has ended */
+    public void finish() {
+        flush();
+    }
+
+    /** Whether the code was printed as raw hex because hsdis could not be loaded */
+    public boolean isHsdisMissing() {
+        return hsdisMissing;
+    }
+
+    /** Number of compiled methods seen so far, including the ones the filter skipped */
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    private void startMethod(Matcher header) {
+        compiler = header.group(1);
+        compileId = Integer.parseInt(header.group(2));
+        osr = header.group(3).contains("%");
+        tier = Integer.parseInt(header.group(4));
+        method = header.group(5);
+        osrBci = header.group(6) == null ? null : Integer.parseInt(header.group(6));
+        bytecodeSize = Integer.parseInt(header.group(7));
+        keep = filter.matches(method, tier, compiler);
+        methodCount++;
+    }
+
+    private void addScopes(String annotation) {
+        if (annotation.indexOf('@') < 0) {
+            return;
+        }
+        Matcher scope = SCOPE.matcher(annotation);
+        while (scope.find()) {
+            bciMappings.add(new CompiledMethod.BciMapping(address, scope.group(1), Integer.parseInt(scope.group(2)),
+                    scope.group(3) == null ? null : Integer.parseInt(scope.group(3))));
+        }
+    }
+
+    private void flush() {
+        if (method != null && keep) {
+            methods.accept(new CompiledMethod(method, compileId, compiler, tier, osr, osrBci, bytecodeSize, codeSize,
+                    disassembled, List.copyOf(instructions), List.copyOf(bciMappings)));
+        }
+        inMethod = false;
+        keep = false;
+        method = null;
+        codeSize = 0;
+        disassembled = false;
+        section = "";
+        address = null;
+        instructions = new ArrayList<>();
+        bciMappings = new ArrayList<>();
+    }
+}
@@ -0,0 +1,88 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects the inlining decisions printed by {@code -XX:+PrintCompilation -XX:+PrintInlining}.
+ * The decisions of a compilation follow its PrintCompilation line, one line per call site,
+ * indented by inlining depth. Other lines are ignored, so the parser can be fed the whole JVM
+ * output.
+ * <p>
+ * C2 prints its inlining tree when it has finished, so another compilation's line may come in
+ * between; decisions are assigned to the latest compilation that started, which is exact with
+ * {@code -Xbatch}.
+ */
+public class PrintInliningParser implements Consumer<String> {
+
+    /** e.g. {@code 454  582 %  b  3       Test::main @ 4 (32 bytes)} */
+    private static final Pattern COMPILATION = Pattern.compile(
+            "^\\s*\\d+\\s+(\\d{1,9})\\s+[%sbn! ]*?\\s*[0-4]\\s+(\\S+)(?:\\s+@\\s+\\d+)?\\s+\\(\\d+ bytes\\)(.*)$");
+    /** e.g. {@code @ 12   Test::sq (4 bytes)   inline (hot)} */
+    private static final Pattern CALL_SITE = Pattern.compile(
+            "^(\\s*)@ (\\d{1,9})\\s+(\\S+) \\((?:\\d+ bytes|not loaded)\\)\\s+(.*)$");
+    private static final int INDENT_PER_LEVEL = 2;
+
+    private final List<InliningDecision> decisions = new ArrayList<>();
+    private final Map<Integer, String> compiledMethods = new HashMap<>();
+
+    private int compileId = -1;
+    private int baseIndent = -1;
+    /** Callers by depth: the compiled method, then the callees inlined at each level */
+    private final List<String> callers = new ArrayList<>();
+
+    @Override
+    public void accept(String line) {
+        Matcher compilation = COMPILATION.matcher(line);
+        if (compilation.matches()) {
+            if (compilation.group(3).contains("made not entrant") || compilation.group(3).contains("made zombie")) {
+                return;
+            }
+            compileId = Integer.parseInt(compilation.group(1));
+            compiledMethods.put(compileId, compilation.group(2));
+            baseIndent = -1;
+            callers.clear();
+            callers.add(compilation.group(2));
+            return;
+        }
+        if (compileId < 0) {
+            return;
+        }
+        Matcher callSite = CALL_SITE.matcher(line);
+        if (!callSite.matches()) {
+            return;
+        }
+        int indent = callSite.group(1).length();
+        if (baseIndent < 0) {
+            baseIndent = indent;
+        }
+        int depth = Math.max(1, (indent - baseIndent) / INDENT_PER_LEVEL + 1);
+        String callee = callSite.group(3).replace('/', '.');
+        String reason = callSite.group(4).strip();
+        String caller = callers.get(Math.min(depth, callers.size()) - 1);
+        decisions.add(new InliningDecision(compileId, caller, Integer.parseInt(callSite.group(2)), callee, depth,
+                isInlined(reason), reason));
+        while (callers.size() > depth) {
+            callers.remove(callers.size() - 1);
+        }
+        callers.add(callee);
+    }
+
+    public List<InliningDecision> getDecisions() {
+        return decisions;
+    }
+
+    /** Method compiled by {@code compileId}, or {@code null} if its PrintCompilation line was not seen */
+    public String compiledMethod(int compileId) {
+        return compiledMethods.get(compileId);
+    }
+
+    private static boolean isInlined(String reason) {
+        return reason.startsWith("inline") || reason.startsWith("force inline") || reason.startsWith("intrinsic");
+    }
+}
@@ -0,0 +1,182 @@
+package com.dino.javadisassembler.service.jit;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ProcessRunner;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.Workspace;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the user's methods under {@link JitHarnessMain} in a fresh JVM and reports, per method, the
+ * code each tier generated, the inlining decisions and the uncommon traps hit. Tier settings are
+ * JVM-wide, so unlike plain JIT requests these runs cannot use the {@link JitWorkerPool}.
+ */
+public class TieredJitExplorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredJitExplorer.class);
+    private static final String COMPILATION_LOG = "compilation.log";
+
+    private final WorkspaceManager workspaces;
+    private final Duration timeout;
+    private final int defaultIterations;
+    private final int maxIterations;
+    private final ResourcePolicy policy;
+
+    public TieredJitExplorer(Duration timeout, int defaultIterations, int maxIterations) {
+        this(WorkspaceManager.systemTemp(), timeout, defaultIterations, maxIterations);
+    }
+
+    public TieredJitExplorer(WorkspaceManager workspaces, Duration timeout, int defaultIterations, int maxIterations) {
+        this(workspaces, timeout, defaultIterations, maxIterations, ResourcePolicy.defaults());
+    }
+
+    public TieredJitExplorer(WorkspaceManager workspaces, Duration timeout, int defaultIterations, int maxIterations,
+                             ResourcePolicy policy) {
+        this.workspaces = workspaces;
+        this.policy = policy;
+        this.timeout = timeout;
+        this.maxIterations = Math.max(1, maxIterations);
+        this.defaultIterations = Math.min(Math.max(1, defaultIterations), this.maxIterations);
+    }
+
+    public TieredJitReport explore(CompiledClasses classes, String className, TieredJitOptions options)
+            throws CompilationException, IOException, InterruptedException {
+        int iterations = options.iterations() == 0 ? defaultIterations : options.iterations();
+        if (iterations > maxIterations) {
+            throw new CompilationException("At most " + maxIterations + " warm-up iterations are allowed");
+        }
+        try (Workspace workspace = workspaces.acquire()) {
+            Path workingDir = workspace.directory();
+            workspace.writeClasses("", classes);
+            copyHarness(workspace);
+            ProcessBuilder processBuilder = new ProcessBuilder(command(className, options, iterations, workingDir));
+            processBuilder.directory(workingDir.toFile());
+
+            ProcessRunner.Result result = ProcessRunner.run(processBuilder, timeout, policy);
+            if (result.cpuExceeded()) {
+                logger.warn("Tiered JIT exploration went over its CPU time limit for class: {}", className);
+                throw new CompilationException(policy.cpuLimitMessage() + ", try fewer iterations");
+            }
+            if (result.truncated()) {
+                throw new CompilationException("Tiered JIT exploration printed more than "
+                        + policy.maxOutputBytes() + " bytes, try fewer iterations or turn off inlining output");
+            }
+            if (result.timedOut()) {
+                logger.warn("Tiered JIT exploration timed out for class: {}", className);
+                throw new JobTimeoutException("Tiered JIT exploration timed out after " + timeout.toSeconds()
+                        + " seconds, try fewer iterations");
+            }
+            if (result.exitCode() != 0) {
+                throw new CompilationException("Warm-up failed:\n" + result.stderr());
+            }
+            return report(result.stdout(), CompilationLogParser.parseDeoptimizations(workingDir.resolve(COMPILATION_LOG)));
+        }
+    }
+
+    private List<String> command(String className, TieredJitOptions options, int iterations, Path workingDir) {
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.addAll(policy.jvmOptions());
+        command.addAll(List.of(
+                "-XX:+UnlockDiagnosticVMOptions",
+                "-XX:+DebugNonSafepoints",
+                // Compile in the foreground so every tier is reached while the harness loops
+                "-Xbatch",
+                "-XX:TieredStopAtLevel=" + options.stopAtLevel(),
+                "-XX:+PrintAssembly",
+                "-XX:+LogCompilation",
+                "-XX:LogFile=" + workingDir.resolve(COMPILATION_LOG),
+                "-XX:CompileCommand=quiet",
+                "-XX:CompileCommand=compileonly," + className + "::*",
+                "-XX:CompileCommand=compileonly," + className + "$*::*"
+        ));
+        if (options.inlining()) {
+            command.add("-XX:+PrintCompilation");
+            command.add("-XX:+PrintInlining");
+        }
+        command.addAll(List.of(
+                "-cp", workingDir.toString(),
+                JitHarnessMain.class.getName(),
+                className,
+                String.valueOf(iterations)
+        ));
+        return command;
+    }
+
+    static TieredJitReport report(String output, List<Deoptimization> deoptimizations) {
+        Map<String, MethodBuilder> methods = new LinkedHashMap<>();
+        Map<Integer, String> compileIds = new HashMap<>();
+        PrintAssemblyParser assembly = new PrintAssemblyParser(compiled -> {
+            compileIds.put(compiled.compileId(), compiled.method());
+            method(methods, compiled.method()).compilations.add(compiled);
+        });
+        PrintInliningParser inlining = new PrintInliningParser();
+        output.lines().forEach(line -> {
+            if (line.startsWith(JitHarnessMain.WARMED)) {
+                String[] warmed = line.substring(JitHarnessMain.WARMED.length()).split(" ");
+                MethodBuilder method = method(methods, warmed[0]);
+                method.calls = Long.parseLong(warmed[1]);
+                method.exceptions = Long.parseLong(warmed[2]);
+                return;
+            }
+            assembly.accept(line);
+            inlining.accept(line);
+        });
+        assembly.finish();
+
+        for (InliningDecision decision : inlining.getDecisions()) {
+            String compiled = inlining.compiledMethod(decision.compileId());
+            method(methods, compiled != null ? compiled : decision.caller()).inlining.add(decision);
+        }
+        for (Deoptimization deoptimization : deoptimizations) {
+            String compiled = compileIds.getOrDefault(deoptimization.compileId(),
+                    inlining.compiledMethod(deoptimization.compileId()));
+            method(methods, compiled != null ? compiled : deoptimization.method()).deoptimizations.add(deoptimization);
+        }
+
+        List<TieredJitReport.MethodTiers> tiers = new ArrayList<>();
+        for (Map.Entry<String, MethodBuilder> entry : methods.entrySet()) {
+            MethodBuilder method = entry.getValue();
+            tiers.add(new TieredJitReport.MethodTiers(entry.getKey(), method.calls, method.exceptions,
+                    List.copyOf(method.compilations), List.copyOf(method.inlining), List.copyOf(method.deoptimizations)));
+        }
+        return new TieredJitReport(tiers, assembly.isHsdisMissing());
+    }
+
+    private static MethodBuilder method(Map<String, MethodBuilder> methods, String name) {
+        return methods.computeIfAbsent(name, key -> new MethodBuilder());
+    }
+
+    private static final class MethodBuilder {
+        long calls;
+        long exceptions;
+        final List<CompiledMethod> compilations = new ArrayList<>();
+        final List<InliningDecision> inlining = new ArrayList<>();
+        final List<Deoptimization> deoptimizations = new ArrayList<>();
+    }
+
+    /** The harness runs on the job's class path next to the user's classes, without the application */
+    private static void copyHarness(Workspace workspace) throws IOException {
+        String resource = JitHarnessMain.class.getName().replace('.', '/') + ".class";
+        try (InputStream in = JitHarnessMain.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Harness class " + resource + " not found");
+            }
+            workspace.write(resource, in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.dino.javadisassembler.service.jit;
+
+/**
+ * Settings of a tiered JIT exploration run
+ *
+ * @param stopAtLevel highest tier the JVM may compile at ({@code -XX:TieredStopAtLevel}): 1 for C1
+ *                    without profiling up to 4 for C2
+ * @param iterations  how often the warm-up harness calls each method, 0 for the configured default
+ * @param inlining    whether to report inlining decisions ({@code -XX:+PrintInlining})
+ */
+public record TieredJitOptions(int stopAtLevel, int iterations, boolean inlining) {
+
+    public TieredJitOptions {
+        if (stopAtLevel < 1 || stopAtLevel > 4) {
+            throw new IllegalArgumentException("Tiered stop level must be between 1 and 4, was " + stopAtLevel);
+        }
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Iterations must not be negative, was " + iterations);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dino.javadisassembler.service.jit;
+
+import java.util.List;
+
+/**
+ * Result of a tiered JIT exploration run, grouped by method so the code of each tier can be
+ * compared side by side
+ *
+ * @param hsdisMissing whether hsdis could not be loaded, so instructions are raw hex
+ */
+public record TieredJitReport(List<MethodTiers> methods, boolean hsdisMissing) {
+
+    /**
+     * Everything recorded about one method
+     *
+     * @param calls           calls made by the warm-up harness, 0 for methods only reached through others
+     * @param exceptions      calls that ended with an exception
+     * @param compilations    compiled code in compilation order, typically tier 3 (C1) then tier 4 (C2)
+     * @param inlining        inlining decisions made while compiling this method
+     * @param deoptimizations uncommon traps hit by this method's compiled code
+     */
+    public record MethodTiers(String method, long calls, long exceptions, List<CompiledMethod> compilations,
+                              List<InliningDecision> inlining, List<Deoptimization> deoptimizations) {
+    }
+}
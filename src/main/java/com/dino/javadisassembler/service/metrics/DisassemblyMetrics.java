@@ -0,0 +1,166 @@
+package com.dino.javadisassembler.service.metrics;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the disassembly pipeline, published through the actuator.
+ * <p>
+ * Every stage of a job (sanitize, compile, disassemble, JIT run) is timed in
+ * {@code disassembler.stage} and every request as a whole in {@code disassembler.requests}, both
+ * tagged by mode and outcome, and the size of every result goes to {@code disassembler.output.size}.
+ * Queue waits, workspace writes and cleanups are counted by the scheduler and the workspace manager
+ * anyway, so they are exported as function meters that cost nothing until scraped. Processes are
+ * counted where they are started, see {@link com.dino.javadisassembler.service.process.ProcessRunner}.
+ */
+public class DisassemblyMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String COMPILE_ERROR = "compile_error";
+    public static final String TIMEOUT = "timeout";
+    public static final String REJECTED = "rejected";
+    public static final String ERROR = "error";
+
+    public enum Stage {
+        SANITIZE,
+        COMPILE,
+        DISASSEMBLE,
+        JIT_RUN
+    }
+
+    private final MeterRegistry registry;
+
+    public DisassemblyMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records a stage of a job that started at {@code startedNanos} ({@link System#nanoTime()})
+     *
+     * @param failure what the stage threw, or {@code null} if it succeeded
+     */
+    public void recordStage(Stage stage, String mode, long startedNanos, Throwable failure) {
+        Timer.builder("disassembler.stage")
+                .description("Time spent in one stage of a disassembly job")
+                .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                .tag("mode", mode)
+                .tag("outcome", outcome(failure))
+                .register(registry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts a request and times it until its future completes, cache lookup and queue wait
+     * included. Returns the request's own future, so callers still see its failure unwrapped.
+     */
+    public <T> CompletableFuture<T> timeRequest(String mode, Supplier<CompletableFuture<T>> request) {
+        long started = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = request.get();
+        } catch (RuntimeException e) {
+            recordRequest(mode, started, e);
+            throw e;
+        }
+        future.whenComplete((result, failure) -> recordRequest(mode, started, failure));
+        return future;
+    }
+
+    /**
+     * Records a request that ran on the caller's thread, e.g. a streamed one
+     */
+    public void recordRequest(String mode, long startedNanos, Throwable failure) {
+        Timer.builder("disassembler.requests")
+                .description("Time from receiving a disassembly request to its result")
+                .tag("mode", mode)
+                .tag("outcome", outcome(failure))
+                .register(registry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutputSize(String mode, String output) {
+        DistributionSummary.builder("disassembler.output.size")
+                .description("Length of a disassembly result")
+                .baseUnit("characters")
+                .tag("mode", mode)
+                .register(registry)
+                .record(output.length());
+    }
+
+    /** Exports the queue wait, running and queued jobs and rejections of every scheduler lane */
+    public void bindScheduler(JobScheduler scheduler) {
+        for (JobScheduler.Mode mode : JobScheduler.Mode.values()) {
+            String tag = mode.name().toLowerCase(Locale.ROOT);
+            FunctionTimer.builder("disassembler.queue.wait", scheduler,
+                            s -> s.stats(mode).admitted(),
+                            s -> s.stats(mode).averageWaitMillis() * s.stats(mode).admitted(),
+                            TimeUnit.MILLISECONDS)
+                    .description("Time jobs waited for a scheduler slot")
+                    .tag("mode", tag)
+                    .register(registry);
+            Gauge.builder("disassembler.jobs.running", scheduler, s -> s.stats(mode).running())
+                    .tag("mode", tag)
+                    .register(registry);
+            Gauge.builder("disassembler.jobs.queued", scheduler, s -> s.stats(mode).queued())
+                    .tag("mode", tag)
+                    .register(registry);
+            FunctionCounter.builder("disassembler.jobs.rejected", scheduler, s -> s.stats(mode).rejected())
+                    .tag("mode", tag)
+                    .register(registry);
+        }
+    }
+
+    /** Exports the time spent writing job files to workspaces and emptying them afterwards */
+    public void bindWorkspaces(WorkspaceManager workspaces) {
+        FunctionTimer.builder("disassembler.workspace.write", workspaces,
+                        WorkspaceManager::writeCount, WorkspaceManager::writeNanos, TimeUnit.NANOSECONDS)
+                .description("Writes of sources and class files to job workspaces")
+                .register(registry);
+        FunctionTimer.builder("disassembler.workspace.cleanup", workspaces,
+                        WorkspaceManager::cleanupCount, WorkspaceManager::cleanupNanos, TimeUnit.NANOSECONDS)
+                .description("Workspaces emptied after their job")
+                .register(registry);
+        Gauge.builder("disassembler.workspace.in.use", workspaces, WorkspaceManager::inUse)
+                .register(registry);
+    }
+
+    /**
+     * Classifies a job's failure by its type; jobs that ran out of time fail with
+     * {@link InterruptedException} or {@link JobTimeoutException}, possibly wrapped in another
+     * {@link CompilationException}
+     */
+    public static String outcome(Throwable failure) {
+        if (failure == null) {
+            return SUCCESS;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof JobRejectedException) {
+            return REJECTED;
+        }
+        if (cause instanceof InterruptedException) {
+            return TIMEOUT;
+        }
+        for (Throwable wrapped = cause; wrapped instanceof CompilationException; wrapped = wrapped.getCause()) {
+            if (wrapped instanceof JobTimeoutException) {
+                return TIMEOUT;
+            }
+        }
+        return cause instanceof CompilationException ? COMPILE_ERROR : ERROR;
+    }
+}
@@ -0,0 +1,205 @@
+package com.dino.javadisassembler.service.process;
+
+import io.micrometer.core.instrument.Metrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs an external tool to completion while reading its stdout and stderr concurrently. A child
+ * blocks once a pipe buffer (often 64 KB) is full, so waiting for it to exit before reading its
+ * output stalls until the timeout on large javap or javac output.
+ */
+public final class ProcessRunner {
+
+    private static final String SPAWNS = "disassembler.process.spawns";
+    private static final long CPU_CHECK_MILLIS = 100;
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "process-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService DRAINERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "process-output-drainer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param truncated   an output stream went over the byte cap of the {@link ResourcePolicy} and
+     *                    the process was killed; that stream ends with the truncation marker
+     * @param cpuExceeded the process went over the CPU time of the {@link ResourcePolicy} and was killed
+     */
+    public record Result(int exitCode, String stdout, String stderr, boolean timedOut, boolean truncated,
+                         boolean cpuExceeded) {
+
+        public Result(int exitCode, String stdout, String stderr, boolean timedOut) {
+            this(exitCode, stdout, stderr, timedOut, false, false);
+        }
+    }
+
+    private ProcessRunner() {
+    }
+
+    /**
+     * Starts the process and waits up to {@code timeout} for it to exit. A process still running
+     * then is killed, and the result is marked as timed out with whatever it printed so far.
+     */
+    public static Result run(ProcessBuilder processBuilder, Duration timeout) throws IOException, InterruptedException {
+        return run(processBuilder, timeout, ResourcePolicy.UNLIMITED);
+    }
+
+    /**
+     * Same as {@link #run(ProcessBuilder, Duration)}, killing the process as soon as it goes over the
+     * CPU time or output size of {@code policy}. Its JVM options are up to the caller, who knows
+     * how the tool takes them.
+     */
+    public static Result run(ProcessBuilder processBuilder, Duration timeout, ResourcePolicy policy)
+            throws IOException, InterruptedException {
+        Process process = start(processBuilder);
+        process.getOutputStream().close();
+        AtomicBoolean truncated = new AtomicBoolean();
+        AtomicBoolean cpuExceeded = new AtomicBoolean();
+        CompletableFuture<String> stdout = drain(process, process.getInputStream(), policy, truncated);
+        CompletableFuture<String> stderr = drain(process, process.getErrorStream(), policy, truncated);
+        Future<?> cpuWatch = limitCpu(process, policy, cpuExceeded);
+        try {
+            boolean completed = process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (!completed) {
+                destroyTree(process);
+                process.waitFor();
+            }
+            return new Result(completed ? process.exitValue() : -1, output(stdout), output(stderr), !completed,
+                    truncated.get(), cpuExceeded.get());
+        } finally {
+            cpuWatch.cancel(false);
+            destroyTree(process);
+        }
+    }
+
+    /**
+     * Same as {@link #run(ProcessBuilder, Duration, ResourcePolicy)}, but passes the standard
+     * output line by line to {@code lines} instead of keeping it, for tools whose output is too
+     * large to hold. The result's stdout is empty, and the output cap only applies to stderr.
+     */
+    public static Result run(ProcessBuilder processBuilder, Duration timeout, ResourcePolicy policy,
+                             Consumer<String> lines) throws IOException, InterruptedException {
+        Process process = start(processBuilder);
+        process.getOutputStream().close();
+        AtomicBoolean truncated = new AtomicBoolean();
+        AtomicBoolean cpuExceeded = new AtomicBoolean();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        CompletableFuture<String> stderr = drain(process, process.getErrorStream(), policy, truncated);
+        Future<?> cpuWatch = limitCpu(process, policy, cpuExceeded);
+        Future<?> timeoutWatch = WATCHDOG.schedule(() -> {
+            if (process.isAlive()) {
+                timedOut.set(true);
+                destroyTree(process);
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        try (BufferedReader reader = process.inputReader(Charset.defaultCharset())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.accept(line);
+            }
+            process.waitFor();
+            timeoutWatch.cancel(false);
+            return new Result(timedOut.get() ? -1 : process.exitValue(), "", output(stderr), timedOut.get(),
+                    truncated.get(), cpuExceeded.get());
+        } finally {
+            timeoutWatch.cancel(false);
+            cpuWatch.cancel(false);
+            destroyTree(process);
+        }
+    }
+
+    /** Kills the process and the processes it started, such as the JVMs a benchmark harness forks */
+    public static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /**
+     * Starts the process and counts it in {@code disassembler.process.spawns}, tagged with the
+     * tool's file name. The counter lives in the global registry, which Spring Boot backs with the
+     * application's, since tools are started from places that have no registry at hand.
+     */
+    public static Process start(ProcessBuilder processBuilder) throws IOException {
+        Process process = processBuilder.start();
+        String tool = Path.of(processBuilder.command().get(0)).getFileName().toString();
+        Metrics.counter(SPAWNS, "tool", tool).increment();
+        return process;
+    }
+
+    /**
+     * Kills {@code process} once it has used more CPU time than {@code policy} allows, setting
+     * {@code exceeded}. Checked every {@value #CPU_CHECK_MILLIS} ms until the returned future is
+     * cancelled, which the caller must do once the process is gone.
+     */
+    public static Future<?> limitCpu(Process process, ResourcePolicy policy, AtomicBoolean exceeded) {
+        if (!policy.limitsCpu()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return WATCHDOG.scheduleWithFixedDelay(() -> {
+            if (cpuTime(process.toHandle()).compareTo(policy.cpuTimeLimit()) > 0) {
+                exceeded.set(true);
+                process.destroyForcibly();
+            }
+        }, CPU_CHECK_MILLIS, CPU_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /** CPU time used so far by all threads of the process, zero where the platform does not tell */
+    public static Duration cpuTime(ProcessHandle process) {
+        return process.info().totalCpuDuration().orElse(Duration.ZERO);
+    }
+
+    /**
+     * Reads a stream to its end. With an output cap, reading stops at the cap: the process is killed
+     * rather than left to fill memory, and the output ends with the truncation marker.
+     */
+    private static CompletableFuture<String> drain(Process process, InputStream stream, ResourcePolicy policy,
+                                                   AtomicBoolean truncated) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (stream) {
+                if (!policy.limitsOutput()) {
+                    return new String(stream.readAllBytes(), Charset.defaultCharset());
+                }
+                int limit = (int) Math.min(policy.maxOutputBytes(), Integer.MAX_VALUE - 8);
+                byte[] bytes = stream.readNBytes(limit);
+                if (bytes.length == limit && stream.read() != -1) {
+                    truncated.set(true);
+                    process.destroyForcibly();
+                    return new String(bytes, Charset.defaultCharset()) + "\n" + policy.truncationMarker() + "\n";
+                }
+                return new String(bytes, Charset.defaultCharset());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, DRAINERS);
+    }
+
+    private static String output(CompletableFuture<String> drained) throws IOException {
+        try {
+            return drained.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.dino.javadisassembler.service.process;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits applied to every child process that compiles or runs user code, so one job cannot take
+ * the memory, cores or output bandwidth of the jobs running next to it. Heap, visible cores and
+ * code cache are JVM options of the child; CPU time and output size are enforced by the parent,
+ * which kills a child that goes over them. A limit of zero is no limit.
+ *
+ * @param maxHeapBytes         {@code -Xmx} of the child JVM
+ * @param activeProcessorCount cores the child JVM sizes its GC and compiler threads for
+ * @param codeCacheBytes       {@code -XX:ReservedCodeCacheSize} of the child JVM
+ * @param cpuTimeLimit         CPU time, summed over the child's threads, after which it is killed
+ * @param maxOutputBytes       bytes kept of each output stream; a child printing more is killed and
+ *                             its output ends with {@link #truncationMarker()}
+ */
+public record ResourcePolicy(long maxHeapBytes, int activeProcessorCount, long codeCacheBytes, Duration cpuTimeLimit,
+                             long maxOutputBytes) {
+
+    public static final ResourcePolicy UNLIMITED = new ResourcePolicy(0, 0, 0, Duration.ZERO, 0);
+
+    /** The limits of a default configuration, for components created outside the application context */
+    public static ResourcePolicy defaults() {
+        return new ResourcePolicy(256L * 1024 * 1024, 2, 64L * 1024 * 1024, Duration.ofSeconds(30), 16L * 1024 * 1024);
+    }
+
+    /** Options that apply the memory and processor limits to a child JVM */
+    public List<String> jvmOptions() {
+        List<String> options = new ArrayList<>();
+        if (maxHeapBytes > 0) {
+            options.add("-Xmx" + maxHeapBytes / 1024 + "k");
+        }
+        if (activeProcessorCount > 0) {
+            options.add("-XX:ActiveProcessorCount=" + activeProcessorCount);
+        }
+        if (codeCacheBytes > 0) {
+            options.add("-XX:ReservedCodeCacheSize=" + codeCacheBytes / 1024 + "k");
+        }
+        return options;
+    }
+
+    /** {@link #jvmOptions()} in the form javac and javap pass on to their JVM */
+    public List<String> toolOptions() {
+        return jvmOptions().stream().map(option -> "-J" + option).toList();
+    }
+
+    public boolean limitsCpu() {
+        return cpuTimeLimit.compareTo(Duration.ZERO) > 0;
+    }
+
+    public boolean limitsOutput() {
+        return maxOutputBytes > 0;
+    }
+
+    /** Line that ends output cut off at {@link #maxOutputBytes()} */
+    public String truncationMarker() {
+        return "[output truncated after " + maxOutputBytes + " bytes, the process was stopped]";
+    }
+
+    /** Message of jobs killed for going over {@link #cpuTimeLimit()} */
+    public String cpuLimitMessage() {
+        return "CPU time limit of " + cpuTimeLimit.toSeconds() + " seconds exceeded";
+    }
+}
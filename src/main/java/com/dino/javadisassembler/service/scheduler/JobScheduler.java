@@ -0,0 +1,350 @@
+package com.dino.javadisassembler.service.scheduler;
+
+import com.dino.javadisassembler.exception.JobRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for disassembly jobs. Each mode has its own lane with a limit on jobs running
+ * at once and a bounded wait queue, so a burst of JIT requests cannot fork an unbounded number of
+ * JVMs, a native image build cannot take the cores of the other modes, and neither can starve
+ * bytecode requests.
+ * <p>
+ * Waiting jobs are grouped per client and slots are handed out round-robin across clients, so one
+ * client submitting many jobs only delays its own. A client may only have a few jobs waiting at a
+ * time. Jobs that cannot be queued, or wait longer than {@code maxWait}, are rejected with a retry
+ * hint derived from recent run times.
+ * <p>
+ * A waiting job is only a pending future, not a blocked thread. {@link #submit} runs granted jobs
+ * on a pool with one thread per slot, so however many requests are in flight, the number of
+ * threads stays at the sum of the lane limits.
+ */
+public class JobScheduler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobScheduler.class);
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    public enum Mode {
+        BYTECODE,
+        JIT,
+        AOT
+    }
+
+    public record Limits(int concurrency, int queueCapacity) {
+    }
+
+    public record Stats(Mode mode, int running, int queued, int waitingClients, long admitted, long rejected,
+                        long completed, double averageWaitMillis, long maxWaitMillis, double averageRunMillis) {
+    }
+
+    /** A granted execution slot; closing it lets the next waiting job run */
+    public interface Slot extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Map<Mode, Lane> lanes = new EnumMap<>(Mode.class);
+    private final int maxQueuedPerClient;
+    private final Duration maxWait;
+    private final ExecutorService jobExecutor;
+
+    public JobScheduler(Limits bytecode, Limits jit, Limits aot, int maxQueuedPerClient, Duration maxWait) {
+        lanes.put(Mode.BYTECODE, new Lane(Mode.BYTECODE, bytecode));
+        lanes.put(Mode.JIT, new Lane(Mode.JIT, jit));
+        lanes.put(Mode.AOT, new Lane(Mode.AOT, aot));
+        this.maxQueuedPerClient = Math.max(1, maxQueuedPerClient);
+        this.maxWait = maxWait;
+        int threads = lanes.values().stream().mapToInt(lane -> lane.concurrency).sum();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.jobExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "disassembly-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues {@code job} in the lane of {@code mode} and runs it once a slot is granted. The
+     * future fails with {@link JobRejectedException} if the lane's queue or the client's share of
+     * it is full, or no slot became free within the maximum wait.
+     */
+    public <T> CompletableFuture<T> submit(Mode mode, String clientId, Callable<T> job) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        acquireAsync(mode, clientId).whenComplete((slot, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            try {
+                jobExecutor.execute(() -> {
+                    // the slot is free again before the caller sees the result
+                    T value;
+                    try (slot) {
+                        value = job.call();
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    result.complete(value);
+                });
+            } catch (RejectedExecutionException e) {
+                slot.close();
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Reserves a slot in the lane of {@code mode}; the future completes once it is granted, or
+     * fails with {@link JobRejectedException}. The caller must close the slot.
+     */
+    public CompletableFuture<Slot> acquireAsync(Mode mode, String clientId) {
+        return lanes.get(mode).acquire(clientId);
+    }
+
+    /**
+     * Blocking form of {@link #acquireAsync}, for jobs that run on the caller's thread
+     */
+    public Slot acquire(Mode mode, String clientId) throws JobRejectedException, InterruptedException {
+        CompletableFuture<Slot> slot = acquireAsync(mode, clientId);
+        try {
+            return slot.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JobRejectedException rejected) {
+                throw rejected;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            if (!slot.cancel(false) && !slot.isCompletedExceptionally()) {
+                // granted in the meantime
+                slot.join().close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Rejects up front what {@link #acquire} would reject straight away, for callers that cannot
+     * report a rejection once they have started answering. Reserves nothing.
+     */
+    public void checkAdmission(Mode mode, String clientId) throws JobRejectedException {
+        lanes.get(mode).checkAdmission(clientId);
+    }
+
+    public List<Stats> stats() {
+        List<Stats> stats = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            stats.add(lane.stats());
+        }
+        return stats;
+    }
+
+    public Stats stats(Mode mode) {
+        return lanes.get(mode).stats();
+    }
+
+    @Override
+    public void close() {
+        jobExecutor.shutdownNow();
+    }
+
+    private static final class Ticket {
+        final String clientId;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Slot> future = new CompletableFuture<>();
+
+        Ticket(String clientId) {
+            this.clientId = clientId;
+        }
+    }
+
+    private final class Lane {
+
+        private final Mode mode;
+        private final int concurrency;
+        private final int queueCapacity;
+        /** Waiting tickets per client; the first client is served next, then moves to the end */
+        private final LinkedHashMap<String, ArrayDeque<Ticket>> waiting = new LinkedHashMap<>();
+        private int running;
+        private int queued;
+        private long admitted;
+        private long rejected;
+        private long completed;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+        private long totalRunNanos;
+
+        Lane(Mode mode, Limits limits) {
+            this.mode = mode;
+            this.concurrency = Math.max(1, limits.concurrency());
+            this.queueCapacity = Math.max(0, limits.queueCapacity());
+        }
+
+        CompletableFuture<Slot> acquire(String clientId) {
+            Ticket ticket = new Ticket(clientId);
+            synchronized (this) {
+                if (running < concurrency && queued == 0) {
+                    running++;
+                    return CompletableFuture.completedFuture(admit(0));
+                }
+                try {
+                    checkAdmission(clientId);
+                } catch (JobRejectedException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                waiting.computeIfAbsent(clientId, client -> new ArrayDeque<>()).add(ticket);
+                queued++;
+            }
+            CompletableFuture.delayedExecutor(maxWait.toNanos(), TimeUnit.NANOSECONDS).execute(() -> expire(ticket));
+            ticket.future.whenComplete((slot, failure) -> {
+                // a ticket cancelled while being granted is closed by grant()
+                if (failure instanceof CancellationException) {
+                    withdraw(ticket);
+                }
+            });
+            return ticket.future;
+        }
+
+        synchronized void checkAdmission(String clientId) throws JobRejectedException {
+            if (running < concurrency && queued == 0) {
+                return;
+            }
+            if (queued >= queueCapacity) {
+                throw reject("Too many " + modeName() + " requests, please try again later");
+            }
+            ArrayDeque<Ticket> own = waiting.get(clientId);
+            if (own != null && own.size() >= maxQueuedPerClient) {
+                throw reject("Too many queued " + modeName() + " requests from this client, please try again later");
+            }
+        }
+
+        private void expire(Ticket ticket) {
+            JobRejectedException timeout;
+            synchronized (this) {
+                if (!withdraw(ticket)) {
+                    return;
+                }
+                timeout = reject("Timed out waiting for a " + modeName() + " slot");
+            }
+            ticket.future.completeExceptionally(timeout);
+        }
+
+        private Slot admit(long waitNanos) {
+            admitted++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            long started = System.nanoTime();
+            return new Slot() {
+                private boolean closed;
+
+                @Override
+                public void close() {
+                    if (!closed) {
+                        closed = true;
+                        release(started);
+                    }
+                }
+            };
+        }
+
+        private void release(long started) {
+            List<Ticket> granted;
+            synchronized (this) {
+                running--;
+                completed++;
+                totalRunNanos += System.nanoTime() - started;
+                granted = dispatch();
+            }
+            grant(granted);
+        }
+
+        /** Picks waiting tickets for the free slots, one client at a time */
+        private List<Ticket> dispatch() {
+            List<Ticket> granted = new ArrayList<>();
+            Iterator<Map.Entry<String, ArrayDeque<Ticket>>> clients = waiting.entrySet().iterator();
+            while (running < concurrency && clients.hasNext()) {
+                Map.Entry<String, ArrayDeque<Ticket>> next = clients.next();
+                Ticket ticket = next.getValue().poll();
+                clients.remove();
+                if (!next.getValue().isEmpty()) {
+                    // re-queued at the end; a fresh iterator resumes after the clients already served
+                    waiting.put(next.getKey(), next.getValue());
+                    clients = waiting.entrySet().iterator();
+                }
+                queued--;
+                running++;
+                granted.add(ticket);
+            }
+            return granted;
+        }
+
+        /** Completes the granted tickets outside the lock, since completion runs the waiting jobs' callbacks */
+        private void grant(List<Ticket> granted) {
+            for (Ticket ticket : granted) {
+                Slot slot;
+                synchronized (this) {
+                    slot = admit(System.nanoTime() - ticket.enqueuedAt);
+                }
+                if (!ticket.future.complete(slot)) {
+                    // cancelled while being granted
+                    slot.close();
+                }
+            }
+        }
+
+        private synchronized boolean withdraw(Ticket ticket) {
+            ArrayDeque<Ticket> own = waiting.get(ticket.clientId);
+            if (own == null || !own.remove(ticket)) {
+                return false;
+            }
+            queued--;
+            if (own.isEmpty()) {
+                waiting.remove(ticket.clientId);
+            }
+            return true;
+        }
+
+        private JobRejectedException reject(String message) {
+            rejected++;
+            logger.warn("Rejected {} job: {} running, {} queued", modeName(), running, queued);
+            return new JobRejectedException(message, retryAfterSeconds());
+        }
+
+        /** Rough time until the queue ahead has drained, from the average run time so far */
+        private long retryAfterSeconds() {
+            double averageRunSeconds = completed == 0 ? 1 : totalRunNanos / (double) completed / 1e9;
+            long estimate = (long) Math.ceil(averageRunSeconds * (queued + 1) / concurrency);
+            return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, estimate));
+        }
+
+        private String modeName() {
+            return mode.name().toLowerCase();
+        }
+
+        synchronized Stats stats() {
+            return new Stats(mode, running, queued, waiting.size(), admitted, rejected, completed,
+                    admitted == 0 ? 0 : totalWaitNanos / (double) admitted / 1e6,
+                    maxWaitNanos / 1_000_000,
+                    completed == 0 ? 0 : totalRunNanos / (double) completed / 1e6);
+        }
+    }
+}
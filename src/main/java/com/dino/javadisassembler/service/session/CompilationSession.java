@@ -0,0 +1,164 @@
+package com.dino.javadisassembler.service.session;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.bytecode.ClassFileDisassembler;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.service.compiler.SourceCompiler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * The compilation units of one live-editing client and their classes. An edit recompiles only the
+ * unit that changed, against the classes of the others, and reports the methods whose bytecode it
+ * changed. Units that depend on the edited one are not checked again, as in an IDE's incremental
+ * build without dependency tracking; sending them again rechecks them.
+ * <p>
+ * Not thread safe; {@link CompilationSessions} runs one edit of a session at a time.
+ */
+public class CompilationSession {
+
+    /** Constant pool references, renumbered whenever any constant is added or removed */
+    private static final Pattern CONSTANT_INDEX = Pattern.compile("#\\d+");
+    /** Line number table entries, shifted by edits above the method */
+    private static final Pattern LINE_NUMBER = Pattern.compile("(?m)^ *line \\d+: \\d+\\n");
+
+    /**
+     * @param method name and descriptor, e.g. {@code run(I)I}
+     * @param before the method's listing before the edit, {@code null} if it was added
+     * @param after  the method's listing after the edit, {@code null} if it was removed
+     */
+    public record MethodChange(String className, String method, Kind kind, String before, String after) {
+
+        public enum Kind {
+            ADDED,
+            REMOVED,
+            CHANGED
+        }
+    }
+
+    /**
+     * @param recompiled    {@code false} if the source was the same as in the previous edit
+     * @param compileMillis time spent in javac
+     */
+    public record Result(boolean recompiled, long compileMillis, List<MethodChange> changes) {
+    }
+
+    /** A compilation unit with the method listings of its classes, by class name */
+    private record Unit(String sourceCode, CompiledClasses classes, Map<String, Map<String, String>> methods) {
+
+        /** Rough heap footprint: two bytes per character of source and listings, plus the class files */
+        long weight() {
+            long weight = 2L * sourceCode.length();
+            for (String name : classes.classNames()) {
+                weight += classes.bytes(name).length;
+            }
+            for (Map<String, String> listings : methods.values()) {
+                for (String listing : listings.values()) {
+                    weight += 2L * listing.length();
+                }
+            }
+            return weight;
+        }
+    }
+
+    private final String id;
+    private final String clientId;
+    private final int maxUnits;
+    private final Map<String, Unit> units = new LinkedHashMap<>();
+    private volatile long weight;
+
+    CompilationSession(String id, String clientId, int maxUnits) {
+        this.id = id;
+        this.clientId = clientId;
+        this.maxUnits = maxUnits;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String clientId() {
+        return clientId;
+    }
+
+    /** Bytes the session's units hold, see {@link Unit#weight()} */
+    public long weight() {
+        return weight;
+    }
+
+    /**
+     * Replaces the unit declaring {@code className} with {@code sourceCode} and recompiles it. A
+     * unit that fails to compile keeps its previous version.
+     */
+    Result update(InMemorySourceCompiler compiler, ClassFileDisassembler disassembler, String sourceCode,
+                  String className) throws CompilationException {
+        String path = SourceCompiler.sourcePath(className);
+        Unit previous = units.get(path);
+        if (previous != null && previous.sourceCode().equals(sourceCode)) {
+            return new Result(false, 0, List.of());
+        }
+        if (previous == null && units.size() >= maxUnits) {
+            throw new CompilationException("A session holds at most " + maxUnits + " classes");
+        }
+        Map<String, byte[]> classpath = new LinkedHashMap<>();
+        units.forEach((unitPath, unit) -> {
+            if (!unitPath.equals(path)) {
+                unit.classes().classNames().forEach(name -> classpath.put(name, unit.classes().bytes(name)));
+            }
+        });
+
+        long started = System.nanoTime();
+        CompiledClasses classes = compiler.compile(Map.of(path, sourceCode), new CompiledClasses(classpath));
+        long compileMillis = (System.nanoTime() - started) / 1_000_000;
+
+        Map<String, Map<String, String>> methods = new LinkedHashMap<>();
+        for (String name : classes.classNames()) {
+            try {
+                methods.put(name, disassembler.disassembleMethods(classes.bytes(name)));
+            } catch (IllegalArgumentException e) {
+                throw new CompilationException("Disassembly failed for class " + name, e);
+            }
+        }
+        List<MethodChange> changes = changes(previous == null ? Map.of() : previous.methods(), methods);
+        Unit unit = new Unit(sourceCode, classes, methods);
+        units.put(path, unit);
+        weight += unit.weight() - (previous == null ? 0 : previous.weight());
+        return new Result(true, compileMillis, changes);
+    }
+
+    private static List<MethodChange> changes(Map<String, Map<String, String>> before,
+                                              Map<String, Map<String, String>> after) {
+        List<MethodChange> changes = new ArrayList<>();
+        after.forEach((className, methods) -> {
+            Map<String, String> old = before.getOrDefault(className, Map.of());
+            methods.forEach((method, listing) -> {
+                String oldListing = old.get(method);
+                if (oldListing == null) {
+                    changes.add(new MethodChange(className, method, MethodChange.Kind.ADDED, null, listing));
+                } else if (!Objects.equals(comparable(oldListing), comparable(listing))) {
+                    changes.add(new MethodChange(className, method, MethodChange.Kind.CHANGED, oldListing, listing));
+                }
+            });
+        });
+        before.forEach((className, methods) -> {
+            Map<String, String> current = after.getOrDefault(className, Map.of());
+            methods.forEach((method, listing) -> {
+                if (!current.containsKey(method)) {
+                    changes.add(new MethodChange(className, method, MethodChange.Kind.REMOVED, listing, null));
+                }
+            });
+        });
+        return changes;
+    }
+
+    /** The listing without what an edit elsewhere in the unit changes, so untouched methods compare equal */
+    private static String comparable(String listing) {
+        return LINE_NUMBER.matcher(CONSTANT_INDEX.matcher(listing).replaceAll("#")).replaceAll("");
+    }
+}
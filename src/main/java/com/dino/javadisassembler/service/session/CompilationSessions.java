@@ -0,0 +1,116 @@
+package com.dino.javadisassembler.service.session;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.service.bytecode.ClassFileDisassembler;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live-editing sessions. Each session keeps the sources and classes of its units, so an edit costs
+ * one javac run over the changed unit on the warm in-process compiler, whose pooled file managers
+ * keep the JDK's module and package index loaded, instead of a full compilation.
+ * <p>
+ * Sessions left idle for {@code idleTimeout} are dropped, as are the least recently used ones
+ * once the sessions hold more than {@code maxBytes} or number more than {@code maxSessions}. A
+ * client may keep {@code maxSessionsPerClient} sessions open at a time.
+ */
+public class CompilationSessions {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilationSessions.class);
+
+    public record Stats(long sessions, long totalBytes, long created, long edits, long unchanged) {
+    }
+
+    private final InMemorySourceCompiler compiler;
+    private final ClassFileDisassembler disassembler = new ClassFileDisassembler();
+    private final int maxUnits;
+    private final int maxSessionsPerClient;
+    private final Duration idleTimeout;
+    private final Cache<String, CompilationSession> sessions;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder edits = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+
+    /**
+     * @param compiler the in-process compiler, or {@code null} if the server has none, which turns
+     *                 sessions off
+     * @param maxBytes bytes all sessions may hold together, see {@link CompilationSession#weight()}
+     * @param maxUnits classes a session may hold
+     */
+    public CompilationSessions(InMemorySourceCompiler compiler, int maxSessions, long maxBytes, int maxSessionsPerClient,
+                               Duration idleTimeout, int maxUnits) {
+        this.compiler = compiler;
+        this.maxUnits = Math.max(1, maxUnits);
+        this.maxSessionsPerClient = Math.max(1, maxSessionsPerClient);
+        this.idleTimeout = idleTimeout;
+        // Every session weighs at least maxBytes / maxSessions, which caps the session count as well
+        int minimumWeight = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / Math.max(1, maxSessions)));
+        this.sessions = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, maxBytes))
+                .weigher((String id, CompilationSession session) ->
+                        (int) Math.max(minimumWeight, Math.min(Integer.MAX_VALUE, session.weight())))
+                .expireAfterAccess(idleTimeout)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return compiler != null;
+    }
+
+    /**
+     * Opens a session for {@code clientId}, or rejects it with {@link JobRejectedException} if the
+     * client has {@code maxSessionsPerClient} open already
+     */
+    public synchronized String create(String clientId) throws CompilationException {
+        if (!isEnabled()) {
+            throw new CompilationException("Live-editing sessions need the in-process compiler");
+        }
+        long open = sessions.asMap().values().stream().filter(session -> session.clientId().equals(clientId)).count();
+        if (open >= maxSessionsPerClient) {
+            throw new JobRejectedException("Too many open sessions from this client, close one or try again later",
+                    Math.max(1, idleTimeout.toSeconds()));
+        }
+        CompilationSession session = new CompilationSession(UUID.randomUUID().toString(), clientId, maxUnits);
+        sessions.put(session.id(), session);
+        created.increment();
+        logger.debug("Created compilation session {}", session.id());
+        return session.id();
+    }
+
+    /**
+     * Applies an edit of the unit declaring {@code className} to the session, see
+     * {@link CompilationSession#update}. Edits of one session run one at a time.
+     */
+    public CompilationSession.Result update(String sessionId, String sourceCode, String className)
+            throws CompilationException {
+        CompilationSession session = sessionId == null ? null : sessions.getIfPresent(sessionId);
+        if (session == null) {
+            throw new CompilationException("Unknown or expired session, please start a new one");
+        }
+        synchronized (session) {
+            CompilationSession.Result result = session.update(compiler, disassembler, sourceCode, className);
+            // Weighs the session again, unless it was dropped meanwhile
+            sessions.asMap().replace(sessionId, session, session);
+            (result.recompiled() ? edits : unchanged).increment();
+            return result;
+        }
+    }
+
+    public void close(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    public Stats stats() {
+        long totalBytes = sessions.asMap().values().stream().mapToLong(CompilationSession::weight).sum();
+        return new Stats(sessions.estimatedSize(), totalBytes, created.sum(), edits.sum(), unchanged.sum());
+    }
+}
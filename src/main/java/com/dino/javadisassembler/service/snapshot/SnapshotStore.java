@@ -0,0 +1,268 @@
+package com.dino.javadisassembler.service.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshots of a source together with its bytecode, JIT and AOT views, addressed by a short hash
+ * of source and class name and kept on disk across restarts. A snapshot is stored as the JSON
+ * document its permalink answers with, plus a gzip-compressed copy, so serving one is a plain file
+ * transfer. Snapshots never change once stored; the least recently served ones are deleted when
+ * the directory grows past its byte budget.
+ */
+public class SnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotStore.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String JSON = ".json";
+    private static final String GZIP = ".json.gz";
+    /** 72 bits of SHA-256, 12 characters in URL-safe base64 */
+    private static final int ID_BYTES = 9;
+    /** Names of the store's own files: a snapshot document, its compressed copy, or a write in progress */
+    private static final Pattern OWN_FILE = Pattern.compile(
+            "([A-Za-z0-9_-]{12})\\.json(\\.gz)?(\\.[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.tmp)?");
+
+    /** One view of a snapshot: its output, or the error it failed with */
+    public record View(boolean success, String result, String error) {
+
+        public static View success(String result) {
+            return new View(true, result, null);
+        }
+
+        public static View failure(String error) {
+            return new View(false, null, error);
+        }
+    }
+
+    public record Snapshot(String id, String className, String sourceCode, View bytecode, View jit, View aot) {
+    }
+
+    public record Stats(long entries, long totalBytes) {
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    /** id -> size of both files, in access order */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    public SnapshotStore(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create snapshot directory " + directory, e);
+        }
+        loadIndex();
+    }
+
+    private SnapshotStore() {
+        this.directory = null;
+        this.maxBytes = 0;
+    }
+
+    /** A store that holds nothing, for deployments that turn snapshots off */
+    public static SnapshotStore disabled() {
+        return new SnapshotStore();
+    }
+
+    /** Computes the id of the snapshot of a source */
+    public static String id(String sourceCode, String className) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{className, sourceCode}) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), ID_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public synchronized boolean contains(String id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * Stores {@code snapshot}, unless a snapshot with its id is stored already. Both files are
+     * written then renamed, so a concurrent reader or a crash never sees a partial snapshot.
+     */
+    public void put(Snapshot snapshot) throws IOException {
+        if (!isEnabled()) {
+            throw new IOException("Snapshots are disabled on this server");
+        }
+        if (contains(snapshot.id())) {
+            return;
+        }
+        byte[] json = MAPPER.writeValueAsBytes(snapshot);
+        byte[] gzip = gzip(json);
+        long size = json.length + gzip.length;
+        if (size > maxBytes) {
+            throw new IOException("Snapshot of " + size + " bytes does not fit in the snapshot store");
+        }
+        // The compressed copy goes first: a snapshot is complete once its JSON file exists
+        write(path(snapshot.id(), GZIP), gzip);
+        write(path(snapshot.id(), JSON), json);
+        synchronized (this) {
+            Long previous = index.put(snapshot.id(), size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evictOverflow();
+        }
+        logger.info("Stored snapshot {} of class {} ({} bytes)", snapshot.id(), snapshot.className(), size);
+    }
+
+    /**
+     * Returns the file holding the JSON document of snapshot {@code id}, gzip-compressed if
+     * {@code gzip} is set, or {@code null} if the store does not hold it
+     */
+    public Path file(String id, boolean gzip) {
+        synchronized (this) {
+            // also refreshes the entry's position in the access ordered index
+            if (index.get(id) == null) {
+                return null;
+            }
+        }
+        Path file = path(id, gzip ? GZIP : JSON);
+        if (!Files.isRegularFile(file)) {
+            logger.warn("Snapshot {} is missing from {}", id, directory);
+            forget(id);
+            return null;
+        }
+        return file;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(index.size(), totalBytes);
+    }
+
+    private synchronized void forget(String id) {
+        Long size = index.remove(id);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(path(entry.getKey(), JSON));
+                Files.deleteIfExists(path(entry.getKey(), GZIP));
+            } catch (IOException e) {
+                logger.warn("Could not delete snapshot {}: {}", entry.getKey(), e.getMessage());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private Path path(String id, String suffix) {
+        return directory.resolve(id.substring(0, 2)).resolve(id + suffix);
+    }
+
+    private static void write(Path target, byte[] bytes) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Rebuilds the index from a previous run, oldest snapshots first so they are evicted first.
+     * Only files named like the store's own, in the subdirectory of their id, are read or deleted,
+     * so other files in a shared directory are left alone.
+     */
+    private void loadIndex() {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory, 2)) {
+            files = walk.filter(Files::isRegularFile).filter(this::isOwnFile).toList();
+        } catch (IOException e) {
+            logger.warn("Could not scan snapshot directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        record Entry(String id, long modified, long size) {
+        }
+        files.stream()
+                .map(file -> {
+                    String name = file.getFileName().toString();
+                    try {
+                        if (name.endsWith(".tmp")) {
+                            // leftover of an interrupted write
+                            Files.deleteIfExists(file);
+                        } else if (name.endsWith(JSON)) {
+                            String id = name.substring(0, name.length() - JSON.length());
+                            Path gzip = file.resolveSibling(id + GZIP);
+                            if (Files.isRegularFile(gzip)) {
+                                return new Entry(id, Files.getLastModifiedTime(file).toMillis(),
+                                        Files.size(file) + Files.size(gzip));
+                            }
+                            Files.deleteIfExists(file);
+                        } else if (!Files.exists(file.resolveSibling(
+                                name.substring(0, name.length() - GZIP.length()) + JSON))) {
+                            // compressed copy whose document was never written
+                            Files.deleteIfExists(file);
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Skipping snapshot file {}: {}", file, e.getMessage());
+                    }
+                    return null;
+                })
+                .filter(entry -> entry != null)
+                .sorted(Comparator.comparingLong(Entry::modified))
+                .forEach(entry -> {
+                    index.put(entry.id(), entry.size());
+                    totalBytes += entry.size();
+                });
+        evictOverflow();
+        logger.info("Loaded {} snapshots ({} bytes) from {}", index.size(), totalBytes, directory);
+    }
+
+    private boolean isOwnFile(Path file) {
+        Matcher matcher = OWN_FILE.matcher(file.getFileName().toString());
+        Path parent = file.getParent();
+        return matcher.matches() && directory.equals(parent.getParent())
+                && parent.getFileName().toString().equals(matcher.group(1).substring(0, 2));
+    }
+}
@@ -0,0 +1,16 @@
+package com.dino.javadisassembler.service.toolchain;
+
+import com.dino.javadisassembler.service.bytecode.BytecodeDisassembler;
+import com.dino.javadisassembler.service.compiler.SourceCompiler;
+import com.dino.javadisassembler.service.jit.JitRunner;
+
+/**
+ * A JDK that requests can be run against: the compiler that produces the classes, the
+ * disassembler that lists their bytecode and the JVM that JIT-compiles them
+ *
+ * @param id      name used in requests, e.g. {@code jdk21} or {@code graal}
+ * @param version Java version of the JDK, e.g. {@code 21.0.2}
+ */
+public record Toolchain(String id, String version, SourceCompiler compiler, BytecodeDisassembler disassembler,
+                        JitRunner jitRunner) {
+}
@@ -0,0 +1,78 @@
+package com.dino.javadisassembler.service.toolchain;
+
+import com.dino.javadisassembler.exception.CompilationException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The toolchains requests may select by id. The default toolchain is the server's own JDK with
+ * the configured compiler, disassembler and JIT runner; the others are JDKs installed next to it.
+ */
+public class ToolchainRegistry {
+
+    public static final String DEFAULT_ID = "default";
+
+    public record Info(String id, String version, boolean defaultToolchain) {
+    }
+
+    private final Toolchain defaultToolchain;
+    private final Map<String, Toolchain> toolchains = new LinkedHashMap<>();
+
+    public ToolchainRegistry(Toolchain defaultToolchain, Collection<Toolchain> others) {
+        this.defaultToolchain = defaultToolchain;
+        toolchains.put(defaultToolchain.id(), defaultToolchain);
+        for (Toolchain toolchain : others) {
+            if (toolchains.putIfAbsent(toolchain.id(), toolchain) != null) {
+                throw new IllegalArgumentException("Duplicate toolchain id: " + toolchain.id());
+            }
+        }
+    }
+
+    public Toolchain getDefault() {
+        return defaultToolchain;
+    }
+
+    /**
+     * @throws CompilationException if no toolchain has this id
+     */
+    public Toolchain get(String id) throws CompilationException {
+        Toolchain toolchain = toolchains.get(id);
+        if (toolchain == null) {
+            throw new CompilationException("Unknown toolchain: " + id + ", available: " + String.join(", ", toolchains.keySet()));
+        }
+        return toolchain;
+    }
+
+    public List<Info> list() {
+        List<Info> infos = new ArrayList<>();
+        for (Toolchain toolchain : toolchains.values()) {
+            infos.add(new Info(toolchain.id(), toolchain.version(), toolchain == defaultToolchain));
+        }
+        return infos;
+    }
+
+    /**
+     * Reads {@code JAVA_VERSION} from the {@code release} file every JDK ships in its home directory
+     *
+     * @return the version, or {@code unknown} if the file is missing or has no version
+     */
+    public static String javaVersion(Path javaHome) {
+        try {
+            for (String line : Files.readAllLines(javaHome.resolve("release"))) {
+                if (line.startsWith("JAVA_VERSION=")) {
+                    return line.substring("JAVA_VERSION=".length()).replace("\"", "").trim();
+                }
+            }
+        } catch (IOException e) {
+            // reported as unknown
+        }
+        return "unknown";
+    }
+}
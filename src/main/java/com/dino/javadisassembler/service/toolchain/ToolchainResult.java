@@ -0,0 +1,15 @@
+package com.dino.javadisassembler.service.toolchain;
+
+/**
+ * Outcome of one toolchain's job in a request fanned out to several toolchains
+ */
+public record ToolchainResult(String toolchain, boolean success, String result, String errorMessage) {
+
+    public static ToolchainResult success(String toolchain, String result) {
+        return new ToolchainResult(toolchain, true, result, null);
+    }
+
+    public static ToolchainResult failure(String toolchain, String errorMessage) {
+        return new ToolchainResult(toolchain, false, null, errorMessage);
+    }
+}
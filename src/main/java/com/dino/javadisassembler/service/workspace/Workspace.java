@@ -0,0 +1,99 @@
+package com.dino.javadisassembler.service.workspace;
+
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A scratch directory lent to one job by {@link WorkspaceManager}. Files written through this class
+ * count against the workspace quota; closing the workspace hands the directory back to be emptied
+ * in the background.
+ */
+public final class Workspace implements AutoCloseable {
+
+    private final WorkspaceManager manager;
+    private final Path directory;
+    private final long quotaBytes;
+    private long written;
+    private boolean closed;
+
+    Workspace(WorkspaceManager manager, Path directory, long quotaBytes) {
+        this.manager = manager;
+        this.directory = directory;
+        this.quotaBytes = quotaBytes;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Resolves {@code relative} inside the workspace. Throws if it would point outside.
+     */
+    public Path resolve(String relative) throws IOException {
+        Path path = directory.resolve(relative).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IOException("Path outside of the workspace: " + relative);
+        }
+        return path;
+    }
+
+    /**
+     * Writes {@code content} to {@code relative}, creating parent directories. Throws if the
+     * workspace would exceed its quota.
+     */
+    public synchronized Path write(String relative, byte[] content) throws IOException {
+        if (written + content.length > quotaBytes) {
+            throw new IOException("Workspace quota of " + quotaBytes + " bytes exceeded");
+        }
+        long started = System.nanoTime();
+        Path path = resolve(relative);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        written += content.length;
+        manager.recordWrite(System.nanoTime() - started);
+        return path;
+    }
+
+    public Path writeString(String relative, String content) throws IOException {
+        return write(relative, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes every class below {@code relative} using the usual package directory layout, and
+     * returns that directory
+     */
+    public Path writeClasses(String relative, CompiledClasses classes) throws IOException {
+        Path classesDirectory = Files.createDirectories(resolve(relative));
+        for (String className : classes.classNames()) {
+            write(directory.relativize(classesDirectory).resolve(className.replace('.', '/') + ".class").toString(),
+                    classes.bytes(className));
+        }
+        return classesDirectory;
+    }
+
+    /** Creates {@code relative} and its parents inside the workspace */
+    public Path createDirectories(String relative) throws IOException {
+        return Files.createDirectories(resolve(relative));
+    }
+
+    long quotaBytes() {
+        return quotaBytes;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        manager.release(this);
+    }
+}
@@ -0,0 +1,279 @@
+package com.dino.javadisassembler.service.workspace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Lends scratch directories to the jobs that need files on disk: forked compilers and
+ * disassemblers, JIT runs and native image builds.
+ * <p>
+ * Directories are created up front below a root of their own, ideally on a tmpfs mount, and
+ * recycled: a returned workspace is emptied by a background thread and handed out again, so
+ * requests neither create nor delete directories nor wait for a recursive delete. A directory that
+ * cannot be emptied is taken out of the pool and reported as leaked. Directories left behind by
+ * previous server processes are removed at startup.
+ */
+public class WorkspaceManager implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkspaceManager.class);
+    private static final String ROOT_NAME = "javadisassembler-workspaces";
+    private static final String WORKSPACE_PREFIX = "ws-";
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+    private static WorkspaceManager systemTemp;
+
+    public record Stats(String directory, int idle, int inUse, long created, long recycled, long cleanupFailures,
+                        long quotaExceeded, int leaked, long diskUsageBytes) {
+    }
+
+    private final Path directory;
+    private final int poolSize;
+    private final long quotaBytes;
+    private final BlockingQueue<Path> idle = new LinkedBlockingQueue<>();
+    /** Directories handed out or being emptied */
+    private final Set<Path> busy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong cleanupFailures = new AtomicLong();
+    private final AtomicLong quotaExceeded = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong cleanups = new AtomicLong();
+    private final AtomicLong cleanupNanos = new AtomicLong();
+    private final ExecutorService cleaner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "workspace-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param root       parent of the workspaces, e.g. a tmpfs mount; a directory of this server
+     *                   process is created below it
+     * @param poolSize   workspaces kept ready; more are created when all are in use, and dropped
+     *                   again when returned
+     * @param quotaBytes bytes a job may write through its {@link Workspace}
+     */
+    public WorkspaceManager(Path root, int poolSize, long quotaBytes) throws IOException {
+        Path parent = Files.createDirectories(root.resolve(ROOT_NAME));
+        removeStaleDirectories(parent);
+        this.directory = parent.resolve(ProcessHandle.current().pid() + "-" + INSTANCES.incrementAndGet());
+        if (Files.exists(directory)) {
+            // an earlier process had the same pid, as every server in a container has
+            deleteContents(directory);
+        }
+        Files.createDirectories(directory);
+        this.poolSize = Math.max(0, poolSize);
+        this.quotaBytes = quotaBytes;
+        for (int i = 0; i < this.poolSize; i++) {
+            idle.add(newDirectory());
+        }
+        logger.info("Created {} workspaces in {}", this.poolSize, directory);
+    }
+
+    /**
+     * Manager below {@code java.io.tmpdir}, for components created outside the application
+     * context, e.g. in tests
+     */
+    public static synchronized WorkspaceManager systemTemp() {
+        if (systemTemp == null) {
+            try {
+                systemTemp = new WorkspaceManager(Path.of(System.getProperty("java.io.tmpdir")), 2, 512L * 1024 * 1024);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return systemTemp;
+    }
+
+    /**
+     * Lends an empty workspace; the caller must close it
+     */
+    public Workspace acquire() throws IOException {
+        Path workspace = idle.poll();
+        if (workspace == null) {
+            workspace = newDirectory();
+            logger.debug("All workspaces in use, created {}", workspace);
+        }
+        busy.add(workspace);
+        inUse.incrementAndGet();
+        return new Workspace(this, workspace, quotaBytes);
+    }
+
+    void release(Workspace workspace) {
+        inUse.decrementAndGet();
+        try {
+            cleaner.execute(() -> recycle(workspace.directory()));
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            recycle(workspace.directory());
+        }
+    }
+
+    void recordWrite(long nanos) {
+        writes.incrementAndGet();
+        writeNanos.addAndGet(nanos);
+    }
+
+    private void recycle(Path workspace) {
+        long started = System.nanoTime();
+        try {
+            empty(workspace);
+        } finally {
+            cleanups.incrementAndGet();
+            cleanupNanos.addAndGet(System.nanoTime() - started);
+        }
+    }
+
+    private void empty(Path workspace) {
+        long usage = diskUsage(workspace);
+        if (usage > quotaBytes) {
+            quotaExceeded.incrementAndGet();
+            logger.warn("Workspace {} used {} bytes, quota is {}", workspace.getFileName(), usage, quotaBytes);
+        }
+        try {
+            deleteContents(workspace);
+            if (idle.size() < poolSize && !cleaner.isShutdown()) {
+                busy.remove(workspace);
+                idle.add(workspace);
+                recycled.incrementAndGet();
+            } else {
+                Files.delete(workspace);
+                busy.remove(workspace);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            busy.remove(workspace);
+            cleanupFailures.incrementAndGet();
+            logger.warn("Could not clean workspace {}, leaving it behind: {}", workspace, e.getMessage());
+        }
+    }
+
+    public int inUse() {
+        return inUse.get();
+    }
+
+    /** Files written through workspaces, and the time it took, see {@link Workspace#write} */
+    public long writeCount() {
+        return writes.get();
+    }
+
+    public long writeNanos() {
+        return writeNanos.get();
+    }
+
+    /** Workspaces emptied after their job, and the time it took */
+    public long cleanupCount() {
+        return cleanups.get();
+    }
+
+    public long cleanupNanos() {
+        return cleanupNanos.get();
+    }
+
+    public Stats stats() {
+        int leaked = 0;
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+            for (Path child : children) {
+                if (!idle.contains(child) && !busy.contains(child)) {
+                    leaked++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not list workspaces in {}: {}", directory, e.getMessage());
+        }
+        return new Stats(directory.toString(), idle.size(), inUse.get(), created.get(), recycled.get(),
+                cleanupFailures.get(), quotaExceeded.get(), leaked, diskUsage(directory));
+    }
+
+    /** Waits for pending cleanups and removes the workspaces of this manager */
+    @Override
+    public void close() {
+        cleaner.shutdown();
+        try {
+            cleaner.awaitTermination(10, TimeUnit.SECONDS);
+            idle.clear();
+            deleteContents(directory);
+            Files.deleteIfExists(directory);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Could not remove workspaces in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private Path newDirectory() throws IOException {
+        created.incrementAndGet();
+        return Files.createDirectory(directory.resolve(WORKSPACE_PREFIX + sequence.incrementAndGet()));
+    }
+
+    /** Removes the directories of server processes that are no longer running */
+    private static void removeStaleDirectories(Path parent) {
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(parent)) {
+            for (Path child : children) {
+                String name = child.getFileName().toString();
+                int dash = name.indexOf('-');
+                if (dash <= 0) {
+                    continue;
+                }
+                long pid;
+                try {
+                    pid = Long.parseLong(name.substring(0, dash));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (ProcessHandle.of(pid).isEmpty()) {
+                    logger.info("Removing workspaces left behind by process {}", pid);
+                    deleteContents(child);
+                    Files.deleteIfExists(child);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Could not remove stale workspaces in {}: {}", parent, e.getMessage());
+        }
+    }
+
+    private static void deleteContents(Path directory) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            entries = walk.filter(path -> !path.equals(directory))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        }
+        for (Path entry : entries) {
+            Files.deleteIfExists(entry);
+        }
+    }
+
+    private static long diskUsage(Path directory) {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            return walk.filter(Files::isRegularFile).mapToLong(path -> {
+                try {
+                    return Files.size(path);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException | UncheckedIOException e) {
+            return 0;
+        }
+    }
+}
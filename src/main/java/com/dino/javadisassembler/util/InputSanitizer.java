@@ -1,13 +1,34 @@
 package com.dino.javadisassembler.util;
 
+import com.dino.javadisassembler.exception.InvalidRequestException;
 import org.apache.commons.text.StringEscapeUtils;
 
+/**
+ * Cleans and checks request input before any work is done on it. Each method makes a single pass
+ * over its input and returns the input itself when there is nothing to remove.
+ */
 public class InputSanitizer {
+
     public static String sanitizeClassName(String className) {
         if (className == null) {
             return "";
         }
-        return className.replaceAll("[^a-zA-Z0-9.$_]", "");
+        int length = className.length();
+        int invalid = 0;
+        while (invalid < length && isClassNameChar(className.charAt(invalid))) {
+            invalid++;
+        }
+        if (invalid == length) {
+            return className;
+        }
+        StringBuilder sanitized = new StringBuilder(length - 1).append(className, 0, invalid);
+        for (int i = invalid + 1; i < length; i++) {
+            char c = className.charAt(i);
+            if (isClassNameChar(c)) {
+                sanitized.append(c);
+            }
+        }
+        return sanitized.toString();
     }
 
     public static String sanitizeForLog(String input) {
@@ -17,13 +38,177 @@ public class InputSanitizer {
         return StringEscapeUtils.escapeJava(input);
     }
 
+    /**
+     * Removes null bytes and surrounding whitespace; the same as {@code replace("\0", "").trim()},
+     * without copying a source that has neither
+     */
     public static String sanitizeSourceCode(String sourceCode) {
         if (sourceCode == null) {
             return "";
         }
-        // Remove any null bytes and other potentially harmful characters
-        return sourceCode.replaceAll("\\x00", "")
-                        .replaceAll("\u0000", "")
-                        .trim();
+        int start = 0;
+        int end = sourceCode.length();
+        // Null bytes count as whitespace for trimming, so they are trimmed along with it
+        while (start < end && sourceCode.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && sourceCode.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int nul = sourceCode.indexOf('\0', start);
+        if (nul < 0 || nul >= end) {
+            return start == 0 && end == sourceCode.length() ? sourceCode : sourceCode.substring(start, end);
+        }
+        StringBuilder sanitized = new StringBuilder(end - start - 1);
+        int from = start;
+        while (nul >= 0 && nul < end) {
+            sanitized.append(sourceCode, from, nul);
+            from = nul + 1;
+            nul = sourceCode.indexOf('\0', from);
+        }
+        return sanitized.append(sourceCode, from, end).toString();
+    }
+
+    /**
+     * Checks a sanitized class name against its source: it has to be a qualified Java name and, if
+     * the source declares a public top-level type, the qualified name of that type, since javac
+     * only compiles a public type from a file named after it
+     *
+     * @throws InvalidRequestException if it is not
+     */
+    public static void checkClassName(String className, String sourceCode) {
+        if (!isQualifiedName(className)) {
+            throw new InvalidRequestException(className.isEmpty() ? "A class name is required"
+                    : "Invalid class name: " + className);
+        }
+        String declared = declaredPublicType(sourceCode);
+        if (declared != null && !declared.equals(className)) {
+            throw new InvalidRequestException("The source declares public type " + declared
+                    + ", but the class name is " + className);
+        }
+    }
+
+    /**
+     * Qualified name of the public top-level type declared in {@code sourceCode}, or {@code null} if
+     * it declares none. Only the top level of the source is looked at; comments and literals are
+     * skipped.
+     */
+    public static String declaredPublicType(String sourceCode) {
+        String packageName = "";
+        boolean isPublic = false;
+        boolean typeKeyword = false;
+        int depth = 0;
+        int length = sourceCode.length();
+        int i = 0;
+        while (i < length) {
+            char c = sourceCode.charAt(i);
+            if (c == '/' && i + 1 < length && sourceCode.charAt(i + 1) == '/') {
+                int newline = sourceCode.indexOf('\n', i + 2);
+                i = newline < 0 ? length : newline + 1;
+            } else if (c == '/' && i + 1 < length && sourceCode.charAt(i + 1) == '*') {
+                int close = sourceCode.indexOf("*/", i + 2);
+                i = close < 0 ? length : close + 2;
+            } else if (c == '"' || c == '\'') {
+                i = skipLiteral(sourceCode, i);
+            } else if (c == '{' || c == '(') {
+                depth++;
+                i++;
+            } else if (c == '}' || c == ')') {
+                depth--;
+                i++;
+            } else if (depth == 0 && Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(sourceCode.charAt(i))) {
+                    i++;
+                }
+                if (typeKeyword) {
+                    String name = sourceCode.substring(start, i);
+                    return packageName.isEmpty() ? name : packageName + "." + name;
+                }
+                if (isWord(sourceCode, start, i, "package")) {
+                    int semicolon = sourceCode.indexOf(';', i);
+                    int end = semicolon < 0 ? length : semicolon;
+                    packageName = stripWhitespace(sourceCode, i, end);
+                    i = end;
+                } else if (isWord(sourceCode, start, i, "public")) {
+                    isPublic = true;
+                } else if (isPublic) {
+                    typeKeyword = isWord(sourceCode, start, i, "class") || isWord(sourceCode, start, i, "interface")
+                            || isWord(sourceCode, start, i, "enum") || isWord(sourceCode, start, i, "record");
+                }
+            } else {
+                if (c == ';' && depth == 0) {
+                    isPublic = false;
+                }
+                i++;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isClassNameChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '.' || c == '$' || c == '_';
+    }
+
+    private static boolean isQualifiedName(String name) {
+        boolean segmentStart = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '.') {
+                if (segmentStart) {
+                    return false;
+                }
+                segmentStart = true;
+            } else if (segmentStart ? !Character.isJavaIdentifierStart(c) : !Character.isJavaIdentifierPart(c)) {
+                return false;
+            } else {
+                segmentStart = false;
+            }
+        }
+        return !segmentStart;
+    }
+
+    private static boolean isWord(String source, int start, int end, String word) {
+        return end - start == word.length() && source.startsWith(word, start);
+    }
+
+    /** Index after the string, character or text block literal starting at {@code start} */
+    private static int skipLiteral(String source, int start) {
+        char quote = source.charAt(start);
+        if (quote == '"' && source.startsWith("\"\"\"", start)) {
+            int i = start + 3;
+            while (i < source.length()) {
+                if (source.charAt(i) == '\\') {
+                    i += 2;
+                } else if (source.startsWith("\"\"\"", i)) {
+                    return i + 3;
+                } else {
+                    i++;
+                }
+            }
+            return source.length();
+        }
+        int i = start + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private static String stripWhitespace(String source, int start, int end) {
+        StringBuilder stripped = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(source.charAt(i))) {
+                stripped.append(source.charAt(i));
+            }
+        }
+        return stripped.toString();
     }
 }
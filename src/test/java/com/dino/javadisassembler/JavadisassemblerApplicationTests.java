@@ -1,13 +1,32 @@
 package com.dino.javadisassembler;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class JavadisassemblerApplicationTests {
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void actuator_ShouldOnlyPublishHealthAndMetrics() throws Exception {
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/metrics")).andExpect(status().isOk());
+		for (String endpoint : new String[]{"heapdump", "threaddump", "env", "configprops", "beans", "loggers"}) {
+			mockMvc.perform(get("/actuator/" + endpoint)).andExpect(status().isNotFound());
+		}
+	}
+
 }
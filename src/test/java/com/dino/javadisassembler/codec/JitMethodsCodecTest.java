@@ -0,0 +1,93 @@
+package com.dino.javadisassembler.codec;
+
+import com.dino.javadisassembler.model.JitMethodsResponse;
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitMethodsCodecTest {
+
+    @Test
+    void read_ShouldReturnWhatWasWritten() throws Exception {
+        JitMethodsResponse response = new JitMethodsResponse(true, List.of(method("Test::sq", 12, 40),
+                new CompiledMethod("Test::loop", 15, "c2", 4, true, 7, 20, 64, true, List.of(
+                        new CompiledMethod.Instruction("0x00007f3b1c0a2000", null, "ret", null)), List.of())),
+                false, null);
+
+        JitMethodsResponse decoded = JitMethodsCodec.read(new ByteArrayInputStream(encode(response)));
+
+        assertTrue(decoded.isSuccess());
+        assertFalse(decoded.isHsdisMissing());
+        assertNull(decoded.getErrorMessage());
+        assertEquals(response.getMethods(), decoded.getMethods());
+    }
+
+    @Test
+    void read_ShouldReturnFailures() throws Exception {
+        JitMethodsResponse decoded = JitMethodsCodec.read(new ByteArrayInputStream(
+                encode(new JitMethodsResponse(false, null, true, "Compilation failed"))));
+
+        assertFalse(decoded.isSuccess());
+        assertTrue(decoded.isHsdisMissing());
+        assertEquals("Compilation failed", decoded.getErrorMessage());
+        assertTrue(decoded.getMethods().isEmpty());
+    }
+
+    @Test
+    void write_ShouldBeFarSmallerThanJson() throws Exception {
+        List<CompiledMethod> methods = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            methods.add(method("Test::m" + i, i, 200));
+        }
+        JitMethodsResponse response = new JitMethodsResponse(true, methods, false, null);
+
+        int json = new ObjectMapper().writeValueAsBytes(response).length;
+        int binary = encode(response).length;
+
+        assertTrue(binary * 3 < json, "binary " + binary + " bytes, JSON " + json + " bytes");
+    }
+
+    @Test
+    void read_ShouldRejectTruncatedAndForeignStreams() throws Exception {
+        byte[] encoded = encode(new JitMethodsResponse(true, List.of(method("Test::sq", 1, 10)), false, null));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+
+        assertThrows(EOFException.class, () -> JitMethodsCodec.read(new ByteArrayInputStream(truncated)));
+        assertThrows(IOException.class, () -> JitMethodsCodec.read(new ByteArrayInputStream("{}".getBytes())));
+    }
+
+    private static CompiledMethod method(String name, int compileId, int instructionCount) {
+        List<CompiledMethod.Instruction> instructions = new ArrayList<>();
+        List<CompiledMethod.BciMapping> mappings = new ArrayList<>();
+        long address = 0x00007f3b1c0a1000L + compileId * 0x1000L;
+        for (int i = 0; i < instructionCount; i++) {
+            String hex = String.format("0x%016x", address);
+            String section = i < 2 ? "Entry Point" : "Verified Entry Point";
+            instructions.add(new CompiledMethod.Instruction(hex, section,
+                    i % 3 == 0 ? "mov    %eax,0x" + Integer.toHexString(i) + "(%rsp)" : "add    $0x1,%r10d",
+                    i % 5 == 0 ? "*iload_1 {reexecute=0 rethrow=0 return_oop=0}\n- " + name + "@" + i + " (line 3)" : ""));
+            if (i % 5 == 0) {
+                mappings.add(new CompiledMethod.BciMapping(hex, name, i, i % 10 == 0 ? 3 : null));
+            }
+            address += 4 + i % 3;
+        }
+        return new CompiledMethod(name, compileId, "c2", 4, false, null, 12, instructionCount * 5, true,
+                instructions, mappings);
+    }
+
+    private static byte[] encode(JitMethodsResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JitMethodsCodec.write(response, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,114 @@
+package com.dino.javadisassembler.controller;
+
+import com.dino.javadisassembler.config.TestSecurityConfig;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.model.CompilationRequest;
+import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.benchmark.BenchmarkOptions;
+import com.dino.javadisassembler.service.benchmark.BenchmarkReport;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BenchmarkController.class)
+@Import(TestSecurityConfig.class)
+class BenchmarkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JavaDisassemblyService disassemblyService;
+
+    @MockitoBean
+    private DisassemblyMetrics metrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void runBenchmark_ShouldReturnScores() throws Exception {
+        BenchmarkReport.Score score = new BenchmarkReport.Score("demo.Bench.sum", "avgt", Map.of(), 312.5, 4.25, "ns/op",
+                Map.of("gc.alloc.rate.norm", new BenchmarkReport.Metric(16.0, null, "B/op")), null);
+        when(disassemblyService.getBenchmarkAsync(anyString(), anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(new BenchmarkReport(List.of(score))));
+
+        MvcResult result = mockMvc.perform(post("/api/benchmark")
+                        .param("forks", "2")
+                        .param("iterationMillis", "500")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.scores[0].benchmark").value("demo.Bench.sum"))
+                .andExpect(jsonPath("$.scores[0].score").value(312.5))
+                .andExpect(jsonPath("$.scores[0].secondary['gc.alloc.rate.norm'].score").value(16.0));
+        verify(disassemblyService).getBenchmarkAsync(anyString(), eq("demo.Bench"), anyString(),
+                eq(new BenchmarkOptions(2, 3, 5, Duration.ofMillis(500), null, null, true, false)));
+    }
+
+    @Test
+    void runBenchmark_WithInvalidOptions_ShouldReturnBadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/benchmark")
+                        .param("mode", "fastest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        verify(disassemblyService, never()).getBenchmarkAsync(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void runBenchmark_WhenRejected_ShouldReturnTooManyRequests() throws Exception {
+        when(disassemblyService.getBenchmarkAsync(anyString(), anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(
+                new JobRejectedException("Too many aot requests, please try again later", 5)));
+
+        MvcResult result = mockMvc.perform(post("/api/benchmark")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    private static CompilationRequest sampleRequest() {
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("package demo;\n\npublic class Bench { }");
+        request.setClassName("demo.Bench");
+        return request;
+    }
+}
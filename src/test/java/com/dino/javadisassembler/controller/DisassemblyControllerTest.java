@@ -1,8 +1,33 @@
 package com.dino.javadisassembler.controller;
 
+import com.dino.javadisassembler.codec.JitMethodsCodec;
 import com.dino.javadisassembler.config.TestSecurityConfig;
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.model.BatchRequest;
 import com.dino.javadisassembler.model.CompilationRequest;
+import com.dino.javadisassembler.model.DiffRequest;
+import com.dino.javadisassembler.model.JitMethodsResponse;
 import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.artifact.ArtifactStore;
+import com.dino.javadisassembler.service.batch.ClassResult;
+import com.dino.javadisassembler.service.cache.DisassemblyCache;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.diff.CodegenDiff;
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+import com.dino.javadisassembler.service.jit.Deoptimization;
+import com.dino.javadisassembler.service.jit.InliningDecision;
+import com.dino.javadisassembler.service.jit.JitMethods;
+import com.dino.javadisassembler.service.jit.JitProfile;
+import com.dino.javadisassembler.service.jit.MethodFilter;
+import com.dino.javadisassembler.service.jit.TieredJitOptions;
+import com.dino.javadisassembler.service.jit.TieredJitReport;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import com.dino.javadisassembler.service.session.CompilationSession;
+import com.dino.javadisassembler.service.toolchain.ToolchainRegistry;
+import com.dino.javadisassembler.service.toolchain.ToolchainResult;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -10,10 +35,30 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,6 +72,9 @@ class DisassemblyControllerTest {
     @MockitoBean
     private JavaDisassemblyService disassemblyService;
 
+    @MockitoBean
+    private DisassemblyMetrics metrics;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -34,33 +82,146 @@ class DisassemblyControllerTest {
     void getBytecode_ShouldReturnSuccess() throws Exception {
         String testCode = "class Test { }";
         String expectedOutput = "Compiled from \"Test.java\"";
-        when(disassemblyService.getBytecode(anyString(), anyString()))
-            .thenReturn(expectedOutput);
+        when(disassemblyService.getBytecodeAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(expectedOutput));
 
         CompilationRequest request = new CompilationRequest();
         request.setSourceCode(testCode);
         request.setClassName("Test");
 
-        mockMvc.perform(post("/api/disassemble/bytecode")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)))
+        MvcResult result = mockMvc.perform(post("/api/disassemble/bytecode")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.result").value(expectedOutput));
     }
 
+    @Test
+    void getJitAssembly_WithArtifactId_ShouldUseArtifactSource() throws Exception {
+        String artifactId = "a".repeat(64);
+        when(disassemblyService.getArtifact(artifactId)).thenReturn(new ArtifactStore.Artifact(artifactId,
+                "class Test { }", "Test", new CompiledClasses(Map.of())));
+        when(disassemblyService.getArtifactId("class Test { }", "Test")).thenReturn(artifactId);
+        when(disassemblyService.getJitAssemblyAsync(eq("class Test { }"), eq("Test"), anyString()))
+            .thenReturn(CompletableFuture.completedFuture("Assembly output"));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setArtifactId(artifactId);
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("Assembly output"))
+                .andExpect(jsonPath("$.artifactId").value(artifactId));
+    }
+
+    @Test
+    void getDiff_ShouldReturnChangedMethods() throws Exception {
+        CodegenDiff.MethodDiff changed = new CodegenDiff.MethodDiff("bytecode", "Test::run()I",
+                CodegenDiff.MethodDiff.Kind.CHANGED, 1, 1,
+                List.of(new CodegenDiff.Hunk(5, 5, List.of("-iconst_1", "+iconst_2"))));
+        when(disassemblyService.diffAsync(eq("class Test { int run() { return 1; } }"), eq("Test"),
+                eq("class Test { int run() { return 2; } }"), eq("Test"), eq(CodegenDiff.View.BYTECODE), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(new CodegenDiff.Result(List.of(changed), 1)));
+
+        DiffRequest request = new DiffRequest(new CompilationRequest("class Test { int run() { return 1; } }", "Test"),
+                new CompilationRequest("class Test { int run() { return 2; } }", "Test"));
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/diff")
+                        .param("view", "bytecode")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.unchangedMethods").value(1))
+                .andExpect(jsonPath("$.methods[0].method").value("Test::run()I"))
+                .andExpect(jsonPath("$.methods[0].hunks[0].lines[1]").value("+iconst_2"));
+    }
+
+    @Test
+    void updateSession_ShouldReturnChangedMethods() throws Exception {
+        CompilationSession.MethodChange change = new CompilationSession.MethodChange("Test", "run()I",
+                CompilationSession.MethodChange.Kind.CHANGED, "iconst_1", "iconst_2");
+        when(disassemblyService.updateSessionAsync(eq("s1"), eq("class Test { int run() { return 2; } }"), eq("Test"), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(new CompilationSession.Result(true, 12, List.of(change))));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { int run() { return 2; } }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/sessions/s1/compile")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.sessionId").value("s1"))
+                .andExpect(jsonPath("$.changes[0].method").value("run()I"))
+                .andExpect(jsonPath("$.changes[0].kind").value("CHANGED"));
+    }
+
+    @Test
+    void getBytecode_WithUnknownArtifactId_ShouldReturnNotFound() throws Exception {
+        CompilationRequest request = new CompilationRequest();
+        request.setArtifactId("b".repeat(64));
+
+        mockMvc.perform(post("/api/disassemble/bytecode")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+        verify(disassemblyService, never()).getBytecodeAsync(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void getBytecode_WithClassNameOtherThanPublicType_ShouldReturnBadRequest() throws Exception {
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("package demo;\npublic class Main { }");
+        request.setClassName("Main");
+
+        mockMvc.perform(post("/api/disassemble/bytecode")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errorMessage").value(
+                        "The source declares public type demo.Main, but the class name is Main"));
+        verify(disassemblyService, never()).getBytecodeAsync(anyString(), anyString(), anyString());
+    }
+
     @Test
     void getBytecode_ShouldHandleError() throws Exception {
-        when(disassemblyService.getBytecode(anyString(), anyString()))
-            .thenThrow(new RuntimeException("Compilation failed"));
+        when(disassemblyService.getBytecodeAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Compilation failed")));
 
         CompilationRequest request = new CompilationRequest();
         request.setSourceCode("testCode");
         request.setClassName("Test");
 
-        mockMvc.perform(post("/api/disassemble/bytecode")
+        MvcResult result = mockMvc.perform(post("/api/disassemble/bytecode")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.errorMessage").value("Compilation failed"));
@@ -70,18 +231,426 @@ class DisassemblyControllerTest {
     void getJitAssembly_ShouldReturnSuccess() throws Exception {
         String testCode = "class Test { }";
         String expectedOutput = "Assembly output";
-        when(disassemblyService.getJitAssembly(anyString(), anyString()))
-            .thenReturn(expectedOutput);
+        when(disassemblyService.getJitAssemblyAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(expectedOutput));
 
         CompilationRequest request = new CompilationRequest();
         request.setSourceCode(testCode);
         request.setClassName("Test");
 
-        mockMvc.perform(post("/api/disassemble/jit")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)))
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.result").value(expectedOutput));
     }
+
+    @Test
+    void getAotAssembly_ShouldReturnSuccess() throws Exception {
+        when(disassemblyService.getAotAssemblyAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture("Test::main:\n  403000:\tret\n"));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/aot")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.result").value("Test::main:\n  403000:\tret\n"));
+    }
+
+    @Test
+    void getBytecode_WithToolchains_ShouldReturnResultPerToolchain() throws Exception {
+        when(disassemblyService.compareBytecodeAsync(anyString(), anyString(), anyString(), eq(List.of("default", "jdk21"))))
+            .thenReturn(CompletableFuture.completedFuture(List.of(
+                    ToolchainResult.success("default", "major version: 61"),
+                    ToolchainResult.failure("jdk21", "Compilation failed"))));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+        request.setToolchains(List.of("default", "jdk21"));
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/bytecode")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.results[0].toolchain").value("default"))
+                .andExpect(jsonPath("$.results[0].result").value("major version: 61"))
+                .andExpect(jsonPath("$.results[1].success").value(false))
+                .andExpect(jsonPath("$.results[1].errorMessage").value("Compilation failed"));
+        verify(disassemblyService, never()).getBytecodeAsync(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void getToolchains_ShouldListToolchains() throws Exception {
+        when(disassemblyService.getToolchains()).thenReturn(List.of(
+                new ToolchainRegistry.Info("default", "17.0.9", true),
+                new ToolchainRegistry.Info("jdk21", "21.0.2", false)));
+
+        mockMvc.perform(get("/api/disassemble/toolchains"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("default"))
+                .andExpect(jsonPath("$[1].version").value("21.0.2"));
+    }
+
+    @Test
+    void getJitMethods_ShouldReturnFilteredMethods() throws Exception {
+        CompiledMethod method = new CompiledMethod("Test::sq", 3, "c2", 4, false, null, 4, 96, true,
+                List.of(new CompiledMethod.Instruction("0x10", "Verified Entry Point", "imul %esi,%eax", "")),
+                List.of());
+        when(disassemblyService.getJitMethodsAsync(anyString(), anyString(), anyString(), any(MethodFilter.class)))
+            .thenReturn(CompletableFuture.completedFuture(new JitMethods(List.of(method), false)));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/methods")
+                        .param("method", "sq")
+                        .param("tier", "c2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.hsdisMissing").value(false))
+                .andExpect(jsonPath("$.methods[0].method").value("Test::sq"))
+                .andExpect(jsonPath("$.methods[0].instructions[0].assembly").value("imul %esi,%eax"));
+        verify(disassemblyService).getJitMethodsAsync(anyString(), anyString(), anyString(),
+                eq(new MethodFilter("sq", Set.of(), Set.of("c2"))));
+    }
+
+    @Test
+    void getJitMethods_AcceptingBinary_ShouldReturnEncodedMethods() throws Exception {
+        CompiledMethod method = new CompiledMethod("Test::sq", 3, "c2", 4, false, null, 4, 96, true,
+                List.of(new CompiledMethod.Instruction("0x10", "Verified Entry Point", "imul %esi,%eax", "")),
+                List.of());
+        when(disassemblyService.getJitMethodsAsync(anyString(), anyString(), anyString(), any(MethodFilter.class)))
+            .thenReturn(CompletableFuture.completedFuture(new JitMethods(List.of(method), false)));
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/methods")
+                        .accept(JitMethodsCodec.MEDIA_TYPE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CompilationRequest("class Test { }", "Test"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(JitMethodsCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        JitMethodsResponse decoded = JitMethodsCodec.read(new ByteArrayInputStream(body));
+        assertTrue(decoded.isSuccess());
+        assertEquals(List.of(method), decoded.getMethods());
+    }
+
+    @Test
+    void getJitMethods_WithUnknownTier_ShouldReturnError() throws Exception {
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/methods")
+                        .param("tier", "7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errorMessage").value("Unknown tier: 7, expected 1-4, c1 or c2"));
+        verify(disassemblyService, never()).getJitMethodsAsync(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void getTieredJit_ShouldReturnMethodsPerTier() throws Exception {
+        TieredJitReport.MethodTiers pick = new TieredJitReport.MethodTiers("Test::pick", 20_000, 0, List.of(),
+                List.of(new InliningDecision(1, "Test::pick", 12, "Test::sq", 1, true, "inline (hot)")),
+                List.of(new Deoptimization(2, "c2", 4, "Test::pick", 4, "unstable_if", "reinterpret", 0.05)));
+        when(disassemblyService.getTieredJitAsync(anyString(), anyString(), anyString(), any(TieredJitOptions.class)))
+            .thenReturn(CompletableFuture.completedFuture(new TieredJitReport(List.of(pick), true)));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/tiered")
+                        .param("stopAtLevel", "3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.hsdisMissing").value(true))
+                .andExpect(jsonPath("$.methods[0].inlining[0].callee").value("Test::sq"))
+                .andExpect(jsonPath("$.methods[0].deoptimizations[0].reason").value("unstable_if"));
+        verify(disassemblyService).getTieredJitAsync(anyString(), anyString(), anyString(),
+                eq(new TieredJitOptions(3, 0, true)));
+    }
+
+    @Test
+    void getJitProfile_ShouldReturnInstructionPercents() throws Exception {
+        CompiledMethod loop = new CompiledMethod("Test::main", 12, "c2", 4, true, 8, 40, 96, true, List.of(
+                new CompiledMethod.Instruction("0x00007f3b1c0a2000", "Verified Entry Point", "add    $0x1,%r10d", ""),
+                new CompiledMethod.Instruction("0x00007f3b1c0a2004", "Verified Entry Point", "jl     0x00007f3b1c0a2000", "")),
+                List.of());
+        when(disassemblyService.getJitProfileAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(new JitProfile(200, 180,
+                    List.of(new JitProfile.ProfiledMethod(loop, 180, 90.0, List.of(45.0, 45.0))), false)));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/profile")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.samples").value(200))
+                .andExpect(jsonPath("$.methods[0].code.method").value("Test::main"))
+                .andExpect(jsonPath("$.methods[0].percent").value(90.0))
+                .andExpect(jsonPath("$.methods[0].instructionPercents[1]").value(45.0));
+    }
+
+    @Test
+    void streamJitAssembly_ShouldSendEventPerBlock() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<String> blocks = invocation.getArgument(3);
+            blocks.accept("== C1-compiled nmethod ==\nTest::sq\n");
+            blocks.accept("== C2-compiled nmethod ==\n");
+            return null;
+        }).when(disassemblyService).streamJitAssembly(anyString(), anyString(), anyString(), any());
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("""
+                        event: nmethod
+                        data: == C1-compiled nmethod ==
+                        data: Test::sq
+                        data:\s
+
+                        event: nmethod
+                        data: == C2-compiled nmethod ==
+                        data:\s
+
+                        event: done
+                        data:\s
+
+                        """));
+    }
+
+    @Test
+    void streamJitAssembly_ShouldSendErrorEvent() throws Exception {
+        doThrow(new CompilationException("Compilation failed"))
+                .when(disassemblyService).streamJitAssembly(anyString(), anyString(), anyString(), any());
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("testCode");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("event: error\ndata: Compilation failed\n\n"));
+    }
+
+    @Test
+    void streamBatch_ShouldSendEventPerClass() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ClassResult> results = invocation.getArgument(3);
+            results.accept(ClassResult.success("demo.Main", "class demo.Main\n  Code:"));
+            results.accept(ClassResult.failure("demo.Broken", "Class file is truncated"));
+            return 2;
+        }).when(disassemblyService).streamBatch(any(), any(), anyString(), any());
+
+        BatchRequest request = new BatchRequest(Map.of("demo/Main.java", "package demo; class Main { }"),
+                Base64.getEncoder().encodeToString(new byte[]{1, 2, 3}));
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("""
+                        event: class
+                        id: demo.Main
+                        data: class demo.Main
+                        data:   Code:
+
+                        event: class-error
+                        id: demo.Broken
+                        data: Class file is truncated
+
+                        event: done
+                        data: 2
+
+                        """));
+        verify(disassemblyService).streamBatch(eq(Map.of("demo/Main.java", "package demo; class Main { }")),
+                eq(new byte[]{1, 2, 3}), anyString(), any());
+    }
+
+    @Test
+    void streamBatch_WithInvalidJar_ShouldSendErrorEvent() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/disassemble/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchRequest(null, "not base64!"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("event: error\ndata: Invalid JAR encoding")));
+        verify(disassemblyService, never()).streamBatch(any(), any(), anyString(), any());
+    }
+
+    @Test
+    void getBytecode_WhenSaturated_ShouldReturnTooManyRequests() throws Exception {
+        when(disassemblyService.getBytecodeAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.failedFuture(
+                new JobRejectedException("Too many bytecode requests, please try again later", 7)));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/bytecode")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "7"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getBytecode_WithToolchainsWhenSaturated_ShouldReturnTooManyRequests() throws Exception {
+        when(disassemblyService.compareBytecodeAsync(anyString(), anyString(), anyString(), eq(List.of("default", "jdk21"))))
+            .thenReturn(CompletableFuture.failedFuture(
+                new JobRejectedException("Too many bytecode requests, please try again later", 5)));
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+        request.setToolchains(List.of("default", "jdk21"));
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/bytecode")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void streamJitAssembly_WhenSaturated_ShouldReturnTooManyRequests() throws Exception {
+        doThrow(new JobRejectedException("Too many jit requests, please try again later", 3))
+                .when(disassemblyService).checkJitAdmission(anyString());
+
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("class Test { }");
+        request.setClassName("Test");
+
+        MvcResult result = mockMvc.perform(post("/api/disassemble/jit/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(content().string("event: error\ndata: Too many jit requests, please try again later\n\n"));
+        verify(disassemblyService, never()).streamJitAssembly(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void getSchedulerStats_ShouldReturnLanes() throws Exception {
+        when(disassemblyService.getSchedulerStats()).thenReturn(List.of(
+                new JobScheduler.Stats(JobScheduler.Mode.JIT, 2, 5, 3, 40, 1, 38, 12.5, 900, 350.0)));
+
+        mockMvc.perform(get("/api/disassemble/scheduler/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].mode").value("JIT"))
+                .andExpect(jsonPath("$[0].queued").value(5))
+                .andExpect(jsonPath("$[0].rejected").value(1));
+    }
+
+    @Test
+    void getCacheStats_ShouldReturnCounters() throws Exception {
+        when(disassemblyService.getCacheStats())
+            .thenReturn(new DisassemblyCache.Stats(5, 2, 1, 0, 3, 4096, 0, 0));
+
+        mockMvc.perform(get("/api/disassemble/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(5))
+                .andExpect(jsonPath("$.misses").value(2))
+                .andExpect(jsonPath("$.evictions").value(1));
+    }
+
+    @Test
+    void getWorkspaceStats_ShouldReturnUsage() throws Exception {
+        when(disassemblyService.getWorkspaceStats())
+            .thenReturn(new WorkspaceManager.Stats("/dev/shm/javadisassembler-workspaces/1-1", 7, 1, 8, 40, 0, 0, 1, 2048));
+
+        mockMvc.perform(get("/api/disassemble/workspace/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.idle").value(7))
+                .andExpect(jsonPath("$.leaked").value(1))
+                .andExpect(jsonPath("$.diskUsageBytes").value(2048));
+    }
 }
@@ -0,0 +1,247 @@
+package com.dino.javadisassembler.controller;
+
+import com.dino.javadisassembler.config.TestSecurityConfig;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.model.CompilationRequest;
+import com.dino.javadisassembler.service.JavaDisassemblyService;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SnapshotController.class)
+@Import(TestSecurityConfig.class)
+class SnapshotControllerTest {
+
+    private static final String SNAPSHOT_ID = "Ab3_x-9QrT2z";
+    private static final String DOCUMENT = "{\"id\":\"" + SNAPSHOT_ID + "\",\"className\":\"Test\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JavaDisassemblyService disassemblyService;
+
+    @MockitoBean
+    private DisassemblyMetrics metrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void enableSnapshots() {
+        when(disassemblyService.isSnapshotsEnabled()).thenReturn(true);
+    }
+
+    @Test
+    void createSnapshot_ShouldAnswerWithThePermalink() throws Exception {
+        when(disassemblyService.createSnapshotAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(SNAPSHOT_ID));
+
+        MvcResult result = mockMvc.perform(post("/api/snapshots")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/snapshots/" + SNAPSHOT_ID))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.snapshotId").value(SNAPSHOT_ID))
+                .andExpect(jsonPath("$.url").value("/api/snapshots/" + SNAPSHOT_ID));
+        verify(disassemblyService).createSnapshotAsync(anyString(), eq("Test"), anyString());
+    }
+
+    @Test
+    void createSnapshot_WhenSnapshotsAreDisabled_ShouldReturnNotFoundWithoutRunningAnything() throws Exception {
+        when(disassemblyService.isSnapshotsEnabled()).thenReturn(false);
+
+        MvcResult result = mockMvc.perform(post("/api/snapshots")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+        verify(disassemblyService, never()).createSnapshotAsync(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void createSnapshot_WhenRejected_ShouldReturnTooManyRequests() throws Exception {
+        when(disassemblyService.createSnapshotAsync(anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.failedFuture(
+                new JobRejectedException("Too many jit requests, please try again later", 3)));
+
+        MvcResult result = mockMvc.perform(post("/api/snapshots")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void createSnapshot_WithMalformedBody_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/snapshots")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sourceCode\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errorMessage").value("Malformed request body"));
+        verify(disassemblyService, never()).createSnapshotAsync(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void createSnapshot_WithChunkedBodyOverTheLimit_ShouldReturnPayloadTooLarge() throws Exception {
+        // a body of unknown length is only cut off while it is read, after the handler was chosen
+        Filter chunked = (request, response, chain) -> chain.doFilter(
+                new HttpServletRequestWrapper((HttpServletRequest) request) {
+                    @Override
+                    public long getContentLengthLong() {
+                        return -1;
+                    }
+                }, response);
+        MockMvc limited = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(chunked, new RequestSizeFilter(16, 16))
+                .build();
+
+        limited.perform(post("/api/snapshots")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleRequest())))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errorMessage").value("Request body is larger than 16 bytes"));
+        verify(disassemblyService, never()).createSnapshotAsync(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void getSnapshot_ShouldServeTheStoredDocument() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(SNAPSHOT_ID + ".json"), DOCUMENT);
+        when(disassemblyService.getSnapshotFile(SNAPSHOT_ID, false)).thenReturn(file);
+
+        mockMvc.perform(get("/api/snapshots/" + SNAPSHOT_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(DOCUMENT))
+                .andExpect(header().longValue("Content-Length", DOCUMENT.length()))
+                .andExpect(header().string("ETag", "W/\"" + SNAPSHOT_ID + "\""))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void getSnapshot_ShouldServeTheCompressedCopyToClientsAcceptingGzip() throws Exception {
+        byte[] compressed = {0x1f, (byte) 0x8b, 8, 0, 1, 2, 3};
+        Path file = Files.write(tempDir.resolve(SNAPSHOT_ID + ".json.gz"), compressed);
+        when(disassemblyService.getSnapshotFile(SNAPSHOT_ID, true)).thenReturn(file);
+
+        mockMvc.perform(get("/api/snapshots/" + SNAPSHOT_ID).header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(content().bytes(compressed));
+    }
+
+    @Test
+    void getSnapshot_ShouldServeThePlainCopyWhenGzipHasQualityZero() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(SNAPSHOT_ID + ".json"), DOCUMENT);
+        when(disassemblyService.getSnapshotFile(SNAPSHOT_ID, false)).thenReturn(file);
+
+        mockMvc.perform(get("/api/snapshots/" + SNAPSHOT_ID).header("Accept-Encoding", "gzip;q=0, *"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(DOCUMENT));
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityValues() {
+        assertTrue(SnapshotController.acceptsGzip("gzip"));
+        assertTrue(SnapshotController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(SnapshotController.acceptsGzip("br, *;q=0.1"));
+        assertFalse(SnapshotController.acceptsGzip(null));
+        assertFalse(SnapshotController.acceptsGzip("gzip;q=0"));
+        assertFalse(SnapshotController.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(SnapshotController.acceptsGzip("identity, *;q=0"));
+        assertFalse(SnapshotController.acceptsGzip("x-gzipped"));
+    }
+
+    @Test
+    void getSnapshot_WhenTheFileIsEvicted_ShouldReturnNotFound() throws Exception {
+        when(disassemblyService.getSnapshotFile(SNAPSHOT_ID, false)).thenReturn(tempDir.resolve("evicted.json"));
+
+        mockMvc.perform(get("/api/snapshots/" + SNAPSHOT_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getSnapshot_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(SNAPSHOT_ID + ".json"), DOCUMENT);
+        when(disassemblyService.getSnapshotFile(SNAPSHOT_ID, false)).thenReturn(file);
+
+        mockMvc.perform(get("/api/snapshots/" + SNAPSHOT_ID).header("If-None-Match", "W/\"" + SNAPSHOT_ID + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getSnapshot_WithUnknownOrInvalidId_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/snapshots/" + SNAPSHOT_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(get("/api/snapshots/..etc.passwd"))
+                .andExpect(status().isNotFound());
+        verify(disassemblyService, never()).getSnapshotFile(eq("..etc.passwd"), anyBoolean());
+    }
+
+    private static CompilationRequest sampleRequest() {
+        CompilationRequest request = new CompilationRequest();
+        request.setSourceCode("public class Test { }");
+        request.setClassName("Test");
+        return request;
+    }
+}
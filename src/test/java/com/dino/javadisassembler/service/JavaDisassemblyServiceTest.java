@@ -1,11 +1,59 @@
 package com.dino.javadisassembler.service;
 
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.aot.NativeImageAotCompiler;
+import com.dino.javadisassembler.service.artifact.ArtifactStore;
+import com.dino.javadisassembler.service.batch.BatchDisassembler;
+import com.dino.javadisassembler.service.batch.ClassResult;
+import com.dino.javadisassembler.service.benchmark.JmhBenchmarkRunner;
+import com.dino.javadisassembler.service.bytecode.InProcessBytecodeDisassembler;
+import com.dino.javadisassembler.service.bytecode.JavapBytecodeDisassembler;
+import com.dino.javadisassembler.service.cache.DisassemblyCache;
+import com.dino.javadisassembler.service.compiler.ForkingSourceCompiler;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.service.diff.CodegenDiff;
+import com.dino.javadisassembler.service.dispatch.JobDispatcher;
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+import com.dino.javadisassembler.service.jit.ForkingJitRunner;
+import com.dino.javadisassembler.service.jit.JitProfiler;
+import com.dino.javadisassembler.service.jit.TieredJitExplorer;
+import com.dino.javadisassembler.service.jit.TieredJitOptions;
+import com.dino.javadisassembler.service.jit.TieredJitReport;
+import com.dino.javadisassembler.service.metrics.DisassemblyMetrics;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import com.dino.javadisassembler.service.session.CompilationSessions;
+import com.dino.javadisassembler.service.snapshot.SnapshotStore;
+import com.dino.javadisassembler.service.toolchain.Toolchain;
+import com.dino.javadisassembler.service.toolchain.ToolchainRegistry;
+import com.dino.javadisassembler.service.toolchain.ToolchainResult;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,9 +69,41 @@ class JavaDisassemblyServiceTest {
                                   }
                                }""";
 
+    private final BatchDisassembler batchDisassembler = new BatchDisassembler(2, 20, 1_000_000);
+
+    @TempDir
+    Path snapshotDirectory;
+
     @BeforeEach
     void setUp() {
-        disassemblyService = new JavaDisassemblyService();
+        Toolchain defaultToolchain = new Toolchain(ToolchainRegistry.DEFAULT_ID, Runtime.version().toString(),
+                new InMemorySourceCompiler(), new InProcessBytecodeDisassembler(), new ForkingJitRunner());
+        String javaHome = System.getProperty("java.home");
+        Toolchain forked = new Toolchain("forked", Runtime.version().toString(),
+                new ForkingSourceCompiler(Path.of(javaHome, "bin", "javac").toString()),
+                new JavapBytecodeDisassembler(Path.of(javaHome, "bin", "javap").toString()),
+                new ForkingJitRunner(Path.of(javaHome, "bin", "java").toString(), List.of()));
+        disassemblyService = new JavaDisassemblyService(new ToolchainRegistry(defaultToolchain, List.of(forked)),
+                new DisassemblyCache(100, 1_000_000, null),
+                new ArtifactStore(100, 1_000_000),
+                new JobScheduler(new JobScheduler.Limits(2, 8), new JobScheduler.Limits(1, 8), new JobScheduler.Limits(1, 4), 4, Duration.ofSeconds(30)),
+                JobDispatcher.LOCAL,
+                new TieredJitExplorer(Duration.ofSeconds(60), 20_000, 100_000),
+                new JitProfiler(Duration.ofSeconds(60), Duration.ofMillis(10)),
+                new NativeImageAotCompiler(WorkspaceManager.systemTemp(), "native-image", "objdump", Duration.ofMinutes(2),
+                        List.of("-Ob"), ResourcePolicy.defaults()),
+                batchDisassembler,
+                new JmhBenchmarkRunner(WorkspaceManager.systemTemp(), List.of(), Duration.ofMinutes(3), 2, 20,
+                        Duration.ofMinutes(2), ResourcePolicy.defaults()),
+                new CompilationSessions(new InMemorySourceCompiler(), 4, 1 << 20, 4, Duration.ofMinutes(1), 4),
+                new CodegenDiff(1000, 3),
+                new SnapshotStore(snapshotDirectory, 10_000_000),
+                WorkspaceManager.systemTemp(), new DisassemblyMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchDisassembler.close();
     }
 
     @Test
@@ -48,6 +128,18 @@ class JavaDisassemblyServiceTest {
         assertTrue(exception.getMessage().contains("Compilation failed"));
     }
 
+    @Test
+    void getBytecode_InvalidCode_ShouldReportDiagnostics() {
+        String sourceCode = """
+                          class Test {
+                             int broken() { return }
+                          }""";
+        Exception exception = assertThrows(Exception.class, () ->
+            disassemblyService.getBytecode(sourceCode, "Test")
+        );
+        assertTrue(exception.getMessage().contains("Test.java:2: error"));
+    }
+
     @Test
     void getJitAssembly_ValidCode_ShouldReturnAssembly() throws Exception {
         String sourceCode = """
@@ -60,6 +152,22 @@ class JavaDisassemblyServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void streamJitAssembly_ValidCode_ShouldDeliverProgramOutput() throws Exception {
+        String sourceCode = """
+                          public class Test {
+                             public static void main(String[] args) {
+                                  System.out.println("Hello");
+                             }
+                          }""";
+        List<String> blocks = new ArrayList<>();
+
+        disassemblyService.streamJitAssembly(sourceCode, "Test", blocks::add);
+
+        assertFalse(blocks.isEmpty());
+        assertTrue(String.join("", blocks).contains("Hello"));
+    }
+
     @Test
     void getBytecode_ShouldReturnBytecodeForValidJavaCode() throws Exception {
         String result = disassemblyService.getBytecode(SIMPLE_CLASS, TEST_CLASS_NAME);
@@ -70,6 +178,29 @@ class JavaDisassemblyServiceTest {
         assertTrue(result.contains("invokevirtual"));
     }
 
+    @Test
+    void getBytecode_RepeatedRequest_ShouldBeServedFromCache() throws Exception {
+        String first = disassemblyService.getBytecode(SIMPLE_CLASS, TEST_CLASS_NAME);
+        String second = disassemblyService.getBytecode(SIMPLE_CLASS, TEST_CLASS_NAME);
+
+        assertSame(first, second);
+        assertEquals(1, disassemblyService.getCacheStats().hits());
+        assertEquals(1, disassemblyService.getCacheStats().misses());
+    }
+
+    @Test
+    void getJitAssembly_AfterBytecode_ShouldReuseCompiledClasses() throws Exception {
+        assertNull(disassemblyService.getArtifactId(SIMPLE_CLASS, TEST_CLASS_NAME));
+        disassemblyService.getBytecode(SIMPLE_CLASS, TEST_CLASS_NAME);
+        disassemblyService.getJitAssembly(SIMPLE_CLASS, TEST_CLASS_NAME);
+
+        String artifactId = disassemblyService.getArtifactId(SIMPLE_CLASS, TEST_CLASS_NAME);
+        assertNotNull(artifactId);
+        assertEquals(SIMPLE_CLASS, disassemblyService.getArtifact(artifactId).sourceCode());
+        assertEquals(1, disassemblyService.getArtifactStats().misses());
+        assertEquals(1, disassemblyService.getArtifactStats().entries());
+    }
+
     @Test
     void getBytecode_ShouldThrowExceptionForInvalidJavaCode() {
         String invalidCode = "invalid java code";
@@ -93,7 +224,77 @@ class JavaDisassemblyServiceTest {
     }
 
     @Test
-    void getAotAssembly_ShouldReturnAssemblyForValidJavaCode() {
+    void compareBytecode_ShouldReturnOneResultPerToolchain() throws Exception {
+        String sourceCode = """
+                          class Test {
+                             int answer() {
+                                  return 42;
+                             }
+                          }""";
+
+        List<ToolchainResult> results = disassemblyService.compareBytecodeAsync(sourceCode, "Test",
+                JavaDisassemblyService.ANONYMOUS_CLIENT, List.of("default", "forked", "default", "missing")).get();
+
+        assertEquals(List.of("default", "forked", "missing"), results.stream().map(ToolchainResult::toolchain).toList());
+        assertTrue(results.get(0).success());
+        assertTrue(results.get(0).result().contains("bipush        42"));
+        assertTrue(results.get(1).success(), results.get(1).errorMessage());
+        assertTrue(results.get(1).result().contains("bipush        42"));
+        assertFalse(results.get(2).success());
+        assertTrue(results.get(2).errorMessage().startsWith("Unknown toolchain: missing"));
+    }
+
+    @Test
+    void getToolchains_ShouldListDefaultFirst() {
+        List<ToolchainRegistry.Info> toolchains = disassemblyService.getToolchains();
+
+        assertEquals(2, toolchains.size());
+        assertEquals(ToolchainRegistry.DEFAULT_ID, toolchains.get(0).id());
+        assertTrue(toolchains.get(0).defaultToolchain());
+        assertFalse(toolchains.get(1).defaultToolchain());
+    }
+
+    @Test
+    void getTieredJit_ShouldCompileWarmedMethodsWithBothCompilers() throws Exception {
+        String sourceCode = """
+                          public class Hot {
+                             static int pick(int x) {
+                                  return x > 15000 ? x / 3 : x * x + 1;
+                             }
+                          }""";
+
+        TieredJitReport report = disassemblyService.getTieredJitAsync(sourceCode, "Hot",
+                JavaDisassemblyService.ANONYMOUS_CLIENT, new TieredJitOptions(4, 0, true)).get();
+
+        TieredJitReport.MethodTiers pick = report.methods().stream()
+                .filter(method -> method.method().equals("Hot::pick"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(20_000, pick.calls());
+        List<String> compilers = pick.compilations().stream().map(CompiledMethod::compiler).toList();
+        assertTrue(compilers.contains("c1"), "C1 code: " + compilers);
+        assertTrue(compilers.contains("c2"), "C2 code: " + compilers);
+    }
+
+    @Test
+    void getTieredJit_WithStopLevel_ShouldNotUseC2() throws Exception {
+        String sourceCode = """
+                          public class Hot {
+                             static int sq(int x) {
+                                  return x * x;
+                             }
+                          }""";
+
+        TieredJitReport report = disassemblyService.getTieredJitAsync(sourceCode, "Hot",
+                JavaDisassemblyService.ANONYMOUS_CLIENT, new TieredJitOptions(1, 0, false)).get();
+
+        assertFalse(report.methods().isEmpty());
+        report.methods().forEach(method -> method.compilations()
+                .forEach(compiled -> assertEquals(1, compiled.tier())));
+    }
+
+    @Test
+    void getAotAssembly_ShouldReturnAssemblyForValidJavaCode() throws Exception {
         // Skip if native-image is not available
         if (isNoNativeImageAvailable()) {
             return;
@@ -120,6 +321,99 @@ class JavaDisassemblyServiceTest {
         assertTrue(exception.getMessage().contains("Compilation failed"));
     }
 
+    @Test
+    void streamBatch_ShouldCompileSourcesTogetherAndReportEveryClass() throws Exception {
+        Map<String, String> sources = Map.of(
+                "demo/Main.java", "package demo; public class Main { int run() { return new Helper().twice(21); } }",
+                "demo/Helper.java", "package demo; class Helper { int twice(int x) { return x * 2; } static class Nested { } }");
+        List<ClassResult> results = new ArrayList<>();
+
+        int classes = disassemblyService.streamBatch(sources, null, "client", results::add);
+
+        assertEquals(3, classes);
+        assertEquals(List.of("demo.Helper", "demo.Helper$Nested", "demo.Main"),
+                results.stream().map(ClassResult::className).sorted().toList());
+        assertTrue(results.stream().allMatch(ClassResult::success));
+        ClassResult main = results.stream().filter(r -> r.className().equals("demo.Main")).findFirst().orElseThrow();
+        assertTrue(main.result().contains("demo/Helper.twice:(I)I"), main.result());
+    }
+
+    @Test
+    void streamBatch_ShouldDisassembleClassesOfJar() throws Exception {
+        byte[] helper = new InMemorySourceCompiler().compile("package lib; public class Util { }", "lib.Util").bytes("lib.Util");
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (JarOutputStream out = new JarOutputStream(jar)) {
+            out.putNextEntry(new JarEntry("lib/Util.class"));
+            out.write(helper);
+            out.putNextEntry(new JarEntry("app/App.java"));
+            out.write("package app; public class App { }".getBytes(StandardCharsets.UTF_8));
+        }
+        List<ClassResult> results = new ArrayList<>();
+
+        int classes = disassemblyService.streamBatch(Map.of(), jar.toByteArray(), "client", results::add);
+
+        assertEquals(2, classes);
+        assertEquals(List.of("app.App", "lib.Util"), results.stream().map(ClassResult::className).sorted().toList());
+    }
+
+    @Test
+    void streamBatch_WithCompilationError_ShouldFailWholeBatch() {
+        Map<String, String> sources = Map.of("Broken.java", "class Broken { void run() { missing(); } }");
+
+        CompilationException exception = assertThrows(CompilationException.class, () ->
+                disassemblyService.streamBatch(sources, null, "client", result -> { }));
+
+        assertTrue(exception.getMessage().contains("Broken.java:1: error"), exception.getMessage());
+    }
+
+    @Test
+    void createSnapshotAsync_ShouldStoreEveryViewOnce() throws Exception {
+        String id = disassemblyService.createSnapshotAsync(SIMPLE_CLASS, TEST_CLASS_NAME, "client").get();
+
+        assertEquals(SnapshotStore.id(SIMPLE_CLASS, TEST_CLASS_NAME), id);
+        String json = Files.readString(disassemblyService.getSnapshotFile(id, false));
+        assertTrue(json.contains("\"bytecode\":{\"success\":true"), json);
+        assertTrue(json.contains("\"jit\":{"), json);
+        assertTrue(json.contains("\"aot\":{"), json);
+        assertNotNull(disassemblyService.getSnapshotFile(id, true));
+        assertEquals(id, disassemblyService.createSnapshotAsync(SIMPLE_CLASS, TEST_CLASS_NAME, "client").get());
+        assertEquals(1, disassemblyService.getSnapshotStats().entries());
+    }
+
+    @Test
+    void snapshotView_ShouldOnlyKeepFailuresThatWouldRecur() {
+        SnapshotStore.View compileError = JavaDisassemblyService.snapshotView(CompletableFuture.failedFuture(
+                new CompileErrorException("Test.java:1: error: ';' expected"))).join();
+        assertEquals(SnapshotStore.View.failure("Test.java:1: error: ';' expected"), compileError);
+        SnapshotStore.View quotingTimeout = JavaDisassemblyService.snapshotView(CompletableFuture.failedFuture(
+                new CompilationException("Compilation failed", new CompileErrorException("error: timed out")))).join();
+        assertEquals(SnapshotStore.View.failure("Compilation failed"), quotingTimeout);
+
+        for (Exception transientFailure : List.of(
+                new JobTimeoutException("Native image build timed out after 120 seconds"),
+                new CompilationException("JIT worker pool is shut down"),
+                new CompilationException(new IOException("No space left on device")),
+                new IOException("Worker w1 is not connected"),
+                new JobRejectedException("Too many jit requests, please try again later", 3))) {
+            CompletableFuture<SnapshotStore.View> view =
+                    JavaDisassemblyService.snapshotView(CompletableFuture.failedFuture(transientFailure));
+            CompletionException e = assertThrows(CompletionException.class, view::join);
+            assertSame(transientFailure, e.getCause());
+        }
+    }
+
+    @Test
+    void getAotAssembly_WithoutNativeImage_ShouldReportMissingTool() {
+        if (!isNoNativeImageAvailable()) {
+            return;
+        }
+
+        Exception exception = assertThrows(Exception.class, () -> disassemblyService
+                .getAotAssembly(SIMPLE_CLASS, TEST_CLASS_NAME));
+
+        assertTrue(exception.getMessage().contains("native-image is not installed"), exception.getMessage());
+    }
+
     private boolean isNoNativeImageAvailable() {
         try {
             Process process = new ProcessBuilder("native-image", "--version")
@@ -0,0 +1,112 @@
+package com.dino.javadisassembler.service.aot;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import com.dino.javadisassembler.service.workspace.WorkspaceManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeImageAotCompilerTest {
+
+    private static final String OBJDUMP = """
+
+            image:     file format elf64-x86-64
+
+
+            Disassembly of section .text:
+
+            0000000000403000 <Test_main_7a5e1c0b9d2f4e6a1b2c3d4e5f60718293a4b5c6>:
+              403000:\tsub    $0x18,%rsp
+              403004:\tcall   403040 <Test_sq_0123456789abcdef0123456789abcdef01234567>
+
+            0000000000403020 <java.lang.String_length_abcdefabcdefabcdefabcdefabcdefabcdefabcd>:
+              403020:\tmov    0xc(%rax),%eax
+
+            0000000000403040 <Test_sq_0123456789abcdef0123456789abcdef01234567>:
+              403040:\timul   %esi,%esi
+              403043:\tret
+
+            0000000000403050 <Test$Inner::run(int)>:
+              403050:\tret
+            """;
+
+    @Test
+    void extractMethods_ShouldKeepFunctionsOfTheCompiledClasses() {
+        String assembly = NativeImageAotCompiler.extractMethods(OBJDUMP, List.of("Test", "Test$Inner"));
+
+        assertEquals("""
+                Test::main:
+                  403000:\tsub    $0x18,%rsp
+                  403004:\tcall   403040 <Test_sq_0123456789abcdef0123456789abcdef01234567>
+
+                Test::sq:
+                  403040:\timul   %esi,%esi
+                  403043:\tret
+
+                Test$Inner::run(int):
+                  403050:\tret
+                """, assembly);
+    }
+
+    @Test
+    void extractMethods_WithPackagedClass_ShouldMatchSimpleName() {
+        String assembly = NativeImageAotCompiler.extractMethods(OBJDUMP, List.of("com.example.Test"));
+
+        assertTrue(assembly.startsWith("Test::main:\n"));
+        assertFalse(assembly.contains("String"));
+    }
+
+    @Test
+    void disassemble_WithoutNativeImage_ShouldReportMissingTool() {
+        NativeImageAotCompiler compiler = new NativeImageAotCompiler(WorkspaceManager.systemTemp(),
+                "/nonexistent/native-image", "objdump", Duration.ofSeconds(10), List.of(), ResourcePolicy.defaults());
+        CompiledClasses classes = new CompiledClasses(Map.of("Test", new byte[]{(byte) 0xCA, (byte) 0xFE}));
+
+        CompilationException exception = assertThrows(CompilationException.class,
+                () -> compiler.disassemble(classes, "Test"));
+
+        assertTrue(exception.getMessage().startsWith("native-image is not installed"));
+    }
+
+    @Test
+    void disassemble_ShouldKeepTheFunctionsObjdumpStreams(@TempDir Path tempDir) throws Exception {
+        Path builder = Files.writeString(tempDir.resolve("native-image"), "#!/bin/sh\nexit 0\n");
+        Path listing = Files.writeString(tempDir.resolve("listing.txt"), OBJDUMP);
+        Path objdump = Files.writeString(tempDir.resolve("objdump"), "#!/bin/sh\ncat " + listing + "\n");
+        assertTrue(builder.toFile().setExecutable(true) && objdump.toFile().setExecutable(true));
+        NativeImageAotCompiler compiler = new NativeImageAotCompiler(WorkspaceManager.systemTemp(), builder.toString(),
+                objdump.toString(), Duration.ofSeconds(10), List.of(), ResourcePolicy.defaults());
+        CompiledClasses classes = new CompiledClasses(Map.of("Test", new byte[]{(byte) 0xCA, (byte) 0xFE}));
+
+        String assembly = compiler.disassemble(classes, "Test");
+
+        assertEquals(NativeImageAotCompiler.extractMethods(OBJDUMP, List.of("Test")), assembly);
+        assertTrue(assembly.contains("Test::sq:\n  403040:\timul"), assembly);
+    }
+
+    @Test
+    void disassemble_ShouldPassThePolicyToTheBuilder(@TempDir Path tempDir) throws Exception {
+        // Stands in for native-image: prints its arguments and fails
+        Path builder = Files.writeString(tempDir.resolve("native-image"), "#!/bin/sh\necho \"$@\"\nexit 1\n");
+        assertTrue(builder.toFile().setExecutable(true));
+        ResourcePolicy policy = new ResourcePolicy(2048L * 1024 * 1024, 3, 0, Duration.ofMinutes(8), 1024 * 1024);
+        NativeImageAotCompiler compiler = new NativeImageAotCompiler(WorkspaceManager.systemTemp(), builder.toString(),
+                "objdump", Duration.ofSeconds(10), List.of(), policy);
+        CompiledClasses classes = new CompiledClasses(Map.of("Test", new byte[]{(byte) 0xCA, (byte) 0xFE}));
+
+        CompilationException exception = assertThrows(CompilationException.class,
+                () -> compiler.disassemble(classes, "Test"));
+
+        assertTrue(exception.getMessage().contains("-J-Xmx2097152k -J-XX:ActiveProcessorCount=3 -cp"),
+                exception.getMessage());
+    }
+}
@@ -0,0 +1,115 @@
+package com.dino.javadisassembler.service.artifact;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtifactStoreTest {
+
+    @Test
+    void getOrCompile_ShouldCompileOnce() throws Exception {
+        ArtifactStore store = new ArtifactStore(10, 10_000);
+        AtomicInteger compilations = new AtomicInteger();
+
+        ArtifactStore.Artifact first = store.getOrCompile("a", () -> artifact("a", 100, compilations));
+        ArtifactStore.Artifact second = store.getOrCompile("a", () -> artifact("a", 100, compilations));
+
+        assertSame(first, second);
+        assertEquals(1, compilations.get());
+        assertEquals(1, store.stats().hits());
+        assertEquals(1, store.stats().misses());
+        assertTrue(store.contains("a"));
+    }
+
+    @Test
+    void getOrCompile_ConcurrentRequests_ShouldShareOneCompilation() throws Exception {
+        ArtifactStore store = new ArtifactStore(10, 10_000);
+        AtomicInteger compilations = new AtomicInteger();
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ArtifactStore.Artifact> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.getOrCompile("a", () -> {
+                    compiling.countDown();
+                    release.await();
+                    return artifact("a", 100, compilations);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        compiling.await();
+        CompletableFuture<ArtifactStore.Artifact> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.getOrCompile("a", () -> artifact("a", 100, compilations));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (store.stats().shared() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertSame(first.join(), second.join());
+        assertEquals(1, compilations.get());
+    }
+
+    @Test
+    void getOrCompile_Failure_ShouldNotBeStored() {
+        ArtifactStore store = new ArtifactStore(10, 10_000);
+
+        assertThrows(CompilationException.class,
+                () -> store.getOrCompile("a", () -> { throw new CompilationException("Compilation failed"); }));
+
+        assertFalse(store.contains("a"));
+        assertEquals(0, store.stats().entries());
+    }
+
+    @Test
+    void getOrCompile_ShouldEvictByTotalBytes() throws Exception {
+        ArtifactStore store = new ArtifactStore(100, 1000);
+        AtomicInteger compilations = new AtomicInteger();
+
+        store.getOrCompile("a", () -> artifact("a", 600, compilations));
+        store.getOrCompile("b", () -> artifact("b", 600, compilations));
+
+        assertEquals(1, store.stats().entries());
+        assertEquals(1, store.stats().evictions());
+        assertTrue(store.stats().bytes() <= 1000);
+    }
+
+    @Test
+    void disabled_ShouldCompileEveryTime() throws Exception {
+        ArtifactStore store = ArtifactStore.disabled();
+        AtomicInteger compilations = new AtomicInteger();
+
+        store.getOrCompile("a", () -> artifact("a", 100, compilations));
+        store.getOrCompile("a", () -> artifact("a", 100, compilations));
+
+        assertEquals(2, compilations.get());
+        assertNull(store.get("a"));
+    }
+
+    @Test
+    void id_ShouldDependOnSourceClassNameAndToolchain() {
+        String id = ArtifactStore.id("class A { }", "A", "default@21");
+
+        assertEquals(id, ArtifactStore.id("class A { }", "A", "default@21"));
+        assertNotEquals(id, ArtifactStore.id("class A {}", "A", "default@21"));
+        assertNotEquals(id, ArtifactStore.id("class A { }", "A", "jdk17@17"));
+    }
+
+    private static ArtifactStore.Artifact artifact(String id, int classBytes, AtomicInteger compilations) {
+        compilations.incrementAndGet();
+        return new ArtifactStore.Artifact(id, "", "A", new CompiledClasses(Map.of("A", new byte[classBytes])));
+    }
+}
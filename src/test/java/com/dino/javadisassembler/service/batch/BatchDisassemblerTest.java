@@ -0,0 +1,133 @@
+package com.dino.javadisassembler.service.batch;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchDisassemblerTest {
+
+    private final BatchDisassembler batch = new BatchDisassembler(4, 3, 1_000);
+
+    @AfterEach
+    void tearDown() {
+        batch.close();
+    }
+
+    @Test
+    void disassemble_ShouldReportEachClassAsItFinishes() throws Exception {
+        CompiledClasses classes = new CompiledClasses(Map.of("Slow", new byte[0], "Fast", new byte[0], "Broken", new byte[0]));
+        CountDownLatch fastReported = new CountDownLatch(1);
+        List<String> order = new ArrayList<>();
+
+        int count = batch.disassemble(classes, (compiled, className) -> {
+            if (className.equals("Broken")) {
+                throw new CompilationException("Class file is truncated");
+            }
+            if (className.equals("Slow")) {
+                assertTrue(fastReported.await(5, TimeUnit.SECONDS));
+            }
+            return "listing of " + className;
+        }, result -> {
+            order.add(result.className());
+            if (result.className().equals("Fast")) {
+                fastReported.countDown();
+            }
+            if (result.className().equals("Broken")) {
+                assertFalse(result.success());
+                assertEquals("Class file is truncated", result.errorMessage());
+            }
+        });
+
+        assertEquals(3, count);
+        assertTrue(order.indexOf("Fast") < order.indexOf("Slow"), order.toString());
+    }
+
+    @Test
+    void disassemble_ShouldUseSeveralThreads() throws Exception {
+        CompiledClasses classes = new CompiledClasses(Map.of("A", new byte[0], "B", new byte[0]));
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        Map<String, String> threads = new ConcurrentHashMap<>();
+
+        batch.disassemble(classes, (compiled, className) -> {
+            threads.put(className, Thread.currentThread().getName());
+            bothRunning.countDown();
+            assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+            return className;
+        }, result -> assertTrue(result.success(), result.errorMessage()));
+
+        assertNotEquals(threads.get("A"), threads.get("B"));
+    }
+
+    @Test
+    void readJar_ShouldSplitClassesAndSources() throws Exception {
+        byte[] jar = jar(Map.of(
+                "com/example/Main.class", new byte[]{(byte) 0xCA, (byte) 0xFE},
+                "com/example/Main.java", "package com.example;".getBytes(),
+                "META-INF/versions/11/com/example/Main.class", new byte[1],
+                "module-info.class", new byte[1],
+                "logo.png", new byte[1]));
+
+        BatchDisassembler.Archive archive = batch.readJar(jar);
+
+        assertEquals(List.of("com.example.Main"), List.copyOf(archive.classes().keySet()));
+        assertEquals(Map.of("com/example/Main.java", "package com.example;"), archive.sources());
+    }
+
+    @Test
+    void readJar_ShouldEnforceLimits() throws Exception {
+        assertThrows(CompilationException.class, () -> batch.readJar(new byte[1_001]));
+
+        byte[] tooMany = jar(Map.of("A.class", new byte[1], "B.class", new byte[1], "C.class", new byte[1], "D.class", new byte[1]));
+        assertThrows(CompilationException.class, () -> batch.readJar(tooMany));
+
+        // compresses to far less than the limit, but extracts to more
+        byte[] bomb = jar(Map.of("Zeros.class", new byte[5_000]));
+        assertTrue(bomb.length < 1_000);
+        assertThrows(CompilationException.class, () -> batch.readJar(bomb));
+    }
+
+    @Test
+    void readJar_ShouldRejectClassFilesNotNamedAfterAClass() throws Exception {
+        for (String name : List.of("-J-XX:VMOptionsFile=opts.class", "com/-verbose.class", "../Main.class", "a b.class")) {
+            byte[] jar = jar(Map.of(name, new byte[1]));
+            assertThrows(CompilationException.class, () -> batch.readJar(jar), name);
+        }
+        byte[] nested = jar(Map.of("com/example/Outer$Inner.class", new byte[1], "com/example/package-info.class", new byte[1]));
+        assertEquals(List.of("com.example.Outer$Inner"), List.copyOf(batch.readJar(nested).classes().keySet()));
+    }
+
+    @Test
+    void checkSources_ShouldRejectPathsOutsideTheSourceTree() {
+        assertDoesNotThrow(() -> batch.checkSources(Map.of("com/example/Main.java", "", "Main.java", "")));
+        for (String path : List.of("../Main.java", "/etc/Main.java", "com//Main.java", "Main.txt", "a/../Main.java")) {
+            assertThrows(CompilationException.class, () -> batch.checkSources(Map.of(path, "")), path);
+        }
+        assertThrows(CompilationException.class, () -> batch.checkSources(
+                Map.of("A.java", "", "B.java", "", "C.java", "", "D.java", "")));
+    }
+
+    private static byte[] jar(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JarOutputStream out = new JarOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.putNextEntry(new JarEntry(entry.getKey()));
+                out.write(entry.getValue());
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
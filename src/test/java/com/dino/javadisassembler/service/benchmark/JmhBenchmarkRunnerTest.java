@@ -0,0 +1,133 @@
+package com.dino.javadisassembler.service.benchmark;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.process.ResourcePolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JmhBenchmarkRunnerTest {
+
+    private static final String RESULT_JSON = """
+            [
+              {
+                "benchmark": "demo.Bench.sum",
+                "mode": "avgt",
+                "params": {"size": "1000"},
+                "primaryMetric": {"score": 312.5, "scoreError": 4.25, "scoreUnit": "ns/op"},
+                "secondaryMetrics": {
+                  "·gc.alloc.rate.norm": {"score": 16.0, "scoreError": "NaN", "scoreUnit": "B/op"},
+                  "·asm": {"score": "NaN", "scoreError": "NaN", "scoreUnit": ""}
+                }
+              },
+              {
+                "benchmark": "demo.Bench.sum",
+                "mode": "avgt",
+                "params": {"size": "10"},
+                "primaryMetric": {"score": 4.0, "scoreError": "NaN", "scoreUnit": "ns/op"},
+                "secondaryMetrics": {}
+              }
+            ]
+            """;
+
+    private static final String OUTPUT = """
+            # Benchmark: demo.Bench.sum
+            Result "demo.Bench.sum":
+              312.5 ±(99.9%) 4.25 ns/op
+
+            Secondary result "demo.Bench.sum:asm":
+            ....[Hottest Region 1]....
+             42.10%  0x00007f3b1c0a2000: add    %r10d,%eax
+
+            # Benchmark: demo.Bench.sum
+            Secondary result "demo.Bench.sum:·asm":
+            ....[Hottest Region 1]....
+             90.00%  0x00007f3b1c0a3000: ret
+            """;
+
+    @Test
+    void readResult_ShouldOnlyReadARegularFileWithinTheCap(@TempDir Path tempDir) throws Exception {
+        Path result = Files.writeString(tempDir.resolve("result.json"), "[]");
+        Path link = Files.createSymbolicLink(tempDir.resolve("link.json"), result);
+
+        assertEquals("[]", JmhBenchmarkRunner.readResult(result, 2));
+        assertThrows(CompilationException.class, () -> JmhBenchmarkRunner.readResult(result, 1));
+        assertThrows(CompilationException.class, () -> JmhBenchmarkRunner.readResult(link, 2));
+    }
+
+    @Test
+    void report_ShouldReadScoresAndSecondaryMetrics() throws Exception {
+        BenchmarkReport report = JmhBenchmarkRunner.report(RESULT_JSON, "");
+
+        assertEquals(2, report.scores().size());
+        BenchmarkReport.Score score = report.scores().get(0);
+        assertEquals("demo.Bench.sum", score.benchmark());
+        assertEquals("avgt", score.mode());
+        assertEquals(Map.of("size", "1000"), score.params());
+        assertEquals(312.5, score.score());
+        assertEquals(Double.valueOf(4.25), score.error());
+        assertEquals("ns/op", score.unit());
+        // The dot JMH puts before profiler metrics is dropped, and the text-only asm result skipped
+        assertEquals(Map.of("gc.alloc.rate.norm", new BenchmarkReport.Metric(16.0, null, "B/op")), score.secondary());
+        assertNull(score.hotRegion());
+        assertNull(report.scores().get(1).error());
+    }
+
+    @Test
+    void report_ShouldGiveEachRunItsPerfasmSection() throws Exception {
+        BenchmarkReport report = JmhBenchmarkRunner.report(RESULT_JSON, OUTPUT);
+
+        assertTrue(report.scores().get(0).hotRegion().contains("42.10%"));
+        assertTrue(report.scores().get(1).hotRegion().contains("90.00%"));
+        assertFalse(report.scores().get(0).hotRegion().contains("# Benchmark"));
+    }
+
+    @Test
+    void command_ShouldPassOptionsAndLimitsToJmh() {
+        JmhBenchmarkRunner runner = runner();
+        BenchmarkOptions options = new BenchmarkOptions(2, 3, 5, Duration.ofMillis(500), "avgt", "ns", true, false);
+
+        List<String> command = runner.command(Path.of("classes"), Path.of("result.json"), options);
+
+        String joined = String.join(" ", command);
+        assertTrue(joined.contains("org.openjdk.jmh.Main -f 2 -wi 3 -i 5 -w 500ms -r 500ms"), joined);
+        assertTrue(joined.contains("-bm avgt -tu ns -prof gc"), joined);
+        assertFalse(command.contains("perfasm"));
+        String limits = String.join(" ", ResourcePolicy.defaults().jvmOptions());
+        for (String option : List.of("-jvmArgsPrepend", "-jvmArgs", "-jvmArgsAppend")) {
+            assertEquals(limits, command.get(command.indexOf(option) + 1), option);
+        }
+    }
+
+    @Test
+    void run_ShouldRejectRunsOverTheLimits() {
+        JmhBenchmarkRunner runner = runner();
+
+        assertThrows(CompilationException.class, () -> runner.run("class Bench { }", "Bench",
+                new BenchmarkOptions(3, 1, 1, Duration.ofMillis(100), null, null, false, false)));
+        assertThrows(CompilationException.class, () -> runner.run("class Bench { }", "Bench",
+                new BenchmarkOptions(1, 10, 11, Duration.ofMillis(100), null, null, false, false)));
+        assertThrows(CompilationException.class, () -> runner.run("class Bench { }", "Bench",
+                new BenchmarkOptions(2, 5, 10, Duration.ofSeconds(5), null, null, false, false)));
+    }
+
+    @Test
+    void options_ShouldRejectUnknownModes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BenchmarkOptions(1, 1, 1, Duration.ofMillis(100), "fast", null, false, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BenchmarkOptions(0, 1, 1, Duration.ofMillis(100), null, null, false, false));
+    }
+
+    private static JmhBenchmarkRunner runner() {
+        return new JmhBenchmarkRunner(null, List.of(Path.of("jmh-core.jar")), Duration.ofMinutes(3), 2, 20,
+                Duration.ofMinutes(2), ResourcePolicy.defaults());
+    }
+}
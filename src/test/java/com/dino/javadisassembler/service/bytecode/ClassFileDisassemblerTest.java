@@ -0,0 +1,140 @@
+package com.dino.javadisassembler.service.bytecode;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.util.TestHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ClassFileDisassemblerTest {
+
+    private static final String GENERICS_AND_CONTROL_FLOW = """
+            import java.util.*;
+            import java.io.Serializable;
+            public class Sample<T extends Comparable<T>> implements Serializable, Runnable {
+                private static final long serialVersionUID = 42L;
+                public static final String NAME = "x\\ty\\"z";
+                static final double D = 1.5;
+                static final float F = 2.5f;
+                static final int BIG = 100000;
+                protected volatile int count;
+                private transient List<T> items = new ArrayList<>();
+                enum Color { RED, GREEN }
+                record Point(int x, int y) {}
+                interface Shape { default double area() { return 0; } }
+                public synchronized void run() { count++; }
+                public T max() throws IllegalStateException {
+                    T best = null;
+                    for (T t : items) { if (best == null || t.compareTo(best) > 0) best = t; }
+                    if (best == null) throw new IllegalStateException("empty");
+                    return best;
+                }
+                int sw(int k) {
+                    switch (k) { case 1: return 10; case 2: return 20; case 3: return 30; default: return -1; }
+                }
+                int lsw(int k) {
+                    switch (k) { case 1: return 10; case 1000: return 20; default: return -1; }
+                }
+                long wide(long a) { int[] arr = new int[3]; int[][] m = new int[2][2]; Object o = arr; if (o instanceof int[]) a += arr.length; long x = a; x += 300; int i = 0; i += 1000; return x << 2; }
+                static String lam(List<String> l) {
+                    Runnable r = () -> System.out.println(l);
+                    r.run();
+                    try { return String.join(",", l) + l.size(); } catch (RuntimeException e) { return null; } finally { System.gc(); }
+                }
+                abstract static class Abs { abstract void f(); native void g(); }
+                public static void main(String... args) { char c = 'a'; byte b = 1; short s = 2; boolean z = true; System.out.println(c + b + s + (z ? 1 : 0)); }
+            }
+            """;
+
+    private static final String ANNOTATIONS_AND_NESTING = """
+            import java.lang.annotation.*;
+            @Retention(RetentionPolicy.RUNTIME) @interface Tag { String value() default "v"; int[] nums() default {1,2}; RetentionPolicy p() default RetentionPolicy.CLASS; Class<?> c() default Object.class; }
+            @Deprecated
+            public class Ann {
+                @Tag(value = "x", nums = {3}) int f;
+                @Deprecated @Tag void m(@Tag("p") int a, final String b) { Runnable r = new Runnable() { public void run() {} }; }
+                static { System.out.println(); }
+                strictfp double sf() { return 1; }
+                sealed interface S permits A, B {}
+                final class A implements S {}
+                non-sealed class B implements S {}
+            }
+            """;
+
+    private final InMemorySourceCompiler compiler = new InMemorySourceCompiler();
+    private final InProcessBytecodeDisassembler disassembler = new InProcessBytecodeDisassembler();
+
+    static Stream<Arguments> sources() {
+        return Stream.of(
+            Arguments.of(GENERICS_AND_CONTROL_FLOW, "Sample"),
+            Arguments.of(ANNOTATIONS_AND_NESTING, "Ann")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("sources")
+    void disassemble_ShouldMatchJavapForEveryClass(String source, String className) throws Exception {
+        assumeTrue(TestHelper.isProcessAvailable("javap", "-version"), "javap not available");
+        CompiledClasses classes = compiler.compile(source, className);
+        JavapBytecodeDisassembler javap = new JavapBytecodeDisassembler();
+
+        for (String name : classes.classNames()) {
+            assertEquals(withoutHeader(javap.disassemble(classes, name)),
+                    withoutHeader(disassembler.disassemble(classes, name)), name);
+        }
+    }
+
+    @Test
+    void disassemble_ShouldRenderInstructionsAndConstants() throws Exception {
+        CompiledClasses classes = compiler.compile(GENERICS_AND_CONTROL_FLOW, "Sample");
+
+        String result = disassembler.disassemble(classes, "Sample");
+
+        assertTrue(result.contains("public class Sample<T extends java.lang.Comparable<T>> extends java.lang.Object"
+                + " implements java.io.Serializable, java.lang.Runnable"));
+        assertTrue(result.contains("ConstantValue: String x\\ty\\\"z"));
+        assertTrue(result.contains("tableswitch   { // 1 to 3"));
+        assertTrue(result.contains("lookupswitch  { // 2"));
+        assertTrue(result.contains("iinc_w        8, 1000"));
+        assertTrue(result.contains("invokedynamic #"));
+        assertTrue(result.contains("public static void main(java.lang.String...);"));
+    }
+
+    @Test
+    void disassemble_ShouldRejectMissingClass() throws Exception {
+        CompiledClasses classes = compiler.compile("class Present { }", "Present");
+
+        CompilationException exception = assertThrows(CompilationException.class, () ->
+            disassembler.disassemble(classes, "Absent"));
+        assertTrue(exception.getMessage().contains("Class not found: Absent"));
+    }
+
+    @Test
+    void disassemble_ShouldRejectMalformedClassFile() {
+        ClassFileDisassembler classFileDisassembler = new ClassFileDisassembler();
+
+        assertThrows(IllegalArgumentException.class, () -> classFileDisassembler.disassemble(new byte[]{1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () ->
+            classFileDisassembler.disassemble(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 61, 0, 9}));
+    }
+
+    /** Drops the header lines (file path, size, checksum) that depend on where the class was read from */
+    private static List<String> withoutHeader(String listing) {
+        List<String> lines = Arrays.asList(listing.split("\n", -1));
+        int start = 0;
+        while (start < lines.size() && (lines.get(start).startsWith("Classfile") || lines.get(start).startsWith("  "))) {
+            start++;
+        }
+        return lines.subList(start, lines.size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.dino.javadisassembler.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisassemblyCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void key_ShouldDependOnEveryInput() {
+        String key = DisassemblyCache.key("bytecode", "class A { }", "A", "");
+
+        assertEquals(key, DisassemblyCache.key("bytecode", "class A { }", "A", ""));
+        assertEquals(64, key.length());
+        assertNotEquals(key, DisassemblyCache.key("jit", "class A { }", "A", ""));
+        assertNotEquals(key, DisassemblyCache.key("bytecode", "class A {}", "A", ""));
+        assertNotEquals(key, DisassemblyCache.key("bytecode", "class A { }", "B", ""));
+        assertNotEquals(key, DisassemblyCache.key("bytecode", "class A { }", "A", "-XX:+PrintAssembly"));
+    }
+
+    @Test
+    void get_ShouldCountHitsAndMisses() {
+        DisassemblyCache cache = new DisassemblyCache(10, 1000, null);
+
+        assertNull(cache.get("k"));
+        cache.put("k", "value");
+        assertEquals("value", cache.get("k"));
+
+        DisassemblyCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.entries());
+    }
+
+    @Test
+    void put_ShouldEvictByWeight() {
+        DisassemblyCache cache = new DisassemblyCache(100, 1000, null);
+
+        cache.put("large1", "x".repeat(600));
+        cache.put("large2", "x".repeat(600));
+
+        assertEquals(1, cache.stats().entries());
+        assertEquals(1, cache.stats().evictions());
+        assertTrue(cache.stats().weight() <= 1000);
+    }
+
+    @Test
+    void put_ShouldEvictByEntryCount() {
+        DisassemblyCache cache = new DisassemblyCache(3, 1_000_000, null);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, "v");
+        }
+
+        assertEquals(3, cache.stats().entries());
+        assertEquals(7, cache.stats().evictions());
+    }
+
+    @Test
+    void diskTier_ShouldSurviveRestart() {
+        String key = DisassemblyCache.key("bytecode", "class A { }", "A", "");
+        new DisassemblyCache(10, 1000, new DiskCacheTier(tempDir, 10_000)).put(key, "persisted");
+
+        DisassemblyCache restarted = new DisassemblyCache(10, 1000, new DiskCacheTier(tempDir, 10_000));
+
+        assertEquals("persisted", restarted.get(key));
+        assertEquals(1, restarted.stats().diskHits());
+        assertEquals(1, restarted.stats().diskEntries());
+        // promoted to memory, so the next lookup does not touch the disk
+        assertEquals("persisted", restarted.get(key));
+        assertEquals(1, restarted.stats().diskHits());
+    }
+
+    @Test
+    void diskTier_ShouldDeleteLeastRecentlyUsedEntriesOverBudget() {
+        DiskCacheTier disk = new DiskCacheTier(tempDir, 250);
+
+        disk.write("aa01", "x".repeat(100));
+        disk.write("aa02", "x".repeat(100));
+        disk.read("aa01");
+        disk.write("aa03", "x".repeat(100));
+
+        assertEquals(2, disk.entries());
+        assertNull(disk.read("aa02"));
+        assertNotNull(disk.read("aa01"));
+        assertNotNull(disk.read("aa03"));
+    }
+
+    @Test
+    void disabled_ShouldNeverStore() {
+        DisassemblyCache cache = DisassemblyCache.disabled();
+
+        cache.put("k", "value");
+
+        assertNull(cache.get("k"));
+        assertEquals(0, cache.stats().entries());
+    }
+}
@@ -0,0 +1,74 @@
+package com.dino.javadisassembler.service.compiler;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceCompilerTest {
+
+    private static final String NESTED_CLASS = """
+                               public class Outer {
+                                  static class Inner { }
+                                  Runnable task = () -> { };
+                               }""";
+
+    static Stream<Arguments> compilers() {
+        return Stream.of(
+            Arguments.of(new InMemorySourceCompiler()),
+            Arguments.of(new ForkingSourceCompiler())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("compilers")
+    void compile_ShouldReturnAllProducedClasses(SourceCompiler compiler) throws Exception {
+        CompiledClasses classes = compiler.compile(NESTED_CLASS, "Outer");
+
+        assertTrue(classes.contains("Outer"));
+        assertTrue(classes.contains("Outer$Inner"));
+        assertEquals((byte) 0xCA, classes.bytes("Outer")[0]);
+        assertTrue(classes.totalBytes() > 0);
+    }
+
+    @ParameterizedTest
+    @MethodSource("compilers")
+    void compile_ShouldSupportPackagedClasses(SourceCompiler compiler) throws Exception {
+        CompiledClasses classes = compiler.compile("package demo.app; public class Main { }", "demo.app.Main");
+
+        assertTrue(classes.contains("demo.app.Main"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("compilers")
+    void compile_ShouldCompileSourcesTogether(SourceCompiler compiler) throws Exception {
+        CompiledClasses classes = compiler.compile(Map.of(
+                "app/Main.java", "package app; public class Main { util.Strings strings; }",
+                "util/Strings.java", "package util; public class Strings { }"));
+
+        assertEquals(Set.of("app.Main", "util.Strings"), classes.classNames());
+    }
+
+    @ParameterizedTest
+    @MethodSource("compilers")
+    void compile_ShouldFailWithDiagnostics(SourceCompiler compiler) {
+        CompilationException exception = assertThrows(CompilationException.class, () ->
+            compiler.compile("public class Broken { void run() { undefined(); } }", "Broken"));
+
+        assertTrue(exception.getMessage().startsWith("Compilation failed"));
+        assertTrue(exception.getMessage().contains("Broken.java:1: error"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("compilers")
+    void compile_ShouldNotExposeServerClasspath(SourceCompiler compiler) {
+        assertThrows(CompilationException.class, () ->
+            compiler.compile("class UsesSpring { org.springframework.stereotype.Service s; }", "UsesSpring"));
+    }
+}
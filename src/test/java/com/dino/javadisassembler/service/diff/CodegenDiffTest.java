@@ -0,0 +1,128 @@
+package com.dino.javadisassembler.service.diff;
+
+import com.dino.javadisassembler.service.bytecode.ClassFileDisassembler;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import com.dino.javadisassembler.service.jit.CompiledMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodegenDiffTest {
+
+    private final CodegenDiff diff = new CodegenDiff(1000, 1);
+
+    @Test
+    void diffBytecode_ShouldReportOnlyTheChangedMethod() throws Exception {
+        InMemorySourceCompiler compiler = new InMemorySourceCompiler();
+        ClassFileDisassembler disassembler = new ClassFileDisassembler();
+        String before = """
+                public class Test {
+                    int twice(int a) { return a * 2; }
+                    int sum(int[] values) {
+                        int sum = 0;
+                        for (int value : values) { sum += value; }
+                        return sum;
+                    }
+                }""";
+        // A new constant and a blank line shift constant-pool indices and line numbers of sum
+        String after = """
+                public class Test {
+
+                    int twice(int a) { return a << 1; }
+                    String name() { return "test"; }
+                    int sum(int[] values) {
+                        int sum = 0;
+                        for (int value : values) { sum += value; }
+                        return sum;
+                    }
+                }""";
+
+        CodegenDiff.Result result = diff.diffBytecode(
+                CodegenDiff.bytecodeListings(compiler.compile(before, "Test"), disassembler),
+                CodegenDiff.bytecodeListings(compiler.compile(after, "Test"), disassembler));
+
+        assertEquals(2, result.unchanged());
+        assertEquals(List.of("Test::twice(I)I", "Test::name()Ljava/lang/String;"),
+                result.methods().stream().map(CodegenDiff.MethodDiff::method).toList());
+        CodegenDiff.MethodDiff twice = result.methods().get(0);
+        assertEquals(CodegenDiff.MethodDiff.Kind.CHANGED, twice.kind());
+        List<String> lines = twice.hunks().get(0).lines();
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("-") && line.contains("imul")));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("+") && line.contains("ishl")));
+        assertEquals(CodegenDiff.MethodDiff.Kind.ADDED, result.methods().get(1).kind());
+    }
+
+    @Test
+    void diffBytecode_ShouldFindShortestEditScript() {
+        CodegenDiff.Result result = diff.diffBytecode(
+                Map.of("m", List.of("a", "b", "c", "a", "b", "b", "a")),
+                Map.of("m", List.of("c", "b", "a", "b", "a", "c")));
+
+        CodegenDiff.MethodDiff method = result.methods().get(0);
+        assertEquals(5, method.added() + method.removed());
+        assertEquals(2, method.added());
+    }
+
+    @Test
+    void diffBytecode_ShouldSplitDistantChangesIntoHunksWithContext() {
+        List<String> before = List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+        List<String> after = List.of("0", "x", "2", "3", "4", "5", "6", "7", "y", "9");
+
+        CodegenDiff.MethodDiff method = diff.diffBytecode(Map.of("m", before), Map.of("m", after)).methods().get(0);
+
+        assertEquals(2, method.hunks().size());
+        CodegenDiff.Hunk first = method.hunks().get(0);
+        assertEquals(1, first.beforeLine());
+        assertEquals(List.of(" 0", "-1", "+x", " 2"), first.lines());
+        CodegenDiff.Hunk second = method.hunks().get(1);
+        assertEquals(8, second.beforeLine());
+        assertEquals(List.of(" 7", "-8", "+y", " 9"), second.lines());
+    }
+
+    @Test
+    void diffBytecode_ShouldReportMethodsBeyondMaxEditsAsReplaced() {
+        CodegenDiff bounded = new CodegenDiff(2, 0);
+
+        CodegenDiff.MethodDiff method = bounded.diffBytecode(
+                Map.of("m", List.of("a", "b", "c", "d")),
+                Map.of("m", List.of("a", "x", "y", "z"))).methods().get(0);
+
+        assertEquals(3, method.added());
+        assertEquals(3, method.removed());
+        assertEquals(List.of("-b", "-c", "-d", "+x", "+y", "+z"), method.hunks().get(0).lines());
+    }
+
+    @Test
+    void diffJit_ShouldIgnoreAddresses() {
+        CompiledMethod before = method(1, "0x00007f3b1c0a1000", "(line 3)");
+        CompiledMethod after = method(7, "0x00007f2a4d0c2a80", "(line 5)");
+
+        CodegenDiff.Result result = diff.diffJit(CodegenDiff.jitListings(List.of(before)),
+                CodegenDiff.jitListings(List.of(after)));
+
+        assertTrue(result.methods().isEmpty());
+        assertEquals(1, result.unchanged());
+    }
+
+    @Test
+    void jitListings_ShouldKeepRecompilationsApart() {
+        Map<String, List<String>> listings = CodegenDiff.jitListings(List.of(
+                method(1, "0x00007f3b1c0a1000", "(line 3)"), method(2, "0x00007f3b1c0a2000", "(line 3)")));
+
+        assertEquals(List.of("Test::sq c2 tier 4", "Test::sq c2 tier 4 #2"), List.copyOf(listings.keySet()));
+        assertEquals(List.of("[Verified Entry Point]", "mov %eax,0x10(%rsp)",
+                        "call " + "0x00007f3b1c0a1000" + "  ; {runtime_call} - Test::sq@1 (line 3)"),
+                listings.get("Test::sq c2 tier 4"));
+    }
+
+    private static CompiledMethod method(int compileId, String target, String line) {
+        return new CompiledMethod("Test::sq", compileId, "c2", 4, false, null, 8, 32, true, List.of(
+                new CompiledMethod.Instruction("0x00007f0000000000", "Verified Entry Point", "mov %eax,0x10(%rsp)", ""),
+                new CompiledMethod.Instruction("0x00007f0000000004", "Verified Entry Point", "call " + target,
+                        "{runtime_call} - Test::sq@1 " + line)),
+                List.of());
+    }
+}
@@ -0,0 +1,96 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashDispatcherTest {
+
+    private final InMemoryJobTransport transport =
+            new InMemoryJobTransport(new QueueLimits(64, 64, Duration.ofSeconds(30)));
+    private final ConsistentHashDispatcher dispatcher = new ConsistentHashDispatcher(transport, 128);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    void dispatch_ShouldSendEverySourceToOneWorker() throws Exception {
+        for (String worker : new String[]{"a", "b", "c"}) {
+            dispatcher.startWorker(worker, 2, (job, clientId) -> CompletableFuture.completedFuture(worker));
+        }
+        Set<String> workersUsed = new HashSet<>();
+
+        for (int i = 0; i < 30; i++) {
+            String source = "class Test { int f = " + i + "; }";
+            String bytecodeWorker = dispatcher.dispatch(job(DispatchJob.Kind.BYTECODE, source), "client", this::local)
+                    .get(5, TimeUnit.SECONDS);
+            String jitWorker = dispatcher.dispatch(job(DispatchJob.Kind.JIT, source), "client", this::local)
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(bytecodeWorker, jitWorker);
+            workersUsed.add(bytecodeWorker);
+        }
+
+        assertEquals(Set.of("a", "b", "c"), workersUsed);
+    }
+
+    @Test
+    void dispatch_WithoutWorkers_ShouldRunHere() throws Exception {
+        assertEquals("local", dispatcher.dispatch(job(DispatchJob.Kind.BYTECODE, "class Test { }"), "client",
+                this::local).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void dispatch_ShouldPassJobFailuresOn() throws Exception {
+        dispatcher.startWorker("a", 1,
+                (job, clientId) -> CompletableFuture.failedFuture(new CompilationException("Compilation failed")));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> dispatcher.dispatch(
+                job(DispatchJob.Kind.BYTECODE, "class Test { }"), "client", this::local).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(CompilationException.class, e.getCause());
+        assertEquals("Compilation failed", e.getCause().getMessage());
+    }
+
+    @Test
+    void dispatch_WhenWorkerGoesAway_ShouldSendQueuedJobsElsewhere() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> blocked = new CompletableFuture<>();
+        dispatcher.startWorker("a", 1, (job, clientId) -> {
+            started.countDown();
+            return blocked;
+        });
+        // The first job occupies the only slot of a; the second waits in its queue
+        CompletableFuture<String> first = dispatcher.dispatch(job(DispatchJob.Kind.BYTECODE, "class A { }"), "client",
+                this::local);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = dispatcher.dispatch(job(DispatchJob.Kind.BYTECODE, "class B { }"), "client",
+                this::local);
+        dispatcher.startWorker("b", 1, (job, clientId) -> CompletableFuture.completedFuture("b"));
+
+        transport.stopWorker("a");
+
+        assertEquals("b", second.get(5, TimeUnit.SECONDS));
+        blocked.complete("a");
+        assertEquals("a", first.get(5, TimeUnit.SECONDS));
+    }
+
+    private CompletableFuture<String> local(DispatchJob job, String clientId) {
+        return CompletableFuture.completedFuture("local");
+    }
+
+    private static DispatchJob job(DispatchJob.Kind kind, String source) {
+        return new DispatchJob(kind, source, "Test", "default");
+    }
+}
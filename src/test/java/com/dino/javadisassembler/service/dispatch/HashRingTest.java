@@ -0,0 +1,51 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    @Test
+    void route_ShouldShareKeysOutEvenly() {
+        HashRing ring = new HashRing(List.of("a", "b", "c", "d"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(ring.route(HashRing.hash("Test", "class Test { int f = " + i + "; }")), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.forEach((node, count) -> assertTrue(count > 1_500 && count < 3_500, node + " got " + count));
+    }
+
+    @Test
+    void route_ShouldOnlyMoveTheKeysOfARemovedNode() {
+        HashRing before = new HashRing(List.of("a", "b", "c"), 128);
+        HashRing after = new HashRing(List.of("a", "c"), 128);
+
+        for (int i = 0; i < 2_000; i++) {
+            long hash = HashRing.hash("Test", String.valueOf(i));
+            if (!before.route(hash).equals("b")) {
+                assertEquals(before.route(hash), after.route(hash));
+            }
+        }
+    }
+
+    @Test
+    void route_ShouldReturnNullOnAnEmptyRing() {
+        assertNull(new HashRing(List.of(), 128).route(42));
+    }
+
+    @Test
+    void routingHash_ShouldNotDependOnKindOrToolchain() {
+        DispatchJob bytecode = new DispatchJob(DispatchJob.Kind.BYTECODE, "class Test { }", "Test", "default");
+        DispatchJob jit = new DispatchJob(DispatchJob.Kind.JIT, "class Test { }", "Test", "jdk21");
+
+        assertEquals(bytecode.routingHash(), jit.routingHash());
+    }
+}
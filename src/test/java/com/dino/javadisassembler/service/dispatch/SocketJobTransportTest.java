@@ -0,0 +1,175 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocketJobTransportTest {
+
+    private static final QueueLimits LIMITS = new QueueLimits(64, 64, Duration.ofSeconds(30));
+    private static final String SECRET = "s3cret";
+
+    private SocketJobTransport transport;
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    @Test
+    void send_ShouldRunJobsOnALoopbackWorker() throws Exception {
+        transport = new SocketJobTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), LIMITS, SECRET);
+        transport.startWorker("w1", 2, (job, clientId) -> CompletableFuture.completedFuture(
+                job.kind() + " " + job.className() + " for " + clientId + ": " + job.sourceCode().length()));
+        awaitWorkers(List.of("w1"));
+        String source = "class Test { String s = \"" + "é".repeat(40_000) + "\"; }";
+
+        String result = transport.send("w1", new DispatchJob(DispatchJob.Kind.JIT, source, "Test", "default"), "10.0.0.1")
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("JIT Test for 10.0.0.1: " + source.length(), result);
+    }
+
+    @Test
+    void send_ClassNameOverTheModifiedUtf8Limit_ShouldNotWedgeTheConnection() throws Exception {
+        transport = new SocketJobTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), LIMITS, SECRET);
+        transport.startWorker("w1", 1, (job, clientId) -> CompletableFuture.completedFuture(
+                String.valueOf(job.className().length())));
+        awaitWorkers(List.of("w1"));
+
+        String longName = transport.send("w1", job("A".repeat(70_000)), "client").get(5, TimeUnit.SECONDS);
+        String next = transport.send("w1", job("Test"), "client").get(5, TimeUnit.SECONDS);
+
+        assertEquals("70000", longName);
+        assertEquals("4", next);
+    }
+
+    @Test
+    void send_ShouldRebuildJobFailuresOnTheFront() throws Exception {
+        transport = new SocketJobTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), LIMITS, SECRET);
+        transport.startWorker("w1", 1, (job, clientId) -> CompletableFuture.failedFuture(job.className().equals("Busy")
+                ? new JobRejectedException("Too many bytecode requests", 7)
+                : new CompilationException("Test.java:1: error: ';' expected",
+                        new CompileErrorException("Test.java:1: error: ';' expected"))));
+        awaitWorkers(List.of("w1"));
+
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> transport.send("w1", job("Busy"), "client").get(5, TimeUnit.SECONDS));
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> transport.send("w1", job("Test"), "client").get(5, TimeUnit.SECONDS));
+
+        assertEquals(7, assertInstanceOf(JobRejectedException.class, rejected.getCause()).getRetryAfterSeconds());
+        assertEquals("Test.java:1: error: ';' expected",
+                assertInstanceOf(CompileErrorException.class, failed.getCause()).getMessage());
+    }
+
+    @Test
+    void send_ShouldKeepUnansweredJobsWithinTheWorkersConcurrency() throws Exception {
+        transport = new SocketJobTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), LIMITS, SECRET);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        transport.startWorker("w1", 2, (job, clientId) -> CompletableFuture.supplyAsync(() -> {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return job.className();
+        }));
+        awaitWorkers(List.of("w1"));
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(transport.send("w1", job("Test" + i), "client"));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Test" + i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(mostRunning.get() <= 2, "ran " + mostRunning.get() + " at once");
+    }
+
+    @Test
+    void send_ToUnknownWorker_ShouldFailWithWorkerUnavailable() throws Exception {
+        transport = new SocketJobTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), LIMITS, SECRET);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> transport.send("nobody", job("Test"), "client").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(WorkerUnavailableException.class, e.getCause());
+    }
+
+    @Test
+    void send_WhenWorkerDisconnects_ShouldFailItsUnansweredJobs() throws Exception {
+        transport = new SocketJobTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), LIMITS, SECRET);
+        SocketJobWorker worker = new SocketJobWorker(
+                List.of(new InetSocketAddress(InetAddress.getLoopbackAddress(), transport.port())), "w1", 1,
+                SECRET, (job, clientId) -> new CompletableFuture<>());
+        worker.start();
+        awaitWorkers(List.of("w1"));
+        CompletableFuture<String> running = transport.send("w1", job("Running"), "client");
+        CompletableFuture<String> queued = transport.send("w1", job("Queued"), "client");
+
+        worker.close();
+
+        for (CompletableFuture<String> result : List.of(running, queued)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(WorkerUnavailableException.class, e.getCause());
+        }
+        awaitWorkers(List.of());
+    }
+
+    @Test
+    void hello_WithoutTheSecret_ShouldNotRegisterTheWorker() throws Exception {
+        transport = new SocketJobTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), LIMITS, SECRET);
+        InetSocketAddress front = new InetSocketAddress(InetAddress.getLoopbackAddress(), transport.port());
+        SocketJobWorker impostor = new SocketJobWorker(List.of(front), "impostor", 1, "guess",
+                (job, clientId) -> CompletableFuture.completedFuture("stolen"));
+        impostor.start();
+        transport.startWorker("w1", 1, (job, clientId) -> CompletableFuture.completedFuture("ok"));
+        try {
+            awaitWorkers(List.of("w1"));
+            Thread.sleep(200);
+
+            assertEquals(List.of("w1"), transport.workers());
+        } finally {
+            impostor.close();
+        }
+    }
+
+    @Test
+    void constructor_WithoutSecret_ShouldOnlyBindToLoopback() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SocketJobTransport(new InetSocketAddress("0.0.0.0", 0), LIMITS, ""));
+    }
+
+    private void awaitWorkers(List<String> expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!transport.workers().equals(expected)) {
+            assertTrue(System.nanoTime() < deadline, "workers " + transport.workers() + ", expected " + expected);
+            Thread.sleep(10);
+        }
+    }
+
+    private static DispatchJob job(String className) {
+        return new DispatchJob(DispatchJob.Kind.BYTECODE, "class " + className + " { }", className, "default");
+    }
+}
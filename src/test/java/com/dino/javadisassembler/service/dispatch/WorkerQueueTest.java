@@ -0,0 +1,76 @@
+package com.dino.javadisassembler.service.dispatch;
+
+import com.dino.javadisassembler.exception.JobRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkerQueueTest {
+
+    @Test
+    void add_BeyondCapacity_ShouldRejectTheJob() throws Exception {
+        WorkerQueue queue = new WorkerQueue("w1", new QueueLimits(2, 2, Duration.ofSeconds(30)));
+        PendingJob first = pending("a");
+        queue.add(first);
+        queue.add(pending("b"));
+
+        PendingJob third = pending("c");
+        queue.add(third);
+
+        assertRejected(third, "Too many requests");
+        assertSame(first, queue.take());
+    }
+
+    @Test
+    void add_BeyondTheClientsShare_ShouldRejectOnlyThatClient() throws Exception {
+        WorkerQueue queue = new WorkerQueue("w1", new QueueLimits(10, 1, Duration.ofSeconds(30)));
+        queue.add(pending("a"));
+
+        PendingJob again = pending("a");
+        PendingJob other = pending("b");
+        queue.add(again);
+        queue.add(other);
+
+        assertRejected(again, "from this client");
+        assertFalse(other.result().isDone());
+        queue.take();
+        PendingJob afterTake = pending("a");
+        queue.add(afterTake);
+        List<PendingJob> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        assertEquals(List.of(other, afterTake), queued);
+    }
+
+    @Test
+    void add_JobWaitingPastMaxWait_ShouldBeRejected() throws Exception {
+        WorkerQueue queue = new WorkerQueue("w1", new QueueLimits(10, 10, Duration.ofMillis(50)));
+        PendingJob taken = pending("a");
+        PendingJob waiting = pending("b");
+        queue.add(taken);
+        queue.add(waiting);
+        assertSame(taken, queue.take());
+
+        assertRejected(waiting, "Timed out");
+        assertFalse(taken.result().isDone());
+        List<PendingJob> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        assertTrue(queued.isEmpty());
+    }
+
+    private static void assertRejected(PendingJob pending, String message) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> pending.result().get(5, TimeUnit.SECONDS));
+        JobRejectedException rejected = assertInstanceOf(JobRejectedException.class, e.getCause());
+        assertTrue(rejected.getMessage().contains(message), rejected.getMessage());
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+    }
+
+    private static PendingJob pending(String clientId) {
+        return new PendingJob(new DispatchJob(DispatchJob.Kind.BYTECODE, "class A { }", "A", "default"), clientId);
+    }
+}
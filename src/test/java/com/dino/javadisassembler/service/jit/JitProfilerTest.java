@@ -0,0 +1,89 @@
+package com.dino.javadisassembler.service.jit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitProfilerTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    /** C2 code of Test::main with Test::sq inlined; the loop body is the last three instructions */
+    private static final CompiledMethod MAIN = new CompiledMethod("Test::main", 7, "c2", 4, true, 4, 30, 64, true, List.of(
+            new CompiledMethod.Instruction("0x00007f0000001000", "Verified Entry Point", "sub    $0x18,%rsp", ""),
+            new CompiledMethod.Instruction("0x00007f0000001004", "Verified Entry Point", "mov    %eax,%r10d", ""),
+            new CompiledMethod.Instruction("0x00007f0000001008", "Verified Entry Point", "imul   %r10d,%r10d", ""),
+            new CompiledMethod.Instruction("0x00007f000000100c", "Verified Entry Point", "add    %r10d,%ebx", ""),
+            new CompiledMethod.Instruction("0x00007f0000001010", "Verified Entry Point", "jl     0x00007f0000001004", "")),
+            List.of(
+                    new CompiledMethod.BciMapping("0x00007f0000001000", "Test::main", 0, 3),
+                    new CompiledMethod.BciMapping("0x00007f0000001008", "Test::sq", 2, 8),
+                    new CompiledMethod.BciMapping("0x00007f0000001008", "Test::main", 12, 5),
+                    new CompiledMethod.BciMapping("0x00007f0000001010", "Test::main", 20, 4)));
+
+    @Test
+    void attribute_ShouldSpreadSamplesOverTheInstructionsOfTheirScope() {
+        List<JitProfiler.Sample> samples = new ArrayList<>();
+        // Two samples in the inlined call, one at the loop branch, one in the interpreter
+        samples.add(sample(1, compiled("Test::main", 12), inlined("Test::sq", 2)));
+        samples.add(sample(2, compiled("Test::main", 12), inlined("Test::sq", 2)));
+        samples.add(sample(3, compiled("Test::main", 20)));
+        samples.add(sample(4, new JitProfiler.Frame("Test::main", 20, JitProfiler.Frame.Kind.INTERPRETED)));
+
+        JitProfile profile = JitProfiler.attribute(List.of(MAIN), Map.of(), samples, false);
+
+        assertEquals(4, profile.samples());
+        assertEquals(3, profile.compiledSamples());
+        JitProfile.ProfiledMethod main = profile.methods().get(0);
+        assertEquals(3, main.samples());
+        assertEquals(75.0, main.percent());
+        assertEquals(List.of(0.0, 25.0, 25.0, 12.5, 12.5), main.instructionPercents());
+    }
+
+    @Test
+    void attribute_ShouldPickTheNewestCompilationInstalledBeforeTheSample() {
+        CompiledMethod c1 = new CompiledMethod("Test::main", 3, "c1", 3, true, 4, 30, 128, true, MAIN.instructions(),
+                MAIN.bciMappings());
+        Map<Integer, Instant> installed = Map.of(3, START.plusMillis(1), 7, START.plusMillis(10));
+
+        JitProfile profile = JitProfiler.attribute(List.of(c1, MAIN), installed, List.of(
+                sample(5, compiled("Test::main", 20)),
+                sample(20, compiled("Test::main", 20)),
+                sample(30, compiled("Test::main", 20))), false);
+
+        assertEquals(List.of(7, 3), profile.methods().stream().map(method -> method.code().compileId()).toList());
+        assertEquals(List.of(2L, 1L), profile.methods().stream().map(JitProfile.ProfiledMethod::samples).toList());
+    }
+
+    @Test
+    void attribute_WithUnknownScope_ShouldCountForTheMethodOnly() {
+        JitProfile profile = JitProfiler.attribute(List.of(MAIN), Map.of(),
+                List.of(sample(1, compiled("Test::main", 99)), sample(2, compiled("Test::other", 0))), true);
+
+        assertEquals(1, profile.compiledSamples());
+        JitProfile.ProfiledMethod main = profile.methods().get(0);
+        assertEquals(50.0, main.percent());
+        assertEquals(Collections.nCopies(5, 0.0), main.instructionPercents());
+        assertTrue(profile.hsdisMissing());
+    }
+
+    private static JitProfiler.Sample sample(int millis, JitProfiler.Frame... innermostLast) {
+        List<JitProfiler.Frame> frames = new ArrayList<>(List.of(innermostLast));
+        Collections.reverse(frames);
+        return new JitProfiler.Sample(START.plusMillis(millis), frames);
+    }
+
+    private static JitProfiler.Frame compiled(String method, int bci) {
+        return new JitProfiler.Frame(method, bci, JitProfiler.Frame.Kind.COMPILED);
+    }
+
+    private static JitProfiler.Frame inlined(String method, int bci) {
+        return new JitProfiler.Frame(method, bci, JitProfiler.Frame.Kind.INLINED);
+    }
+}
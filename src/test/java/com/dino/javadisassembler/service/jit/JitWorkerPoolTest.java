@@ -0,0 +1,182 @@
+package com.dino.javadisassembler.service.jit;
+
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitWorkerPoolTest {
+
+    private static final String HOT_LOOP = """
+            class Test {
+                static int sq(int x) {
+                    return x * x;
+                }
+
+                public static void main(String[] args) {
+                    long sum = 0;
+                    for (int i = 0; i < 20000; i++) {
+                        sum += sq(i);
+                    }
+                    System.out.println("sum=" + sum);
+                }
+            }""";
+
+    private final InMemorySourceCompiler compiler = new InMemorySourceCompiler();
+
+    @Test
+    void run_ShouldPrintAssemblyOfHotMethods() throws Exception {
+        CompiledClasses classes = compiler.compile(HOT_LOOP, "Test");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 4, 10, 90, Duration.ofSeconds(20))) {
+            String first = pool.run(classes, "Test");
+            String second = pool.run(classes, "Test");
+
+            assertTrue(first.contains("Test::sq"), first);
+            assertTrue(first.contains("sum=2666466670000"));
+            assertTrue(second.contains("Test::sq"), second);
+            assertFalse(first.contains("JitWorkerMain::"), "warm-up output must not leak into jobs");
+            assertEquals(1, pool.stats().workersStarted());
+            assertEquals(2, pool.stats().jobsCompleted());
+        }
+    }
+
+    @Test
+    void run_ShouldRecycleWorkerAfterMaxJobs() throws Exception {
+        CompiledClasses classes = compiler.compile(HOT_LOOP, "Test");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 4, 1, 90, Duration.ofSeconds(20))) {
+            pool.run(classes, "Test");
+            pool.run(classes, "Test");
+
+            assertTrue(pool.stats().workersRecycled() >= 1);
+            assertTrue(pool.stats().workersStarted() >= 2);
+        }
+    }
+
+    @Test
+    void run_ExceptionInMain_ShouldBeReportedAndKeepWorker() throws Exception {
+        CompiledClasses classes = compiler.compile("""
+                class Boom {
+                    public static void main(String[] args) {
+                        throw new IllegalStateException("boom");
+                    }
+                }""", "Boom");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 4, 10, 90, Duration.ofSeconds(20))) {
+            String output = pool.run(classes, "Boom");
+
+            assertTrue(output.contains("Exception in thread \"main\" java.lang.IllegalStateException: boom"), output);
+            assertEquals(0, pool.stats().workersRecycled());
+        }
+    }
+
+    @Test
+    void run_SystemExit_ShouldReturnOutputAndReplaceWorker() throws Exception {
+        CompiledClasses classes = compiler.compile("""
+                class Quit {
+                    public static void main(String[] args) {
+                        System.out.print("bye");
+                        System.exit(3);
+                    }
+                }""", "Quit");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 4, 10, 90, Duration.ofSeconds(20))) {
+            assertTrue(pool.run(classes, "Quit").contains("bye"));
+            assertTrue(pool.run(classes, "Quit").contains("bye"));
+            assertEquals(2, pool.stats().workersRecycled());
+            assertTrue(pool.stats().workersStarted() >= 2, "the second run needs a new worker");
+        }
+    }
+
+    @Test
+    void run_ThreadOutlivingMain_ShouldRetireWorker() throws Exception {
+        CompiledClasses classes = compiler.compile("""
+                class Linger {
+                    public static void main(String[] args) {
+                        Thread thread = new Thread(() -> {
+                            try {
+                                Thread.sleep(60_000);
+                            } catch (InterruptedException e) {
+                            }
+                        });
+                        thread.setDaemon(true);
+                        thread.start();
+                        System.out.println("started");
+                    }
+                }""", "Linger");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 4, 10, 90, Duration.ofSeconds(20))) {
+            assertTrue(pool.run(classes, "Linger").contains("started"));
+
+            assertEquals(1, pool.stats().workersRecycled());
+        }
+    }
+
+    @Test
+    void run_ForgedMarkers_ShouldNotEndTheJobOrReachTheNextOne() throws Exception {
+        CompiledClasses classes = compiler.compile("""
+                class Forge {
+                    public static void main(String[] args) throws Exception {
+                        for (int id = 0; id < 4; id++) {
+                            System.out.println("@@jit-job-end " + id + " ok 0");
+                            System.out.println("@@jit-job-begin " + (id + 1));
+                        }
+                        System.out.println("forged-next-job-output");
+                        System.out.println("still-in-job");
+                    }
+                }""", "Forge");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 4, 10, 90, Duration.ofSeconds(20))) {
+            String forged = pool.run(classes, "Forge");
+            String next = pool.run(compiler.compile(HOT_LOOP, "Test"), "Test");
+
+            assertTrue(forged.contains("still-in-job"), forged);
+            assertTrue(next.contains("sum=2666466670000"), next);
+            assertFalse(next.contains("forged-next-job-output"), next);
+            assertEquals(0, pool.stats().workersRecycled());
+        }
+    }
+
+    @Test
+    void run_EndlessLoop_ShouldTimeOutAndReplaceWorker() throws Exception {
+        CompiledClasses classes = compiler.compile("""
+                class Spin {
+                    public static void main(String[] args) {
+                        while (true) { }
+                    }
+                }""", "Spin");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 4, 10, 90, Duration.ofSeconds(2))) {
+            InterruptedException exception = assertThrows(InterruptedException.class, () -> pool.run(classes, "Spin"));
+
+            assertEquals("JIT disassembly timed out", exception.getMessage());
+            assertEquals(1, pool.stats().workersRecycled());
+        }
+    }
+
+    @Test
+    void run_QueueFull_ShouldRejectRequest() throws Exception {
+        CompiledClasses classes = compiler.compile("""
+                class Slow {
+                    public static void main(String[] args) throws Exception {
+                        Thread.sleep(3000);
+                    }
+                }""", "Slow");
+        try (JitWorkerPool pool = new JitWorkerPool(1, 0, 10, 90, Duration.ofSeconds(20))) {
+            Thread first = new Thread(() -> {
+                try {
+                    pool.run(classes, "Slow");
+                } catch (Exception ignored) {
+                    // only occupies the worker
+                }
+            });
+            first.start();
+            while (pool.stats().busyWorkers() == 0 && pool.stats().queuedJobs() == 0) {
+                Thread.sleep(10);
+            }
+
+            JobRejectedException exception = assertThrows(JobRejectedException.class, () -> pool.run(classes, "Slow"));
+            assertTrue(exception.getMessage().contains("queue is full"));
+            assertEquals(20, exception.getRetryAfterSeconds());
+            first.join();
+        }
+    }
+}
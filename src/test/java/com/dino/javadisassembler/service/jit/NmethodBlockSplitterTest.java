@@ -0,0 +1,45 @@
+package com.dino.javadisassembler.service.jit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NmethodBlockSplitterTest {
+
+    @Test
+    void accept_ShouldEmitBlockWhenNextMethodStarts() {
+        List<String> blocks = new ArrayList<>();
+        NmethodBlockSplitter splitter = new NmethodBlockSplitter(blocks::add);
+
+        List.of(
+                "hello",
+                "============================= C1-compiled nmethod ==============================",
+                "Compiled method (c1)      45    1       3       Test::sq (4 bytes)",
+                "  0x00007f: mov %eax,%eax",
+                "============================= C2-compiled nmethod ==============================",
+                "Compiled method (c2)      53    2       4       Test::sq (4 bytes)"
+        ).forEach(splitter);
+
+        assertEquals(2, blocks.size(), "the last block is only complete once the output ends");
+        assertEquals("hello\n", blocks.get(0));
+        assertTrue(blocks.get(1).startsWith("============================= C1-compiled"));
+        assertTrue(blocks.get(1).endsWith("mov %eax,%eax\n"));
+
+        splitter.finish();
+        assertEquals(3, blocks.size());
+        assertTrue(blocks.get(2).contains("(c2)"));
+    }
+
+    @Test
+    void finish_WithoutOutput_ShouldEmitNothing() {
+        List<String> blocks = new ArrayList<>();
+        NmethodBlockSplitter splitter = new NmethodBlockSplitter(blocks::add);
+
+        splitter.finish();
+
+        assertTrue(blocks.isEmpty());
+    }
+}
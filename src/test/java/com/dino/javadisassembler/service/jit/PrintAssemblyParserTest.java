@@ -0,0 +1,171 @@
+package com.dino.javadisassembler.service.jit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrintAssemblyParserTest {
+
+    private static final String DISASSEMBLED = """
+            OpenJDK 64-Bit Server VM warning: PrintAssembly is enabled
+            ============================= C1-compiled nmethod ==============================
+            ----------------------------------- Assembly -----------------------------------
+
+            Compiled method (c1)     440  572       3       Test::sq (4 bytes)
+             total in heap  [0x00007faa154ccc10,0x00007faa154ccf00] = 752
+             main code      [0x00007faa154ccda0,0x00007faa154cce60] = 192
+
+            [Disassembly]
+            --------------------------------------------------------------------------------
+            [Verified Entry Point]
+              # {method} {0x00007fa9d0401988} 'sq' '(I)I' in 'Test'
+              0x00007faa154ccda0:   mov    %eax,-0x14000(%rsp)
+              0x00007faa154ccdce:   je     0x00007faa154ccdf7           ;*iload_0 {reexecute=0 rethrow=0 return_oop=0}
+                                                                        ; - Test::sq@0 (line 1)
+              0x00007faa154ccdd4:   imul   %esi,%eax
+            [Exception Handler]
+              0x00007faa154cce40:   call   0x00007faa1d4a5b00           ;   {runtime_call handle_exception_from_callee Runtime1 stub}
+            [/Disassembly]
+
+            ============================= C2-compiled nmethod ==============================
+            Compiled method (c2)     462  584 %     4       Test::main @ 4 (32 bytes)
+             main code      [0x00007faa1ceed880,0x00007faa1ceed8e0] = 96
+            [Disassembly]
+            [Verified Entry Point]
+              0x00007faa1ceed880:   sub    $0x18,%rsp
+            [/Disassembly]
+            """;
+
+    private static final String RAW_HEX = """
+            ============================= C1-compiled nmethod ==============================
+            Compiled method (c1)      55    1       3       Test::sq (4 bytes)
+             main code      [0x00007fe1714001a0,0x00007fe171400260] = 192
+            [MachCode]
+            [Verified Entry Point]
+              0x00007fe1714001a0: 8984 2400 | c0fe ff55 | 4883 ec30
+
+              0x00007fe1714001d0: ;*iload_0 {reexecute=0 rethrow=0 return_oop=0}
+                                  ; - Test::sq@0 (line 1)
+              0x00007fe1714001d0: 1900 0000 | 488b c60f | afc6 4883
+            [/MachCode]
+            """;
+
+    @Test
+    void accept_ShouldParseDisassembledMethods() {
+        List<CompiledMethod> methods = parse(DISASSEMBLED, MethodFilter.ALL);
+
+        assertEquals(2, methods.size());
+        CompiledMethod sq = methods.get(0);
+        assertEquals("Test::sq", sq.method());
+        assertEquals(572, sq.compileId());
+        assertEquals("c1", sq.compiler());
+        assertEquals(3, sq.tier());
+        assertFalse(sq.osr());
+        assertNull(sq.osrBci());
+        assertEquals(4, sq.bytecodeSize());
+        assertEquals(192, sq.codeSize());
+        assertTrue(sq.disassembled());
+        assertEquals(4, sq.instructions().size());
+
+        CompiledMethod.Instruction branch = sq.instructions().get(1);
+        assertEquals("0x00007faa154ccdce", branch.address());
+        assertEquals("Verified Entry Point", branch.section());
+        assertEquals("je     0x00007faa154ccdf7", branch.assembly());
+        assertTrue(branch.comment().endsWith("- Test::sq@0 (line 1)"), "continuation lines belong to the instruction");
+        assertEquals("Exception Handler", sq.instructions().get(3).section());
+
+        assertEquals(List.of(new CompiledMethod.BciMapping("0x00007faa154ccdce", "Test::sq", 0, 1)), sq.bciMappings());
+    }
+
+    @Test
+    void accept_ShouldParseOsrHeader() {
+        CompiledMethod main = parse(DISASSEMBLED, MethodFilter.ALL).get(1);
+
+        assertEquals("Test::main", main.method());
+        assertEquals("c2", main.compiler());
+        assertEquals(4, main.tier());
+        assertTrue(main.osr());
+        assertEquals(4, main.osrBci());
+        assertEquals(32, main.bytecodeSize());
+        assertEquals(96, main.codeSize());
+    }
+
+    @Test
+    void accept_WithRawHexOutput_ShouldFlagMissingHsdis() {
+        List<CompiledMethod> methods = new ArrayList<>();
+        PrintAssemblyParser parser = new PrintAssemblyParser(methods::add);
+
+        RAW_HEX.lines().forEach(parser);
+        parser.finish();
+
+        assertTrue(parser.isHsdisMissing());
+        assertEquals(1, methods.size());
+        CompiledMethod sq = methods.get(0);
+        assertFalse(sq.disassembled());
+        assertEquals(2, sq.instructions().size());
+        assertEquals("8984 2400 | c0fe ff55 | 4883 ec30", sq.instructions().get(0).assembly());
+        assertEquals(List.of(new CompiledMethod.BciMapping("0x00007fe1714001d0", "Test::sq", 0, 1)), sq.bciMappings());
+    }
+
+    @Test
+    void accept_WithDisassembledOutput_ShouldNotFlagMissingHsdis() {
+        PrintAssemblyParser parser = new PrintAssemblyParser(method -> { });
+
+        DISASSEMBLED.lines().forEach(parser);
+        parser.finish();
+
+        assertFalse(parser.isHsdisMissing());
+        assertEquals(2, parser.getMethodCount());
+    }
+
+    @Test
+    void accept_WithFilter_ShouldKeepMatchingMethodsOnly() {
+        assertEquals(List.of("Test::main"),
+                parse(DISASSEMBLED, MethodFilter.of("main", null)).stream().map(CompiledMethod::method).toList());
+        assertEquals(List.of("Test::sq"),
+                parse(DISASSEMBLED, MethodFilter.of(null, List.of("3"))).stream().map(CompiledMethod::method).toList());
+        assertEquals(List.of("Test::main"),
+                parse(DISASSEMBLED, MethodFilter.of(null, List.of("C2"))).stream().map(CompiledMethod::method).toList());
+        assertTrue(parse(DISASSEMBLED, MethodFilter.of("sq", List.of("c2"))).isEmpty());
+    }
+
+    @Test
+    void accept_WithOversizedNumbersInProgramOutput_ShouldNotThrow() {
+        String output = """
+                Compiled method (c1)     440  99999999999       3       Fake::method (4 bytes)
+                Compiled method (c1)     440  572       3       Fake::method @ 99999999999 (4 bytes)
+                Compiled method (c2)     440  573       4       Fake::method (99999999999 bytes)
+                """ + DISASSEMBLED.replace("= 192", "= 99999999999")
+                .replace("Test::sq@0 (line 1)", "Test::sq@99999999999 (line 1)");
+
+        List<CompiledMethod> methods = parse(output, MethodFilter.ALL);
+
+        assertEquals(List.of("Test::sq", "Test::main"), methods.stream().map(CompiledMethod::method).toList());
+    }
+
+    @Test
+    void accept_WithAddressOverSixteenDigits_ShouldSkipTheLine() {
+        String output = DISASSEMBLED.replace("0x00007faa154ccdd4:", "0x100007faa154ccdd4:");
+
+        CompiledMethod sq = parse(output, MethodFilter.ALL).get(0);
+
+        assertEquals(3, sq.instructions().size());
+        assertTrue(sq.instructions().stream().allMatch(instruction -> instruction.address().length() <= 18));
+    }
+
+    @Test
+    void of_WithUnknownTier_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> MethodFilter.of(null, List.of("5")));
+    }
+
+    private static List<CompiledMethod> parse(String output, MethodFilter filter) {
+        List<CompiledMethod> methods = new ArrayList<>();
+        PrintAssemblyParser parser = new PrintAssemblyParser(methods::add, filter);
+        output.lines().forEach(parser);
+        parser.finish();
+        return methods;
+    }
+}
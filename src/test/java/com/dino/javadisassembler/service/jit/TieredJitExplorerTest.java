@@ -0,0 +1,91 @@
+package com.dino.javadisassembler.service.jit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredJitExplorerTest {
+
+    private static final String OUTPUT = """
+                 48    1    b  3       Test::pick (18 bytes)
+                                          @ 12   Test::sq (4 bytes)   inline
+                                            @ 1   java.lang.Math::abs (11 bytes)   callee is too large
+            ============================= C1-compiled nmethod ==============================
+            Compiled method (c1)      48    1       3       Test::pick (18 bytes)
+             main code      [0x00007faa154ccda0,0x00007faa154cce60] = 192
+            [Disassembly]
+            [Verified Entry Point]
+              0x00007faa154ccda0:   mov    %eax,-0x14000(%rsp)
+            [/Disassembly]
+                 49    2    b  4       Test::pick (18 bytes)
+                 49    1       3       Test::pick (18 bytes)   made not entrant
+                                          @ 12   Test::sq (4 bytes)   inline (hot)
+            ============================= C2-compiled nmethod ==============================
+            Compiled method (c2)      50    2       4       Test::pick (18 bytes)
+             main code      [0x00007faa1ceed880,0x00007faa1ceed8e0] = 96
+            [Disassembly]
+            [Verified Entry Point]
+              0x00007faa1ceed880:   sub    $0x18,%rsp
+            [/Disassembly]
+            @@jit-harness-warmed Test::pick 20000 0
+            @@jit-harness-warmed Test::fail 20000 20000
+            """;
+
+    private static final String COMPILATION_LOG = """
+            <make_not_entrant thread='30695' compile_id='1' compiler='c1' level='3' stamp='0.050'/>
+            <uncommon_trap thread='30688' reason='unstable_if' action='reinterpret' debug_id='0' compile_id='2' compiler='c2' level='4' stamp='0.050'>
+            <jvms bci='4' method='Test pick (I)I' bytes='18' count='5376' iicount='5376'/>
+            </uncommon_trap>
+            <uncommon_trap bci='4' reason='unstable_if' action='reinterpret' debug_id='0' comment='taken always'/>
+            """;
+
+    @Test
+    void report_ShouldGroupTiersPerMethod() {
+        TieredJitReport report = TieredJitExplorer.report(OUTPUT, List.of());
+
+        assertEquals(List.of("Test::pick", "Test::fail"),
+                report.methods().stream().map(TieredJitReport.MethodTiers::method).toList());
+        TieredJitReport.MethodTiers pick = report.methods().get(0);
+        assertEquals(20_000, pick.calls());
+        assertEquals(List.of(3, 4), pick.compilations().stream().map(CompiledMethod::tier).toList());
+        assertFalse(report.hsdisMissing());
+
+        TieredJitReport.MethodTiers fail = report.methods().get(1);
+        assertEquals(20_000, fail.exceptions());
+        assertTrue(fail.compilations().isEmpty());
+    }
+
+    @Test
+    void report_ShouldAttributeInliningToItsCompilation() {
+        List<InliningDecision> inlining = TieredJitExplorer.report(OUTPUT, List.of()).methods().get(0).inlining();
+
+        assertEquals(List.of(
+                new InliningDecision(1, "Test::pick", 12, "Test::sq", 1, true, "inline"),
+                new InliningDecision(1, "Test::sq", 1, "java.lang.Math::abs", 2, false, "callee is too large"),
+                new InliningDecision(2, "Test::pick", 12, "Test::sq", 1, true, "inline (hot)")
+        ), inlining);
+    }
+
+    @Test
+    void parseDeoptimizations_ShouldReadTrapsHitAtRunTime(@TempDir Path directory) throws Exception {
+        Path log = directory.resolve("compilation.log");
+        Files.writeString(log, COMPILATION_LOG);
+
+        List<Deoptimization> deoptimizations = CompilationLogParser.parseDeoptimizations(log);
+
+        assertEquals(List.of(new Deoptimization(2, "c2", 4, "Test::pick", 4, "unstable_if", "reinterpret", 0.05)),
+                deoptimizations);
+        TieredJitReport report = TieredJitExplorer.report(OUTPUT, deoptimizations);
+        assertEquals(deoptimizations, report.methods().get(0).deoptimizations());
+    }
+
+    @Test
+    void parseDeoptimizations_WithoutLog_ShouldReturnNothing(@TempDir Path directory) throws Exception {
+        assertTrue(CompilationLogParser.parseDeoptimizations(directory.resolve("missing.log")).isEmpty());
+    }
+}
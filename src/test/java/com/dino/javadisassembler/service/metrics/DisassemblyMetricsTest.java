@@ -0,0 +1,83 @@
+package com.dino.javadisassembler.service.metrics;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.CompileErrorException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.exception.JobTimeoutException;
+import com.dino.javadisassembler.service.scheduler.JobScheduler;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisassemblyMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DisassemblyMetrics metrics = new DisassemblyMetrics(registry);
+
+    @Test
+    void outcome_ShouldClassifyFailures() {
+        assertEquals(DisassemblyMetrics.SUCCESS, DisassemblyMetrics.outcome(null));
+        assertEquals(DisassemblyMetrics.COMPILE_ERROR, DisassemblyMetrics.outcome(new CompilationException("Compilation failed")));
+        assertEquals(DisassemblyMetrics.TIMEOUT, DisassemblyMetrics.outcome(new InterruptedException("JIT disassembly timed out")));
+        assertEquals(DisassemblyMetrics.TIMEOUT, DisassemblyMetrics.outcome(new JobTimeoutException("Disassembly timed out")));
+        assertEquals(DisassemblyMetrics.TIMEOUT, DisassemblyMetrics.outcome(
+                new CompilationException("Disassembly timed out", new JobTimeoutException("Disassembly timed out"))));
+        assertEquals(DisassemblyMetrics.COMPILE_ERROR,
+                DisassemblyMetrics.outcome(new CompileErrorException("error: \"timed out\" is not a statement")));
+        assertEquals(DisassemblyMetrics.REJECTED,
+                DisassemblyMetrics.outcome(new CompletionException(new JobRejectedException("Too many jit requests", 1))));
+        assertEquals(DisassemblyMetrics.ERROR, DisassemblyMetrics.outcome(new IllegalStateException()));
+    }
+
+    @Test
+    void recordStage_ShouldTagModeAndOutcome() {
+        long started = System.nanoTime();
+        metrics.recordStage(DisassemblyMetrics.Stage.COMPILE, "jit", started, null);
+        metrics.recordStage(DisassemblyMetrics.Stage.COMPILE, "jit", started, new CompilationException("Compilation failed"));
+
+        Timer success = registry.get("disassembler.stage")
+                .tags("stage", "compile", "mode", "jit", "outcome", DisassemblyMetrics.SUCCESS).timer();
+        Timer failure = registry.get("disassembler.stage")
+                .tags("stage", "compile", "mode", "jit", "outcome", DisassemblyMetrics.COMPILE_ERROR).timer();
+        assertEquals(1, success.count());
+        assertEquals(1, failure.count());
+    }
+
+    @Test
+    void timeRequest_ShouldRecordWhenTheFutureCompletes() {
+        CompletableFuture<String> job = new CompletableFuture<>();
+        CompletableFuture<String> timed = metrics.timeRequest("bytecode", () -> job);
+
+        assertSame(job, timed);
+        assertNull(registry.find("disassembler.requests").timer());
+        job.complete("result");
+        metrics.recordOutputSize("bytecode", "result");
+
+        assertEquals(1, registry.get("disassembler.requests")
+                .tags("mode", "bytecode", "outcome", DisassemblyMetrics.SUCCESS).timer().count());
+        assertEquals(6, registry.get("disassembler.output.size").summary().totalAmount());
+    }
+
+    @Test
+    void bindScheduler_ShouldExportQueueWaitPerMode() throws Exception {
+        JobScheduler scheduler = new JobScheduler(new JobScheduler.Limits(1, 4), new JobScheduler.Limits(1, 4),
+                new JobScheduler.Limits(1, 4), 4, Duration.ofSeconds(30));
+        metrics.bindScheduler(scheduler);
+
+        try (JobScheduler.Slot slot = scheduler.acquire(JobScheduler.Mode.JIT, "a")) {
+            assertEquals(1, registry.get("disassembler.jobs.running").tags("mode", "jit").gauge().value());
+        }
+
+        FunctionTimer wait = registry.get("disassembler.queue.wait").tags("mode", "jit").functionTimer();
+        assertEquals(1, wait.count());
+        assertEquals(0, registry.get("disassembler.jobs.running").tags("mode", "jit").gauge().value());
+        scheduler.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.dino.javadisassembler.service.process;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void run_OutputLargerThanPipeBuffer_ShouldNotStall() throws Exception {
+        // 256 KB on each stream, far more than a pipe buffer holds
+        Path program = write("Loud", """
+                public class Loud {
+                    public static void main(String[] args) {
+                        String line = "x".repeat(1023);
+                        for (int i = 0; i < 256; i++) {
+                            System.out.println(line);
+                            System.err.println(line);
+                        }
+                    }
+                }""");
+
+        ProcessRunner.Result result = ProcessRunner.run(new ProcessBuilder("java", program.toString()), Duration.ofSeconds(30));
+
+        assertFalse(result.timedOut());
+        assertEquals(0, result.exitCode());
+        assertEquals(256 * 1024, result.stdout().replace(System.lineSeparator(), "\n").length());
+        assertEquals(256 * 1024, result.stderr().replace(System.lineSeparator(), "\n").length());
+    }
+
+    @Test
+    void run_Timeout_ShouldKillProcessAndKeepOutput() throws Exception {
+        Path program = write("Sleepy", """
+                public class Sleepy {
+                    public static void main(String[] args) throws Exception {
+                        System.out.println("started");
+                        Thread.sleep(60_000);
+                    }
+                }""");
+
+        ProcessRunner.Result result = ProcessRunner.run(new ProcessBuilder("java", program.toString()), Duration.ofSeconds(5));
+
+        assertTrue(result.timedOut());
+        assertTrue(result.stdout().contains("started"));
+    }
+
+    @Test
+    void run_WithLineConsumer_ShouldStreamStdoutAndStillTimeOut() throws Exception {
+        Path program = write("Chatty", """
+                public class Chatty {
+                    public static void main(String[] args) throws Exception {
+                        for (int i = 0; i < 3; i++) {
+                            System.out.println("line " + i);
+                        }
+                        System.out.flush();
+                        Thread.sleep(60_000);
+                    }
+                }""");
+        List<String> lines = new ArrayList<>();
+
+        ProcessRunner.Result result = ProcessRunner.run(new ProcessBuilder("java", program.toString()),
+                Duration.ofSeconds(5), ResourcePolicy.UNLIMITED, lines::add);
+
+        assertTrue(result.timedOut());
+        assertEquals(List.of("line 0", "line 1", "line 2"), lines);
+        assertEquals("", result.stdout());
+    }
+
+    @Test
+    void run_OutputOverCap_ShouldKillProcessAndMarkTruncation() throws Exception {
+        Path program = write("Endless", """
+                public class Endless {
+                    public static void main(String[] args) {
+                        while (true) {
+                            System.out.println("x".repeat(1023));
+                        }
+                    }
+                }""");
+        ResourcePolicy policy = new ResourcePolicy(0, 0, 0, Duration.ZERO, 64 * 1024);
+
+        ProcessRunner.Result result = ProcessRunner.run(new ProcessBuilder("java", program.toString()),
+                Duration.ofSeconds(30), policy);
+
+        assertTrue(result.truncated());
+        assertFalse(result.timedOut());
+        assertTrue(result.stdout().endsWith(policy.truncationMarker() + "\n"));
+        assertTrue(result.stdout().length() < 64 * 1024 + 200);
+    }
+
+    @Test
+    void run_CpuTimeOverLimit_ShouldKillProcess() throws Exception {
+        Path program = write("Spin", """
+                public class Spin {
+                    public static void main(String[] args) {
+                        long sum = 0;
+                        while (sum != -1) {
+                            sum += System.nanoTime();
+                        }
+                    }
+                }""");
+        ResourcePolicy policy = new ResourcePolicy(0, 0, 0, Duration.ofSeconds(2), 0);
+
+        ProcessRunner.Result result = ProcessRunner.run(new ProcessBuilder("java", program.toString()),
+                Duration.ofSeconds(30), policy);
+
+        assertTrue(result.cpuExceeded());
+        assertFalse(result.timedOut());
+    }
+
+    @Test
+    void jvmOptions_ShouldSkipLimitsThatAreOff() {
+        ResourcePolicy policy = new ResourcePolicy(256L * 1024 * 1024, 0, 64L * 1024 * 1024, Duration.ZERO, 0);
+
+        assertEquals(List.of("-Xmx262144k", "-XX:ReservedCodeCacheSize=65536k"), policy.jvmOptions());
+        assertEquals(List.of("-J-Xmx262144k", "-J-XX:ReservedCodeCacheSize=65536k"), policy.toolOptions());
+        assertTrue(ResourcePolicy.UNLIMITED.jvmOptions().isEmpty());
+    }
+
+    private Path write(String className, String source) throws Exception {
+        return Files.writeString(tempDir.resolve(className + ".java"), source);
+    }
+}
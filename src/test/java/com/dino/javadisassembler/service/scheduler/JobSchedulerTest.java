@@ -0,0 +1,164 @@
+package com.dino.javadisassembler.service.scheduler;
+
+import com.dino.javadisassembler.exception.JobRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobSchedulerTest {
+
+    private static final JobScheduler.Limits ONE_AT_A_TIME = new JobScheduler.Limits(1, 8);
+
+    @Test
+    void acquire_ShouldLimitConcurrencyPerMode() throws Exception {
+        JobScheduler scheduler = new JobScheduler(ONE_AT_A_TIME, ONE_AT_A_TIME, ONE_AT_A_TIME, 4, Duration.ofMillis(100));
+
+        try (JobScheduler.Slot jit = scheduler.acquire(JobScheduler.Mode.JIT, "a");
+             JobScheduler.Slot bytecode = scheduler.acquire(JobScheduler.Mode.BYTECODE, "a")) {
+            // the JIT lane is full, the bytecode lane is separate
+            JobRejectedException exception = assertThrows(JobRejectedException.class,
+                    () -> scheduler.acquire(JobScheduler.Mode.JIT, "b"));
+            assertTrue(exception.getMessage().contains("Timed out"));
+            assertTrue(exception.getRetryAfterSeconds() >= 1);
+        }
+
+        JobScheduler.Stats jit = stats(scheduler, JobScheduler.Mode.JIT);
+        assertEquals(1, jit.admitted());
+        assertEquals(1, jit.rejected());
+        assertEquals(1, jit.completed());
+        assertEquals(0, jit.running());
+        assertEquals(0, jit.queued());
+    }
+
+    @Test
+    void acquire_FullQueue_ShouldRejectImmediately() throws Exception {
+        JobScheduler scheduler = new JobScheduler(ONE_AT_A_TIME, new JobScheduler.Limits(1, 0), ONE_AT_A_TIME, 4, Duration.ofSeconds(30));
+
+        try (JobScheduler.Slot slot = scheduler.acquire(JobScheduler.Mode.JIT, "a")) {
+            long start = System.nanoTime();
+            JobRejectedException exception = assertThrows(JobRejectedException.class,
+                    () -> scheduler.acquire(JobScheduler.Mode.JIT, "b"));
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+            assertTrue(exception.getMessage().contains("Too many jit requests"));
+            assertThrows(JobRejectedException.class, () -> scheduler.checkAdmission(JobScheduler.Mode.JIT, "b"));
+        }
+        scheduler.checkAdmission(JobScheduler.Mode.JIT, "b");
+    }
+
+    @Test
+    void acquire_ShouldServeWaitingClientsInTurn() throws Exception {
+        JobScheduler scheduler = new JobScheduler(ONE_AT_A_TIME, new JobScheduler.Limits(1, 16), ONE_AT_A_TIME, 8, Duration.ofSeconds(30));
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+
+        JobScheduler.Slot blocker = scheduler.acquire(JobScheduler.Mode.JIT, "busy");
+        // client "a" queues three jobs before client "b" queues one
+        for (String client : List.of("a", "a", "a", "b")) {
+            CountDownLatch queued = new CountDownLatch(1);
+            Thread thread = new Thread(() -> {
+                queued.countDown();
+                try (JobScheduler.Slot slot = scheduler.acquire(JobScheduler.Mode.JIT, client)) {
+                    order.add(client);
+                } catch (Exception e) {
+                    order.add("failed " + e.getMessage());
+                }
+            });
+            threads.add(thread);
+            int before = stats(scheduler, JobScheduler.Mode.JIT).queued();
+            thread.start();
+            queued.await();
+            while (stats(scheduler, JobScheduler.Mode.JIT).queued() == before) {
+                Thread.sleep(5);
+            }
+        }
+        blocker.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of("a", "b", "a", "a"), order);
+        assertTrue(stats(scheduler, JobScheduler.Mode.JIT).maxWaitMillis() >= 0);
+    }
+
+    @Test
+    void acquire_ShouldCapQueuedJobsPerClient() throws Exception {
+        JobScheduler scheduler = new JobScheduler(ONE_AT_A_TIME, new JobScheduler.Limits(1, 16), ONE_AT_A_TIME, 1, Duration.ofSeconds(30));
+
+        try (JobScheduler.Slot slot = scheduler.acquire(JobScheduler.Mode.JIT, "busy")) {
+            Thread waiting = new Thread(() -> {
+                try (JobScheduler.Slot queued = scheduler.acquire(JobScheduler.Mode.JIT, "a")) {
+                    // released right away
+                } catch (Exception ignored) {
+                    // not expected, asserted through the stats below
+                }
+            });
+            waiting.start();
+            while (stats(scheduler, JobScheduler.Mode.JIT).queued() == 0) {
+                Thread.sleep(5);
+            }
+
+            JobRejectedException exception = assertThrows(JobRejectedException.class,
+                    () -> scheduler.acquire(JobScheduler.Mode.JIT, "a"));
+            assertTrue(exception.getMessage().contains("from this client"));
+            // other clients are still admitted to the queue
+            scheduler.checkAdmission(JobScheduler.Mode.JIT, "b");
+            slot.close();
+            waiting.join();
+        }
+
+        assertEquals(2, stats(scheduler, JobScheduler.Mode.JIT).completed());
+    }
+
+    @Test
+    void submit_ShouldQueueJobsWithoutBlockingCaller() throws Exception {
+        JobScheduler scheduler = new JobScheduler(ONE_AT_A_TIME, new JobScheduler.Limits(1, 100), ONE_AT_A_TIME, 100, Duration.ofSeconds(30));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> jobs = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            jobs.add(scheduler.submit(JobScheduler.Mode.JIT, "a", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return value;
+            }));
+        }
+
+        for (int i = 0; i < jobs.size(); i++) {
+            assertEquals(i, jobs.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maxRunning.get());
+        assertEquals(50, stats(scheduler, JobScheduler.Mode.JIT).completed());
+        scheduler.close();
+    }
+
+    @Test
+    void submit_Rejected_ShouldFailFuture() throws Exception {
+        JobScheduler scheduler = new JobScheduler(ONE_AT_A_TIME, new JobScheduler.Limits(1, 0), ONE_AT_A_TIME, 4, Duration.ofSeconds(30));
+
+        try (JobScheduler.Slot slot = scheduler.acquire(JobScheduler.Mode.JIT, "a")) {
+            CompletableFuture<String> job = scheduler.submit(JobScheduler.Mode.JIT, "b", () -> "never");
+
+            ExecutionException exception = assertThrows(ExecutionException.class, job::get);
+            assertInstanceOf(JobRejectedException.class, exception.getCause());
+        }
+        assertEquals("ran", scheduler.submit(JobScheduler.Mode.JIT, "b", () -> "ran").get(10, TimeUnit.SECONDS));
+        scheduler.close();
+    }
+
+    private static JobScheduler.Stats stats(JobScheduler scheduler, JobScheduler.Mode mode) {
+        return scheduler.stats().stream().filter(stats -> stats.mode() == mode).findFirst().orElseThrow();
+    }
+}
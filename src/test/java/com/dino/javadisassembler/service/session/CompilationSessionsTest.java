@@ -0,0 +1,156 @@
+package com.dino.javadisassembler.service.session;
+
+import com.dino.javadisassembler.exception.CompilationException;
+import com.dino.javadisassembler.exception.JobRejectedException;
+import com.dino.javadisassembler.service.compiler.InMemorySourceCompiler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompilationSessionsTest {
+
+    private static final String CALCULATOR = """
+                               public class Calculator {
+                                   int add(int a, int b) { return a + b; }
+                                   int twice(int a) { return a * 2; }
+                               }""";
+
+    private static final String CLIENT = "127.0.0.1";
+
+    private final CompilationSessions sessions =
+            new CompilationSessions(new InMemorySourceCompiler(), 4, 1 << 20, 2, Duration.ofMinutes(1), 2);
+
+    @Test
+    void update_ShouldReportAllMethodsAsAddedOnFirstEdit() throws Exception {
+        String session = sessions.create(CLIENT);
+
+        CompilationSession.Result result = sessions.update(session, CALCULATOR, "Calculator");
+
+        assertTrue(result.recompiled());
+        assertEquals(List.of("<init>()V", "add(II)I", "twice(I)I"),
+                result.changes().stream().map(CompilationSession.MethodChange::method).toList());
+        assertTrue(result.changes().stream()
+                .allMatch(change -> change.kind() == CompilationSession.MethodChange.Kind.ADDED));
+    }
+
+    @Test
+    void update_ShouldReportOnlyTheEditedMethod() throws Exception {
+        String session = sessions.create(CLIENT);
+        sessions.update(session, CALCULATOR, "Calculator");
+
+        CompilationSession.Result result = sessions.update(session,
+                CALCULATOR.replace("return a * 2;", "return a << 1;"), "Calculator");
+
+        assertEquals(1, result.changes().size());
+        CompilationSession.MethodChange change = result.changes().get(0);
+        assertEquals("twice(I)I", change.method());
+        assertEquals(CompilationSession.MethodChange.Kind.CHANGED, change.kind());
+        assertTrue(change.before().contains("imul"));
+        assertTrue(change.after().contains("ishl"));
+    }
+
+    @Test
+    void update_ShouldIgnoreLineShiftsAndReportRemovedMethods() throws Exception {
+        String session = sessions.create(CLIENT);
+        sessions.update(session, CALCULATOR, "Calculator");
+
+        CompilationSession.Result result = sessions.update(session, """
+                               public class Calculator {
+
+                                   int add(int a, int b) { return a + b; }
+                               }""", "Calculator");
+
+        assertEquals(1, result.changes().size());
+        assertEquals("twice(I)I", result.changes().get(0).method());
+        assertEquals(CompilationSession.MethodChange.Kind.REMOVED, result.changes().get(0).kind());
+    }
+
+    @Test
+    void update_ShouldSkipUnchangedSource() throws Exception {
+        String session = sessions.create(CLIENT);
+        sessions.update(session, CALCULATOR, "Calculator");
+
+        CompilationSession.Result result = sessions.update(session, CALCULATOR, "Calculator");
+
+        assertFalse(result.recompiled());
+        assertTrue(result.changes().isEmpty());
+        assertEquals(1, sessions.stats().unchanged());
+    }
+
+    @Test
+    void update_ShouldCompileAgainstOtherUnitsOfTheSession() throws Exception {
+        String session = sessions.create(CLIENT);
+        sessions.update(session, CALCULATOR, "Calculator");
+
+        CompilationSession.Result result = sessions.update(session, """
+                               public class Main {
+                                   int run() { return new Calculator().add(1, 2); }
+                               }""", "Main");
+
+        assertTrue(result.recompiled());
+        assertTrue(result.changes().stream().allMatch(change -> change.className().equals("Main")));
+        assertThrows(CompilationException.class, () -> sessions.update(session, "public class Third { }", "Third"));
+    }
+
+    @Test
+    void update_ShouldKeepPreviousVersionWhenCompilationFails() throws Exception {
+        String session = sessions.create(CLIENT);
+        sessions.update(session, CALCULATOR, "Calculator");
+
+        assertThrows(CompilationException.class,
+                () -> sessions.update(session, "public class Calculator { int add( }", "Calculator"));
+        CompilationSession.Result result = sessions.update(session, CALCULATOR, "Calculator");
+
+        assertFalse(result.recompiled());
+    }
+
+    @Test
+    void update_ShouldRejectUnknownAndClosedSessions() throws Exception {
+        String session = sessions.create(CLIENT);
+        sessions.close(session);
+
+        assertThrows(CompilationException.class, () -> sessions.update(session, CALCULATOR, "Calculator"));
+        assertThrows(CompilationException.class, () -> sessions.update("missing", CALCULATOR, "Calculator"));
+    }
+
+    @Test
+    void create_ShouldFailWithoutInProcessCompiler() {
+        CompilationSessions disabled = new CompilationSessions(null, 4, 1 << 20, 2, Duration.ofMinutes(1), 2);
+
+        assertFalse(disabled.isEnabled());
+        assertThrows(CompilationException.class, () -> disabled.create(CLIENT));
+    }
+
+    @Test
+    void create_ShouldCapSessionsPerClient() throws Exception {
+        sessions.create(CLIENT);
+        String second = sessions.create(CLIENT);
+
+        JobRejectedException e = assertThrows(JobRejectedException.class, () -> sessions.create(CLIENT));
+        assertEquals(60, e.getRetryAfterSeconds());
+        assertNotNull(sessions.create("10.0.0.2"));
+
+        sessions.close(second);
+        assertNotNull(sessions.create(CLIENT));
+    }
+
+    @Test
+    void update_ShouldDropSessionsOnceTheyHoldMoreThanMaxBytes() throws Exception {
+        CompilationSessions small = new CompilationSessions(new InMemorySourceCompiler(), 100, 8_000, 100,
+                Duration.ofMinutes(1), 2);
+        List<String> opened = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String session = small.create(CLIENT);
+            small.update(session, CALCULATOR, "Calculator");
+            opened.add(session);
+        }
+
+        CompilationSessions.Stats stats = small.stats();
+        assertTrue(stats.totalBytes() > 0 && stats.totalBytes() <= 8_000, "holds " + stats.totalBytes() + " bytes");
+        assertTrue(stats.sessions() < opened.size(), "kept " + stats.sessions() + " sessions");
+    }
+}
@@ -0,0 +1,124 @@
+package com.dino.javadisassembler.service.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void id_ShouldBeShortAndDependOnSourceAndClassName() {
+        String id = SnapshotStore.id("class A { }", "A");
+
+        assertEquals(id, SnapshotStore.id("class A { }", "A"));
+        assertTrue(id.matches("[A-Za-z0-9_-]{12}"), id);
+        assertNotEquals(id, SnapshotStore.id("class A {}", "A"));
+        assertNotEquals(id, SnapshotStore.id("class A { }", "B"));
+    }
+
+    @Test
+    void put_ShouldStoreTheDocumentPlainAndCompressed() throws IOException {
+        SnapshotStore store = new SnapshotStore(tempDir, 1_000_000);
+        String id = SnapshotStore.id("class A { }", "A");
+
+        store.put(snapshot(id, "  0: return"));
+
+        String json = Files.readString(store.file(id, false));
+        assertTrue(json.startsWith("{\"id\":\"" + id + "\",\"className\":\"A\""), json);
+        assertTrue(json.contains("\"bytecode\":{\"success\":true,\"result\":\"  0: return\",\"error\":null}"), json);
+        assertTrue(json.contains("\"aot\":{\"success\":false,\"result\":null,\"error\":\"native-image is not installed\"}"),
+                json);
+        try (InputStream gzip = new GZIPInputStream(Files.newInputStream(store.file(id, true)))) {
+            assertEquals(json, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertNull(store.file("unknown00000", false));
+    }
+
+    @Test
+    void put_ShouldKeepTheFirstSnapshotOfASource() throws IOException {
+        SnapshotStore store = new SnapshotStore(tempDir, 1_000_000);
+        String id = SnapshotStore.id("class A { }", "A");
+
+        store.put(snapshot(id, "first"));
+        store.put(snapshot(id, "second"));
+
+        assertTrue(Files.readString(store.file(id, false)).contains("first"));
+        assertEquals(1, store.stats().entries());
+    }
+
+    @Test
+    void snapshots_ShouldSurviveARestart() throws IOException {
+        String id = SnapshotStore.id("class A { }", "A");
+        new SnapshotStore(tempDir, 1_000_000).put(snapshot(id, "  0: return"));
+
+        SnapshotStore reopened = new SnapshotStore(tempDir, 1_000_000);
+
+        assertTrue(reopened.contains(id));
+        assertEquals(Files.size(reopened.file(id, false)) + Files.size(reopened.file(id, true)),
+                reopened.stats().totalBytes());
+    }
+
+    @Test
+    void restart_ShouldOnlyCleanUpTheStoresOwnFiles() throws IOException {
+        String id = SnapshotStore.id("class A { }", "A");
+        Path subdirectory = Files.createDirectories(tempDir.resolve(id.substring(0, 2)));
+        Path leftover = Files.writeString(subdirectory.resolve(id + ".json.0f8fad5b-d9cb-469f-a165-70867728950e.tmp"), "{");
+        Path orphan = Files.writeString(subdirectory.resolve(id + ".json"), "{}");
+        Path unrelated = Files.writeString(tempDir.resolve("notes.txt"), "keep");
+        Path unrelatedNested = Files.writeString(Files.createDirectories(tempDir.resolve("app")).resolve("data.json"), "{}");
+        Path misplaced = Files.writeString(Files.createDirectories(tempDir.resolve("zz")).resolve(id + ".json"), "{}");
+
+        new SnapshotStore(tempDir, 1_000_000);
+
+        assertFalse(Files.exists(leftover));
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(unrelated));
+        assertTrue(Files.exists(unrelatedNested));
+        assertTrue(Files.exists(misplaced));
+    }
+
+    @Test
+    void put_ShouldEvictTheLeastRecentlyServedSnapshots() throws IOException {
+        String first = SnapshotStore.id("class A { }", "A");
+        String second = SnapshotStore.id("class B { }", "B");
+        String third = SnapshotStore.id("class C { }", "C");
+        SnapshotStore probe = new SnapshotStore(tempDir.resolve("probe"), 1_000_000);
+        probe.put(snapshot(first, "x".repeat(1000)));
+        // room for two snapshots of this size, not three
+        SnapshotStore store = new SnapshotStore(tempDir.resolve("store"), probe.stats().totalBytes() * 5 / 2);
+
+        store.put(snapshot(first, "x".repeat(1000)));
+        store.put(snapshot(second, "y".repeat(1000)));
+        assertNotNull(store.file(first, false));
+        store.put(snapshot(third, "z".repeat(1000)));
+
+        assertTrue(store.contains(first));
+        assertFalse(store.contains(second));
+        assertTrue(store.contains(third));
+    }
+
+    @Test
+    void disabled_ShouldHoldNothing() {
+        SnapshotStore store = SnapshotStore.disabled();
+        String id = SnapshotStore.id("class A { }", "A");
+
+        assertThrows(IOException.class, () -> store.put(snapshot(id, "  0: return")));
+        assertNull(store.file(id, false));
+    }
+
+    private static SnapshotStore.Snapshot snapshot(String id, String bytecode) {
+        return new SnapshotStore.Snapshot(id, "A", "class A { }", SnapshotStore.View.success(bytecode),
+                SnapshotStore.View.success("nmethod"), SnapshotStore.View.failure("native-image is not installed"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.dino.javadisassembler.service.workspace;
+
+import com.dino.javadisassembler.service.compiler.CompiledClasses;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceManagerTest {
+
+    @TempDir
+    Path root;
+
+    private WorkspaceManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        manager = new WorkspaceManager(root, 1, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    void acquire_ShouldRecycleEmptiedDirectory() throws Exception {
+        Path first;
+        try (Workspace workspace = manager.acquire()) {
+            first = workspace.directory();
+            workspace.writeString("src/demo/Main.java", "class Main { }");
+            workspace.writeClasses("classes", new CompiledClasses(Map.of("demo.Main", new byte[]{1, 2})));
+            assertTrue(Files.isRegularFile(first.resolve("classes/demo/Main.class")));
+        }
+
+        WorkspaceManager.Stats stats = awaitRecycled(1);
+        assertEquals(1, stats.idle());
+        assertEquals(0, stats.diskUsageBytes());
+        try (Workspace workspace = manager.acquire()) {
+            assertEquals(first, workspace.directory());
+            assertEquals(0, countEntries(workspace.directory()));
+        }
+    }
+
+    @Test
+    void acquire_WhenPoolIsEmpty_ShouldCreateDirectoryAndDropItOnRelease() throws Exception {
+        try (Workspace pooled = manager.acquire(); Workspace overflow = manager.acquire()) {
+            assertNotEquals(pooled.directory(), overflow.directory());
+            assertEquals(2, manager.stats().inUse());
+        }
+
+        WorkspaceManager.Stats stats = awaitRecycled(1);
+        assertEquals(2, stats.created());
+        assertEquals(1, stats.idle());
+        Path directory = Path.of(stats.directory());
+        for (int i = 0; i < 50 && countEntries(directory) > 1; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, countEntries(directory));
+    }
+
+    @Test
+    void write_ShouldEnforceQuotaAndStayInside() throws Exception {
+        try (Workspace workspace = manager.acquire()) {
+            workspace.write("a.bin", new byte[60]);
+            IOException quota = assertThrows(IOException.class, () -> workspace.write("b.bin", new byte[60]));
+            assertTrue(quota.getMessage().contains("quota"));
+            assertThrows(IOException.class, () -> workspace.writeString("../escape.txt", "x"));
+        }
+    }
+
+    @Test
+    void stats_ShouldReportLeakedDirectoriesAndUsage() throws Exception {
+        Path directory = Path.of(manager.stats().directory());
+        Path stray = Files.createDirectory(directory.resolve("stray"));
+        Files.write(stray.resolve("left-behind"), new byte[10]);
+
+        WorkspaceManager.Stats stats = manager.stats();
+
+        assertEquals(1, stats.leaked());
+        assertEquals(10, stats.diskUsageBytes());
+    }
+
+    @Test
+    void constructor_ShouldRemoveDirectoriesOfEndedProcesses() throws Exception {
+        Path stale = Files.createDirectories(root.resolve("javadisassembler-workspaces/999999999-1/ws-1"));
+
+        new WorkspaceManager(root, 0, 100).close();
+
+        assertFalse(Files.exists(stale.getParent()));
+    }
+
+    private static long countEntries(Path directory) throws IOException {
+        try (var entries = Files.list(directory)) {
+            return entries.count();
+        }
+    }
+
+    private WorkspaceManager.Stats awaitRecycled(long recycled) throws InterruptedException {
+        WorkspaceManager.Stats stats = manager.stats();
+        for (int i = 0; i < 100 && stats.recycled() < recycled; i++) {
+            Thread.sleep(20);
+            stats = manager.stats();
+        }
+        assertEquals(recycled, stats.recycled());
+        return stats;
+    }
+}
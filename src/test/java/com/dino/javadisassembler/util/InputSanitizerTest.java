@@ -0,0 +1,70 @@
+package com.dino.javadisassembler.util;
+
+import com.dino.javadisassembler.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputSanitizerTest {
+
+    @Test
+    void sanitizeSourceCode_ShouldReturnCleanSourceItself() {
+        String source = "public class Test { }";
+
+        assertSame(source, InputSanitizer.sanitizeSourceCode(source));
+    }
+
+    @Test
+    void sanitizeSourceCode_ShouldRemoveNullBytesAndTrim() {
+        assertEquals("class\tA { }", InputSanitizer.sanitizeSourceCode("\0 \n class\0\tA { \0}\0 \n"));
+        assertEquals("", InputSanitizer.sanitizeSourceCode("\0\0 "));
+        assertEquals("", InputSanitizer.sanitizeSourceCode(null));
+    }
+
+    @Test
+    void sanitizeClassName_ShouldKeepOnlyNameCharacters() {
+        String name = "demo.Outer$Inner_1";
+
+        assertSame(name, InputSanitizer.sanitizeClassName(name));
+        assertEquals("demo.Test", InputSanitizer.sanitizeClassName("demo.Test; <>"));
+        assertEquals("", InputSanitizer.sanitizeClassName(null));
+    }
+
+    @Test
+    void declaredPublicType_ShouldSkipCommentsLiteralsAndNestedTypes() {
+        String source = """
+                // public class Commented {}
+                package demo . app;
+
+                import java.util.List;
+
+                /* public class AlsoCommented {} */
+                @SuppressWarnings("public class InString")
+                class Helper {
+                    public class Nested { }
+                    String text = \"""
+                            public class InTextBlock { }
+                            \""";
+                }
+
+                public final record Point(int x, int y) { }
+                """;
+
+        assertEquals("demo.app.Point", InputSanitizer.declaredPublicType(source));
+        assertNull(InputSanitizer.declaredPublicType("class Test { public class Inner { } }"));
+        assertEquals("Test", InputSanitizer.declaredPublicType("public abstract class Test { }"));
+    }
+
+    @Test
+    void checkClassName_ShouldRejectInvalidAndMismatchedNames() {
+        InputSanitizer.checkClassName("demo.Test", "package demo; public class Test { }");
+        InputSanitizer.checkClassName("Test", "class Test { }");
+
+        assertThrows(InvalidRequestException.class, () -> InputSanitizer.checkClassName("", "class Test { }"));
+        assertThrows(InvalidRequestException.class, () -> InputSanitizer.checkClassName("demo..Test", "class Test { }"));
+        assertThrows(InvalidRequestException.class, () -> InputSanitizer.checkClassName("1Test", "class Test { }"));
+        InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                () -> InputSanitizer.checkClassName("Test", "package demo; public class Test { }"));
+        assertEquals("The source declares public type demo.Test, but the class name is Test", e.getMessage());
+    }
+}